@@ -61,4 +61,15 @@ public interface AlertingEngine {
      * Removes unused old internal state.
      */
     default void clean() {}
+
+    /**
+     * Provides names of the fields that can be read during the evaluation of an event.
+     * An event with the fields only is evaluated with the same matching result as the whole event,
+     * however, the output events are created from the evaluated event.
+     *
+     * @return set of field names if the engine reads a known set of fields and it is stateless, otherwise empty
+     */
+    default Optional<Set<String>> getUsedFieldNames() {
+        return Optional.empty();
+    }
 }
@@ -1,14 +1,21 @@
 package com.siemmetric.siembol.alerts.common;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 import static com.siemmetric.siembol.alerts.common.AlertingResult.StatusCode.OK;
 /**
  * An object that combines of multiple alerting engines of the same type
  *
  * <p>This object implements AlertingEngine interface by combining list of AlertingEngine objects.
+ * The underlying engines can be evaluated in parallel on a fork join pool.
+ * The results are always merged in the order of the engines in the list.
  *
  * @author  Marian Novotny
  * @see AlertingEngine
@@ -18,6 +25,7 @@ import static com.siemmetric.siembol.alerts.common.AlertingResult.StatusCode.OK;
  */
 public class CompositeAlertingEngine implements AlertingEngine {
     private final List<AlertingEngine> alertingEngines;
+    private final ForkJoinPool forkJoinPool;
 
     /**
      * Creates the composite alerting engine by using the list of already created alerting engines.
@@ -25,14 +33,27 @@ public class CompositeAlertingEngine implements AlertingEngine {
      * @param alertingEngines List of underlying alerting engines
      */
     public CompositeAlertingEngine(List<AlertingEngine> alertingEngines) {
+        this(alertingEngines, null);
+    }
+
+    /**
+     * Creates the composite alerting engine that evaluates the underlying engines in parallel.
+     * The underlying engines are required to be stateless and not to modify the evaluated event.
+     *
+     * @param alertingEngines List of underlying alerting engines
+     * @param forkJoinPool pool for evaluating underlying engines in parallel, or null for sequential evaluation
+     */
+    public CompositeAlertingEngine(List<AlertingEngine> alertingEngines, ForkJoinPool forkJoinPool) {
         this.alertingEngines = alertingEngines;
+        this.forkJoinPool = forkJoinPool;
     }
 
     /**
      * Evaluates an event by underlying alerting engines and
      * returns alerting result with a matching result and additional attributes.
+     * Output events and exception events are merged in the order of the underlying engines.
      *
-     * @param event serialized event as json string
+     * @param event deserialized event as map of string to object
      * @return      alerting result after evaluation
      * @see         AlertingResult
      */
@@ -41,8 +62,7 @@ public class CompositeAlertingEngine implements AlertingEngine {
         List<Map<String, Object>> outputEvents = new ArrayList<>();
         List<Map<String, Object>> exceptionsEvents = new ArrayList<>();
 
-        for (AlertingEngine engine: alertingEngines) {
-            AlertingResult result = engine.evaluate(event);
+        for (AlertingResult result : evaluateEngines(event)) {
             if (result.getStatusCode() != OK) {
                 return result;
             }
@@ -62,6 +82,39 @@ public class CompositeAlertingEngine implements AlertingEngine {
         return new AlertingResult(OK, attributes);
     }
 
+    private List<AlertingResult> evaluateEngines(Map<String, Object> event) {
+        List<AlertingResult> ret = new ArrayList<>(alertingEngines.size());
+        if (forkJoinPool == null || alertingEngines.size() == 1) {
+            for (AlertingEngine engine : alertingEngines) {
+                AlertingResult result = engine.evaluate(event);
+                ret.add(result);
+                if (result.getStatusCode() != OK) {
+                    break;
+                }
+            }
+            return ret;
+        }
+
+        List<ForkJoinTask<AlertingResult>> tasks = new ArrayList<>(alertingEngines.size() - 1);
+        for (int i = 1; i < alertingEngines.size(); i++) {
+            final AlertingEngine engine = alertingEngines.get(i);
+            tasks.add(forkJoinPool.submit(() -> evaluateEngine(engine, event)));
+        }
+
+        //NOTE: the calling thread evaluates the first engine while the pool evaluates the others
+        ret.add(evaluateEngine(alertingEngines.get(0), event));
+        tasks.forEach(x -> ret.add(x.join()));
+        return ret;
+    }
+
+    private static AlertingResult evaluateEngine(AlertingEngine engine, Map<String, Object> event) {
+        try {
+            return engine.evaluate(event);
+        } catch (Exception e) {
+            return AlertingResult.fromException(e);
+        }
+    }
+
     /**
      * Returns an alerting engine type of underlying alerting engines
      *
@@ -72,4 +125,22 @@ public class CompositeAlertingEngine implements AlertingEngine {
     public AlertingEngineType getAlertingEngineType() {
         return alertingEngines.get(0).getAlertingEngineType();
     }
+
+    /**
+     * Provides names of the fields that can be read by underlying alerting engines
+     *
+     * @return union of the field names if all underlying engines provide them, otherwise empty
+     */
+    @Override
+    public Optional<Set<String>> getUsedFieldNames() {
+        Set<String> ret = new HashSet<>();
+        for (AlertingEngine engine : alertingEngines) {
+            Optional<Set<String>> current = engine.getUsedFieldNames();
+            if (current.isEmpty()) {
+                return Optional.empty();
+            }
+            ret.addAll(current.get());
+        }
+        return Optional.of(ret);
+    }
 }
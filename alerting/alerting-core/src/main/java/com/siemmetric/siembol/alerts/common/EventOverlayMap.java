@@ -0,0 +1,179 @@
+package com.siemmetric.siembol.alerts.common;
+
+import java.util.*;
+/**
+ * An object for a copy-on-write view of an event
+ *
+ * <p>This class implements a map that records only modifications on top of a shared base event.
+ * The base event is never modified through the map, so it can be shared by all events created from it
+ * such as events of matched rules with captured variables, rule names, tags and protections.
+ * An overlay created from another overlay shares the same base event and copies only its modifications.
+ * The map is materialised only by iterating over its entries, e.g., during json serialisation.
+ * The base event is required not to be modified while the overlay is in use.
+ *
+ * @author  Marian Novotny
+ */
+public class EventOverlayMap extends AbstractMap<String, Object> {
+    private final Map<String, Object> base;
+    private final HashMap<String, Object> overlay;
+    private Set<String> removed;
+    private Set<Entry<String, Object>> entrySet;
+
+    /**
+     * Creates an overlay map on top of the event
+     *
+     * @param event base event that is shared and not modified by the overlay
+     */
+    public EventOverlayMap(Map<String, Object> event) {
+        if (event instanceof EventOverlayMap) {
+            EventOverlayMap other = (EventOverlayMap) event;
+            this.base = other.base;
+            this.overlay = new HashMap<>(other.overlay);
+            this.removed = other.removed == null ? null : new HashSet<>(other.removed);
+        } else {
+            this.base = event;
+            this.overlay = new HashMap<>();
+        }
+    }
+
+    private boolean isRemoved(Object key) {
+        return removed != null && removed.contains(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        Object ret = overlay.get(key);
+        if (ret != null || overlay.containsKey(key)) {
+            return ret;
+        }
+        return isRemoved(key) ? null : base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overlay.containsKey(key) || (!isRemoved(key) && base.containsKey(key));
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (removed != null && removed.remove(key)) {
+            overlay.put(key, value);
+            return null;
+        }
+
+        Object previous = overlay.containsKey(key) ? overlay.get(key) : base.get(key);
+        overlay.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+
+        Object previous = get(key);
+        overlay.remove(key);
+        markRemovedFromBase(key);
+        return previous;
+    }
+
+    private void markRemovedFromBase(Object key) {
+        if (base.containsKey(key)) {
+            if (removed == null) {
+                removed = new HashSet<>();
+            }
+            removed.add((String) key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        overlay.clear();
+        if (!base.isEmpty()) {
+            removed = new HashSet<>(base.keySet());
+        }
+    }
+
+    @Override
+    public int size() {
+        int ret = base.size();
+        for (String key : overlay.keySet()) {
+            if (!base.containsKey(key)) {
+                ret++;
+            }
+        }
+        return removed == null ? ret : ret - removed.size();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new OverlayIterator();
+                }
+
+                @Override
+                public int size() {
+                    return EventOverlayMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private class OverlayIterator implements Iterator<Entry<String, Object>> {
+        private final Iterator<Entry<String, Object>> overlayIterator = overlay.entrySet().iterator();
+        private final Iterator<Entry<String, Object>> baseIterator = base.entrySet().iterator();
+        private Entry<String, Object> nextBaseEntry;
+        private Entry<String, Object> last;
+        private boolean lastFromOverlay;
+
+        @Override
+        public boolean hasNext() {
+            if (overlayIterator.hasNext() || nextBaseEntry != null) {
+                return true;
+            }
+
+            while (baseIterator.hasNext()) {
+                Entry<String, Object> current = baseIterator.next();
+                if (!overlay.containsKey(current.getKey()) && !isRemoved(current.getKey())) {
+                    nextBaseEntry = new SimpleImmutableEntry<>(current);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            lastFromOverlay = overlayIterator.hasNext();
+            if (lastFromOverlay) {
+                last = overlayIterator.next();
+            } else {
+                last = nextBaseEntry;
+                nextBaseEntry = null;
+            }
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+
+            if (lastFromOverlay) {
+                overlayIterator.remove();
+            }
+            markRemovedFromBase(last.getKey());
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.siemmetric.siembol.alerts.common;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+/**
+ * An object for reading selected fields of a serialized event
+ *
+ * <p>This class reads a json object by a streaming parser and deserializes values of the selected fields only.
+ * Values of other fields are skipped without creating objects for them.
+ *
+ * @author  Marian Novotny
+ * @see ProjectingAlertingEngine
+ */
+public class ProjectedEventReader {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final String NOT_JSON_OBJECT_MSG = "The event is not a json object";
+    private final Set<String> fieldNames;
+
+    /**
+     * Creates the reader of the selected fields
+     *
+     * @param fieldNames names of the fields to be deserialized
+     */
+    public ProjectedEventReader(Set<String> fieldNames) {
+        this.fieldNames = fieldNames;
+    }
+
+    /**
+     * Reads the selected fields of the event
+     *
+     * @param event serialized event as json string
+     * @return map of the selected fields that are present in the event
+     * @throws IOException if the event is not a valid json
+     * @throws IllegalArgumentException if the event is not a json object
+     */
+    public Map<String, Object> read(String event) throws IOException {
+        try (JsonParser parser = JSON_MAPPER.getFactory().createParser(event)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException(NOT_JSON_OBJECT_MSG);
+            }
+
+            Map<String, Object> ret = new HashMap<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (fieldNames.contains(fieldName)) {
+                    ret.put(fieldName, JSON_MAPPER.readValue(parser, Object.class));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.siemmetric.siembol.alerts.common;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+/**
+ * An object that evaluates serialized events by reading the fields used by an alerting engine
+ *
+ * <p>This object implements AlertingEngine interface by wrapping a stateless alerting engine.
+ * A serialized event is evaluated using the fields that can be read by the underlying engine.
+ * The whole event is deserialized and evaluated only if a rule matches or an exception occurs,
+ * so output events contain all fields of the event.
+ *
+ * @author  Marian Novotny
+ * @see AlertingEngine
+ * @see ProjectedEventReader
+ */
+public class ProjectingAlertingEngine implements AlertingEngine {
+    private final AlertingEngine alertingEngine;
+    private final ProjectedEventReader eventReader;
+
+    /**
+     * Creates the projecting alerting engine
+     *
+     * @param alertingEngine underlying stateless alerting engine
+     * @param fieldNames names of the fields that can be read by the underlying engine
+     */
+    public ProjectingAlertingEngine(AlertingEngine alertingEngine, Set<String> fieldNames) {
+        this.alertingEngine = alertingEngine;
+        this.eventReader = new ProjectedEventReader(fieldNames);
+    }
+
+    /**
+     * Evaluates the event using its fields read by the underlying engine.
+     * It evaluates the whole event if the evaluation does not finish with no match result.
+     *
+     * @param event serialized event as json string
+     * @return      alerting result after evaluation
+     * @see         AlertingResult
+     */
+    @Override
+    public AlertingResult evaluate(String event) {
+        Map<String, Object> projectedEvent;
+        try {
+            projectedEvent = eventReader.read(event);
+        } catch (Exception e) {
+            return AlertingResult.fromException(e);
+        }
+
+        AlertingResult ret = alertingEngine.evaluate(projectedEvent);
+        if (ret.getStatusCode() == AlertingResult.StatusCode.OK
+                && ret.getAttributes().getEvaluationResult() == EvaluationResult.NO_MATCH
+                && ret.getAttributes().getExceptionEvents() == null) {
+            return ret;
+        }
+
+        return AlertingEngine.super.evaluate(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AlertingResult evaluate(Map<String, Object> event) {
+        return alertingEngine.evaluate(event);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AlertingEngineType getAlertingEngineType() {
+        return alertingEngine.getAlertingEngineType();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean() {
+        alertingEngine.clean();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Set<String>> getUsedFieldNames() {
+        return alertingEngine.getUsedFieldNames();
+    }
+
+    /**
+     * Wraps the alerting engine by the projecting alerting engine if the engine provides the used fields
+     *
+     * @param alertingEngine alerting engine to wrap
+     * @return projecting alerting engine if the engine provides the used fields, otherwise the alerting engine
+     */
+    public static AlertingEngine wrap(AlertingEngine alertingEngine) {
+        Optional<Set<String>> fieldNames = alertingEngine.getUsedFieldNames();
+        return fieldNames.isPresent()
+                ? new ProjectingAlertingEngine(alertingEngine, fieldNames.get())
+                : alertingEngine;
+    }
+}
@@ -15,6 +15,7 @@ import com.siemmetric.siembol.alerts.model.*;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import static com.siemmetric.siembol.alerts.common.AlertingResult.StatusCode.OK;
 /**
@@ -45,12 +46,17 @@ public class AlertingRulesCompiler implements AlertingCompiler {
     private static final String EXCEPTION_EVENTS_MSG = "Exception events:";
     private static final String UNSUPPORTED_MATCHER_TYPE = "Unsupported matcher type: %s";
     private static final String MISSING_MATCHERS_IN_COMPOSITE_MATCHER = "Missing matchers in a composite matcher";
+    private static final String WILDCARD_SOURCE = "*";
 
     private final JsonSchemaValidator jsonSchemaValidator;
     private final List<TagDto> testOutputConstants;
+    private final boolean useRegexAutomata;
+    private final int rulesPartitions;
 
-    AlertingRulesCompiler(JsonSchemaValidator jsonSchemaValidator) {
+    AlertingRulesCompiler(JsonSchemaValidator jsonSchemaValidator, boolean useRegexAutomata, int rulesPartitions) {
         this.jsonSchemaValidator = jsonSchemaValidator;
+        this.useRegexAutomata = useRegexAutomata;
+        this.rulesPartitions = rulesPartitions;
 
         final TagDto testConstant = new TagDto();
         testConstant.setTagName(TEST_FIELD_NAME);
@@ -58,12 +64,15 @@ public class AlertingRulesCompiler implements AlertingCompiler {
         this.testOutputConstants = Collections.singletonList(testConstant);
     }
 
-    private Matcher createMatcher(MatcherDto matcherDto) {
+    private Matcher createMatcher(MatcherDto matcherDto,
+                                  ContainsPatternsGroups patternsGroups,
+                                  RegexPatternsGroups regexPatternsGroups) {
         MatcherType matcherType = MatcherType.valueOf(matcherDto.getType().toString());
         switch (matcherType) {
             case REGEX_MATCH:
                 return RegexMatcher.builder()
                         .pattern(matcherDto.getData())
+                        .patternsGroups(regexPatternsGroups)
                         .fieldName(matcherDto.getField())
                         .isNegated(matcherDto.getNegated())
                         .build();
@@ -80,6 +89,7 @@ public class AlertingRulesCompiler implements AlertingCompiler {
                         .isStartsWith(matcherDto.getStartsWith())
                         .isEndsWith(matcherDto.getEndsWith())
                         .isCaseInsensitiveCompare(matcherDto.getCaseInsensitiveCompare())
+                        .patternsGroups(patternsGroups)
                         .fieldName(matcherDto.getField())
                         .isNegated(matcherDto.getNegated())
                         .build();
@@ -97,7 +107,7 @@ public class AlertingRulesCompiler implements AlertingCompiler {
                 }
                 List<Matcher> matchers = matcherDto.getMatchers().stream()
                         .filter(x -> x.isEnabled())
-                        .map(this::createMatcher)
+                        .map(x -> createMatcher(x, patternsGroups, regexPatternsGroups))
                         .collect(Collectors.toList());
                 return CompositeMatcher.builder()
                         .matcherType(matcherType)
@@ -136,12 +146,14 @@ public class AlertingRulesCompiler implements AlertingCompiler {
                         rulesDto.getRulesProtection().getMaxPerDay()));
             }
 
+            ContainsPatternsGroups patternsGroups = new ContainsPatternsGroups();
+            RegexPatternsGroups regexPatternsGroups = useRegexAutomata ? new RegexPatternsGroups() : null;
             List<Pair<String, Rule>> rulesList = new ArrayList<>();
             for (RuleDto ruleDto : rulesDto.getRules()) {
                 List<Matcher> matchers = ruleDto.getMatchers()
                         .stream()
                         .filter(x -> x.isEnabled())
-                        .map(this::createMatcher)
+                        .map(x -> createMatcher(x, patternsGroups, regexPatternsGroups))
                         .collect(Collectors.toList());
 
                 List<Pair<String, String>> constants = ruleDto.getTags() != null
@@ -170,11 +182,15 @@ public class AlertingRulesCompiler implements AlertingCompiler {
                 rulesList.add(Pair.of(ruleDto.getSourceType(), current));
             }
 
-            AlertingEngine engine = new AlertingEngineImpl.Builder()
-                    .constants(generalConstants)
-                    .protections(generalProtections)
-                    .rules(rulesList)
-                    .build();
+            patternsGroups.build();
+            if (regexPatternsGroups != null) {
+                regexPatternsGroups.build();
+            }
+
+            int numberOfPartitions = logger.isActive() ? 1 : Math.min(rulesPartitions, rulesList.size());
+            AlertingEngine engine = numberOfPartitions > 1
+                    ? createPartitionedEngine(rulesList, numberOfPartitions, generalConstants, generalProtections)
+                    : createEngine(rulesList, generalConstants, generalProtections);
 
             AlertingAttributes attributes = new AlertingAttributes();
             attributes.setEngine(engine);
@@ -184,6 +200,35 @@ public class AlertingRulesCompiler implements AlertingCompiler {
         }
     }
 
+    private AlertingEngine createEngine(List<Pair<String, Rule>> rulesList,
+                                        List<Pair<String, String>> constants,
+                                        List<Pair<String, Object>> protections) {
+        return new AlertingEngineImpl.Builder()
+                .constants(constants)
+                .protections(protections)
+                .rules(rulesList)
+                .build();
+    }
+
+    private AlertingEngine createPartitionedEngine(List<Pair<String, Rule>> rulesList,
+                                                   int numberOfPartitions,
+                                                   List<Pair<String, String>> constants,
+                                                   List<Pair<String, Object>> protections) {
+        //NOTE: an engine evaluates the source type rules before the wildcard rules,
+        // so the wildcard rules are placed after the source type rules to preserve the order of the merged results
+        List<Pair<String, Rule>> orderedRules = new ArrayList<>(rulesList.size());
+        rulesList.stream().filter(x -> !WILDCARD_SOURCE.equals(x.getKey())).forEach(orderedRules::add);
+        rulesList.stream().filter(x -> WILDCARD_SOURCE.equals(x.getKey())).forEach(orderedRules::add);
+
+        List<AlertingEngine> engines = new ArrayList<>();
+        for (int i = 0; i < numberOfPartitions; i++) {
+            int from = i * orderedRules.size() / numberOfPartitions;
+            int to = (i + 1) * orderedRules.size() / numberOfPartitions;
+            engines.add(createEngine(new ArrayList<>(orderedRules.subList(from, to)), constants, protections));
+        }
+        return new CompositeAlertingEngine(engines, ForkJoinPool.commonPool());
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -251,7 +296,34 @@ public class AlertingRulesCompiler implements AlertingCompiler {
      * @throws Exception if creation of the instance fails
      */
     public static AlertingCompiler createAlertingRulesCompiler() throws Exception {
+        return createAlertingRulesCompiler(false);
+    }
+
+    /**
+     * Factory method for creating AlertingRulesCompiler instance
+     *
+     * @param useRegexAutomata the compiled engine evaluates regular expressions without named groups
+     *                         by finite automata shared by all matchers registered on the same field
+     * @return AlertingRulesCompiler instance
+     * @throws Exception if creation of the instance fails
+     */
+    public static AlertingCompiler createAlertingRulesCompiler(boolean useRegexAutomata) throws Exception {
+        return createAlertingRulesCompiler(useRegexAutomata, 1);
+    }
+
+    /**
+     * Factory method for creating AlertingRulesCompiler instance
+     *
+     * @param useRegexAutomata the compiled engine evaluates regular expressions without named groups
+     *                         by finite automata shared by all matchers registered on the same field
+     * @param rulesPartitions the number of partitions of the rules list that are evaluated in parallel
+     *                        on the common fork join pool, the rules are evaluated sequentially if it is 1
+     * @return AlertingRulesCompiler instance
+     * @throws Exception if creation of the instance fails
+     */
+    public static AlertingCompiler createAlertingRulesCompiler(boolean useRegexAutomata,
+                                                               int rulesPartitions) throws Exception {
         JsonSchemaValidator validator = new SiembolJsonSchemaValidator(RulesDto.class);
-        return new AlertingRulesCompiler(validator);
+        return new AlertingRulesCompiler(validator, useRegexAutomata, rulesPartitions);
     }
 }
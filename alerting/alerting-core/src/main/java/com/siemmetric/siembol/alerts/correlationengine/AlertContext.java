@@ -27,6 +27,10 @@ public class AlertContext implements Comparable<AlertContext> {
         return timestamp;
     }
 
+    public Object[] getFieldsToSend() {
+        return fieldsToSend;
+    }
+
     public Map<String, Object> getFields(List<String> fieldNames) {
         Map<String, Object> ret = new LinkedHashMap<>();
         for (int i = 0; i < fieldsToSend.length; i++) {
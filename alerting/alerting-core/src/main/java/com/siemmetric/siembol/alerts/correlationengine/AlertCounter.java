@@ -1,12 +1,14 @@
 package com.siemmetric.siembol.alerts.correlationengine;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
 /**
  * An object that implements alerting counters using heap data structure
  *
- * <p>This object implements alerting counters using PriorityQueue of alerting contexts.
+ * <p>This object implements alerting counters using a binary min-heap of timestamps stored in a primitive array
+ * with a parallel array of the fields to send. The arrays are growing on demand up to the threshold of the counter,
+ * so no objects are allocated per alert context.
  * It evaluates a new alert and supports cleaning of old alerting contexts.
  *
  *
@@ -16,47 +18,74 @@ import java.util.PriorityQueue;
  *
  */
 public class AlertCounter {
+    private static final int INITIAL_CAPACITY = 4;
     private final AlertCounterMetadata counterMetadata;
-    private final PriorityQueue<AlertContext> alertContextHeap = new PriorityQueue<>();
+    private long[] timestamps;
+    private Object[][] fields;
+    private int size = 0;
+    private long newestTimestamp = Long.MIN_VALUE;
 
     public AlertCounter(AlertCounterMetadata counterMetadata) {
         this.counterMetadata = counterMetadata;
+        int capacity = Math.min(INITIAL_CAPACITY, counterMetadata.getThreshold());
+        timestamps = new long[capacity];
+        fields = new Object[capacity][];
     }
 
     public void update(AlertContext alertContext) {
-        if (getSize() == counterMetadata.getThreshold()) {
-            alertContextHeap.poll();
+        if (size == counterMetadata.getThreshold()) {
+            poll();
         }
 
-        alertContextHeap.add(alertContext);
+        if (size == timestamps.length) {
+            int capacity = Math.min(2 * size, counterMetadata.getThreshold());
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            fields = Arrays.copyOf(fields, capacity);
+        }
+
+        long timestamp = alertContext.getTimestamp();
+        newestTimestamp = Math.max(newestTimestamp, timestamp);
+        siftUp(size++, timestamp, alertContext.getFieldsToSend());
     }
 
     public void clean(long waterMark) {
-        if (!alertContextHeap.isEmpty()
-                && alertContextHeap.peek().getTimestamp() < waterMark - counterMetadata.getExtendedWindowSize()) {
-            alertContextHeap.clear();
+        if (size > 0 && timestamps[0] < waterMark - counterMetadata.getExtendedWindowSize()) {
+            clear();
             return;
         }
 
-        while (!alertContextHeap.isEmpty() && alertContextHeap.peek().getTimestamp() < waterMark) {
-            alertContextHeap.poll();
+        while (size > 0 && timestamps[0] < waterMark) {
+            poll();
+        }
+
+        if (size == 0) {
+            newestTimestamp = Long.MIN_VALUE;
         }
     }
 
     public boolean isEmpty() {
-        return alertContextHeap.isEmpty();
+        return size == 0;
     }
 
     public int getSize() {
-        return alertContextHeap.size();
+        return size;
     }
 
     public Long getOldest() {
-        return alertContextHeap.isEmpty() ? null : alertContextHeap.peek().getTimestamp();
+        return size == 0 ? null : timestamps[0];
+    }
+
+    /**
+     * Returns an upper bound of the timestamps in the counter
+     *
+     * @return the newest timestamp added since the counter was empty, or Long.MIN_VALUE if the counter is empty
+     */
+    public long getNewest() {
+        return newestTimestamp;
     }
 
     public boolean matchThreshold() {
-        return alertContextHeap.size() >= counterMetadata.getThreshold();
+        return size >= counterMetadata.getThreshold();
     }
 
     public boolean isMandatory() {
@@ -64,8 +93,72 @@ public class AlertCounter {
     }
 
     public List<Map<String, Object>> getCorrelatedAlerts(List<String> fieldNames) {
-        List<Map<String, Object>> ret = new ArrayList<>();
-        alertContextHeap.forEach(x -> ret.add(x.getFields(fieldNames)));
+        List<Map<String, Object>> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ret.add(new AlertContext(timestamps[i], fields[i]).getFields(fieldNames));
+        }
+        return ret;
+    }
+
+    /**
+     * Provides the alert contexts stored in the counter in the order of the heap
+     *
+     * @return the list of the alert contexts
+     */
+    public List<AlertContext> getAlertContexts() {
+        List<AlertContext> ret = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ret.add(new AlertContext(timestamps[i], fields[i]));
+        }
         return ret;
     }
+
+    private void clear() {
+        Arrays.fill(fields, 0, size, null);
+        size = 0;
+        newestTimestamp = Long.MIN_VALUE;
+    }
+
+    private void poll() {
+        size--;
+        long lastTimestamp = timestamps[size];
+        Object[] lastFields = fields[size];
+        fields[size] = null;
+        if (size > 0) {
+            siftDown(0, lastTimestamp, lastFields);
+        }
+    }
+
+    private void siftUp(int index, long timestamp, Object[] fieldsToSend) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (timestamp >= timestamps[parent]) {
+                break;
+            }
+            timestamps[index] = timestamps[parent];
+            fields[index] = fields[parent];
+            index = parent;
+        }
+        timestamps[index] = timestamp;
+        fields[index] = fieldsToSend;
+    }
+
+    private void siftDown(int index, long timestamp, Object[] fieldsToSend) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && timestamps[right] < timestamps[child]) {
+                child = right;
+            }
+            if (timestamp <= timestamps[child]) {
+                break;
+            }
+            timestamps[index] = timestamps[child];
+            fields[index] = fields[child];
+            index = child;
+        }
+        timestamps[index] = timestamp;
+        fields[index] = fieldsToSend;
+    }
 }
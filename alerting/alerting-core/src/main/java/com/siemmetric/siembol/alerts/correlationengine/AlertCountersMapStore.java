@@ -0,0 +1,66 @@
+package com.siemmetric.siembol.alerts.correlationengine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+/**
+ * An object for storing alert counters in a hash map
+ *
+ * <p>This class implements AlertCountersStore interface using a hash map.
+ * It cleans the store by scanning all correlation keys.
+ *
+ * @author  Marian Novotny
+ * @see AlertCountersStore
+ */
+public class AlertCountersMapStore implements AlertCountersStore {
+    private final Map<String, ArrayList<AlertCounter>> alertCounters = new HashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ArrayList<AlertCounter> get(String key) {
+        return alertCounters.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(String key, ArrayList<AlertCounter> counters) {
+        alertCounters.put(key, counters);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void remove(String key) {
+        alertCounters.remove(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clean(long waterMark) {
+        alertCounters.values().removeIf(x -> AlertCountersStore.cleanAlertCounters(x, waterMark));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(BiConsumer<String, ArrayList<AlertCounter>> action) {
+        alertCounters.forEach(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return alertCounters.size();
+    }
+}
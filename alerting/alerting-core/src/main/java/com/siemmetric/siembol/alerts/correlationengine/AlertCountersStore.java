@@ -0,0 +1,79 @@
+package com.siemmetric.siembol.alerts.correlationengine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+/**
+ * An object for storing alert counters of a correlation rule
+ *
+ * <p>This interface is for storing alert counters of a correlation rule by a correlation key.
+ * It is responsible for removing the counters that are empty after cleaning.
+ *
+ * @author  Marian Novotny
+ * @see AlertCounter
+ * @see CorrelationRule
+ * @see AlertCountersMapStore
+ * @see AlertCountersTimingWheelStore
+ */
+public interface AlertCountersStore {
+    /**
+     * Gets the alert counters of the correlation key
+     *
+     * @param key correlation key
+     * @return the alert counters of the key or null if the key is not in the store
+     */
+    ArrayList<AlertCounter> get(String key);
+
+    /**
+     * Puts the alert counters of the correlation key into the store
+     *
+     * @param key correlation key
+     * @param alertCounters alert counters of the key
+     */
+    void put(String key, ArrayList<AlertCounter> alertCounters);
+
+    /**
+     * Removes the alert counters of the correlation key from the store
+     *
+     * @param key correlation key
+     */
+    void remove(String key);
+
+    /**
+     * Cleans alert contexts older than the watermark and removes the keys with empty alert counters
+     *
+     * @param waterMark the timestamp in milliseconds of the oldest alert context that should be kept
+     */
+    void clean(long waterMark);
+
+    /**
+     * Performs the action for each correlation key and its alert counters in the store
+     *
+     * @param action the action to be performed
+     */
+    void forEach(BiConsumer<String, ArrayList<AlertCounter>> action);
+
+    /**
+     * Gets the number of the correlation keys in the store
+     *
+     * @return the number of the correlation keys
+     */
+    int size();
+
+    /**
+     * Cleans alert contexts older than the watermark in the alert counters
+     *
+     * @param alertCounters the alert counters to clean
+     * @param waterMark the timestamp in milliseconds of the oldest alert context that should be kept
+     * @return true if all alert counters are empty after cleaning, otherwise false
+     */
+    static boolean cleanAlertCounters(List<AlertCounter> alertCounters, long waterMark) {
+        boolean empty = true;
+        for (AlertCounter counter : alertCounters) {
+            counter.clean(waterMark);
+            empty = empty && counter.isEmpty();
+        }
+
+        return empty;
+    }
+}
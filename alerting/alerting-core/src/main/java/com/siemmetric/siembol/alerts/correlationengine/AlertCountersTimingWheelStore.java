@@ -0,0 +1,170 @@
+package com.siemmetric.siembol.alerts.correlationengine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+/**
+ * An object for storing alert counters with expiration driven by a timing wheel
+ *
+ * <p>This class implements AlertCountersStore interface using a hash map and a hashed timing wheel.
+ * Each correlation key is scheduled in the wheel once by the tick in which its newest alert context expires.
+ * Cleaning visits only the wheel slots of the elapsed ticks instead of scanning all correlation keys.
+ * A visited key is removed if its counters are empty, otherwise it is rescheduled by its newest alert context.
+ * The alert contexts of the keys that were not visited are cleaned before evaluation by the correlation rule,
+ * so the expiration granularity influences only the memory footprint.
+ *
+ * @author  Marian Novotny
+ * @see AlertCountersStore
+ */
+public class AlertCountersTimingWheelStore implements AlertCountersStore {
+    private static final String INVALID_ARGUMENTS_MSG = "Tick and number of slots of timing wheel should be positive";
+    private static final long DEFAULT_TICK_MS = 1000L;
+    private static final int DEFAULT_SLOTS = 1024;
+    private static final long UNDEFINED_TICK = Long.MIN_VALUE;
+
+    private final Map<String, ArrayList<AlertCounter>> alertCounters = new HashMap<>();
+    private final ArrayList<ArrayList<WheelEntry>> wheel;
+    private final long tickMs;
+    private long lastTick = UNDEFINED_TICK;
+
+    private static class WheelEntry {
+        private final String key;
+        private final ArrayList<AlertCounter> alertCounters;
+        private long tick;
+
+        WheelEntry(String key, ArrayList<AlertCounter> alertCounters, long tick) {
+            this.key = key;
+            this.alertCounters = alertCounters;
+            this.tick = tick;
+        }
+    }
+
+    /**
+     * Creates the store with the timing wheel of the default size
+     */
+    public AlertCountersTimingWheelStore() {
+        this(DEFAULT_TICK_MS, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Creates the store with the timing wheel
+     *
+     * @param tickMs duration of the tick of the wheel in milliseconds
+     * @param slots number of the slots of the wheel
+     * @throws IllegalArgumentException if the arguments are not positive
+     */
+    public AlertCountersTimingWheelStore(long tickMs, int slots) {
+        if (tickMs <= 0 || slots <= 0) {
+            throw new IllegalArgumentException(INVALID_ARGUMENTS_MSG);
+        }
+        this.tickMs = tickMs;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ArrayList<AlertCounter> get(String key) {
+        return alertCounters.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is scheduled to be visited in the next tick of the wheel.
+     */
+    @Override
+    public void put(String key, ArrayList<AlertCounter> counters) {
+        alertCounters.put(key, counters);
+        long tick = lastTick == UNDEFINED_TICK ? 0 : lastTick + 1;
+        schedule(new WheelEntry(key, counters, tick));
+    }
+
+    /**
+     * {@inheritDoc}
+     * The key is removed from the wheel lazily during visiting its slot.
+     */
+    @Override
+    public void remove(String key) {
+        alertCounters.remove(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     * It visits the slots of the ticks elapsed from the last cleaning.
+     */
+    @Override
+    public void clean(long waterMark) {
+        long currentTick = Math.floorDiv(waterMark, tickMs);
+        if (lastTick == UNDEFINED_TICK || currentTick - lastTick >= wheel.size()) {
+            for (int i = 0; i < wheel.size(); i++) {
+                visitSlot(i, currentTick, waterMark);
+            }
+        } else {
+            for (long tick = lastTick + 1; tick <= currentTick; tick++) {
+                visitSlot(getSlot(tick), currentTick, waterMark);
+            }
+        }
+
+        lastTick = lastTick == UNDEFINED_TICK ? currentTick : Math.max(lastTick, currentTick);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(BiConsumer<String, ArrayList<AlertCounter>> action) {
+        alertCounters.forEach(action);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return alertCounters.size();
+    }
+
+    private int getSlot(long tick) {
+        return (int)Math.floorMod(tick, (long)wheel.size());
+    }
+
+    private void schedule(WheelEntry entry) {
+        wheel.get(getSlot(entry.tick)).add(entry);
+    }
+
+    private void visitSlot(int slot, long currentTick, long waterMark) {
+        ArrayList<WheelEntry> entries = wheel.get(slot);
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        wheel.set(slot, new ArrayList<>());
+        for (WheelEntry entry : entries) {
+            if (entry.tick > currentTick) {
+                schedule(entry);
+                continue;
+            }
+
+            if (alertCounters.get(entry.key) != entry.alertCounters) {
+                continue;
+            }
+
+            if (AlertCountersStore.cleanAlertCounters(entry.alertCounters, waterMark)) {
+                alertCounters.remove(entry.key);
+                continue;
+            }
+
+            long newest = Long.MIN_VALUE;
+            for (AlertCounter counter : entry.alertCounters) {
+                newest = Math.max(newest, counter.getNewest());
+            }
+            entry.tick = Math.max(Math.floorDiv(newest, tickMs) + 1, currentTick + 1);
+            schedule(entry);
+        }
+    }
+}
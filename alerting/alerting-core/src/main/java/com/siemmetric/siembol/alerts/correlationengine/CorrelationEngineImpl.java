@@ -1,19 +1,26 @@
 package com.siemmetric.siembol.alerts.correlationengine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import com.siemmetric.siembol.common.utils.TimeProvider;
 import com.siemmetric.siembol.alerts.common.*;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 import static com.siemmetric.siembol.alerts.common.AlertingTags.CORRELATION_KEY_TAG_NAME;
 /**
  * An object that evaluates alerts using correlation rules
  *
  * <p>This class implements AlertingEngine interface for evaluating alerts using correlation rules.
+ * It supports saving and restoring the state of the rules that is carried over to the rules
+ * with the same name and version.
  *
  * @author  Marian Novotny
  * @see AlertingEngine
@@ -21,6 +28,7 @@ import static com.siemmetric.siembol.alerts.common.AlertingTags.CORRELATION_KEY_
  */
 public class CorrelationEngineImpl implements AlertingEngine {
     private static final String MISSING_CORRELATION_ATTRIBUTES = "Missing fields for alert correlation";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
     private final Map<String, List<CorrelationRule>> alertToCorrelationRulesMap;
     private final List<CorrelationRule> correlationRules;
     private final TimeProvider timeProvider;
@@ -44,6 +52,7 @@ public class CorrelationEngineImpl implements AlertingEngine {
      * It returns matches of all rules.
      * The rule is correlated based on correlation key field in the alert and
      * alerting rule name field is used for counting alerts in the rules.
+     * The processing time is added into the alert that is shared by output alerts as a base of copy-on-write overlays.
      *
      * @param alert deserialized event as map of string to object
      * @return      alerting result after evaluation
@@ -111,6 +120,62 @@ public class CorrelationEngineImpl implements AlertingEngine {
         }
     }
 
+    /**
+     * Takes over the state of the rules with the same name and version from the previous engine
+     *
+     * @param previousEngine the engine with the state to take over
+     * @return the number of the rules with the restored state
+     */
+    public int restoreState(CorrelationEngineImpl previousEngine) {
+        Map<String, CorrelationRule> previousRules = new HashMap<>();
+        previousEngine.correlationRules.forEach(x -> previousRules.put(x.getFullRuleName(), x));
+
+        int ret = 0;
+        for (CorrelationRule rule : correlationRules) {
+            CorrelationRule previousRule = previousRules.get(rule.getFullRuleName());
+            if (previousRule != null && rule.restoreState(previousRule)) {
+                ret++;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Serializes the state of all rules
+     *
+     * @return the json string with the state of the rules by the full rule names
+     * @throws IOException if the state can not be serialized
+     */
+    public String saveState() throws IOException {
+        ObjectNode state = JSON_MAPPER.createObjectNode();
+        correlationRules.forEach(x -> state.set(x.getFullRuleName(), x.getState()));
+        return JSON_MAPPER.writeValueAsString(state);
+    }
+
+    /**
+     * Restores the state of the rules with the same name and version from the serialized state.
+     * The state of the rules that are not in the engine is ignored.
+     *
+     * @param state the json string provided by saveState method
+     * @return the number of the rules with the restored state
+     * @throws IOException if the state can not be deserialized
+     * @throws IllegalArgumentException if the state of a rule is invalid
+     */
+    public int restoreState(String state) throws IOException {
+        JsonNode stateNode = JSON_MAPPER.readTree(state);
+        //NOTE: the states of all rules are read before restoring in order to restore a valid state only
+        Map<CorrelationRule, Map<String, ArrayList<AlertCounter>>> rulesStates = new LinkedHashMap<>();
+        for (CorrelationRule rule : correlationRules) {
+            JsonNode ruleState = stateNode.get(rule.getFullRuleName());
+            if (ruleState != null) {
+                rulesStates.put(rule, rule.readState(ruleState));
+            }
+        }
+
+        rulesStates.forEach(CorrelationRule::putState);
+        return rulesStates.size();
+    }
+
     /**
      * A builder for correlation alerting engine
      *
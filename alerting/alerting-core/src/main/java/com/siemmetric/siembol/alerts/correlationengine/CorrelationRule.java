@@ -1,9 +1,14 @@
 package com.siemmetric.siembol.alerts.correlationengine;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 import com.siemmetric.siembol.alerts.common.AlertingAttributes;
 import com.siemmetric.siembol.alerts.common.AlertingFields;
 import com.siemmetric.siembol.alerts.common.AlertingResult;
+import com.siemmetric.siembol.alerts.common.EventOverlayMap;
 import com.siemmetric.siembol.alerts.engine.AbstractRule;
 import com.siemmetric.siembol.common.constants.SiembolConstants;
 
@@ -25,6 +30,8 @@ public class CorrelationRule extends AbstractRule {
         USE_EVENT_TIME,
     }
     private static final String EVENT_TIMESTAMP_FIELD = SiembolConstants.TIMESTAMP;
+    private static final String INVALID_STATE_MSG = "Invalid state of alert counters for the key: %s";
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
     private final EnumSet<Flags> flags;
     private final int alertsThresholds;
     private final long timeWindowInMs;
@@ -32,7 +39,7 @@ public class CorrelationRule extends AbstractRule {
 
     private final ArrayList<AlertCounterMetadata> alertCountersMetadata;
     private final Map<String, Integer> alertToCounterIndex;
-    private final Map<String, ArrayList<AlertCounter>> alertCounters = new HashMap<>();
+    private final AlertCountersStore alertCounters;
 
     private final List<String> fieldNamesToSend;
 
@@ -50,6 +57,7 @@ public class CorrelationRule extends AbstractRule {
         this.alertCountersMetadata = builder.alertCountersMetadata;
         this.alertToCounterIndex = builder.alertToCounterIndex;
         this.fieldNamesToSend = builder.fieldNamesToSend;
+        this.alertCounters = builder.alertCountersStore;
     }
 
     /**
@@ -105,13 +113,134 @@ public class CorrelationRule extends AbstractRule {
      */
     public void clean(long currentTime) {
         long waterMark = currentTime - timeWindowInMs - maxLagTimeInMs;
-        alertCounters.keySet().removeIf(x -> cleanAlertCounters(alertCounters.get(x), waterMark));
+        alertCounters.clean(waterMark);
     }
 
     public List<String> getAlertNames() {
         return new ArrayList<>(alertToCounterIndex.keySet());
     }
 
+    /**
+     * Takes over the internal state of rule counters from the rule with the same name, version and specification
+     *
+     * @param previousRule the rule with the state to take over
+     * @return true if the state has been taken over, otherwise false
+     */
+    public boolean restoreState(CorrelationRule previousRule) {
+        if (!getFullRuleName().equals(previousRule.getFullRuleName()) || !hasSameSpecification(previousRule)) {
+            return false;
+        }
+
+        previousRule.alertCounters.forEach(alertCounters::put);
+        return true;
+    }
+
+    /**
+     * Provides the internal state of rule counters as a json object.
+     * The object maps a correlation key to the array of the counters with alert contexts
+     * serialized as arrays of the timestamp followed by the fields to send.
+     *
+     * @return the state of rule counters as a json object
+     */
+    public JsonNode getState() {
+        ObjectNode ret = JSON_MAPPER.createObjectNode();
+        alertCounters.forEach((key, counters) -> {
+            ArrayNode countersNode = ret.putArray(key);
+            for (AlertCounter counter : counters) {
+                ArrayNode contextsNode = countersNode.addArray();
+                for (AlertContext context : counter.getAlertContexts()) {
+                    ArrayNode contextNode = contextsNode.addArray();
+                    contextNode.add(context.getTimestamp());
+                    for (Object field : context.getFieldsToSend()) {
+                        contextNode.add(JSON_MAPPER.<JsonNode>valueToTree(field));
+                    }
+                }
+            }
+        });
+        return ret;
+    }
+
+    /**
+     * Restores the internal state of rule counters from the json object provided by getState method.
+     * The state is restored only if the whole state is valid.
+     *
+     * @param state the state of rule counters as a json object
+     * @throws IllegalArgumentException if the state does not correspond to the rule counters
+     */
+    public void restoreState(JsonNode state) {
+        putState(readState(state));
+    }
+
+    /**
+     * Puts the alert counters provided by readState method into the rule counters
+     *
+     * @param state the map of correlation keys to the alert counters
+     */
+    void putState(Map<String, ArrayList<AlertCounter>> state) {
+        state.forEach(alertCounters::put);
+    }
+
+    /**
+     * Reads the internal state of rule counters from the json object provided by getState method
+     * without modifying the rule counters
+     *
+     * @param state the state of rule counters as a json object
+     * @return the map of correlation keys to the alert counters
+     * @throws IllegalArgumentException if the state does not correspond to the rule counters
+     */
+    Map<String, ArrayList<AlertCounter>> readState(JsonNode state) {
+        Map<String, ArrayList<AlertCounter>> ret = new HashMap<>();
+        state.fields().forEachRemaining(entry -> {
+            JsonNode countersNode = entry.getValue();
+            if (!countersNode.isArray() || countersNode.size() != alertCountersMetadata.size()) {
+                throw new IllegalArgumentException(String.format(INVALID_STATE_MSG, entry.getKey()));
+            }
+
+            ArrayList<AlertCounter> counters = createAlertCounters();
+            for (int i = 0; i < counters.size(); i++) {
+                if (!countersNode.get(i).isArray()) {
+                    throw new IllegalArgumentException(String.format(INVALID_STATE_MSG, entry.getKey()));
+                }
+
+                for (JsonNode contextNode : countersNode.get(i)) {
+                    if (!contextNode.isArray() || contextNode.size() == 0 || !contextNode.get(0).isNumber()) {
+                        throw new IllegalArgumentException(String.format(INVALID_STATE_MSG, entry.getKey()));
+                    }
+
+                    Object[] fieldsToSend = new Object[fieldNamesToSend.size()];
+                    for (int j = 0; j < fieldsToSend.length && j + 1 < contextNode.size(); j++) {
+                        fieldsToSend[j] = JSON_MAPPER.convertValue(contextNode.get(j + 1), Object.class);
+                    }
+                    counters.get(i).update(new AlertContext(contextNode.get(0).asLong(), fieldsToSend));
+                }
+            }
+            ret.put(entry.getKey(), counters);
+        });
+        return ret;
+    }
+
+    private boolean hasSameSpecification(CorrelationRule other) {
+        if (alertsThresholds != other.alertsThresholds
+                || timeWindowInMs != other.timeWindowInMs
+                || maxLagTimeInMs != other.maxLagTimeInMs
+                || !flags.equals(other.flags)
+                || !fieldNamesToSend.equals(other.fieldNamesToSend)
+                || alertCountersMetadata.size() != other.alertCountersMetadata.size()) {
+            return false;
+        }
+
+        for (int i = 0; i < alertCountersMetadata.size(); i++) {
+            AlertCounterMetadata current = alertCountersMetadata.get(i);
+            AlertCounterMetadata otherCurrent = other.alertCountersMetadata.get(i);
+            if (!current.getAlertName().equals(otherCurrent.getAlertName())
+                    || current.getThreshold() != otherCurrent.getThreshold()
+                    || current.getExtendedWindowSize() != otherCurrent.getExtendedWindowSize()
+                    || !current.getFlags().equals(otherCurrent.getFlags())) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     private EvaluationResult evaluate(String key, String ruleName, AlertContext alertContext, long processingTime) {
         ArrayList<AlertCounter> currentCounterList = alertCounters.get(key);
@@ -119,7 +248,7 @@ public class CorrelationRule extends AbstractRule {
             currentCounterList = createAlertCounters();
             alertCounters.put(key, currentCounterList);
         } else {
-            cleanAlertCounters(currentCounterList, processingTime - timeWindowInMs - maxLagTimeInMs);
+            AlertCountersStore.cleanAlertCounters(currentCounterList, processingTime - timeWindowInMs - maxLagTimeInMs);
         }
 
         int index = alertToCounterIndex.get(ruleName);
@@ -134,7 +263,7 @@ public class CorrelationRule extends AbstractRule {
     }
 
     private Map<String, Object> createOutputAlert(Map<String, Object> alert, String key) {
-        Map<String, Object> ret = new HashMap<>(alert);
+        Map<String, Object> ret = new EventOverlayMap(alert);
         ret.put(AlertingFields.RULE_NAME.getCorrelationAlertingName(), getRuleName());
         ret.put(AlertingFields.FULL_RULE_NAME.getCorrelationAlertingName(), getFullRuleName());
 
@@ -162,16 +291,6 @@ public class CorrelationRule extends AbstractRule {
         return numMatches >= alertsThresholds ? EvaluationResult.MATCH : EvaluationResult.NO_MATCH;
     }
 
-    private boolean cleanAlertCounters(ArrayList<AlertCounter> alertCounters, long waterMark) {
-        boolean empty = true;
-        for (AlertCounter counter : alertCounters) {
-            counter.clean(waterMark);
-            empty = empty && counter.isEmpty();
-        }
-
-        return empty;
-    }
-
     private ArrayList<AlertCounter> createAlertCounters() {
         ArrayList<AlertCounter> ret = new ArrayList<>(alertCountersMetadata.size());
         for (AlertCounterMetadata counterMetadata : alertCountersMetadata) {
@@ -206,6 +325,7 @@ public class CorrelationRule extends AbstractRule {
         protected Map<String, Integer> alertToCounterIndex = new HashMap<>();
         protected EnumSet<Flags> flags = EnumSet.noneOf(Flags.class);
         protected List<String> fieldNamesToSend = new ArrayList<>();
+        protected AlertCountersStore alertCountersStore;
         /**
          * Sets the number of alerts that needs to match
          *
@@ -281,6 +401,18 @@ public class CorrelationRule extends AbstractRule {
             this.fieldNamesToSend = fieldNames;
             return this;
         }
+
+        /**
+         * Sets the store of alert counters with default value: AlertCountersTimingWheelStore
+         *
+         * @param alertCountersStore the store of alert counters used by the rule
+         * @return this builder
+         * @see AlertCountersStore
+         */
+        public Builder<T> alertCountersStore(AlertCountersStore alertCountersStore) {
+            this.alertCountersStore = alertCountersStore;
+            return this;
+        }
     }
 
     /**
@@ -303,6 +435,9 @@ public class CorrelationRule extends AbstractRule {
                     throw new IllegalArgumentException(MISSING_REQUIRED_ATTRIBUTES);
                 }
                 maxLagTimeInMs = maxLagTimeInSec * MILLI_MULTIPLIER;
+                if (alertCountersStore == null) {
+                    alertCountersStore = new AlertCountersTimingWheelStore();
+                }
 
                 for (AlertCounterMetadata metadata : alertCountersMetadataTemp) {
                     AlertCounterMetadata current = new AlertCounterMetadata(metadata.getAlertName(),
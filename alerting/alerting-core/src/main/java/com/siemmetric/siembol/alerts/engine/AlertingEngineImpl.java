@@ -18,9 +18,10 @@ import java.util.*;
  */
 public class AlertingEngineImpl implements AlertingEngine {
     private final String sourceField;
-    private final Map<String, List<Rule>> sourceToRulesTable;
-    private final List<Rule> allSourceRules;
+    private final Map<String, RulesIndex> sourceToRulesTable;
+    private final RulesIndex allSourceRules;
     private final List<Pair<String, Object>> outputFields;
+    private final Set<String> usedFieldNames;
 
     /**
      * Creates Alerting engine using builder pattern.
@@ -32,12 +33,14 @@ public class AlertingEngineImpl implements AlertingEngine {
         this.outputFields = builder.outputFields;
         this.sourceField = builder.sourceField;
         this.allSourceRules = builder.allSourceRules;
+        this.usedFieldNames = builder.usedFieldNames;
     }
 
     /**
      * Evaluates event using alerting rules and returns alerting result with
      * a matching result and additional attributes such as matching events or exceptions.
-     * It returns matches of all rules.
+     * It returns matches of all rules. Only the rules that can match the event according to
+     * the rules index are evaluated.
      *
      * @param event deserialized event as map of string to object
      * @return      alerting result after evaluation
@@ -53,12 +56,12 @@ public class AlertingEngineImpl implements AlertingEngine {
         List<Map<String, Object>> outputEvents = new ArrayList<>();
         List<Map<String, Object>> exceptionsEvents = new ArrayList<>();
 
-        List<Rule> sourceRules = sourceToRulesTable.get(sensor);
+        RulesIndex sourceRules = sourceToRulesTable.get(sensor);
         if (sourceRules != null) {
-            sourceRules.forEach(x -> evaluateRuleInternally(x, event, outputEvents, exceptionsEvents));
+            sourceRules.forEachCandidate(event, x -> evaluateRuleInternally(x, event, outputEvents, exceptionsEvents));
         }
 
-        allSourceRules.forEach(x -> evaluateRuleInternally(x, event, outputEvents, exceptionsEvents));
+        allSourceRules.forEachCandidate(event, x -> evaluateRuleInternally(x, event, outputEvents, exceptionsEvents));
 
         AlertingAttributes attributes = new AlertingAttributes();
         attributes.setEvaluationResult(outputEvents.isEmpty()
@@ -84,8 +87,17 @@ public class AlertingEngineImpl implements AlertingEngine {
         return AlertingEngineType.SIEMBOL_ALERTS;
     }
 
+    /**
+     * {@inheritDoc}
+     * It includes the source type field and the fields used by matchers of all rules.
+     */
+    @Override
+    public Optional<Set<String>> getUsedFieldNames() {
+        return Optional.of(usedFieldNames);
+    }
+
     private Map<String, Object> createEventFromRule(Rule rule, Map<String, Object> event) {
-        Map<String, Object> ret = new HashMap<>(event);
+        Map<String, Object> ret = new EventOverlayMap(event);
         ret.put(AlertingFields.RULE_NAME.getAlertingName(), rule.getRuleName());
         ret.put(AlertingFields.FULL_RULE_NAME.getAlertingName(), rule.getFullRuleName());
         return ret;
@@ -126,11 +138,12 @@ public class AlertingEngineImpl implements AlertingEngine {
         private String sourceField = SiembolMessageFields.SENSOR_TYPE.toString();
         private String wildcardSource = "*";
         private List<Pair<String, Rule>> rules;
-        private Map<String, List<Rule>> sourceToRulesTable = new HashMap<>();
-        private List<Rule> allSourceRules = new ArrayList<>();
+        private Map<String, RulesIndex> sourceToRulesTable = new HashMap<>();
+        private RulesIndex allSourceRules = new RulesIndex(new ArrayList<>());
         private List<Pair<String, String>> constants;
         private List<Pair<String, Object>> protections;
         private List<Pair<String, Object>> outputFields = new ArrayList<>();
+        private Set<String> usedFieldNames = new HashSet<>();
 
         /**
          * Sets source fields in builder with default value: `source_type`
@@ -205,21 +218,26 @@ public class AlertingEngineImpl implements AlertingEngine {
             constants.forEach(x -> outputFields.add(ImmutablePair.of(x.getLeft(), x.getRight())));
             protections.forEach(x -> outputFields.add(ImmutablePair.of(x.getLeft(), x.getRight())));
 
+            usedFieldNames.add(sourceField);
+            Map<String, List<Rule>> sourceToRulesList = new HashMap<>();
             rules.forEach(x -> {
-                if (sourceToRulesTable.containsKey(x.getLeft())) {
-                    sourceToRulesTable.get(x.getLeft()).add(x.getRight());
+                usedFieldNames.addAll(x.getRight().getUsedFieldNames());
+                if (sourceToRulesList.containsKey(x.getLeft())) {
+                    sourceToRulesList.get(x.getLeft()).add(x.getRight());
                 } else {
                     List<Rule> newList = new ArrayList<>();
                     newList.add(x.getRight());
-                    sourceToRulesTable.put(x.getLeft(), newList);
+                    sourceToRulesList.put(x.getLeft(), newList);
                 }
             });
 
-            if (sourceToRulesTable.containsKey(wildcardSource)) {
-                allSourceRules = sourceToRulesTable.get(wildcardSource);
-                sourceToRulesTable.remove(wildcardSource);
+            if (sourceToRulesList.containsKey(wildcardSource)) {
+                allSourceRules = new RulesIndex(sourceToRulesList.get(wildcardSource));
+                sourceToRulesList.remove(wildcardSource);
             }
 
+            sourceToRulesList.forEach((k, v) -> sourceToRulesTable.put(k, new RulesIndex(v)));
+
             return new AlertingEngineImpl(this);
         }
     }
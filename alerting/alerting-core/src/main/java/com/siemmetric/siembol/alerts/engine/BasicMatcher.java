@@ -1,7 +1,11 @@
 package com.siemmetric.siembol.alerts.engine;
 
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * An object for basic matching an event
@@ -75,6 +79,55 @@ public abstract class BasicMatcher implements Matcher {
         return isNegated;
     }
 
+    /**
+     * {@inheritDoc}
+     * Negated matchers do not require any values.
+     */
+    @Override
+    public Optional<RequiredFieldValues> getRequiredFieldValues() {
+        return isNegated ? Optional.empty() : getRequiredFieldValuesInternally();
+    }
+
+    /**
+     * {@inheritDoc}
+     * It includes the field in which the matcher is registered.
+     */
+    @Override
+    public Set<String> getUsedFieldNames() {
+        Set<String> ret = new HashSet<>(getVariableNames());
+        ret.add(fieldName);
+        return ret;
+    }
+
+    /**
+     * Provides the name of the field in which the matcher is registered
+     *
+     * @return the name of the field
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Provides constant values of the field that are required for matching without considering negated property.
+     * Derived classes can override it, by default no values are required.
+     *
+     * @return required field values if the matcher requires them, otherwise empty
+     */
+    protected Optional<RequiredFieldValues> getRequiredFieldValuesInternally() {
+        return Optional.empty();
+    }
+
+    /**
+     * Provides names of the fields used in variables that are substituted during matching.
+     * Derived classes can override it, by default no variables are used.
+     *
+     * @return set of variable names
+     */
+    protected Set<String> getVariableNames() {
+        return Collections.emptySet();
+    }
+
     /**
      * Abstract method to be implemented in derived classes. Evaluates fieldValue internally using event if necessary.
      * It returns matching statues without considering negated property.
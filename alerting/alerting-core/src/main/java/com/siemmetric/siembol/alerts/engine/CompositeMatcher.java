@@ -3,8 +3,10 @@ package com.siemmetric.siembol.alerts.engine;
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 import com.siemmetric.siembol.alerts.compiler.MatcherType;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -21,6 +23,7 @@ public class CompositeMatcher implements Matcher {
     private final Function<Map<String, Object>, EvaluationResult> evaluationFunction;
     private final boolean negated;
     private final boolean canModifyEvent;
+    private final Set<String> usedFieldNames = new HashSet<>();
 
     /**
      * Creates composite matcher using builder pattern.
@@ -31,6 +34,7 @@ public class CompositeMatcher implements Matcher {
         this.evaluationFunction = builder.evaluationFunction;
         this.negated = builder.negated;
         this.canModifyEvent = builder.canModifyEvent;
+        builder.matchers.forEach(x -> usedFieldNames.addAll(x.getUsedFieldNames()));
     }
     /**
      * Match the event and returns evaluation result.
@@ -62,6 +66,15 @@ public class CompositeMatcher implements Matcher {
         return negated;
     }
 
+    /**
+     * {@inheritDoc}
+     * It includes the fields used by underlying matchers.
+     */
+    @Override
+    public Set<String> getUsedFieldNames() {
+        return usedFieldNames;
+    }
+
     /**
      * Creates Composite matcher builder instance.
      *
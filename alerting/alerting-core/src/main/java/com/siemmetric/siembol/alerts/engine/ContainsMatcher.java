@@ -12,6 +12,8 @@ import java.util.function.BiPredicate;
  * It supports case-insensitive string comparisons and
  * substituting variables using current map and string search after the substitution and
  * specifying matching at start or end of the string.
+ * Constant patterns can be registered in a shared patterns group of the field
+ * in order to search all patterns of the group in one pass.
  *
  * @author  Marian Novotny
  * @see BasicMatcher
@@ -28,6 +30,8 @@ public class ContainsMatcher extends BasicMatcher {
     protected final EnumSet<Flags> flags;
     protected final String pattern;
     protected final BiPredicate<String, String> checkPredicate;
+    protected final ContainsPatternsGroup patternsGroup;
+    protected final int patternIndex;
 
     /**
      * Creates contains matcher using builder pattern.
@@ -39,11 +43,24 @@ public class ContainsMatcher extends BasicMatcher {
         this.flags = builder.flags;
         this.pattern = builder.pattern;
         this.checkPredicate = builder.checkPredicate;
+
+        if (builder.patternsGroups != null
+                && !flags.contains(Flags.CONTAINS_VARIABLE)
+                && !pattern.isEmpty()) {
+            this.patternsGroup = builder.patternsGroups.getGroup(getFieldName(),
+                    flags.contains(Flags.CASE_INSENSITIVE));
+            this.patternIndex = patternsGroup.addPattern(pattern,
+                    flags.contains(Flags.STARTS_WITH), flags.contains(Flags.ENDS_WITH));
+        } else {
+            this.patternsGroup = null;
+            this.patternIndex = -1;
+        }
     }
 
     /**
      * Evaluates fieldValue internally using substring search. It substitutes the variables if needed.
      * it supports case-insensitive compare if specified and checks for starting or ending requirements if needed.
+     * It uses the search of the shared patterns group if the pattern is registered in a built group.
      *
      * @param map event as map of string to object
      * @param fieldValue value of the field for matching
@@ -53,6 +70,12 @@ public class ContainsMatcher extends BasicMatcher {
     @Override
     protected EvaluationResult matchInternally(Map<String, Object> map, Object fieldValue) {
         var fieldStringValue = fieldValue.toString();
+        if (patternsGroup != null && patternsGroup.isShared()) {
+            return patternsGroup.matches(fieldStringValue, patternIndex)
+                    ? EvaluationResult.MATCH
+                    : EvaluationResult.NO_MATCH;
+        }
+
         var stringToCheck = flags.contains(Flags.CASE_INSENSITIVE)
                 ? fieldStringValue.toLowerCase()
                 : fieldStringValue;
@@ -73,6 +96,34 @@ public class ContainsMatcher extends BasicMatcher {
                 : EvaluationResult.NO_MATCH;
     }
 
+    /**
+     * Provides names of the fields used in the pattern if it contains variables
+     *
+     * @return set of variable names
+     */
+    @Override
+    protected Set<String> getVariableNames() {
+        return flags.contains(Flags.CONTAINS_VARIABLE)
+                ? EvaluationLibrary.getVariableNames(pattern)
+                : Collections.emptySet();
+    }
+
+    /**
+     * Provides the pattern if the matcher is checking equality with a constant string,
+     * i.e. it is starting and ending with the pattern that does not contain variables
+     *
+     * @return required field values with the pattern if the matcher checks equality, otherwise empty
+     */
+    @Override
+    protected Optional<RequiredFieldValues> getRequiredFieldValuesInternally() {
+        return flags.containsAll(List.of(Flags.STARTS_WITH, Flags.ENDS_WITH))
+                && !flags.contains(Flags.CONTAINS_VARIABLE)
+                ? Optional.of(new RequiredFieldValues(getFieldName(),
+                flags.contains(Flags.CASE_INSENSITIVE),
+                Set.of(pattern)))
+                : Optional.empty();
+    }
+
     /**
      * Creates Contains matcher builder instance.
      *
@@ -114,6 +165,7 @@ public class ContainsMatcher extends BasicMatcher {
         protected EnumSet<Flags> flags = EnumSet.noneOf(Flags.class);
         protected String pattern;
         protected BiPredicate<String, String> checkPredicate;
+        protected ContainsPatternsGroups patternsGroups;
 
         /**
          * Sets startsWith flag in builder
@@ -154,6 +206,19 @@ public class ContainsMatcher extends BasicMatcher {
             return this;
         }
 
+        /**
+         * Sets patterns groups in builder. A constant pattern is registered into the group of the field
+         * and the groups should be built after creating all matchers.
+         *
+         * @param patternsGroups patterns groups shared by matchers of an alerting engine
+         * @return this builder
+         * @see ContainsPatternsGroups
+         */
+        public ContainsMatcher.Builder<T> patternsGroups(ContainsPatternsGroups patternsGroups) {
+            this.patternsGroups = patternsGroups;
+            return this;
+        }
+
         /**
          * Sets input string to search
          *
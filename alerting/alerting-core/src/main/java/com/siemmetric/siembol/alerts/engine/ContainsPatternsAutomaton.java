@@ -0,0 +1,201 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import java.util.*;
+/**
+ * An object for multi-pattern substring search
+ *
+ * <p>This class implements Aho-Corasick automaton for searching multiple patterns in one pass over the string.
+ * A pattern can be required to match at the start or at the end of the string.
+ * The automaton is immutable after creation and can be shared between threads.
+ *
+ * @author  Marian Novotny
+ * @see ContainsPatternsGroup
+ */
+public class ContainsPatternsAutomaton {
+    private static final String EMPTY_PATTERN_MSG = "Empty pattern in the patterns automaton";
+    private static final int ROOT = 0;
+    private static final int NO_STATE = -1;
+    private static final int[] EMPTY_OUTPUT = new int[0];
+
+    private final char[][] transitionChars;
+    private final int[][] transitionStates;
+    private final int[] failures;
+    private final int[][] outputs;
+    private final int[] patternLengths;
+    private final boolean[] startsWith;
+    private final boolean[] endsWith;
+
+    /**
+     * Creates the automaton using builder pattern
+     *
+     * @param builder automaton builder
+     */
+    private ContainsPatternsAutomaton(Builder builder) {
+        int numberOfStates = builder.transitions.size();
+        this.transitionChars = new char[numberOfStates][];
+        this.transitionStates = new int[numberOfStates][];
+        this.failures = builder.failures;
+        this.outputs = new int[numberOfStates][];
+
+        for (int i = 0; i < numberOfStates; i++) {
+            TreeMap<Character, Integer> current = builder.transitions.get(i);
+            transitionChars[i] = new char[current.size()];
+            transitionStates[i] = new int[current.size()];
+            int j = 0;
+            for (Map.Entry<Character, Integer> entry : current.entrySet()) {
+                transitionChars[i][j] = entry.getKey();
+                transitionStates[i][j++] = entry.getValue();
+            }
+
+            List<Integer> output = builder.outputs.get(i);
+            outputs[i] = output.isEmpty() ? EMPTY_OUTPUT : output.stream().mapToInt(x -> x).toArray();
+        }
+
+        int numberOfPatterns = builder.patterns.size();
+        this.patternLengths = new int[numberOfPatterns];
+        this.startsWith = new boolean[numberOfPatterns];
+        this.endsWith = new boolean[numberOfPatterns];
+        for (int i = 0; i < numberOfPatterns; i++) {
+            patternLengths[i] = builder.patterns.get(i).length();
+            startsWith[i] = builder.startsWith.get(i);
+            endsWith[i] = builder.endsWith.get(i);
+        }
+    }
+
+    private int getTransition(int state, char c) {
+        int index = Arrays.binarySearch(transitionChars[state], c);
+        return index < 0 ? NO_STATE : transitionStates[state][index];
+    }
+
+    /**
+     * Searches all patterns in the string in one pass
+     *
+     * @param str string for searching
+     * @return bit set with indices of patterns that match the string considering start and end requirements
+     */
+    public BitSet match(String str) {
+        BitSet ret = new BitSet(patternLengths.length);
+        final int length = str.length();
+        int state = ROOT;
+        for (int i = 0; i < length; i++) {
+            char c = str.charAt(i);
+            int next = getTransition(state, c);
+            while (next == NO_STATE && state != ROOT) {
+                state = failures[state];
+                next = getTransition(state, c);
+            }
+            state = next == NO_STATE ? ROOT : next;
+
+            final int end = i + 1;
+            for (int pattern : outputs[state]) {
+                if ((startsWith[pattern] && end != patternLengths[pattern])
+                        || (endsWith[pattern] && end != length)) {
+                    continue;
+                }
+                ret.set(pattern);
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Provides the number of patterns in the automaton
+     *
+     * @return the number of patterns
+     */
+    public int getNumberOfPatterns() {
+        return patternLengths.length;
+    }
+
+    /**
+     * Creates automaton builder instance
+     *
+     * @return automaton builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * A builder for Aho-Corasick automaton
+     *
+     * <p>This class is using Builder pattern.
+     *
+     *
+     * @author  Marian Novotny
+     */
+    public static class Builder {
+        private final List<String> patterns = new ArrayList<>();
+        private final List<Boolean> startsWith = new ArrayList<>();
+        private final List<Boolean> endsWith = new ArrayList<>();
+        private final List<TreeMap<Character, Integer>> transitions = new ArrayList<>();
+        private final List<List<Integer>> outputs = new ArrayList<>();
+        private int[] failures;
+
+        /**
+         * Adds a pattern into the builder. The index of the pattern is the number of previously added patterns.
+         *
+         * @param pattern non-empty string to search
+         * @param isStartsWith the pattern is required to match at the start of the string
+         * @param isEndsWith the pattern is required to match at the end of the string
+         * @return this builder
+         */
+        public Builder addPattern(String pattern, boolean isStartsWith, boolean isEndsWith) {
+            if (pattern == null || pattern.isEmpty()) {
+                throw new IllegalArgumentException(EMPTY_PATTERN_MSG);
+            }
+
+            patterns.add(pattern);
+            startsWith.add(isStartsWith);
+            endsWith.add(isEndsWith);
+            return this;
+        }
+
+        private int addState() {
+            transitions.add(new TreeMap<>());
+            outputs.add(new ArrayList<>());
+            return transitions.size() - 1;
+        }
+
+        /**
+         * Builds the automaton
+         *
+         * @return automaton built from the builder state
+         */
+        public ContainsPatternsAutomaton build() {
+            addState();
+            for (int i = 0; i < patterns.size(); i++) {
+                int state = ROOT;
+                for (char c : patterns.get(i).toCharArray()) {
+                    Integer next = transitions.get(state).get(c);
+                    if (next == null) {
+                        next = addState();
+                        transitions.get(state).put(c, next);
+                    }
+                    state = next;
+                }
+                outputs.get(state).add(i);
+            }
+
+            failures = new int[transitions.size()];
+            Deque<Integer> queue = new ArrayDeque<>(transitions.get(ROOT).values());
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (Map.Entry<Character, Integer> entry : transitions.get(state).entrySet()) {
+                    int child = entry.getValue();
+                    int failure = failures[state];
+                    while (failure != ROOT && !transitions.get(failure).containsKey(entry.getKey())) {
+                        failure = failures[failure];
+                    }
+
+                    Integer failureChild = transitions.get(failure).get(entry.getKey());
+                    failures[child] = failureChild == null ? ROOT : failureChild;
+                    outputs.get(child).addAll(outputs.get(failures[child]));
+                    queue.add(child);
+                }
+            }
+
+            return new ContainsPatternsAutomaton(this);
+        }
+    }
+}
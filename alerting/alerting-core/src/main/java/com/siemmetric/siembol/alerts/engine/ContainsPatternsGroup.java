@@ -0,0 +1,105 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import java.util.BitSet;
+/**
+ * An object that shares substring search of constant patterns registered on the same field
+ *
+ * <p>This class collects constant patterns of contains matchers registered on the same field.
+ * After building, the patterns are searched by one Aho-Corasick automaton and the result of the last search
+ * is cached, so the field value is lower-cased and scanned once for all matchers of the group.
+ * The group is built only if it contains at least two patterns, otherwise matchers evaluate the pattern alone.
+ *
+ * @author  Marian Novotny
+ * @see ContainsMatcher
+ * @see ContainsPatternsAutomaton
+ * @see ContainsPatternsGroups
+ */
+public class ContainsPatternsGroup {
+    private static final String GROUP_ALREADY_BUILT_MSG = "Adding a pattern into already built patterns group";
+    private static final int MIN_PATTERNS_TO_SHARE = 2;
+
+    private final boolean caseInsensitive;
+    private ContainsPatternsAutomaton.Builder automatonBuilder = ContainsPatternsAutomaton.builder();
+    private int numberOfPatterns = 0;
+    private volatile ContainsPatternsAutomaton automaton;
+    private volatile SearchResult lastResult;
+
+    private static class SearchResult {
+        private final String fieldValue;
+        private final BitSet matchedPatterns;
+
+        SearchResult(String fieldValue, BitSet matchedPatterns) {
+            this.fieldValue = fieldValue;
+            this.matchedPatterns = matchedPatterns;
+        }
+    }
+
+    /**
+     * Creates patterns group
+     *
+     * @param caseInsensitive patterns are in lower case and the field value is lower-cased before searching
+     */
+    public ContainsPatternsGroup(boolean caseInsensitive) {
+        this.caseInsensitive = caseInsensitive;
+    }
+
+    /**
+     * Adds a pattern into the group
+     *
+     * @param pattern non-empty constant string to search
+     * @param isStartsWith the pattern is required to match at the start of the field value
+     * @param isEndsWith the pattern is required to match at the end of the field value
+     * @return index of the pattern in the group
+     * @throws IllegalStateException if the group is already built
+     */
+    public synchronized int addPattern(String pattern, boolean isStartsWith, boolean isEndsWith) {
+        if (automatonBuilder == null) {
+            throw new IllegalStateException(GROUP_ALREADY_BUILT_MSG);
+        }
+
+        automatonBuilder.addPattern(pattern, isStartsWith, isEndsWith);
+        return numberOfPatterns++;
+    }
+
+    /**
+     * Builds the automaton if the group contains enough patterns to share the search
+     */
+    public synchronized void build() {
+        if (automatonBuilder == null) {
+            return;
+        }
+
+        if (numberOfPatterns >= MIN_PATTERNS_TO_SHARE) {
+            automaton = automatonBuilder.build();
+        }
+        automatonBuilder = null;
+    }
+
+    /**
+     * Provides information whether the search is shared by the patterns of the group
+     *
+     * @return true if the group was built with an automaton, otherwise false
+     */
+    public boolean isShared() {
+        return automaton != null;
+    }
+
+    /**
+     * Checks whether the pattern matches the field value.
+     * The field value is searched once and the result is reused by next calls with the same field value.
+     *
+     * @param fieldValue string value of the field
+     * @param patternIndex index of the pattern in the group
+     * @return true if the pattern matches the field value, otherwise false
+     */
+    public boolean matches(String fieldValue, int patternIndex) {
+        SearchResult current = lastResult;
+        if (current == null || current.fieldValue != fieldValue) {
+            String stringToSearch = caseInsensitive ? fieldValue.toLowerCase() : fieldValue;
+            current = new SearchResult(fieldValue, automaton.match(stringToSearch));
+            lastResult = current;
+        }
+
+        return current.matchedPatterns.get(patternIndex);
+    }
+}
@@ -0,0 +1,38 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * An object that groups constant patterns of contains matchers by fields
+ *
+ * <p>This class provides a patterns group for each field and case sensitivity.
+ * It is used by the alerting compiler to share substring search across all rules of an engine.
+ *
+ * @author  Marian Novotny
+ * @see ContainsPatternsGroup
+ * @see ContainsMatcher
+ */
+public class ContainsPatternsGroups {
+    private final Map<Pair<String, Boolean>, ContainsPatternsGroup> groups = new HashMap<>();
+
+    /**
+     * Provides the patterns group for the field. It creates a new group if it does not exist.
+     *
+     * @param fieldName name of the field
+     * @param caseInsensitive the patterns of the group are compared case-insensitively
+     * @return patterns group for the field
+     */
+    public ContainsPatternsGroup getGroup(String fieldName, boolean caseInsensitive) {
+        return groups.computeIfAbsent(Pair.of(fieldName, caseInsensitive),
+                x -> new ContainsPatternsGroup(caseInsensitive));
+    }
+
+    /**
+     * Builds all patterns groups
+     */
+    public void build() {
+        groups.values().forEach(ContainsPatternsGroup::build);
+    }
+}
@@ -67,6 +67,30 @@ public class IsInSetMatcher extends BasicMatcher {
                 : EvaluationResult.NO_MATCH;
     }
 
+    /**
+     * Provides names of the fields used in the strings with variables
+     *
+     * @return set of variable names
+     */
+    @Override
+    protected Set<String> getVariableNames() {
+        Set<String> ret = new HashSet<>();
+        variableStrings.forEach(x -> ret.addAll(EvaluationLibrary.getVariableNames(x)));
+        return ret;
+    }
+
+    /**
+     * Provides constant strings if the matcher does not contain variables
+     *
+     * @return required field values with constant strings if the matcher contains no variables, otherwise empty
+     */
+    @Override
+    protected Optional<RequiredFieldValues> getRequiredFieldValuesInternally() {
+        return variableStrings.isEmpty()
+                ? Optional.of(new RequiredFieldValues(getFieldName(), caseInsensitiveCompare, constantStrings))
+                : Optional.empty();
+    }
+
     /**
      * Creates IsInSet matcher builder instance.
      *
@@ -87,7 +111,7 @@ public class IsInSetMatcher extends BasicMatcher {
                         .collect(Collectors.toCollection(HashSet::new));
 
                 variableStrings = words.stream()
-                        .filter(x -> !constantStrings.contains(x))
+                        .filter(EvaluationLibrary::containsVariables)
                         .collect(Collectors.toList());
 
                 return new IsInSetMatcher(this);
@@ -3,6 +3,8 @@ package com.siemmetric.siembol.alerts.engine;
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * An object for matching an event
@@ -39,4 +41,21 @@ public interface Matcher {
      * @return true if the matcher is negated, otherwise false
      */
     boolean isNegated();
+    /**
+     * Provides constant values of a field that are required for matching.
+     * The matcher can match only if the field value is equal to one of the values.
+     *
+     * @return required field values if the matcher requires them, otherwise empty
+     * @see RequiredFieldValues
+     */
+    default Optional<RequiredFieldValues> getRequiredFieldValues() {
+        return Optional.empty();
+    }
+    /**
+     * Provides names of the fields that can be read by the matcher during matching
+     * including the fields used in variables.
+     *
+     * @return set of field names
+     */
+    Set<String> getUsedFieldNames();
 }
@@ -22,6 +22,7 @@ public class NumericCompareMatcher extends BasicMatcher {
     private static final String WRONG_CONSTANT_FORMAT = "Can not convert %s into a number";
     private final BiPredicate<Double, Double> comparator;
     private final Function<Map<String, Object>, Optional<Double>> valueSupplier;
+    private final Set<String> variableNames;
 
     /**
      * Creates numeric comparison matcher using builder pattern.
@@ -32,6 +33,7 @@ public class NumericCompareMatcher extends BasicMatcher {
         super(builder);
         this.comparator = builder.comparator;
         this.valueSupplier = builder.valueSupplier;
+        this.variableNames = EvaluationLibrary.getVariableNames(builder.expression);
     }
 
     /**
@@ -88,6 +90,16 @@ public class NumericCompareMatcher extends BasicMatcher {
         return getDoubleFromObject(substituted.get());
     }
 
+    /**
+     * Provides names of the fields used in the expression
+     *
+     * @return set of variable names
+     */
+    @Override
+    protected Set<String> getVariableNames() {
+        return variableNames;
+    }
+
     /**
      * Creates NumericCompare matcher builder instance.
      *
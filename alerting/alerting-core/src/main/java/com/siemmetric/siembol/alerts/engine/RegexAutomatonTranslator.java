@@ -0,0 +1,301 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import java.util.Optional;
+/**
+ * An object for translating java regular expressions into automaton regular expressions
+ *
+ * <p>This class translates a subset of java regular expression syntax into the syntax of dk.brics automaton.
+ * The translated expression accepts the same strings as java matches method with the DOTALL flag.
+ * Expressions with features that can not be evaluated by a finite automaton such as backreferences,
+ * lookarounds, possessive quantifiers, boundaries or inline flags are not translated.
+ *
+ * @author  Marian Novotny
+ * @see RegexPatternsGroup
+ */
+public class RegexAutomatonTranslator {
+    private static final String DIGITS = "0-9";
+    private static final String WORD_CHARS = "a-zA-Z_0-9";
+    private static final String SPACE_CHARS = " \t\n\u000B\f\r";
+
+    private final String pattern;
+    private int pos;
+
+    private static class UnsupportedSyntaxException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private RegexAutomatonTranslator(String pattern) {
+        this.pattern = pattern;
+    }
+
+    /**
+     * Translates java regular expression into automaton regular expression
+     *
+     * @param pattern java regular expression that is already successfully compiled
+     * @return automaton regular expression if the expression is supported, otherwise empty
+     */
+    public static Optional<String> translate(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            if (Character.isSurrogate(pattern.charAt(i))) {
+                return Optional.empty();
+            }
+        }
+
+        try {
+            return Optional.of(new RegexAutomatonTranslator(pattern).translate());
+        } catch (UnsupportedSyntaxException e) {
+            return Optional.empty();
+        }
+    }
+
+    private String translate() {
+        int end = pattern.length();
+        if (pattern.startsWith("^")) {
+            pos++;
+        }
+
+        int backslashes = 0;
+        for (int i = end - 2; i >= pos && pattern.charAt(i) == '\\'; i--) {
+            backslashes++;
+        }
+        if (end > pos && pattern.charAt(end - 1) == '$' && backslashes % 2 == 0) {
+            end--;
+        }
+
+        String ret = parseAlternation(end);
+        if (pos != end) {
+            throw new UnsupportedSyntaxException();
+        }
+        return ret;
+    }
+
+    private String parseAlternation(int end) {
+        StringBuilder sb = new StringBuilder(parseSequence(end));
+        while (pos < end && pattern.charAt(pos) == '|') {
+            pos++;
+            sb.append('|').append(parseSequence(end));
+        }
+        return sb.toString();
+    }
+
+    private String parseSequence(int end) {
+        StringBuilder sb = new StringBuilder();
+        while (pos < end && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') {
+            String atom = parseAtom(end);
+            while (pos < end && isQuantifierStart(pattern.charAt(pos))) {
+                atom = "(" + atom + parseQuantifier(end) + ")";
+            }
+            sb.append(atom);
+        }
+        return sb.length() == 0 ? "()" : sb.toString();
+    }
+
+    private static boolean isQuantifierStart(char c) {
+        return c == '*' || c == '+' || c == '?' || c == '{';
+    }
+
+    private String parseQuantifier(int end) {
+        char c = pattern.charAt(pos++);
+        String ret;
+        if (c == '{') {
+            int close = pattern.indexOf('}', pos);
+            if (close < 0 || close >= end || !pattern.substring(pos, close).matches("\\d+(,\\d*)?")) {
+                throw new UnsupportedSyntaxException();
+            }
+            ret = pattern.substring(pos - 1, close + 1);
+            pos = close + 1;
+        } else {
+            ret = String.valueOf(c);
+        }
+
+        if (pos < end && pattern.charAt(pos) == '+') {
+            throw new UnsupportedSyntaxException();
+        }
+        if (pos < end && pattern.charAt(pos) == '?') {
+            //NOTE: reluctant quantifiers accept the same strings when the whole string is matched
+            pos++;
+        }
+        return ret;
+    }
+
+    private String parseAtom(int end) {
+        char c = pattern.charAt(pos);
+        switch (c) {
+            case '(':
+                pos++;
+                if (pattern.startsWith("?:", pos)) {
+                    pos += 2;
+                } else if (pos < end && pattern.charAt(pos) == '?') {
+                    throw new UnsupportedSyntaxException();
+                }
+                String inner = parseAlternation(end);
+                if (pos >= end || pattern.charAt(pos) != ')') {
+                    throw new UnsupportedSyntaxException();
+                }
+                pos++;
+                return "(" + inner + ")";
+            case '[':
+                return parseCharClass(end);
+            case '.':
+                pos++;
+                return ".";
+            case '\\':
+                return parseEscape(end);
+            case '^':
+            case '$':
+            case '*':
+            case '+':
+            case '?':
+            case '{':
+                throw new UnsupportedSyntaxException();
+            default:
+                pos++;
+                return escape(c);
+        }
+    }
+
+    private String parseEscape(int end) {
+        pos++;
+        if (pos >= end) {
+            throw new UnsupportedSyntaxException();
+        }
+
+        char c = pattern.charAt(pos);
+        switch (c) {
+            case 'd':
+                pos++;
+                return "[" + DIGITS + "]";
+            case 'D':
+                pos++;
+                return "[^" + DIGITS + "]";
+            case 'w':
+                pos++;
+                return "[" + WORD_CHARS + "]";
+            case 'W':
+                pos++;
+                return "[^" + WORD_CHARS + "]";
+            case 's':
+                pos++;
+                return "[" + escapeAll(SPACE_CHARS) + "]";
+            case 'S':
+                pos++;
+                return "[^" + escapeAll(SPACE_CHARS) + "]";
+            default:
+                return escape(parseEscapedChar(end));
+        }
+    }
+
+    private char parseEscapedChar(int end) {
+        char c = pattern.charAt(pos++);
+        switch (c) {
+            case 't':
+                return '\t';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 'f':
+                return '\f';
+            case 'a':
+                return '\u0007';
+            case 'e':
+                return '\u001B';
+            case 'x':
+                return parseHexChar(2, end);
+            case 'u':
+                return parseHexChar(4, end);
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw new UnsupportedSyntaxException();
+                }
+                return c;
+        }
+    }
+
+    private char parseHexChar(int length, int end) {
+        if (pos + length > end) {
+            throw new UnsupportedSyntaxException();
+        }
+
+        String hex = pattern.substring(pos, pos + length);
+        if (!hex.matches("[0-9a-fA-F]+")) {
+            throw new UnsupportedSyntaxException();
+        }
+        pos += length;
+        return (char)Integer.parseInt(hex, 16);
+    }
+
+    private String parseCharClass(int end) {
+        pos++;
+        StringBuilder sb = new StringBuilder("[");
+        if (pos < end && pattern.charAt(pos) == '^') {
+            sb.append('^');
+            pos++;
+        }
+
+        if (pos >= end || pattern.charAt(pos) == ']') {
+            throw new UnsupportedSyntaxException();
+        }
+
+        while (pos < end && pattern.charAt(pos) != ']') {
+            char c = pattern.charAt(pos);
+            if (c == '[' || pattern.startsWith("&&", pos)) {
+                throw new UnsupportedSyntaxException();
+            }
+
+            if (c == '\\' && pos + 1 < end && "dws".indexOf(pattern.charAt(pos + 1)) >= 0) {
+                char type = pattern.charAt(pos + 1);
+                pos += 2;
+                sb.append(type == 'd' ? DIGITS : type == 'w' ? WORD_CHARS : escapeAll(SPACE_CHARS));
+                if (pos < end && pattern.charAt(pos) == '-' && pos + 1 < end && pattern.charAt(pos + 1) != ']') {
+                    throw new UnsupportedSyntaxException();
+                }
+                continue;
+            }
+
+            char low = parseClassChar(end);
+            if (pos + 1 < end && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']') {
+                pos++;
+                if (pattern.charAt(pos) == '[') {
+                    throw new UnsupportedSyntaxException();
+                }
+                char high = parseClassChar(end);
+                sb.append(escape(low)).append('-').append(escape(high));
+            } else {
+                sb.append(escape(low));
+            }
+        }
+
+        if (pos >= end) {
+            throw new UnsupportedSyntaxException();
+        }
+        pos++;
+        return sb.append(']').toString();
+    }
+
+    private char parseClassChar(int end) {
+        char c = pattern.charAt(pos);
+        if (c != '\\') {
+            pos++;
+            return c;
+        }
+
+        pos++;
+        if (pos >= end) {
+            throw new UnsupportedSyntaxException();
+        }
+        return parseEscapedChar(end);
+    }
+
+    private static String escape(char c) {
+        return "\\" + c;
+    }
+
+    private static String escapeAll(String str) {
+        StringBuilder sb = new StringBuilder();
+        for (char c : str.toCharArray()) {
+            sb.append(escape(c));
+        }
+        return sb.toString();
+    }
+}
@@ -9,6 +9,8 @@ import java.util.regex.Pattern;
  *
  * <p>This derived class of BasicMatcher provides functionality for regular expression matching.
  * It supports extracting fields and put them into an event using regular expression named groups.
+ * Regular expressions without named groups can be registered in a regex patterns group of the field
+ * in order to be evaluated by finite automata.
  *
  * @author  Marian Novotny
  * @see BasicMatcher
@@ -22,6 +24,8 @@ public class RegexMatcher extends BasicMatcher {
 
     private final Pattern pattern;
     private final List<String> variableNames;
+    private final RegexPatternsGroup patternsGroup;
+    private final int patternIndex;
 
     /**
      * Creates regex matcher using builder pattern.
@@ -32,6 +36,13 @@ public class RegexMatcher extends BasicMatcher {
         super(builder);
         this.pattern = builder.pattern;
         this.variableNames = builder.variableNames;
+
+        RegexPatternsGroup group = builder.patternsGroups != null && variableNames.isEmpty()
+                ? builder.patternsGroups.getGroup(getFieldName())
+                : null;
+        Optional<Integer> index = group != null ? group.addPattern(pattern.pattern()) : Optional.empty();
+        this.patternsGroup = index.isPresent() ? group : null;
+        this.patternIndex = index.orElse(-1);
     }
 
     /**
@@ -47,6 +58,7 @@ public class RegexMatcher extends BasicMatcher {
 
     /**
      * Evaluates fieldValue internally using pattern. It puts extracted fields if the pattern contains named groups.
+     * It uses the automaton of the regex patterns group if the pattern is registered in a built group.
      *
      * @param map event as map of string to object
      * @param fieldValue value of the field for matching
@@ -56,6 +68,13 @@ public class RegexMatcher extends BasicMatcher {
     @Override
     protected EvaluationResult matchInternally(Map<String, Object> map, Object fieldValue) {
         var fieldStringValue = fieldValue.toString();
+        if (patternsGroup != null && patternsGroup.isShared(patternIndex)) {
+            Optional<Boolean> groupResult = patternsGroup.matches(fieldStringValue, patternIndex);
+            if (groupResult.isPresent()) {
+                return groupResult.get() ? EvaluationResult.MATCH : EvaluationResult.NO_MATCH;
+            }
+        }
+
         Matcher matcher = pattern.matcher(fieldStringValue);
         if (!matcher.matches()) {
             return EvaluationResult.NO_MATCH;
@@ -99,6 +118,20 @@ public class RegexMatcher extends BasicMatcher {
             extends BasicMatcher.Builder<T> {
         protected Pattern pattern;
         protected List<String> variableNames;
+        protected RegexPatternsGroups patternsGroups;
+
+        /**
+         * Sets regex patterns groups in builder. A pattern without named groups is registered into the group
+         * of the field and the groups should be built after creating all matchers.
+         *
+         * @param patternsGroups regex patterns groups shared by matchers of an alerting engine
+         * @return this builder
+         * @see RegexPatternsGroups
+         */
+        public RegexMatcher.Builder<T> patternsGroups(RegexPatternsGroups patternsGroups) {
+            this.patternsGroups = patternsGroups;
+            return this;
+        }
 
         /**
          * Compiles pattern from string in builder. Renames named groups since regular expression supports
@@ -0,0 +1,156 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import dk.brics.automaton.Automaton;
+import dk.brics.automaton.RegExp;
+import dk.brics.automaton.RunAutomaton;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+/**
+ * An object that evaluates regular expressions registered on the same field by finite automata
+ *
+ * <p>This class collects regular expressions of regex matchers without named groups registered on the same field.
+ * After building, each expression is evaluated by a deterministic automaton in linear time.
+ * Moreover, the union of the expressions is compiled into one automaton that is used as a prefilter,
+ * so the field value is scanned once if none of the expressions match.
+ * The result of the prefilter for the last field value is cached.
+ * Field values with surrogate characters are not evaluated, since java patterns are matching code points.
+ *
+ * @author  Marian Novotny
+ * @see RegexMatcher
+ * @see RegexAutomatonTranslator
+ * @see RegexPatternsGroups
+ */
+public class RegexPatternsGroup {
+    private static final String GROUP_ALREADY_BUILT_MSG = "Adding a pattern into already built patterns group";
+    private static final int MAX_AUTOMATON_STATES = 10000;
+    private static final Optional<Boolean> MATCH = Optional.of(true);
+    private static final Optional<Boolean> NO_MATCH = Optional.of(false);
+
+    private List<String> patterns = new ArrayList<>();
+    private volatile RunAutomaton[] automata;
+    private volatile RunAutomaton prefilter;
+    private final BitSet prefilterPatterns = new BitSet();
+    private volatile SearchResult lastResult;
+
+    private static class SearchResult {
+        private final String fieldValue;
+        private final boolean supported;
+        private final boolean prefilterMatch;
+
+        SearchResult(String fieldValue, boolean supported, boolean prefilterMatch) {
+            this.fieldValue = fieldValue;
+            this.supported = supported;
+            this.prefilterMatch = prefilterMatch;
+        }
+    }
+
+    /**
+     * Adds a regular expression into the group
+     *
+     * @param javaPattern java regular expression without named groups
+     * @return index of the pattern in the group if the expression can be evaluated by an automaton, otherwise empty
+     * @throws IllegalStateException if the group is already built
+     */
+    public synchronized Optional<Integer> addPattern(String javaPattern) {
+        if (patterns == null) {
+            throw new IllegalStateException(GROUP_ALREADY_BUILT_MSG);
+        }
+
+        Optional<String> translated = RegexAutomatonTranslator.translate(javaPattern);
+        if (translated.isEmpty()) {
+            return Optional.empty();
+        }
+
+        patterns.add(translated.get());
+        return Optional.of(patterns.size() - 1);
+    }
+
+    /**
+     * Builds automata of the group. The patterns with too large automata are not evaluated by the group.
+     */
+    public synchronized void build() {
+        if (patterns == null) {
+            return;
+        }
+
+        RunAutomaton[] currentAutomata = new RunAutomaton[patterns.size()];
+        Automaton union = null;
+        for (int i = 0; i < patterns.size(); i++) {
+            Automaton automaton;
+            try {
+                automaton = new RegExp(patterns.get(i), RegExp.NONE).toAutomaton();
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+
+            if (automaton.getNumberOfStates() > MAX_AUTOMATON_STATES) {
+                continue;
+            }
+            currentAutomata[i] = new RunAutomaton(automaton);
+
+            Automaton candidate = union == null ? automaton.clone() : union.union(automaton);
+            candidate.minimize();
+            if (candidate.getNumberOfStates() <= MAX_AUTOMATON_STATES) {
+                union = candidate;
+                prefilterPatterns.set(i);
+            }
+        }
+
+        if (union != null) {
+            prefilter = new RunAutomaton(union);
+        }
+        automata = currentAutomata;
+        patterns = null;
+    }
+
+    /**
+     * Provides information whether the pattern is evaluated by the group
+     *
+     * @param patternIndex index of the pattern in the group
+     * @return true if the group is built and the pattern has an automaton, otherwise false
+     */
+    public boolean isShared(int patternIndex) {
+        RunAutomaton[] current = automata;
+        return current != null && current[patternIndex] != null;
+    }
+
+    /**
+     * Checks whether the pattern matches the whole field value.
+     * The prefilter is evaluated once and the result is reused by next calls with the same field value.
+     *
+     * @param fieldValue string value of the field
+     * @param patternIndex index of the pattern in the group that is shared
+     * @return optional with the matching result, or empty if the field value can not be evaluated by the group
+     */
+    public Optional<Boolean> matches(String fieldValue, int patternIndex) {
+        SearchResult current = lastResult;
+        if (current == null || current.fieldValue != fieldValue) {
+            boolean supported = !containsSurrogates(fieldValue);
+            boolean prefilterMatch = supported && prefilter != null && prefilter.run(fieldValue);
+            current = new SearchResult(fieldValue, supported, prefilterMatch);
+            lastResult = current;
+        }
+
+        if (!current.supported) {
+            return Optional.empty();
+        }
+
+        if (!current.prefilterMatch && prefilterPatterns.get(patternIndex)) {
+            return NO_MATCH;
+        }
+
+        return automata[patternIndex].run(fieldValue) ? MATCH : NO_MATCH;
+    }
+
+    private static boolean containsSurrogates(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (Character.isSurrogate(str.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
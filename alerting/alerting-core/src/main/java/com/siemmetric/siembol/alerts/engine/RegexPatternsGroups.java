@@ -0,0 +1,34 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import java.util.HashMap;
+import java.util.Map;
+/**
+ * An object that groups regular expressions of regex matchers by fields
+ *
+ * <p>This class provides a regex patterns group for each field.
+ * It is used by the alerting compiler in order to evaluate regular expressions by finite automata.
+ *
+ * @author  Marian Novotny
+ * @see RegexPatternsGroup
+ * @see RegexMatcher
+ */
+public class RegexPatternsGroups {
+    private final Map<String, RegexPatternsGroup> groups = new HashMap<>();
+
+    /**
+     * Provides the regex patterns group for the field. It creates a new group if it does not exist.
+     *
+     * @param fieldName name of the field
+     * @return regex patterns group for the field
+     */
+    public RegexPatternsGroup getGroup(String fieldName) {
+        return groups.computeIfAbsent(fieldName, x -> new RegexPatternsGroup());
+    }
+
+    /**
+     * Builds all regex patterns groups
+     */
+    public void build() {
+        groups.values().forEach(RegexPatternsGroup::build);
+    }
+}
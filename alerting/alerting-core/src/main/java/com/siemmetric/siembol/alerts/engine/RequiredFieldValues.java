@@ -0,0 +1,58 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import java.util.Set;
+/**
+ * An object that represents constant values of a field required by a matcher
+ *
+ * <p>This class represents the requirement that the matcher can match only if the string value of the field
+ * is equal to one of the constant values. It is used for indexing rules by their required constants.
+ *
+ * @author  Marian Novotny
+ * @see Matcher
+ * @see RulesIndex
+ */
+public class RequiredFieldValues {
+    private final String fieldName;
+    private final boolean caseInsensitive;
+    private final Set<String> values;
+
+    /**
+     * Creates required field values
+     *
+     * @param fieldName name of the field
+     * @param caseInsensitive the field value is compared case-insensitively - values are in lower case
+     * @param values set of constant values
+     */
+    public RequiredFieldValues(String fieldName, boolean caseInsensitive, Set<String> values) {
+        this.fieldName = fieldName;
+        this.caseInsensitive = caseInsensitive;
+        this.values = values;
+    }
+
+    /**
+     * Provides the name of the field
+     *
+     * @return the name of the field
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Provides information whether the field value is compared case-insensitively
+     *
+     * @return true if the values are in lower case and the field value should be lower-cased before comparing
+     */
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    /**
+     * Provides the set of constant values
+     *
+     * @return the set of constant values
+     */
+    public Set<String> getValues() {
+        return values;
+    }
+}
@@ -2,6 +2,7 @@ package com.siemmetric.siembol.alerts.engine;
 
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 import com.siemmetric.siembol.alerts.common.AlertingResult;
+import com.siemmetric.siembol.alerts.common.EventOverlayMap;
 import java.util.*;
 /**
  * An object for alerting rule
@@ -20,6 +21,8 @@ public class Rule extends AbstractRule {
     private static final String RULE_MATCH_FORMAT_STR = "Rule: %s matches with the event:";
     private final List<Matcher> matchers;
     private final EnumSet<RuleFlags> flags;
+    private final RequiredFieldValues requiredFieldValues;
+    private final Set<String> usedFieldNames;
 
     /**
      * Creates rule using builder pattern.
@@ -30,12 +33,14 @@ public class Rule extends AbstractRule {
         super(builder);
         this.matchers = builder.matchers;
         this.flags = builder.flags;
+        this.requiredFieldValues = builder.requiredFieldValues;
+        this.usedFieldNames = builder.usedFieldNames;
     }
 
     /**
      * Evaluates the rule by calling underlying matchers - all matchers are required to match to return MATCH result.
      * It includes the matching result with attributes in alerting result.
-     * It creates a copy of the event if the rule can modify the event during the evaluation.
+     * It creates a copy-on-write overlay of the event if the rule can modify the event during the evaluation.
      *
      * @param event map of string to object
      * @return alerting result after evaluation
@@ -44,7 +49,7 @@ public class Rule extends AbstractRule {
      */
     @Override
     public AlertingResult match(Map<String, Object> event) {
-        Map<String, Object> current = canModifyEvent() ? new HashMap<>(event) : event;
+        Map<String, Object> current = canModifyEvent() ? new EventOverlayMap(event) : event;
         for (Matcher matcher : matchers) {
             EvaluationResult result = matcher.match(current);
             if (result == EvaluationResult.NO_MATCH) {
@@ -70,6 +75,28 @@ public class Rule extends AbstractRule {
         return flags.contains(RuleFlags.CAN_MODIFY_EVENT);
     }
 
+    /**
+     * Provides constant values of a field that are required for matching the rule.
+     * If several matchers require values, the one with the smallest set of values is provided.
+     * It is used for indexing rules in an alerting engine.
+     *
+     * @return required field values if the rule requires them, otherwise empty
+     * @see RequiredFieldValues
+     */
+    public Optional<RequiredFieldValues> getRequiredFieldValues() {
+        return Optional.ofNullable(requiredFieldValues);
+    }
+
+    /**
+     * Provides names of the fields that can be read by matchers of the rule.
+     * It is used for reading only required fields of the event before evaluation.
+     *
+     * @return set of field names
+     */
+    public Set<String> getUsedFieldNames() {
+        return usedFieldNames;
+    }
+
     /**
      * A builder for an alerting rule
      *
@@ -83,6 +110,8 @@ public class Rule extends AbstractRule {
         protected static final String NEGATED_MATCHERS_ONLY = "The rule contains negated matchers only";
         protected List<Matcher> matchers;
         protected EnumSet<RuleFlags> flags = EnumSet.noneOf(RuleFlags.class);
+        protected RequiredFieldValues requiredFieldValues;
+        protected Set<String> usedFieldNames = new HashSet<>();
 
         /**
          * Sets the list of matchers
@@ -114,10 +143,22 @@ public class Rule extends AbstractRule {
 
             boolean allNegatedMatchers = true;
             for (Matcher matcher : matchers) {
+                allNegatedMatchers &= matcher.isNegated();
+                usedFieldNames.addAll(matcher.getUsedFieldNames());
+
+                //NOTE: a field can be written by a previous matcher, so the values are not required in the event
+                Optional<RequiredFieldValues> current = flags.contains(RuleFlags.CAN_MODIFY_EVENT)
+                        ? Optional.empty()
+                        : matcher.getRequiredFieldValues();
                 if (matcher.canModifyEvent()) {
                     flags.add(RuleFlags.CAN_MODIFY_EVENT);
                 }
-                allNegatedMatchers &= matcher.isNegated();
+
+                if (current.isPresent()
+                        && (requiredFieldValues == null
+                        || current.get().getValues().size() < requiredFieldValues.getValues().size())) {
+                    requiredFieldValues = current.get();
+                }
             }
             if (allNegatedMatchers) {
                 throw new IllegalArgumentException(NEGATED_MATCHERS_ONLY);
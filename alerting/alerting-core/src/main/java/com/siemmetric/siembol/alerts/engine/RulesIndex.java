@@ -0,0 +1,128 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.*;
+import java.util.function.Consumer;
+/**
+ * An object that indexes alerting rules by their required constant field values
+ *
+ * <p>This class implements a discrimination index of rules. A rule that requires a constant value of a field
+ * is registered in the index under the field and the constant values. The rules that do not require any value
+ * are evaluated on every event. For an event, only the rules whose required values are present in the event
+ * are provided to the caller. The rules are provided in the same order as they were registered.
+ *
+ * @author  Marian Novotny
+ * @see Rule
+ * @see RequiredFieldValues
+ * @see AlertingEngineImpl
+ */
+public class RulesIndex {
+    private final List<Rule> rules;
+    private final BitSet unindexedRules;
+    private final List<FieldIndex> fieldIndexes;
+
+    private static class FieldIndex {
+        private final String fieldName;
+        private final boolean caseInsensitive;
+        private final Map<String, List<Integer>> valueToRulesBuilder = new HashMap<>();
+        private final Map<String, int[]> valueToRules = new HashMap<>();
+
+        FieldIndex(String fieldName, boolean caseInsensitive) {
+            this.fieldName = fieldName;
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        void addRule(int ruleIndex, Set<String> values) {
+            values.forEach(x -> valueToRulesBuilder.computeIfAbsent(x, k -> new ArrayList<>()).add(ruleIndex));
+        }
+
+        void prepare() {
+            valueToRulesBuilder.forEach((k, v) -> valueToRules.put(k, v.stream().mapToInt(x -> x).toArray()));
+            valueToRulesBuilder.clear();
+        }
+
+        int[] getRules(Map<String, Object> event) {
+            Object fieldValue = event.get(fieldName);
+            if (fieldValue == null) {
+                return null;
+            }
+
+            String fieldStringValue = fieldValue.toString();
+            return valueToRules.get(caseInsensitive ? fieldStringValue.toLowerCase() : fieldStringValue);
+        }
+    }
+
+    /**
+     * Creates the rules index
+     *
+     * @param rules list of rules to be indexed
+     */
+    public RulesIndex(List<Rule> rules) {
+        this.rules = new ArrayList<>(rules);
+        this.unindexedRules = new BitSet(rules.size());
+
+        Map<Pair<String, Boolean>, FieldIndex> indexes = new LinkedHashMap<>();
+        for (int i = 0; i < this.rules.size(); i++) {
+            Optional<RequiredFieldValues> requiredValues = this.rules.get(i).getRequiredFieldValues();
+            if (requiredValues.isEmpty()) {
+                unindexedRules.set(i);
+                continue;
+            }
+
+            RequiredFieldValues current = requiredValues.get();
+            indexes.computeIfAbsent(Pair.of(current.getFieldName(), current.isCaseInsensitive()),
+                    x -> new FieldIndex(x.getLeft(), x.getRight()))
+                    .addRule(i, current.getValues());
+        }
+
+        indexes.values().forEach(FieldIndex::prepare);
+        this.fieldIndexes = new ArrayList<>(indexes.values());
+    }
+
+    /**
+     * Calls the action for each rule that can match the event.
+     * The rules are provided in the order of registration.
+     *
+     * @param event map of string to object
+     * @param action action that will be called for the candidate rules
+     */
+    public void forEachCandidate(Map<String, Object> event, Consumer<Rule> action) {
+        if (fieldIndexes.isEmpty()) {
+            rules.forEach(action);
+            return;
+        }
+
+        BitSet candidates = (BitSet) unindexedRules.clone();
+        for (FieldIndex fieldIndex : fieldIndexes) {
+            int[] indexedRules = fieldIndex.getRules(event);
+            if (indexedRules != null) {
+                for (int ruleIndex : indexedRules) {
+                    candidates.set(ruleIndex);
+                }
+            }
+        }
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            action.accept(rules.get(i));
+        }
+    }
+
+    /**
+     * Provides the number of rules in the index
+     *
+     * @return the number of all rules
+     */
+    public int getNumberOfRules() {
+        return rules.size();
+    }
+
+    /**
+     * Provides the number of rules that are registered by required field values
+     *
+     * @return the number of indexed rules
+     */
+    public int getNumberOfIndexedRules() {
+        return rules.size() - unindexedRules.cardinality();
+    }
+}
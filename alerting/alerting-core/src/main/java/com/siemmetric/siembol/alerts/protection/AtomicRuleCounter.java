@@ -0,0 +1,71 @@
+package com.siemmetric.siembol.alerts.protection;
+
+import java.util.concurrent.atomic.AtomicLong;
+/**
+ * An object that counts hourly and daily matches of a rule
+ *
+ * <p>This object counts hourly and daily matches using lock-free atomic counters.
+ * Each counter stores the index of its time bucket in the upper 32 bits and
+ * the number of matches in the lower 32 bits, so the counter is reset atomically
+ * by the first increment in a new bucket. It does not allocate objects during incrementing.
+ *
+ * @author  Marian Novotny
+ * @see TimeBuckets
+ *
+ */
+public class AtomicRuleCounter {
+    private static final int INDEX_SHIFT = 32;
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+    private final TimeBuckets timeBuckets;
+    private final AtomicLong hourlyState = new AtomicLong();
+    private final AtomicLong dailyState = new AtomicLong();
+
+    public AtomicRuleCounter(TimeBuckets timeBuckets) {
+        this.timeBuckets = timeBuckets;
+    }
+
+    /**
+     * Increments the matches and stores hourly and daily matches after incrementing
+     *
+     * @param ruleMatches the object for storing hourly and daily matches
+     */
+    public void increment(RuleMatches ruleMatches) {
+        TimeBuckets.Bucket bucket = timeBuckets.getCurrentBucket();
+        ruleMatches.setHourlyMatches(increment(hourlyState, bucket.getHourIndex()));
+        ruleMatches.setDailyMatches(increment(dailyState, bucket.getDayIndex()));
+    }
+
+    /**
+     * Stores hourly and daily matches in the current time buckets
+     *
+     * @param ruleMatches the object for storing hourly and daily matches
+     */
+    public void get(RuleMatches ruleMatches) {
+        TimeBuckets.Bucket bucket = timeBuckets.getCurrentBucket();
+        ruleMatches.setHourlyMatches(get(hourlyState, bucket.getHourIndex()));
+        ruleMatches.setDailyMatches(get(dailyState, bucket.getDayIndex()));
+    }
+
+    private static int increment(AtomicLong state, long index) {
+        while (true) {
+            long current = state.get();
+            long count = current & COUNT_MASK;
+            //NOTE: the matches from a time going backwards are counted into the current bucket
+            long next = (current >>> INDEX_SHIFT) >= index
+                    ? (count == COUNT_MASK ? current : current + 1)
+                    : (index << INDEX_SHIFT) | 1;
+            if (state.compareAndSet(current, next)) {
+                return toMatches(next);
+            }
+        }
+    }
+
+    private static int get(AtomicLong state, long index) {
+        long current = state.get();
+        return (current >>> INDEX_SHIFT) >= index ? toMatches(current) : 0;
+    }
+
+    private static int toMatches(long state) {
+        return (int)Math.min(state & COUNT_MASK, Integer.MAX_VALUE);
+    }
+}
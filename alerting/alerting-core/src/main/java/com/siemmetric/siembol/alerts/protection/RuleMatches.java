@@ -0,0 +1,30 @@
+package com.siemmetric.siembol.alerts.protection;
+/**
+ * An object that holds hourly and daily matches of a rule
+ *
+ * <p>This mutable object is used for obtaining rule matches without allocating new objects.
+ *
+ * @author  Marian Novotny
+ * @see RuleProtectionSystem
+ *
+ */
+public class RuleMatches {
+    private int hourlyMatches;
+    private int dailyMatches;
+
+    public int getHourlyMatches() {
+        return hourlyMatches;
+    }
+
+    public void setHourlyMatches(int hourlyMatches) {
+        this.hourlyMatches = hourlyMatches;
+    }
+
+    public int getDailyMatches() {
+        return dailyMatches;
+    }
+
+    public void setDailyMatches(int dailyMatches) {
+        this.dailyMatches = dailyMatches;
+    }
+}
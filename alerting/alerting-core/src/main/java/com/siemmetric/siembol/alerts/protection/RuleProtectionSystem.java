@@ -22,6 +22,15 @@ public interface RuleProtectionSystem {
      */
     AlertingResult incrementRuleMatches(String fullRuleName);
 
+    /**
+     * Increments rule matches and stores hourly and daily matches without allocating objects
+     *
+     * @param fullRuleName full rule name
+     * @param ruleMatches the object for storing hourly and daily matches of the rule after incrementing
+     * @see RuleMatches
+     */
+    void incrementRuleMatches(String fullRuleName, RuleMatches ruleMatches);
+
     /**
      * Returns hourly and daily matches
      *
@@ -4,38 +4,55 @@ import com.siemmetric.siembol.alerts.common.AlertingAttributes;
 import com.siemmetric.siembol.alerts.common.AlertingResult;
 
 import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 /**
- * An object for counting rule matches using simple in memory counter
+ * An object for counting rule matches using in memory atomic counters
  *
- * <p>This class implements RuleProtectionSystem interface using simple in-memory counting.
+ * <p>This class implements RuleProtectionSystem interface using lock-free in-memory counting.
+ * It is thread safe, so it can be shared by several executors in a worker.
  *
  *
  * @author  Marian Novotny
  * @see RuleProtectionSystem
- * @see SimpleCounter
+ * @see AtomicRuleCounter
  *
  */
 public class RuleProtectionSystemImpl implements RuleProtectionSystem {
     private static final String UNKNOWN_RULE = "No matches of the rule %s";
-    private final Map<String, SimpleCounter> ruleCounters = new HashMap<>();
+    private static final RuleProtectionSystemImpl SHARED_INSTANCE = new RuleProtectionSystemImpl();
+    private final Map<String, AtomicRuleCounter> ruleCounters = new ConcurrentHashMap<>();
+    private final TimeBuckets timeBuckets;
+
+    public RuleProtectionSystemImpl() {
+        this(new TimeBuckets());
+    }
+
+    RuleProtectionSystemImpl(TimeBuckets timeBuckets) {
+        this.timeBuckets = timeBuckets;
+    }
 
     /**
      * {@inheritDoc}
      */
     @Override
     public AlertingResult incrementRuleMatches(String fullRuleName) {
-        if (!ruleCounters.containsKey(fullRuleName)) {
-            ruleCounters.put(fullRuleName, new SimpleCounter());
-        }
+        RuleMatches ruleMatches = new RuleMatches();
+        incrementRuleMatches(fullRuleName, ruleMatches);
+        return createResult(ruleMatches);
+    }
 
-        SimpleCounter counter = ruleCounters.get(fullRuleName);
-        counter.updateAndIncrement();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void incrementRuleMatches(String fullRuleName, RuleMatches ruleMatches) {
+        AtomicRuleCounter counter = ruleCounters.get(fullRuleName);
+        if (counter == null) {
+            ruleCounters.putIfAbsent(fullRuleName, new AtomicRuleCounter(timeBuckets));
+            counter = ruleCounters.get(fullRuleName);
+        }
 
-        AlertingAttributes attr = new AlertingAttributes();
-        attr.setHourlyMatches(counter.getHourlyMatches());
-        attr.setDailyMatches(counter.getDailyMatches());
-        return new AlertingResult(AlertingResult.StatusCode.OK, attr);
+        counter.increment(ruleMatches);
     }
 
     /**
@@ -43,14 +60,29 @@ public class RuleProtectionSystemImpl implements RuleProtectionSystem {
      */
     @Override
     public AlertingResult getRuleMatches(String fullRuleName) {
-        if (!ruleCounters.containsKey(fullRuleName)) {
+        AtomicRuleCounter counter = ruleCounters.get(fullRuleName);
+        if (counter == null) {
             return AlertingResult.fromErrorMessage(String.format(UNKNOWN_RULE, fullRuleName));
         }
 
-        SimpleCounter counter = ruleCounters.get(fullRuleName);
+        RuleMatches ruleMatches = new RuleMatches();
+        counter.get(ruleMatches);
+        return createResult(ruleMatches);
+    }
+
+    /**
+     * Provides the rule protection system shared in the worker
+     *
+     * @return the shared rule protection system
+     */
+    public static RuleProtectionSystem getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    private AlertingResult createResult(RuleMatches ruleMatches) {
         AlertingAttributes attr = new AlertingAttributes();
-        attr.setHourlyMatches(counter.getHourlyMatches());
-        attr.setDailyMatches(counter.getDailyMatches());
+        attr.setHourlyMatches(ruleMatches.getHourlyMatches());
+        attr.setDailyMatches(ruleMatches.getDailyMatches());
         return new AlertingResult(AlertingResult.StatusCode.OK, attr);
     }
 }
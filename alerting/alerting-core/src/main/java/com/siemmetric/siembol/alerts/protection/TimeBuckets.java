@@ -0,0 +1,81 @@
+package com.siemmetric.siembol.alerts.protection;
+
+import com.siemmetric.siembol.common.utils.TimeProvider;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+/**
+ * An object that provides hour and day buckets of the current time
+ *
+ * <p>This class provides the indices of the current hour and day in the local time zone.
+ * The boundaries of the current hour are precomputed, so the bucket is computed only once per hour
+ * and the current bucket is obtained by comparing the current time with the boundaries.
+ * It is thread safe and it can be shared by rule counters.
+ *
+ * @author  Marian Novotny
+ * @see AtomicRuleCounter
+ *
+ */
+public class TimeBuckets {
+    private static final long SECONDS_IN_HOUR = 3600L;
+    private final TimeProvider timeProvider;
+    private final ZoneId zoneId;
+    private volatile Bucket currentBucket;
+
+    /**
+     * An object that represents an hour bucket with its boundaries
+     */
+    public static class Bucket {
+        private final long startMs;
+        private final long endMs;
+        private final long hourIndex;
+        private final long dayIndex;
+
+        Bucket(long timeMs, ZoneId zoneId) {
+            ZonedDateTime hourStart = Instant.ofEpochMilli(timeMs).atZone(zoneId).truncatedTo(ChronoUnit.HOURS);
+            startMs = hourStart.toInstant().toEpochMilli();
+            endMs = hourStart.plusHours(1).toInstant().toEpochMilli();
+            hourIndex = hourStart.toLocalDateTime().toEpochSecond(ZoneOffset.UTC) / SECONDS_IN_HOUR;
+            dayIndex = hourStart.toLocalDate().toEpochDay();
+        }
+
+        boolean contains(long timeMs) {
+            return timeMs >= startMs && timeMs < endMs;
+        }
+
+        public long getHourIndex() {
+            return hourIndex;
+        }
+
+        public long getDayIndex() {
+            return dayIndex;
+        }
+    }
+
+    public TimeBuckets() {
+        this(new TimeProvider(), ZoneId.systemDefault());
+    }
+
+    TimeBuckets(TimeProvider timeProvider, ZoneId zoneId) {
+        this.timeProvider = timeProvider;
+        this.zoneId = zoneId;
+    }
+
+    /**
+     * Provides the bucket of the current time
+     *
+     * @return the bucket of the current hour
+     */
+    public Bucket getCurrentBucket() {
+        long now = timeProvider.getCurrentTimeInMs();
+        Bucket bucket = currentBucket;
+        if (bucket == null || !bucket.contains(now)) {
+            bucket = new Bucket(now, zoneId);
+            currentBucket = bucket;
+        }
+        return bucket;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.mockito.Mockito.*;
 import static com.siemmetric.siembol.alerts.common.AlertingEngineType.SIEMBOL_ALERTS;
@@ -116,6 +117,42 @@ public class CompositeAlertingEngineTest {
         Assert.assertEquals(2, result.getAttributes().getExceptionEvents().size());
     }
 
+    @Test
+    public void testParallelMatchOrdered() {
+        Map<String, Object> first = new HashMap<>();
+        first.put("order", 1);
+        Map<String, Object> second = new HashMap<>();
+        second.put("order", 2);
+        Map<String, Object> third = new HashMap<>();
+        third.put("order", 3);
+        resultEngine1.getAttributes().setOutputEvents(Arrays.asList(first, second));
+        resultEngine2.getAttributes().setOutputEvents(Collections.singletonList(third));
+        resultEngine2.getAttributes().setExceptionEvents(Collections.singletonList(new HashMap<>()));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            compositeEngine = new CompositeAlertingEngine(Arrays.asList(engine1, engine2), pool);
+            AlertingResult result = compositeEngine.evaluate(event);
+            Assert.assertEquals(OK, result.getStatusCode());
+            Assert.assertEquals(EvaluationResult.MATCH, result.getAttributes().getEvaluationResult());
+            Assert.assertEquals(Arrays.asList(first, second, third), result.getAttributes().getOutputEvents());
+            Assert.assertEquals(1, result.getAttributes().getExceptionEvents().size());
+            verify(engine1, times(1)).evaluate(event);
+            verify(engine2, times(1)).evaluate(event);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testParallelErrorSecond() {
+        when(engine2.evaluate(event)).thenThrow(new IllegalStateException());
+        compositeEngine = new CompositeAlertingEngine(Arrays.asList(engine1, engine2), ForkJoinPool.commonPool());
+        AlertingResult result = compositeEngine.evaluate(event);
+        Assert.assertEquals(ERROR, result.getStatusCode());
+        Assert.assertNull(result.getAttributes().getOutputEvents());
+    }
+
     @Test
     public void testGetEngineType() {
         Assert.assertEquals(SIEMBOL_ALERTS, compositeEngine.getAlertingEngineType());
@@ -0,0 +1,97 @@
+package com.siemmetric.siembol.alerts.common;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class EventOverlayMapTest {
+    private Map<String, Object> base;
+    private EventOverlayMap overlay;
+
+    @Before
+    public void setUp() {
+        base = new HashMap<>();
+        base.put("a", "base_a");
+        base.put("b", 1);
+        base.put("c", null);
+        overlay = new EventOverlayMap(base);
+    }
+
+    @Test
+    public void readFromBase() {
+        Assert.assertEquals(base, overlay);
+        Assert.assertEquals(3, overlay.size());
+        Assert.assertEquals("base_a", overlay.get("a"));
+        Assert.assertTrue(overlay.containsKey("c"));
+        Assert.assertFalse(overlay.containsKey("d"));
+        Assert.assertEquals(base.hashCode(), overlay.hashCode());
+    }
+
+    @Test
+    public void putDoesNotModifyBase() {
+        Assert.assertEquals("base_a", overlay.put("a", "overlay_a"));
+        Assert.assertNull(overlay.put("d", "overlay_d"));
+        Assert.assertEquals("overlay_a", overlay.get("a"));
+        Assert.assertEquals("overlay_d", overlay.get("d"));
+        Assert.assertEquals(4, overlay.size());
+
+        Assert.assertEquals(3, base.size());
+        Assert.assertEquals("base_a", base.get("a"));
+
+        Map<String, Object> expected = new HashMap<>(base);
+        expected.put("a", "overlay_a");
+        expected.put("d", "overlay_d");
+        Assert.assertEquals(expected, overlay);
+        Assert.assertEquals(expected, new HashMap<>(overlay));
+    }
+
+    @Test
+    public void removeDoesNotModifyBase() {
+        overlay.put("d", "overlay_d");
+        Assert.assertEquals("base_a", overlay.remove("a"));
+        Assert.assertEquals("overlay_d", overlay.remove("d"));
+        Assert.assertNull(overlay.remove("unknown"));
+        Assert.assertFalse(overlay.containsKey("a"));
+        Assert.assertNull(overlay.get("a"));
+        Assert.assertEquals(2, overlay.size());
+        Assert.assertEquals(3, base.size());
+
+        Assert.assertNull(overlay.put("a", "overlay_a"));
+        Assert.assertEquals("overlay_a", overlay.get("a"));
+        Assert.assertEquals(3, overlay.size());
+    }
+
+    @Test
+    public void iteratorRemove() {
+        overlay.put("a", "overlay_a");
+        overlay.put("d", "overlay_d");
+        overlay.keySet().removeIf(x -> x.equals("a") || x.equals("b"));
+        Assert.assertEquals(2, overlay.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("c", "d")), overlay.keySet());
+        Assert.assertEquals(3, base.size());
+
+        overlay.clear();
+        Assert.assertTrue(overlay.isEmpty());
+        Assert.assertEquals(3, base.size());
+    }
+
+    @Test
+    public void overlayOfOverlaySharesBase() {
+        overlay.put("d", "overlay_d");
+        overlay.remove("b");
+        EventOverlayMap other = new EventOverlayMap(overlay);
+        other.put("e", "other_e");
+        other.put("b", 2);
+
+        Assert.assertEquals(3, overlay.size());
+        Assert.assertFalse(overlay.containsKey("e"));
+        Assert.assertFalse(overlay.containsKey("b"));
+
+        Assert.assertEquals(5, other.size());
+        Assert.assertEquals("overlay_d", other.get("d"));
+        Assert.assertEquals(2, other.get("b"));
+        Assert.assertEquals("base_a", other.get("a"));
+    }
+}
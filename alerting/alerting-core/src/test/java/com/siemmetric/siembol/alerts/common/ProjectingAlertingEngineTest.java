@@ -0,0 +1,110 @@
+package com.siemmetric.siembol.alerts.common;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+import static com.siemmetric.siembol.alerts.common.AlertingResult.StatusCode.ERROR;
+import static com.siemmetric.siembol.alerts.common.AlertingResult.StatusCode.OK;
+
+public class ProjectingAlertingEngineTest {
+    private final String event = """
+            {
+              "source_type" : "secret",
+              "is_alert" : true,
+              "dummy_field_int" : 1,
+              "nested" : { "a" : [ 1, 2, { "b" : "c" } ], "is_alert" : false },
+              "list" : [ "x", "y" ]
+            }
+            """;
+
+    private AlertingEngine engine;
+    private AlertingEngine projectingEngine;
+    private AlertingResult noMatchResult;
+    private AlertingResult matchResult;
+    private ArgumentCaptor<Map<String, Object>> eventCaptor;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        engine = Mockito.mock(AlertingEngine.class);
+        when(engine.getUsedFieldNames()).thenReturn(Optional.of(new HashSet<>(
+                Arrays.asList("source_type", "is_alert", "list", "missing"))));
+        noMatchResult = AlertingResult.fromEvaluationResult(EvaluationResult.NO_MATCH, new HashMap<>());
+        matchResult = AlertingResult.fromEvaluationResult(EvaluationResult.MATCH, new HashMap<>());
+        eventCaptor = ArgumentCaptor.forClass(Map.class);
+        projectingEngine = ProjectingAlertingEngine.wrap(engine);
+    }
+
+    @Test
+    public void readProjectedEvent() throws Exception {
+        ProjectedEventReader reader = new ProjectedEventReader(new HashSet<>(Arrays.asList("is_alert", "nested")));
+        Map<String, Object> projected = reader.read(event);
+        Assert.assertEquals(2, projected.size());
+        Assert.assertEquals(true, projected.get("is_alert"));
+        Assert.assertTrue(projected.get("nested") instanceof Map);
+        Map<String, Object> fullEvent = AlertingEngine.JSON_READER.readValue(event);
+        Assert.assertEquals(fullEvent.get("nested"), projected.get("nested"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readProjectedEventNotObject() throws Exception {
+        new ProjectedEventReader(new HashSet<>()).read("[1, 2]");
+    }
+
+    @Test
+    public void noMatchProjectedEventOnly() {
+        when(engine.evaluate(anyMap())).thenReturn(noMatchResult);
+        AlertingResult ret = projectingEngine.evaluate(event);
+        Assert.assertEquals(OK, ret.getStatusCode());
+        Assert.assertEquals(EvaluationResult.NO_MATCH, ret.getAttributes().getEvaluationResult());
+
+        verify(engine, times(1)).evaluate(eventCaptor.capture());
+        Map<String, Object> evaluated = eventCaptor.getValue();
+        Assert.assertEquals(3, evaluated.size());
+        Assert.assertEquals("secret", evaluated.get("source_type"));
+        Assert.assertEquals(true, evaluated.get("is_alert"));
+        Assert.assertEquals(Arrays.asList("x", "y"), evaluated.get("list"));
+    }
+
+    @Test
+    public void matchEvaluatesWholeEvent() {
+        when(engine.evaluate(anyMap())).thenReturn(matchResult);
+        AlertingResult ret = projectingEngine.evaluate(event);
+        Assert.assertEquals(matchResult, ret);
+
+        verify(engine, times(2)).evaluate(eventCaptor.capture());
+        Assert.assertEquals(3, eventCaptor.getAllValues().get(0).size());
+        Assert.assertEquals(5, eventCaptor.getAllValues().get(1).size());
+    }
+
+    @Test
+    public void exceptionEventsEvaluatesWholeEvent() {
+        AlertingAttributes attributes = new AlertingAttributes();
+        attributes.setEvaluationResult(EvaluationResult.NO_MATCH);
+        attributes.setExceptionEvents(List.of(new HashMap<>()));
+        when(engine.evaluate(anyMap())).thenReturn(new AlertingResult(OK, attributes));
+
+        projectingEngine.evaluate(event);
+        verify(engine, times(2)).evaluate(anyMap());
+    }
+
+    @Test
+    public void invalidJsonError() {
+        AlertingResult ret = projectingEngine.evaluate("INVALID");
+        Assert.assertEquals(ERROR, ret.getStatusCode());
+        verify(engine, never()).evaluate(anyMap());
+    }
+
+    @Test
+    public void noUsedFieldNamesNotWrapped() {
+        AlertingEngine other = Mockito.mock(AlertingEngine.class);
+        when(other.getUsedFieldNames()).thenReturn(Optional.empty());
+        Assert.assertSame(other, ProjectingAlertingEngine.wrap(other));
+    }
+}
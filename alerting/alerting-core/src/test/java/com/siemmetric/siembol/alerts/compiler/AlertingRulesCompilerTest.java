@@ -3,13 +3,18 @@ package com.siemmetric.siembol.alerts.compiler;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import com.siemmetric.siembol.alerts.common.AlertingEngine;
 import com.siemmetric.siembol.alerts.common.CompositeAlertingEngine;
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 import com.siemmetric.siembol.alerts.common.AlertingResult;
+import com.siemmetric.siembol.alerts.common.ProjectingAlertingEngine;
 import com.siemmetric.siembol.alerts.engine.AlertingEngineImpl;
 
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 public class AlertingRulesCompilerTest {
     private final String alertRules = """
@@ -369,6 +374,24 @@ public class AlertingRulesCompilerTest {
         Assert.assertEquals("secret", matchResult2.getAttributes().getOutputEvents().get(0).get("sensor"));
     }
 
+    @Test
+    public void compileRulesWithCompositeMatcherUsedFieldNames() {
+        String rules = "{ \"rules_version\" : 1, \"tags\" : [], \"rules\" : [" + ruleWithCompositeMatchers + "]}";
+        AlertingResult compileResult = compiler.compile(rules);
+        Assert.assertEquals(AlertingResult.StatusCode.OK, compileResult.getStatusCode());
+
+        Optional<Set<String>> usedFieldNames = compileResult.getAttributes().getEngine().getUsedFieldNames();
+        Assert.assertTrue(usedFieldNames.isPresent());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("is_alert", "source_type", "is_secret", "is_public",
+                "is_detected")), usedFieldNames.get());
+
+        AlertingEngine projectingEngine = ProjectingAlertingEngine.wrap(compileResult.getAttributes().getEngine());
+        AlertingResult matchResult = projectingEngine.evaluate(goodAlertWithSecret);
+        Assert.assertEquals(AlertingResult.StatusCode.OK, matchResult.getStatusCode());
+        Assert.assertEquals(EvaluationResult.MATCH, matchResult.getAttributes().getEvaluationResult());
+        Assert.assertEquals(1, matchResult.getAttributes().getOutputEvents().get(0).get("dummy_field_int"));
+    }
+
     @Test
     public void compileRulesListSizeOne() {
         AlertingResult compileResult = compiler.compile(List.of(alertRules));
@@ -385,6 +408,50 @@ public class AlertingRulesCompilerTest {
         Assert.assertTrue(compileResult.getAttributes().getEngine() instanceof CompositeAlertingEngine);
     }
 
+    @Test
+    public void compileRulesPartitions() throws Exception {
+        String secondRule = ruleWithCompositeMatchers.replace("siembol_alert_generic_with_composite_matchers",
+                "second_rule");
+        String rules = "{ \"rules_version\" : 1, \"tags\" : [], \"rules\" : [" + ruleWithCompositeMatchers
+                + "," + secondRule + "]}";
+        compiler = AlertingRulesCompiler.createAlertingRulesCompiler(false, 4);
+        AlertingResult compileResult = compiler.compile(rules);
+        Assert.assertEquals(AlertingResult.StatusCode.OK, compileResult.getStatusCode());
+        Assert.assertTrue(compileResult.getAttributes().getEngine() instanceof CompositeAlertingEngine);
+
+        AlertingResult matchResult = compileResult.getAttributes().getEngine().evaluate(goodAlertWithSecret);
+        Assert.assertEquals(AlertingResult.StatusCode.OK, matchResult.getStatusCode());
+        Assert.assertEquals(EvaluationResult.MATCH, matchResult.getAttributes().getEvaluationResult());
+        Assert.assertEquals(2, matchResult.getAttributes().getOutputEvents().size());
+        Assert.assertEquals("siembol_alert_generic_with_composite_matchers",
+                matchResult.getAttributes().getOutputEvents().get(0).get("siembol_alerts_rule_name"));
+        Assert.assertEquals("second_rule",
+                matchResult.getAttributes().getOutputEvents().get(1).get("siembol_alerts_rule_name"));
+    }
+
+    @Test
+    public void compileRulesPartitionsSourceTypeRulesFirst() throws Exception {
+        String sourceTypeRule = ruleWithCompositeMatchers
+                .replace("siembol_alert_generic_with_composite_matchers", "source_type_rule")
+                .replace("\"source_type\": \"*\"", "\"source_type\": \"secret\"");
+        String rules = "{ \"rules_version\" : 1, \"tags\" : [], \"rules\" : [" + ruleWithCompositeMatchers
+                + "," + sourceTypeRule + "]}";
+
+        for (int partitions : new int[]{1, 2}) {
+            compiler = AlertingRulesCompiler.createAlertingRulesCompiler(false, partitions);
+            AlertingResult compileResult = compiler.compile(rules);
+            Assert.assertEquals(AlertingResult.StatusCode.OK, compileResult.getStatusCode());
+
+            AlertingResult matchResult = compileResult.getAttributes().getEngine().evaluate(goodAlertWithSecret);
+            Assert.assertEquals(AlertingResult.StatusCode.OK, matchResult.getStatusCode());
+            Assert.assertEquals(2, matchResult.getAttributes().getOutputEvents().size());
+            Assert.assertEquals("source_type_rule",
+                    matchResult.getAttributes().getOutputEvents().get(0).get("siembol_alerts_rule_name"));
+            Assert.assertEquals("siembol_alert_generic_with_composite_matchers",
+                    matchResult.getAttributes().getOutputEvents().get(1).get("siembol_alerts_rule_name"));
+        }
+    }
+
     @Test
     public void compileRulesListInvalid() {
         AlertingResult compileResult = compiler.compile(Arrays.asList(alertRules, "INVALID"));
@@ -116,4 +116,22 @@ public class AlertCounterTest {
             }
         }
     }
+
+    @Test
+    public void updateOutOfOrder() {
+        long[] timestamps = {5, 3, 9, 1, 7, 2, 8};
+        for (long timestamp : timestamps) {
+            alertCounter.update(new AlertContext(timestamp, new Object[]{"secret", timestamp}));
+        }
+        Assert.assertEquals(1, alertCounter.getOldest().longValue());
+        Assert.assertEquals(9, alertCounter.getNewest());
+
+        alertCounter.clean(6);
+        Assert.assertEquals(3, alertCounter.getSize());
+        Assert.assertEquals(7, alertCounter.getOldest().longValue());
+
+        alertCounter.clean(10);
+        Assert.assertTrue(alertCounter.isEmpty());
+        Assert.assertEquals(Long.MIN_VALUE, alertCounter.getNewest());
+    }
 }
@@ -0,0 +1,106 @@
+package com.siemmetric.siembol.alerts.correlationengine;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+
+public class AlertCountersTimingWheelStoreTest {
+    private final long tickMs = 1000;
+    private final int slots = 8;
+    private AlertCounterMetadata counterMetadata;
+    private AlertCountersStore store;
+
+    @Before
+    public void setUp() {
+        counterMetadata = new AlertCounterMetadata("dummy",
+                10, 100000, EnumSet.noneOf(AlertCounterMetadata.Flags.class));
+        store = new AlertCountersTimingWheelStore(tickMs, slots);
+    }
+
+    private ArrayList<AlertCounter> putCounters(String key, long... timestamps) {
+        ArrayList<AlertCounter> counters = new ArrayList<>();
+        AlertCounter counter = new AlertCounter(counterMetadata);
+        for (long timestamp : timestamps) {
+            counter.update(new AlertContext(timestamp, new Object[0]));
+        }
+        counters.add(counter);
+        store.put(key, counters);
+        return counters;
+    }
+
+    @Test
+    public void cleanExpiredKeys() {
+        putCounters("a", 10000, 10500);
+        putCounters("b", 10000, 15500);
+        Assert.assertEquals(2, store.size());
+
+        store.clean(10000);
+        Assert.assertEquals(2, store.size());
+
+        store.clean(11000);
+        Assert.assertEquals(1, store.size());
+        Assert.assertNull(store.get("a"));
+        Assert.assertEquals(2, store.get("b").get(0).getSize());
+
+        store.clean(15999);
+        Assert.assertEquals(1, store.size());
+        store.clean(16000);
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void cleanKeysAfterMoreRotations() {
+        putCounters("a", 10000);
+        putCounters("b", 100000);
+        store.clean(10000);
+        Assert.assertEquals(2, store.size());
+
+        store.clean(12000);
+        Assert.assertEquals(1, store.size());
+
+        for (long time = 13000; time <= 100000; time += 1000) {
+            store.clean(time);
+            Assert.assertEquals(1, store.size());
+        }
+
+        store.clean(101000);
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void cleanKeyUpdatedAfterScheduling() {
+        ArrayList<AlertCounter> counters = putCounters("a", 10000);
+        store.clean(10000);
+        counters.get(0).update(new AlertContext(20000, new Object[0]));
+
+        store.clean(15000);
+        Assert.assertEquals(1, store.size());
+        Assert.assertEquals(1, store.get("a").get(0).getSize());
+
+        store.clean(21000);
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test
+    public void removeAndPutKeyAgain() {
+        putCounters("a", 10000);
+        store.clean(10000);
+        store.remove("a");
+        Assert.assertNull(store.get("a"));
+
+        ArrayList<AlertCounter> counters = putCounters("a", 30000);
+        store.clean(11000);
+        Assert.assertSame(counters, store.get("a"));
+
+        store.clean(31000);
+        Assert.assertEquals(0, store.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidWheel() {
+        new AlertCountersTimingWheelStore(0, slots);
+    }
+}
@@ -1,5 +1,7 @@
 package com.siemmetric.siembol.alerts.correlationengine;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -311,6 +313,144 @@ public class CorrelationRuleTest {
         Assert.assertEquals(MATCH, ret.getAttributes().getEvaluationResult());
     }
 
+    @Test
+    public void cleanMapStore() {
+        ruleFlags = EnumSet.of(CorrelationRule.Flags.USE_EVENT_TIME);
+        AlertCountersStore store = new AlertCountersMapStore();
+        rule = builder.flags(ruleFlags).alertsThresholds(1).alertCountersStore(store).build();
+
+        for (int i = 1; i < 100; i++) {
+            alerts = createAlert(2, correlationKey + i, "alert3", 30000 + i);
+            for (Map<String, Object> alert : alerts) {
+                AlertingResult ret = rule.match(alert);
+                Assert.assertEquals(OK, ret.getStatusCode());
+                Assert.assertEquals(NO_MATCH, ret.getAttributes().getEvaluationResult());
+            }
+        }
+        Assert.assertEquals(99, store.size());
+
+        rule.clean(30050 + 15000);
+        Assert.assertEquals(50, store.size());
+    }
+
+    @Test
+    public void saveAndRestoreState() {
+        rule = builder.build();
+        createAlert(1, correlationKey, "alert1", 30000).forEach(x -> rule.match(x));
+        createAlert(2, correlationKey, "alert2", 30001).forEach(x -> rule.match(x));
+        createAlert(2, correlationKey, "alert3", 30002).forEach(x -> rule.match(x));
+
+        CorrelationRule restoredRule = CorrelationRule.builder()
+                .timeWindowInMs(timeWindowInMs)
+                .maxLagTimeInSec(maxTimeLagInSec)
+                .addAlertCounter("alert1", 1, counterFlags)
+                .addAlertCounter("alert2", 2, counterFlags)
+                .addAlertCounter("alert3", 3, counterFlags)
+                .fieldNamesToSend(fieldNames)
+                .name(ruleName)
+                .version(1)
+                .build();
+        restoredRule.restoreState(rule.getState());
+        Assert.assertEquals(rule.getState(), restoredRule.getState());
+
+        alerts = createAlert(1, correlationKey, "alert3", 30003);
+        AlertingResult ret = restoredRule.match(alerts.get(0));
+        Assert.assertEquals(OK, ret.getStatusCode());
+        Assert.assertEquals(MATCH, ret.getAttributes().getEvaluationResult());
+        List<?> correlated = (List<?>)ret.getAttributes().getEvent()
+                .get(AlertingFields.CORRELATED_ALERTS.getCorrelationAlertingName());
+        Assert.assertEquals(6, correlated.size());
+    }
+
+    @Test
+    public void restoreStateFromRule() {
+        rule = builder.build();
+        createAlert(1, correlationKey, "alert1", 30000).forEach(x -> rule.match(x));
+        createAlert(2, correlationKey, "alert2", 30001).forEach(x -> rule.match(x));
+        createAlert(2, correlationKey, "alert3", 30002).forEach(x -> rule.match(x));
+
+        CorrelationRule newVersionRule = CorrelationRule.builder()
+                .timeWindowInMs(timeWindowInMs)
+                .maxLagTimeInSec(maxTimeLagInSec)
+                .addAlertCounter("alert1", 1, counterFlags)
+                .addAlertCounter("alert2", 2, counterFlags)
+                .addAlertCounter("alert3", 3, counterFlags)
+                .fieldNamesToSend(fieldNames)
+                .name(ruleName)
+                .version(2)
+                .build();
+        Assert.assertFalse(newVersionRule.restoreState(rule));
+
+        CorrelationRule changedThresholdRule = CorrelationRule.builder()
+                .timeWindowInMs(timeWindowInMs)
+                .maxLagTimeInSec(maxTimeLagInSec)
+                .addAlertCounter("alert1", 1, counterFlags)
+                .addAlertCounter("alert2", 2, counterFlags)
+                .addAlertCounter("alert3", 4, counterFlags)
+                .fieldNamesToSend(fieldNames)
+                .name(ruleName)
+                .version(1)
+                .build();
+        Assert.assertFalse(changedThresholdRule.restoreState(rule));
+
+        CorrelationRule changedWindowRule = CorrelationRule.builder()
+                .timeWindowInMs(timeWindowInMs + 1)
+                .maxLagTimeInSec(maxTimeLagInSec)
+                .addAlertCounter("alert1", 1, counterFlags)
+                .addAlertCounter("alert2", 2, counterFlags)
+                .addAlertCounter("alert3", 3, counterFlags)
+                .fieldNamesToSend(fieldNames)
+                .name(ruleName)
+                .version(1)
+                .build();
+        Assert.assertFalse(changedWindowRule.restoreState(rule));
+
+        CorrelationRule sameVersionRule = CorrelationRule.builder()
+                .timeWindowInMs(timeWindowInMs)
+                .maxLagTimeInSec(maxTimeLagInSec)
+                .addAlertCounter("alert1", 1, counterFlags)
+                .addAlertCounter("alert2", 2, counterFlags)
+                .addAlertCounter("alert3", 3, counterFlags)
+                .fieldNamesToSend(fieldNames)
+                .name(ruleName)
+                .version(1)
+                .build();
+        Assert.assertTrue(sameVersionRule.restoreState(rule));
+
+        alerts = createAlert(1, correlationKey, "alert3", 30003);
+        Assert.assertEquals(NO_MATCH, newVersionRule.match(alerts.get(0)).getAttributes().getEvaluationResult());
+        Assert.assertEquals(MATCH, sameVersionRule.match(alerts.get(0)).getAttributes().getEvaluationResult());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void restoreInvalidState() {
+        rule = builder.build();
+        ObjectNode state = new ObjectMapper().createObjectNode();
+        state.putArray(correlationKey).addArray();
+        rule.restoreState(state);
+    }
+
+    @Test
+    public void restorePartiallyInvalidState() {
+        rule = builder.build();
+        createAlert(1, correlationKey, "alert1", 30000).forEach(x -> rule.match(x));
+        ObjectNode state = (ObjectNode)rule.getState();
+        state.putArray("invalid").addArray();
+
+        CorrelationRule restoredRule = CorrelationRule.builder()
+                .timeWindowInMs(timeWindowInMs)
+                .maxLagTimeInSec(maxTimeLagInSec)
+                .addAlertCounter("alert1", 1, counterFlags)
+                .addAlertCounter("alert2", 2, counterFlags)
+                .addAlertCounter("alert3", 3, counterFlags)
+                .fieldNamesToSend(fieldNames)
+                .name(ruleName)
+                .version(1)
+                .build();
+        Assert.assertThrows(IllegalArgumentException.class, () -> restoredRule.restoreState(state));
+        Assert.assertEquals(0, restoredRule.getState().size());
+    }
+
     private List<Map<String, Object>> createAlert(int numbers, String key, String alertName, long processingTime) {
         Map<String, Object> alert = new HashMap<>();
         alert.put("constant", "secret");
@@ -5,7 +5,9 @@ import org.junit.Before;
 import org.junit.Test;
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class ContainsMatcherTest {
@@ -261,4 +263,80 @@ public class ContainsMatcherTest {
                 .fieldName(field)
                 .build();
     }
+
+    @Test
+    public void testSharedPatternsGroupSameAsUnshared() {
+        List<String> patterns = List.of("secret", "SIEMBOL", "sec", "et", "alerts", "secretbbb");
+        List<String> values = List.of("aaSecretbbb", "secret", "siembol alerts", "et", "", "SIEMBOL", "Secretbbb");
+        for (boolean caseInsensitive : List.of(true, false)) {
+            ContainsPatternsGroups groups = new ContainsPatternsGroups();
+            List<ContainsMatcher> sharedMatchers = new ArrayList<>();
+            List<ContainsMatcher> matchers = new ArrayList<>();
+            for (String currentPattern : patterns) {
+                for (int i = 0; i < 4; i++) {
+                    boolean startsWith = (i & 1) != 0;
+                    boolean endsWith = (i & 2) != 0;
+                    sharedMatchers.add(ContainsMatcher.builder()
+                            .data(currentPattern)
+                            .isStartsWith(startsWith)
+                            .isEndsWith(endsWith)
+                            .isCaseInsensitiveCompare(caseInsensitive)
+                            .patternsGroups(groups)
+                            .fieldName(field)
+                            .build());
+                    matchers.add(ContainsMatcher.builder()
+                            .data(currentPattern)
+                            .isStartsWith(startsWith)
+                            .isEndsWith(endsWith)
+                            .isCaseInsensitiveCompare(caseInsensitive)
+                            .fieldName(field)
+                            .build());
+                }
+            }
+            groups.build();
+            Assert.assertTrue(groups.getGroup(field, caseInsensitive).isShared());
+
+            for (String value : values) {
+                event.put(field, value);
+                for (int i = 0; i < matchers.size(); i++) {
+                    Assert.assertEquals(matchers.get(i).match(event), sharedMatchers.get(i).match(event));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPatternsGroupWithOnePatternNotShared() {
+        ContainsPatternsGroups groups = new ContainsPatternsGroups();
+        matcher = ContainsMatcher.builder()
+                .data(pattern)
+                .patternsGroups(groups)
+                .fieldName(field)
+                .build();
+        groups.build();
+        Assert.assertFalse(groups.getGroup(field, false).isShared());
+
+        event.put(field, "aasecretbbb");
+        Assert.assertEquals(EvaluationResult.MATCH, matcher.match(event));
+    }
+
+    @Test
+    public void testPatternWithVariableNotInPatternsGroup() {
+        ContainsPatternsGroups groups = new ContainsPatternsGroups();
+        matcher = ContainsMatcher.builder()
+                .data(patternWithVariable)
+                .patternsGroups(groups)
+                .fieldName(field)
+                .build();
+        ContainsMatcher.builder()
+                .data(pattern)
+                .patternsGroups(groups)
+                .fieldName(field)
+                .build();
+        groups.build();
+        Assert.assertFalse(groups.getGroup(field, false).isShared());
+
+        event.put(field, "aasecret siembolbbb");
+        Assert.assertEquals(EvaluationResult.MATCH, matcher.match(event));
+    }
 }
@@ -0,0 +1,59 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+public class ContainsPatternsAutomatonTest {
+    private ContainsPatternsAutomaton automaton;
+
+    @Before
+    public void setUp() {
+        automaton = ContainsPatternsAutomaton.builder()
+                .addPattern("he", false, false)
+                .addPattern("she", false, false)
+                .addPattern("his", false, false)
+                .addPattern("hers", false, false)
+                .addPattern("ushe", true, false)
+                .addPattern("rs", false, true)
+                .addPattern("ushers", true, true)
+                .build();
+    }
+
+    @Test
+    public void testMatchOverlappingPatterns() {
+        BitSet result = automaton.match("ushers");
+        Assert.assertEquals(7, automaton.getNumberOfPatterns());
+        Assert.assertTrue(result.get(0));
+        Assert.assertTrue(result.get(1));
+        Assert.assertFalse(result.get(2));
+        Assert.assertTrue(result.get(3));
+        Assert.assertTrue(result.get(4));
+        Assert.assertTrue(result.get(5));
+        Assert.assertTrue(result.get(6));
+    }
+
+    @Test
+    public void testStartAndEndRequirements() {
+        BitSet result = automaton.match("aushersa");
+        Assert.assertTrue(result.get(0));
+        Assert.assertTrue(result.get(1));
+        Assert.assertTrue(result.get(3));
+        Assert.assertFalse(result.get(4));
+        Assert.assertFalse(result.get(5));
+        Assert.assertFalse(result.get(6));
+    }
+
+    @Test
+    public void testNoMatch() {
+        Assert.assertTrue(automaton.match("").isEmpty());
+        Assert.assertTrue(automaton.match("siembol").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyPattern() {
+        ContainsPatternsAutomaton.builder().addPattern("", false, false);
+    }
+}
@@ -0,0 +1,46 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class RegexAutomatonTranslatorTest {
+    @Test
+    public void testSupportedPatterns() {
+        List<String> patterns = List.of(
+                "^abc$",
+                "a|b|",
+                "(?:ab)+c*?d{2,3}",
+                "[a-z\\d_-]+\\.exe",
+                "[^\\s]{1,}\\\\x",
+                "\\x41\\u0042\\t.",
+                "\\$\\^\\[\\]\\(\\)\\{\\}",
+                "#@<>&~\"");
+
+        for (String pattern : patterns) {
+            Assert.assertTrue(pattern, RegexAutomatonTranslator.translate(pattern).isPresent());
+        }
+    }
+
+    @Test
+    public void testUnsupportedPatterns() {
+        List<String> patterns = List.of(
+                "(a)\\1",
+                "(?=a)a",
+                "(?<!a)b",
+                "(?i)abc",
+                "a++",
+                "\\bword\\b",
+                "[a-z&&[^b]]",
+                "\\p{Alpha}",
+                "\\Qa.b\\E",
+                "a^b",
+                "a$b",
+                "\uD83D\uDE00+");
+
+        for (String pattern : patterns) {
+            Assert.assertTrue(pattern, RegexAutomatonTranslator.translate(pattern).isEmpty());
+        }
+    }
+}
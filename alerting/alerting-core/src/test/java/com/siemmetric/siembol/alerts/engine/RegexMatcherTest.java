@@ -5,6 +5,8 @@ import org.junit.Before;
 import org.junit.Test;
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -182,4 +184,63 @@ public class RegexMatcherTest {
                 .pattern("valid")
                 .build();
     }
+
+    @Test
+    public void testPatternsGroupSameAsJavaRegex() {
+        List<String> patterns = List.of(
+                "^abc$",
+                ".*secret.*",
+                "(?:ab)+c*?d{2,3}",
+                "[a-z\\d_-]+\\.exe",
+                "\\S+\\s\\w*",
+                ".*(powershell|cmd)\\.exe.*-enc.*",
+                "[^a]{2}",
+                "(a)\\1");
+        List<String> values = List.of("abc", "xx secret\nyy", "ababcdd", "abdddd", "cmd_1.exe", "x.exe",
+                "a\tb", "c:\\powershell.exe -enc AA", "bb", "b\n", "aa", "", "\uD83D\uDE00", "\uD83D\uDE00x");
+
+        RegexPatternsGroups groups = new RegexPatternsGroups();
+        List<RegexMatcher> sharedMatchers = new ArrayList<>();
+        List<RegexMatcher> matchers = new ArrayList<>();
+        for (String pattern : patterns) {
+            sharedMatchers.add(RegexMatcher.builder()
+                    .pattern(pattern)
+                    .patternsGroups(groups)
+                    .fieldName(field)
+                    .build());
+            matchers.add(RegexMatcher.builder()
+                    .pattern(pattern)
+                    .fieldName(field)
+                    .build());
+        }
+        groups.build();
+
+        RegexPatternsGroup group = groups.getGroup(field);
+        for (int i = 0; i < patterns.size() - 1; i++) {
+            Assert.assertTrue(group.isShared(i));
+        }
+
+        for (String value : values) {
+            event.put(field, value);
+            for (int i = 0; i < matchers.size(); i++) {
+                Assert.assertEquals(patterns.get(i) + " " + value,
+                        matchers.get(i).match(event), sharedMatchers.get(i).match(event));
+            }
+        }
+    }
+
+    @Test
+    public void testPatternWithVariablesNotInPatternsGroup() {
+        RegexPatternsGroups groups = new RegexPatternsGroups();
+        matcher = RegexMatcher.builder()
+                .pattern(goodVofDetail)
+                .patternsGroups(groups)
+                .fieldName(field)
+                .build();
+        groups.build();
+
+        event.put(field, vofDetailInstance);
+        Assert.assertEquals(EvaluationResult.MATCH, matcher.match(event));
+        Assert.assertEquals("1", event.get("vof_threat_level"));
+    }
 }
@@ -0,0 +1,169 @@
+package com.siemmetric.siembol.alerts.engine;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import com.siemmetric.siembol.alerts.common.EvaluationResult;
+
+import java.util.*;
+
+public class RulesIndexTest {
+    private final String field = "test_field";
+    private final String otherField = "other_field";
+    private Map<String, Object> event;
+    private Rule setRule;
+    private Rule caseInsensitiveRule;
+    private Rule equalsRule;
+    private Rule unindexedRule;
+    private Rule negatedRule;
+    private RulesIndex index;
+
+    private Rule createRule(String name, List<Matcher> matchers) {
+        return Rule.builder()
+                .matchers(matchers)
+                .name(name)
+                .version(1)
+                .build();
+    }
+
+    private List<String> getCandidates(Map<String, Object> event) {
+        List<String> ret = new ArrayList<>();
+        index.forEachCandidate(event, x -> ret.add(x.getRuleName()));
+        return ret;
+    }
+
+    @Before
+    public void setUp() {
+        event = new HashMap<>();
+        setRule = createRule("set_rule", List.of(
+                ContainsMatcher.builder().data("a").fieldName(otherField).build(),
+                IsInSetMatcher.builder().data("secret\nsiembol").fieldName(field).build()));
+
+        caseInsensitiveRule = createRule("case_insensitive_rule", List.of(
+                IsInSetMatcher.builder().data("SIEMBOL").isCaseInsensitiveCompare(true).fieldName(field).build()));
+
+        equalsRule = createRule("equals_rule", List.of(
+                ContainsMatcher.builder()
+                        .isStartsWith(true)
+                        .isEndsWith(true)
+                        .data("alerts")
+                        .fieldName(otherField)
+                        .build()));
+
+        unindexedRule = createRule("unindexed_rule", List.of(
+                IsInSetMatcher.builder().data("${variable}\nsiembol").fieldName(field).build(),
+                ContainsMatcher.builder().isStartsWith(true).data("alerts").fieldName(otherField).build()));
+
+        negatedRule = createRule("negated_rule", List.of(
+                IsInSetMatcher.builder().data("secret").fieldName(field).isNegated(true).build(),
+                RegexMatcher.builder().pattern(".*").fieldName(otherField).build()));
+
+        index = new RulesIndex(List.of(setRule, caseInsensitiveRule, equalsRule, unindexedRule, negatedRule));
+    }
+
+    @Test
+    public void testRequiredFieldValuesOfRules() {
+        Assert.assertTrue(setRule.getRequiredFieldValues().isPresent());
+        Assert.assertEquals(field, setRule.getRequiredFieldValues().get().getFieldName());
+        Assert.assertEquals(Set.of("secret", "siembol"), setRule.getRequiredFieldValues().get().getValues());
+        Assert.assertFalse(setRule.getRequiredFieldValues().get().isCaseInsensitive());
+
+        Assert.assertTrue(caseInsensitiveRule.getRequiredFieldValues().isPresent());
+        Assert.assertEquals(Set.of("siembol"), caseInsensitiveRule.getRequiredFieldValues().get().getValues());
+        Assert.assertTrue(caseInsensitiveRule.getRequiredFieldValues().get().isCaseInsensitive());
+
+        Assert.assertTrue(equalsRule.getRequiredFieldValues().isPresent());
+        Assert.assertEquals(otherField, equalsRule.getRequiredFieldValues().get().getFieldName());
+        Assert.assertEquals(Set.of("alerts"), equalsRule.getRequiredFieldValues().get().getValues());
+
+        Assert.assertTrue(unindexedRule.getRequiredFieldValues().isEmpty());
+        Assert.assertTrue(negatedRule.getRequiredFieldValues().isEmpty());
+
+        Assert.assertEquals(5, index.getNumberOfRules());
+        Assert.assertEquals(3, index.getNumberOfIndexedRules());
+    }
+
+    @Test
+    public void testSmallestSetIsRequired() {
+        Rule rule = createRule("rule", List.of(
+                IsInSetMatcher.builder().data("a\nb\nc").fieldName(field).build(),
+                IsInSetMatcher.builder().data("d").fieldName(otherField).build()));
+        Assert.assertTrue(rule.getRequiredFieldValues().isPresent());
+        Assert.assertEquals(otherField, rule.getRequiredFieldValues().get().getFieldName());
+    }
+
+    @Test
+    public void testMissingFieldsUnindexedOnly() {
+        Assert.assertEquals(List.of("unindexed_rule", "negated_rule"), getCandidates(event));
+    }
+
+    @Test
+    public void testCandidatesInOrder() {
+        event.put(field, "siembol");
+        event.put(otherField, "alerts");
+        Assert.assertEquals(List.of("set_rule", "case_insensitive_rule", "equals_rule",
+                        "unindexed_rule", "negated_rule"),
+                getCandidates(event));
+    }
+
+    @Test
+    public void testCaseInsensitiveCandidates() {
+        event.put(field, "SieMbol");
+        event.put(otherField, "ALERTS");
+        Assert.assertEquals(List.of("case_insensitive_rule", "unindexed_rule", "negated_rule"),
+                getCandidates(event));
+    }
+
+    @Test
+    public void testNonStringFieldValue() {
+        Rule numberRule = createRule("number_rule", List.of(
+                IsInSetMatcher.builder().data("1\n2").fieldName(field).build()));
+        index = new RulesIndex(List.of(numberRule));
+        event.put(field, 2);
+        Assert.assertEquals(List.of("number_rule"), getCandidates(event));
+        event.put(field, 3);
+        Assert.assertTrue(getCandidates(event).isEmpty());
+    }
+
+    @Test
+    public void testCandidatesMatchSameAsAllRules() {
+        List<Rule> rules = List.of(setRule, caseInsensitiveRule, equalsRule, unindexedRule, negatedRule);
+        List<String> values = List.of("siembol", "SIEMBOL", "secret", "alerts", "alertsX", "unknown");
+        for (String value : values) {
+            for (String otherValue : values) {
+                event.put(field, value);
+                event.put(otherField, otherValue);
+
+                List<String> expected = new ArrayList<>();
+                rules.forEach(x -> {
+                    if (x.match(event).getAttributes().getEvaluationResult() == EvaluationResult.MATCH) {
+                        expected.add(x.getRuleName());
+                    }
+                });
+
+                List<String> actual = new ArrayList<>();
+                index.forEachCandidate(event, x -> {
+                    if (x.match(event).getAttributes().getEvaluationResult() == EvaluationResult.MATCH) {
+                        actual.add(x.getRuleName());
+                    }
+                });
+                Assert.assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testFieldWrittenByPreviousMatcherNotRequired() {
+        Rule captureRule = createRule("capture_rule", List.of(
+                RegexMatcher.builder().pattern("^(?<user>\\w+)@.*$").fieldName(otherField).build(),
+                IsInSetMatcher.builder().data("root").fieldName("user").build()));
+        Assert.assertTrue(captureRule.canModifyEvent());
+        Assert.assertTrue(captureRule.getRequiredFieldValues().isEmpty());
+
+        index = new RulesIndex(List.of(captureRule));
+        event.put(otherField, "root@siembol");
+        Assert.assertEquals(List.of("capture_rule"), getCandidates(event));
+        Assert.assertEquals(EvaluationResult.MATCH,
+                captureRule.match(event).getAttributes().getEvaluationResult());
+    }
+}
@@ -0,0 +1,91 @@
+package com.siemmetric.siembol.alerts.protection;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import com.siemmetric.siembol.common.utils.TimeProvider;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+public class AtomicRuleCounterTest {
+    private final long hourMs = 3600000L;
+    private final long dayStartMs = 1600041600000L;
+    private TimeProvider provider;
+    private AtomicRuleCounter counter;
+    private RuleMatches ruleMatches;
+
+    @Before
+    public void setUp() {
+        provider = Mockito.mock(TimeProvider.class);
+        counter = new AtomicRuleCounter(new TimeBuckets(provider, ZoneOffset.UTC));
+        ruleMatches = new RuleMatches();
+        when(provider.getCurrentTimeInMs()).thenReturn(dayStartMs + hourMs);
+    }
+
+    @Test
+    public void testNoChange() {
+        counter.increment(ruleMatches);
+        Assert.assertEquals(1, ruleMatches.getDailyMatches());
+        Assert.assertEquals(1, ruleMatches.getHourlyMatches());
+        when(provider.getCurrentTimeInMs()).thenReturn(dayStartMs + 2 * hourMs - 1);
+        counter.increment(ruleMatches);
+        Assert.assertEquals(2, ruleMatches.getDailyMatches());
+        Assert.assertEquals(2, ruleMatches.getHourlyMatches());
+    }
+
+    @Test
+    public void testDayChange() {
+        counter.increment(ruleMatches);
+        counter.increment(ruleMatches);
+        Assert.assertEquals(2, ruleMatches.getDailyMatches());
+        Assert.assertEquals(2, ruleMatches.getHourlyMatches());
+        when(provider.getCurrentTimeInMs()).thenReturn(dayStartMs + 25 * hourMs);
+        counter.increment(ruleMatches);
+        Assert.assertEquals(1, ruleMatches.getDailyMatches());
+        Assert.assertEquals(1, ruleMatches.getHourlyMatches());
+    }
+
+    @Test
+    public void testHourChange() {
+        counter.increment(ruleMatches);
+        counter.increment(ruleMatches);
+        Assert.assertEquals(2, ruleMatches.getDailyMatches());
+        Assert.assertEquals(2, ruleMatches.getHourlyMatches());
+        when(provider.getCurrentTimeInMs()).thenReturn(dayStartMs + 2 * hourMs);
+        counter.get(ruleMatches);
+        Assert.assertEquals(2, ruleMatches.getDailyMatches());
+        Assert.assertEquals(0, ruleMatches.getHourlyMatches());
+
+        counter.increment(ruleMatches);
+        Assert.assertEquals(3, ruleMatches.getDailyMatches());
+        Assert.assertEquals(1, ruleMatches.getHourlyMatches());
+    }
+
+    @Test
+    public void testConcurrentIncrements() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            threads.add(new Thread(() -> {
+                RuleMatches threadMatches = new RuleMatches();
+                for (int j = 0; j < 10000; j++) {
+                    counter.increment(threadMatches);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        counter.get(ruleMatches);
+        Assert.assertEquals(40000, ruleMatches.getDailyMatches());
+        Assert.assertEquals(40000, ruleMatches.getHourlyMatches());
+    }
+}
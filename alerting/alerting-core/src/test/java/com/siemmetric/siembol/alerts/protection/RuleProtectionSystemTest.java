@@ -41,4 +41,22 @@ public class RuleProtectionSystemTest {
         Assert.assertEquals(Integer.valueOf(1), ret.getAttributes().getDailyMatches());
         Assert.assertEquals(Integer.valueOf(1), ret.getAttributes().getHourlyMatches());
     }
+
+    @Test
+    public void testIncrementWithRuleMatches() {
+        RuleMatches ruleMatches = new RuleMatches();
+        protection.incrementRuleMatches(ruleName, ruleMatches);
+        protection.incrementRuleMatches(ruleName, ruleMatches);
+        Assert.assertEquals(2, ruleMatches.getDailyMatches());
+        Assert.assertEquals(2, ruleMatches.getHourlyMatches());
+
+        AlertingResult ret = protection.getRuleMatches(ruleName);
+        Assert.assertEquals(Integer.valueOf(2), ret.getAttributes().getDailyMatches());
+        Assert.assertEquals(Integer.valueOf(2), ret.getAttributes().getHourlyMatches());
+    }
+
+    @Test
+    public void testSharedInstance() {
+        Assert.assertSame(RuleProtectionSystemImpl.getSharedInstance(), RuleProtectionSystemImpl.getSharedInstance());
+    }
 }
@@ -21,10 +21,12 @@ import com.siemmetric.siembol.common.metrics.SiembolMetricsRegistrar;
 import com.siemmetric.siembol.common.metrics.storm.StormMetricsRegistrarFactory;
 import com.siemmetric.siembol.common.metrics.storm.StormMetricsRegistrarFactoryImpl;
 import com.siemmetric.siembol.common.model.ZooKeeperAttributesDto;
+import com.siemmetric.siembol.common.storm.StormTupleBatch;
 import com.siemmetric.siembol.common.zookeeper.*;
 import com.siemmetric.siembol.alerts.common.EvaluationResult;
 import com.siemmetric.siembol.alerts.common.AlertingEngine;
 import com.siemmetric.siembol.alerts.common.AlertingResult;
+import com.siemmetric.siembol.alerts.common.ProjectingAlertingEngine;
 import com.siemmetric.siembol.alerts.compiler.AlertingRulesCompiler;
 import com.siemmetric.siembol.alerts.storm.model.AlertMessage;
 import com.siemmetric.siembol.alerts.storm.model.AlertMessages;
@@ -34,11 +36,15 @@ import com.siemmetric.siembol.common.model.AlertingStormAttributesDto;
 import java.lang.invoke.MethodHandles;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.storm.utils.TupleUtils.isTick;
 /**
  * An object for integration of an alerting engine into a storm bolt
  *
  * <p>This class extends a Storm BaseRichBolt class to implement a Storm bolt, that
  *  evaluates events using an engine initialised from the rules cached in the ZooKeeper,
+ *  deserializes only the fields used by the rules unless a rule matches,
+ *  optionally collects alerts and exceptions of several tuples into one emitted tuple,
  *  watches for the rules update in ZooKeeper and updates the rules without need to restart the topology or the bolt,
  *  emits alerts and exceptions after matching.
  * @author Marian Novotny
@@ -71,6 +77,11 @@ public class AlertingEngineBolt extends BaseRichBolt {
     private final ZooKeeperCompositeConnectorFactory zooKeeperConnectorFactory;
     private final ZooKeeperAttributesDto zooKeeperAttributes;
     private final StormMetricsRegistrarFactory metricsFactory;
+    private final boolean useRegexAutomata;
+    private final int rulesPartitions;
+    protected final StormTupleBatch batch;
+    private AlertMessages batchMatches;
+    private ExceptionMessages batchExceptions;
 
 
     AlertingEngineBolt(AlertingStormAttributesDto attributes,
@@ -79,6 +90,10 @@ public class AlertingEngineBolt extends BaseRichBolt {
         this.zooKeeperAttributes = attributes.getZookeperAttributes();
         this.zooKeeperConnectorFactory = zooKeeperConnectorFactory;
         this.metricsFactory = metricsFactory;
+        this.useRegexAutomata = Boolean.TRUE.equals(attributes.getRegexAutomata());
+        this.rulesPartitions = attributes.getRulesPartitions() == null ? 1 : attributes.getRulesPartitions();
+        this.batch = new StormTupleBatch(attributes.getBatchSize() == null ? 1 : attributes.getBatchSize(),
+                attributes.getBatchLingerMs() == null ? 0 : attributes.getBatchLingerMs());
     }
 
     AlertingEngineBolt(AlertingStormAttributesDto attributes) {
@@ -89,6 +104,7 @@ public class AlertingEngineBolt extends BaseRichBolt {
     @Override
     public void prepare(Map map, TopologyContext topologyContext, OutputCollector outputCollector) {
         this.collector = outputCollector;
+        resetBatch();
         try {
             LOG.info(ENGINE_INIT_START);
             zooKeeperConnector = zooKeeperConnectorFactory.createZookeeperConnector(zooKeeperAttributes);
@@ -134,14 +150,16 @@ public class AlertingEngineBolt extends BaseRichBolt {
 
     protected AlertingEngine getAlertingEngine(List<String> rulesList) {
         try {
-            AlertingResult engineResult =  AlertingRulesCompiler.createAlertingRulesCompiler().compile(rulesList);
+            AlertingResult engineResult = AlertingRulesCompiler
+                    .createAlertingRulesCompiler(useRegexAutomata, rulesPartitions)
+                    .compile(rulesList);
             if (engineResult.getStatusCode() != AlertingResult.StatusCode.OK) {
                 String errorMsg = String.format(COMPILER_EXCEPTION_MSG_FORMAT,
                         engineResult.getAttributes().getException());
                 LOG.error(errorMsg);
                 throw new IllegalStateException(errorMsg);
             }
-            return engineResult.getAttributes().getEngine();
+            return ProjectingAlertingEngine.wrap(engineResult.getAttributes().getEngine());
         } catch (Exception e) {
             String errorMsg = String.format(COMPILER_EXCEPTION_MSG_FORMAT,
                     ExceptionUtils.getStackTrace(e));
@@ -150,9 +168,23 @@ public class AlertingEngineBolt extends BaseRichBolt {
         }
     }
 
+    protected AlertingEngine getCurrentEngine() {
+        return AlertingEngine.get();
+    }
+
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        return batch.getComponentConfiguration();
+    }
+
     @Override
     public void execute(Tuple tuple) {
-        AlertingEngine currentEngine = AlertingEngine.get();
+        if (isTick(tuple)) {
+            emitBatch();
+            return;
+        }
+
+        AlertingEngine currentEngine = getCurrentEngine();
         String event = tuple.getStringByField(TupleFieldNames.EVENT.toString());
         AlertingResult ret = currentEngine.evaluate(event);
 
@@ -197,8 +229,35 @@ public class AlertingEngineBolt extends BaseRichBolt {
                     });
         }
 
-        collector.emit(tuple, new Values(matches, exceptions));
-        collector.ack(tuple);
+        if (!batch.isEnabled()) {
+            collector.emit(tuple, new Values(matches, exceptions));
+            collector.ack(tuple);
+            return;
+        }
+
+        addToBatch(tuple, matches, exceptions);
+    }
+
+    private void addToBatch(Tuple tuple, AlertMessages matches, ExceptionMessages exceptions) {
+        batchMatches.addAll(matches);
+        batchExceptions.addAll(exceptions);
+        if (batch.add(tuple)) {
+            emitBatch();
+        }
+    }
+
+    private void emitBatch() {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        batch.emit(collector, new Values(batchMatches, batchExceptions));
+        resetBatch();
+    }
+
+    private void resetBatch() {
+        batchMatches = new AlertMessages();
+        batchExceptions = new ExceptionMessages();
     }
 
     @Override
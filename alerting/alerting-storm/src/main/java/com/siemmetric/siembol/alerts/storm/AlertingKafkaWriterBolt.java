@@ -8,7 +8,7 @@ import org.slf4j.LoggerFactory;
 import com.siemmetric.siembol.alerts.common.AlertingEngineType;
 import com.siemmetric.siembol.common.error.ErrorMessage;
 import com.siemmetric.siembol.common.error.ErrorType;
-import com.siemmetric.siembol.alerts.common.AlertingResult;
+import com.siemmetric.siembol.alerts.protection.RuleMatches;
 import com.siemmetric.siembol.alerts.protection.RuleProtectionSystem;
 import com.siemmetric.siembol.alerts.protection.RuleProtectionSystemImpl;
 import com.siemmetric.siembol.alerts.storm.model.*;
@@ -47,7 +47,9 @@ public class AlertingKafkaWriterBolt extends KafkaWriterBoltBase {
     private final String errorTopic;
     private final String outputTopic;
     private final String correlationTopic;
+    private final boolean sharedRuleProtection;
     private RuleProtectionSystem ruleProtection;
+    private RuleMatches ruleMatches;
 
     public AlertingKafkaWriterBolt(AlertingStormAttributesDto attributes,  StormMetricsRegistrarFactory metricsFactory) {
         super(attributes.getKafkaProducerProperties().getProperties(), metricsFactory);
@@ -56,6 +58,7 @@ public class AlertingKafkaWriterBolt extends KafkaWriterBoltBase {
         this.correlationTopic = attributes.getCorrelationOutputTopic();
         AlertingEngineType engineType = AlertingEngineType.valueOfName(attributes.getAlertingEngine());
         errorSensorType = engineType.toString();
+        sharedRuleProtection = Boolean.TRUE.equals(attributes.getSharedRuleProtection());
     }
 
     @Override
@@ -79,9 +82,9 @@ public class AlertingKafkaWriterBolt extends KafkaWriterBoltBase {
         exceptions.forEach(x -> counters.add(SiembolMetrics.ALERTING_ENGINE_ERROR_MATCHES.getMetricName()));
 
         for (var match : matches) {
-            AlertingResult matchesInfo = ruleProtection.incrementRuleMatches(match.getFullRuleName());
-            int hourlyMatches = matchesInfo.getAttributes().getHourlyMatches();
-            int dailyMatches = matchesInfo.getAttributes().getDailyMatches();
+            ruleProtection.incrementRuleMatches(match.getFullRuleName(), ruleMatches);
+            int hourlyMatches = ruleMatches.getHourlyMatches();
+            int dailyMatches = ruleMatches.getDailyMatches();
             int hourlyMatchesDiffWithMax = hourlyMatches - match.getMaxHourMatches().intValue();
             int dailyMatchesDiffWithMax = dailyMatches - match.getMaxDayMatches().intValue();
 
@@ -136,7 +139,10 @@ public class AlertingKafkaWriterBolt extends KafkaWriterBoltBase {
 
     @Override
     public void prepareInternally() {
-        ruleProtection = new RuleProtectionSystemImpl();
+        ruleProtection = sharedRuleProtection
+                ? RuleProtectionSystemImpl.getSharedInstance()
+                : new RuleProtectionSystemImpl();
+        ruleMatches = new RuleMatches();
     }
 
     private String getErrorMessageToSend(String errorMsg) {
@@ -1,22 +1,31 @@
 package com.siemmetric.siembol.alerts.storm;
 import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.tuple.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.siemmetric.siembol.common.metrics.storm.StormMetricsRegistrarFactory;
+import com.siemmetric.siembol.common.utils.TimeProvider;
 import com.siemmetric.siembol.common.zookeeper.ZooKeeperCompositeConnectorFactory;
 import com.siemmetric.siembol.alerts.common.AlertingEngine;
 import com.siemmetric.siembol.alerts.common.AlertingResult;
 import com.siemmetric.siembol.alerts.compiler.AlertingCorrelationRulesCompiler;
+import com.siemmetric.siembol.alerts.correlationengine.CorrelationEngineImpl;
 import com.siemmetric.siembol.common.model.AlertingStormAttributesDto;
 import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnector;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Map;
 import static org.apache.storm.utils.TupleUtils.isTick;
-import static org.apache.storm.utils.TupleUtils.putTickFrequencyIntoComponentConfig;
 /**
  * An object for integration of a correlation alerting engine into a storm bolt
  *
@@ -25,6 +34,12 @@ import static org.apache.storm.utils.TupleUtils.putTickFrequencyIntoComponentCon
  *  watches for the rules update in ZooKeeper and updates the rules without need to restart the topology or the bolt,
  *  emits alerts and exceptions after matching.
  *  It cleans regularly internal state of counters by calling clean method of the alerting engine.
+ *  It carries over the state of the rules with unchanged name and version after updating the rules,
+ *  and optionally checkpoints the state into a file that is restored after preparing the bolt.
+ *  The checkpoint is restored only by the task with the same index and the same number of tasks,
+ *  since the fields grouping assigns to it the same correlation keys.
+ *  The checkpoint directory should be shared by all supervisors in order to restore the state
+ *  after moving the executor to another supervisor.
  *
  * @author Marian Novotny
  * @see AlertingEngine
@@ -34,13 +49,94 @@ import static org.apache.storm.utils.TupleUtils.putTickFrequencyIntoComponentCon
 public class CorrelationAlertingEngineBolt extends AlertingEngineBolt {
     private static final long serialVersionUID = 1L;
     private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String CHECKPOINT_FILE_FORMAT = "correlation_state_%s_%d_of_%d.json";
+    private static final String CHECKPOINT_FILES_GLOB_FORMAT = "correlation_state_%s_*_of_*.json";
+    private static final String CHECKPOINT_TASKS_COUNT_SUFFIX_FORMAT = "_of_%d.json";
+    private static final String CHECKPOINT_TMP_SUFFIX = ".tmp";
+    private static final String RESTORE_CHECKPOINT_LOG = "Restored the state of {} rules from the checkpoint {}";
+    private static final String RESTORE_CHECKPOINT_ERROR_LOG = "Exception during restoring the checkpoint {}: {}";
+    private static final String SKIPPED_CHECKPOINT_LOG = "Skipping the checkpoint {} written by a different " +
+            "number of tasks, since the tasks do not own the same correlation keys as the task {} of {}";
+    private static final String CHECKPOINT_ERROR_LOG = "Exception during writing the checkpoint {}: {}";
+    private static final String RESTORE_STATE_LOG = "Carried over the state of {} rules after the rules update";
+    private static final long MILLI_MULTIPLIER = 1000L;
     private final int cleanIntervalSec;
+    private final long cleanIntervalMs;
+    private final String checkpointDir;
+    private final long checkpointIntervalMs;
+    private final TimeProvider timeProvider;
+    private transient Path checkpointPath;
+    private transient long lastCheckpointTime;
+    private transient long lastCleanTime;
+    private transient AlertingEngine evaluatedEngine;
 
     public CorrelationAlertingEngineBolt(AlertingStormAttributesDto attributes,
                                          ZooKeeperCompositeConnectorFactory zooKeeperConnectorFactory,
                                          StormMetricsRegistrarFactory metricsFactory) {
+        this(attributes, zooKeeperConnectorFactory, metricsFactory, new TimeProvider());
+    }
+
+    /**
+     * Creates the bolt using the time provider for checkpointing
+     *
+     * @param attributes alerting storm attributes
+     * @param zooKeeperConnectorFactory factory for creating ZooKeeper connectors
+     * @param metricsFactory factory for creating metrics registrars
+     * @param timeProvider time provider for checkpointing
+     */
+    public CorrelationAlertingEngineBolt(AlertingStormAttributesDto attributes,
+                                         ZooKeeperCompositeConnectorFactory zooKeeperConnectorFactory,
+                                         StormMetricsRegistrarFactory metricsFactory,
+                                         TimeProvider timeProvider) {
         super(attributes, zooKeeperConnectorFactory, metricsFactory);
+        this.timeProvider = timeProvider;
         cleanIntervalSec = attributes.getAlertingEngineCleanIntervalSec();
+        cleanIntervalMs = cleanIntervalSec * MILLI_MULTIPLIER;
+        checkpointDir = attributes.getCheckpointDir();
+        checkpointIntervalMs = attributes.getCheckpointIntervalSec() == null
+                ? 0
+                : attributes.getCheckpointIntervalSec() * MILLI_MULTIPLIER;
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public void prepare(Map map, TopologyContext topologyContext, OutputCollector outputCollector) {
+        super.prepare(map, topologyContext, outputCollector);
+        evaluatedEngine = AlertingEngine.get();
+        lastCheckpointTime = timeProvider.getCurrentTimeInMs();
+        lastCleanTime = lastCheckpointTime;
+        if (checkpointDir == null) {
+            return;
+        }
+
+        String componentId = topologyContext.getThisComponentId();
+        int taskIndex = topologyContext.getThisTaskIndex();
+        int tasksCount = topologyContext.getComponentTasks(componentId).size();
+        checkpointPath = Paths.get(checkpointDir, String.format(CHECKPOINT_FILE_FORMAT,
+                componentId, taskIndex, tasksCount));
+        logSkippedCheckpoints(componentId, taskIndex, tasksCount);
+        if (Files.exists(checkpointPath) && evaluatedEngine instanceof CorrelationEngineImpl) {
+            try {
+                int restored = ((CorrelationEngineImpl) evaluatedEngine).restoreState(Files.readString(checkpointPath));
+                LOG.info(RESTORE_CHECKPOINT_LOG, restored, checkpointPath);
+            } catch (Exception e) {
+                LOG.error(RESTORE_CHECKPOINT_ERROR_LOG, checkpointPath, ExceptionUtils.getStackTrace(e));
+            }
+        }
+    }
+
+    private void logSkippedCheckpoints(String componentId, int taskIndex, int tasksCount) {
+        String glob = String.format(CHECKPOINT_FILES_GLOB_FORMAT, componentId);
+        String tasksCountSuffix = String.format(CHECKPOINT_TASKS_COUNT_SUFFIX_FORMAT, tasksCount);
+        try (DirectoryStream<Path> checkpoints = Files.newDirectoryStream(Paths.get(checkpointDir), glob)) {
+            for (Path checkpoint : checkpoints) {
+                if (!checkpoint.getFileName().toString().endsWith(tasksCountSuffix)) {
+                    LOG.warn(SKIPPED_CHECKPOINT_LOG, checkpoint, taskIndex, tasksCount);
+                }
+            }
+        } catch (IOException e) {
+            LOG.error(RESTORE_CHECKPOINT_ERROR_LOG, checkpointDir, ExceptionUtils.getStackTrace(e));
+        }
     }
 
     @Override
@@ -64,19 +160,60 @@ public class CorrelationAlertingEngineBolt extends AlertingEngineBolt {
         }
     }
 
+    @Override
+    protected AlertingEngine getCurrentEngine() {
+        //NOTE: the state is carried over in the executor thread since the rules are updated in another thread
+        AlertingEngine currentEngine = AlertingEngine.get();
+        if (currentEngine != evaluatedEngine) {
+            if (currentEngine instanceof CorrelationEngineImpl && evaluatedEngine instanceof CorrelationEngineImpl) {
+                int restored = ((CorrelationEngineImpl) currentEngine)
+                        .restoreState((CorrelationEngineImpl) evaluatedEngine);
+                LOG.info(RESTORE_STATE_LOG, restored);
+            }
+            evaluatedEngine = currentEngine;
+        }
+        return currentEngine;
+    }
+
     @Override
     public Map<String, Object> getComponentConfiguration() {
-        return putTickFrequencyIntoComponentConfig(null, cleanIntervalSec);
+        //NOTE: tick tuples are used for both cleaning the engine and emitting the batch
+        return batch.getComponentConfiguration(cleanIntervalSec);
     }
 
     @Override
     public void execute(Tuple tuple) {
-        if (isTick(tuple)) {
-            AlertingEngine currentEngine = AlertingEngine.get();
+        super.execute(tuple);
+        if (!isTick(tuple)) {
+            return;
+        }
+
+        //NOTE: the tick tuple emits and acknowledges the batch before writing the checkpoint,
+        // so the checkpoint does not count alerts of the tuples that can be replayed by the spout
+        long currentTime = timeProvider.getCurrentTimeInMs();
+        AlertingEngine currentEngine = getCurrentEngine();
+        if (currentTime - lastCleanTime >= cleanIntervalMs) {
+            lastCleanTime = currentTime;
             currentEngine.clean();
+        }
+
+        if (checkpointPath != null && currentTime - lastCheckpointTime >= checkpointIntervalMs) {
+            writeCheckpoint(currentEngine);
+        }
+    }
+
+    private void writeCheckpoint(AlertingEngine currentEngine) {
+        lastCheckpointTime = timeProvider.getCurrentTimeInMs();
+        if (!(currentEngine instanceof CorrelationEngineImpl)) {
             return;
         }
 
-        super.execute(tuple);
+        Path tmpPath = Paths.get(checkpointPath + CHECKPOINT_TMP_SUFFIX);
+        try {
+            Files.writeString(tmpPath, ((CorrelationEngineImpl) currentEngine).saveState());
+            Files.move(tmpPath, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.error(CHECKPOINT_ERROR_LOG, checkpointPath, ExceptionUtils.getStackTrace(e));
+        }
     }
 }
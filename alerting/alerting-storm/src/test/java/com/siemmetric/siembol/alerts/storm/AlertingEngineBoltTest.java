@@ -3,6 +3,7 @@ package com.siemmetric.siembol.alerts.storm;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.storm.Constants;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
@@ -248,6 +249,93 @@ public class AlertingEngineBoltTest {
         Assert.assertTrue(((ExceptionMessages)values.get(1)).get(0).contains("JsonParseException"));
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMatchRuleBatch() {
+        stormAttributes.setBatchSize(2);
+        stormAttributes.setBatchLingerMs(60000);
+        AlertingEngineBolt = new AlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory);
+        AlertingEngineBolt.prepare(null, null, collector);
+        Assert.assertNotNull(AlertingEngineBolt.getComponentConfiguration());
+
+        Tuple noMatchTuple = Mockito.mock(Tuple.class);
+        when(noMatchTuple.getStringByField(eq(TupleFieldNames.EVENT.toString())))
+                .thenReturn(event.replaceAll("is_alert", "unknown"));
+        Tuple secondTuple = Mockito.mock(Tuple.class);
+        when(secondTuple.getStringByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn(event.trim());
+        ArgumentCaptor<Collection<Tuple>> anchorsCaptor = ArgumentCaptor.forClass(Collection.class);
+        when(collector.emit(anchorsCaptor.capture(), argumentEmitCaptor.capture())).thenReturn(new ArrayList<>());
+
+        AlertingEngineBolt.execute(tuple);
+        AlertingEngineBolt.execute(noMatchTuple);
+        verify(collector, never()).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        verify(collector, never()).ack(eq(tuple));
+        verify(collector, times(1)).ack(eq(noMatchTuple));
+
+        AlertingEngineBolt.execute(secondTuple);
+        verify(collector, times(1)).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        Assert.assertEquals(Arrays.asList(tuple, secondTuple), new ArrayList<>(anchorsCaptor.getValue()));
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertEquals(2, ((AlertMessages)values.get(0)).size());
+        Assert.assertTrue(((ExceptionMessages)values.get(1)).isEmpty());
+        verify(collector, times(1)).ack(eq(tuple));
+        verify(collector, times(1)).ack(eq(secondTuple));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMatchRuleBatchTick() {
+        stormAttributes.setBatchSize(10);
+        stormAttributes.setBatchLingerMs(60000);
+        AlertingEngineBolt = new AlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory);
+        AlertingEngineBolt.prepare(null, null, collector);
+
+        Tuple tickTuple = Mockito.mock(Tuple.class);
+        when(tickTuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tickTuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        when(collector.emit(ArgumentMatchers.<Collection<Tuple>>any(), argumentEmitCaptor.capture()))
+                .thenReturn(new ArrayList<>());
+
+        AlertingEngineBolt.execute(tickTuple);
+        AlertingEngineBolt.execute(tuple);
+        verify(collector, never()).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+
+        AlertingEngineBolt.execute(tickTuple);
+        verify(collector, times(1)).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        Assert.assertEquals(1, ((AlertMessages)argumentEmitCaptor.getValue().get(0)).size());
+        verify(collector, times(1)).ack(eq(tuple));
+        verify(collector, never()).ack(eq(tickTuple));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testMatchRuleBatchDefaultLinger() {
+        stormAttributes.setBatchSize(3);
+        AlertingEngineBolt = new AlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory);
+        AlertingEngineBolt.prepare(null, null, collector);
+        Assert.assertEquals(0, stormAttributes.getBatchLingerMs().intValue());
+        Assert.assertNotNull(AlertingEngineBolt.getComponentConfiguration());
+
+        when(collector.emit(ArgumentMatchers.<Collection<Tuple>>any(), argumentEmitCaptor.capture()))
+                .thenReturn(new ArrayList<>());
+
+        AlertingEngineBolt.execute(tuple);
+        AlertingEngineBolt.execute(tuple);
+        verify(collector, never()).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        verify(collector, never()).ack(eq(tuple));
+
+        AlertingEngineBolt.execute(tuple);
+        verify(collector, times(1)).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        Assert.assertEquals(3, ((AlertMessages)argumentEmitCaptor.getValue().get(0)).size());
+        verify(collector, times(3)).ack(eq(tuple));
+    }
+
     @Test
     public void updateOk() {
         zooKeeperCallback.getValue().run();
@@ -3,12 +3,17 @@ package com.siemmetric.siembol.alerts.storm;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.storm.Config;
+import org.apache.storm.Constants;
 import org.apache.storm.task.OutputCollector;
+import org.apache.storm.task.TopologyContext;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
 import org.junit.Assert;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
@@ -16,6 +21,7 @@ import com.siemmetric.siembol.common.constants.SiembolMessageFields;
 import com.siemmetric.siembol.common.metrics.SiembolMetrics;
 import com.siemmetric.siembol.common.metrics.test.StormMetricsTestRegistrarFactoryImpl;
 import com.siemmetric.siembol.common.model.ZooKeeperAttributesDto;
+import com.siemmetric.siembol.common.utils.TimeProvider;
 import com.siemmetric.siembol.common.zookeeper.ZooKeeperCompositeConnector;
 import com.siemmetric.siembol.common.zookeeper.ZooKeeperCompositeConnectorFactory;
 import com.siemmetric.siembol.alerts.common.AlertingFields;
@@ -24,6 +30,7 @@ import com.siemmetric.siembol.alerts.storm.model.AlertMessages;
 import com.siemmetric.siembol.alerts.storm.model.ExceptionMessages;
 import com.siemmetric.siembol.common.model.AlertingStormAttributesDto;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.*;
 
@@ -108,6 +115,9 @@ public class CorrelationEngineBoltTest {
             """;
 
 
+    @Rule
+    public TemporaryFolder checkpointFolder = new TemporaryFolder();
+
     private Tuple tuple;
     private OutputCollector collector;
     private CorrelationAlertingEngineBolt correlationAlertingEngineBolt;
@@ -235,4 +245,172 @@ public class CorrelationEngineBoltTest {
         Assert.assertEquals(1,
                 metricsTestRegistrarFactory.getCounterValue(SiembolMetrics.ALERTING_RULES_ERROR_UPDATE.getMetricName()));
     }
+
+    @Test
+    public void updateCarriesOverState() {
+        correlationAlertingEngineBolt.execute(tuple);
+        correlationAlertingEngineBolt.execute(tuple);
+        verify(collector, never()).emit(eq(tuple), ArgumentMatchers.any());
+
+        zooKeeperCallback.getValue().run();
+        Assert.assertEquals(2,
+                metricsTestRegistrarFactory.getCounterValue(SiembolMetrics.ALERTING_RULES_UPDATE.getMetricName()));
+
+        correlationAlertingEngineBolt.execute(tuple);
+        verify(collector, times(1)).emit(eq(tuple), ArgumentMatchers.any());
+        AlertMessages alerts = (AlertMessages) argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals(1, alerts.size());
+        Assert.assertEquals("test_rule_v1", alerts.get(0).getFullRuleName());
+    }
+
+    @Test
+    public void partialBatchEmittedOnTickAfterLinger() {
+        stormAttributes.setBatchSize(10);
+        stormAttributes.setBatchLingerMs(2000);
+        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory);
+        correlationAlertingEngineBolt.prepare(null, null, collector);
+        Assert.assertEquals(2, ((Number) correlationAlertingEngineBolt.getComponentConfiguration()
+                .get(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS)).intValue());
+
+        Tuple tickTuple = Mockito.mock(Tuple.class);
+        when(tickTuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tickTuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        when(tuple.getStringByField(eq(TupleFieldNames.EVENT.toString()))).thenReturn("INVALID");
+        when(collector.emit(ArgumentMatchers.<Collection<Tuple>>any(), argumentEmitCaptor.capture()))
+                .thenReturn(new ArrayList<>());
+
+        correlationAlertingEngineBolt.execute(tuple);
+        verify(collector, never()).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        verify(collector, never()).ack(eq(tuple));
+
+        correlationAlertingEngineBolt.execute(tickTuple);
+        verify(collector, times(1)).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        Assert.assertEquals(1, ((ExceptionMessages) argumentEmitCaptor.getValue().get(1)).size());
+        verify(collector, times(1)).ack(eq(tuple));
+        verify(collector, never()).ack(eq(tickTuple));
+    }
+
+    @Test
+    public void tickFrequencyWithoutBatch() {
+        Assert.assertEquals(1000, ((Number) correlationAlertingEngineBolt.getComponentConfiguration()
+                .get(Config.TOPOLOGY_TICK_TUPLE_FREQ_SECS)).intValue());
+    }
+
+    @Test
+    public void checkpointRestoredAfterPrepare() {
+        stormAttributes.setCheckpointDir(checkpointFolder.getRoot().getAbsolutePath());
+        stormAttributes.setCheckpointIntervalSec(1);
+        TimeProvider timeProvider = Mockito.mock(TimeProvider.class);
+        when(timeProvider.getCurrentTimeInMs()).thenReturn(1000L);
+        TopologyContext topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.getThisComponentId()).thenReturn("correlation");
+        when(topologyContext.getThisTaskIndex()).thenReturn(1);
+        when(topologyContext.getComponentTasks("correlation")).thenReturn(Arrays.asList(1, 2));
+        Tuple tickTuple = Mockito.mock(Tuple.class);
+        when(tickTuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tickTuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        File checkpointFile = new File(checkpointFolder.getRoot(), "correlation_state_correlation_1_of_2.json");
+
+        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory,
+                timeProvider);
+        correlationAlertingEngineBolt.prepare(null, topologyContext, collector);
+        correlationAlertingEngineBolt.execute(tuple);
+        correlationAlertingEngineBolt.execute(tuple);
+
+        when(timeProvider.getCurrentTimeInMs()).thenReturn(1999L);
+        correlationAlertingEngineBolt.execute(tickTuple);
+        Assert.assertFalse(checkpointFile.exists());
+
+        when(timeProvider.getCurrentTimeInMs()).thenReturn(2000L);
+        correlationAlertingEngineBolt.execute(tickTuple);
+        Assert.assertTrue(checkpointFile.exists());
+
+        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory,
+                timeProvider);
+        correlationAlertingEngineBolt.prepare(null, topologyContext, collector);
+        verify(collector, never()).emit(eq(tuple), ArgumentMatchers.any());
+
+        correlationAlertingEngineBolt.execute(tuple);
+        verify(collector, times(1)).emit(eq(tuple), ArgumentMatchers.any());
+        AlertMessages alerts = (AlertMessages) argumentEmitCaptor.getValue().get(0);
+        Assert.assertEquals(1, alerts.size());
+        Assert.assertEquals("test_rule_v1", alerts.get(0).getFullRuleName());
+    }
+
+    @Test
+    public void checkpointNotRestoredAfterTasksCountChange() {
+        stormAttributes.setCheckpointDir(checkpointFolder.getRoot().getAbsolutePath());
+        stormAttributes.setCheckpointIntervalSec(1);
+        TimeProvider timeProvider = Mockito.mock(TimeProvider.class);
+        when(timeProvider.getCurrentTimeInMs()).thenReturn(1000L);
+        TopologyContext topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.getThisComponentId()).thenReturn("correlation");
+        when(topologyContext.getThisTaskIndex()).thenReturn(1);
+        when(topologyContext.getComponentTasks("correlation")).thenReturn(Arrays.asList(1, 2));
+        Tuple tickTuple = Mockito.mock(Tuple.class);
+        when(tickTuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tickTuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+
+        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory,
+                timeProvider);
+        correlationAlertingEngineBolt.prepare(null, topologyContext, collector);
+        correlationAlertingEngineBolt.execute(tuple);
+        correlationAlertingEngineBolt.execute(tuple);
+
+        when(timeProvider.getCurrentTimeInMs()).thenReturn(2000L);
+        correlationAlertingEngineBolt.execute(tickTuple);
+        Assert.assertTrue(new File(checkpointFolder.getRoot(), "correlation_state_correlation_1_of_2.json").exists());
+
+        when(topologyContext.getComponentTasks("correlation")).thenReturn(Arrays.asList(1, 2, 3));
+        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory,
+                timeProvider);
+        correlationAlertingEngineBolt.prepare(null, topologyContext, collector);
+        correlationAlertingEngineBolt.execute(tuple);
+        verify(collector, never()).emit(eq(tuple), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void checkpointWrittenAfterBatchAcked() {
+        stormAttributes.setCheckpointDir(checkpointFolder.getRoot().getAbsolutePath());
+        stormAttributes.setCheckpointIntervalSec(1);
+        stormAttributes.setBatchSize(10);
+        TimeProvider timeProvider = Mockito.mock(TimeProvider.class);
+        when(timeProvider.getCurrentTimeInMs()).thenReturn(1000L);
+        TopologyContext topologyContext = Mockito.mock(TopologyContext.class);
+        when(topologyContext.getThisComponentId()).thenReturn("correlation");
+        when(topologyContext.getThisTaskIndex()).thenReturn(0);
+        when(topologyContext.getComponentTasks("correlation")).thenReturn(Collections.singletonList(1));
+        Tuple tickTuple = Mockito.mock(Tuple.class);
+        when(tickTuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tickTuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        File checkpointFile = new File(checkpointFolder.getRoot(), "correlation_state_correlation_0_of_1.json");
+        List<Boolean> checkpointExistsOnAck = new ArrayList<>();
+        doAnswer(x -> checkpointExistsOnAck.add(checkpointFile.exists())).when(collector).ack(eq(tuple));
+
+        correlationAlertingEngineBolt = new CorrelationAlertingEngineBolt(stormAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory,
+                timeProvider);
+        correlationAlertingEngineBolt.prepare(null, topologyContext, collector);
+        correlationAlertingEngineBolt.execute(tuple);
+        correlationAlertingEngineBolt.execute(tuple);
+        correlationAlertingEngineBolt.execute(tuple);
+        Assert.assertEquals(2, checkpointExistsOnAck.size());
+
+        when(timeProvider.getCurrentTimeInMs()).thenReturn(2000L);
+        correlationAlertingEngineBolt.execute(tickTuple);
+        Assert.assertTrue(checkpointFile.exists());
+        Assert.assertEquals(3, checkpointExistsOnAck.size());
+        Assert.assertFalse(checkpointExistsOnAck.contains(true));
+    }
 }
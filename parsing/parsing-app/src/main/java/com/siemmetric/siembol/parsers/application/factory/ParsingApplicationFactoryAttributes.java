@@ -25,6 +25,8 @@ public class ParsingApplicationFactoryAttributes {
     private String message;
     private String sourceHeaderName;
     private ParsingApplicationTypeDto applicationType;
+    private Integer rebuiltParsers;
+    private Integer reusedParsers;
 
     public String getJsonSchema() {
         return jsonSchema;
@@ -121,4 +123,20 @@ public class ParsingApplicationFactoryAttributes {
     public void setNumWorkers(Integer numWorkers) {
         this.numWorkers = numWorkers;
     }
+
+    public Integer getRebuiltParsers() {
+        return rebuiltParsers;
+    }
+
+    public void setRebuiltParsers(Integer rebuiltParsers) {
+        this.rebuiltParsers = rebuiltParsers;
+    }
+
+    public Integer getReusedParsers() {
+        return reusedParsers;
+    }
+
+    public void setReusedParsers(Integer reusedParsers) {
+        this.reusedParsers = reusedParsers;
+    }
 }
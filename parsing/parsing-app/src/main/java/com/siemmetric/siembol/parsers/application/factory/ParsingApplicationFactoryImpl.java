@@ -17,17 +17,16 @@ import com.siemmetric.siembol.parsers.application.parsing.SourceRoutingApplicati
 import com.siemmetric.siembol.parsers.common.SerializableSiembolParser;
 import com.siemmetric.siembol.parsers.factory.ParserFactory;
 import com.siemmetric.siembol.parsers.factory.ParserFactoryImpl;
-import com.siemmetric.siembol.parsers.factory.ParserFactoryResult;
 import com.siemmetric.siembol.parsers.model.ParserAttributesDto;
 import com.siemmetric.siembol.parsers.model.ParserConfigDto;
 import com.siemmetric.siembol.parsers.model.ParserTypeDto;
 import com.siemmetric.siembol.parsers.model.ParsersConfigDto;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 import static com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryResult.StatusCode.ERROR;
 import static com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryResult.StatusCode.OK;
@@ -37,6 +36,10 @@ import static com.siemmetric.siembol.parsers.application.factory.ParsingApplicat
  * <p>This class in an implementation of ParsingApplicationFactory interface.
  * It is used for creating a parsing applications, validating parsing application configuration and
  * providing json schema for parsing application configurations.
+ * It keeps the parsers created by the last successful creation of a parsing application.
+ * The parsers with the same name, version and configuration are reused by the next creation and
+ * only changed parsers are compiled. The reuse of the parsers is not thread safe and
+ * the factory should not be used for creating parsing applications concurrently.
  *
  * @author  Marian Novotny
  * @see ParsingApplicationFactory
@@ -65,8 +68,72 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
             .writerFor(ParsingApplicationsDto.class);
 
     private final JsonSchemaValidator jsonSchemaValidator;
+    private final JsonSchemaValidator parsersJsonSchemaValidator;
     private final ParserFactory parserFactory;
-    private final Function<String, String> getParserDummyFun;
+    private final ParserProvider dummyParserProvider;
+    private Map<String, CachedParser> parsersCache = new HashMap<>();
+
+    @FunctionalInterface
+    private interface ParserProvider {
+        SerializableSiembolParser getParser(String parserName) throws Exception;
+    }
+
+    private static class CachedParser {
+        private final Integer version;
+        private final String config;
+        private final SerializableSiembolParser parser;
+
+        CachedParser(Integer version, String config, SerializableSiembolParser parser) {
+            this.version = version;
+            this.config = config;
+            this.parser = parser;
+        }
+    }
+
+    private static class CachingParserProvider implements ParserProvider {
+        private final ParserFactory parserFactory;
+        private final Map<String, ParserConfigDto> parserConfigs;
+        private final Map<String, CachedParser> previousParsers;
+        private final Map<String, CachedParser> currentParsers = new HashMap<>();
+        private int rebuiltParsers = 0;
+
+        CachingParserProvider(ParserFactory parserFactory,
+                              Map<String, ParserConfigDto> parserConfigs,
+                              Map<String, CachedParser> previousParsers) {
+            this.parserFactory = parserFactory;
+            this.parserConfigs = parserConfigs;
+            this.previousParsers = previousParsers;
+        }
+
+        @Override
+        public SerializableSiembolParser getParser(String parserName) throws Exception {
+            CachedParser current = currentParsers.get(parserName);
+            if (current != null) {
+                return current.parser;
+            }
+
+            ParserConfigDto parserConfig = parserConfigs.get(parserName);
+            if (parserConfig == null) {
+                throw new IllegalArgumentException(String.format(MISSING_PARSER_MSG, parserName));
+            }
+
+            String config = JSON_PARSER_CONFIG_WRITER.writeValueAsString(parserConfig);
+            CachedParser previous = previousParsers.get(parserName);
+            if (previous != null
+                    && Objects.equals(previous.version, parserConfig.getParserVersion())
+                    && previous.config.equals(config)) {
+                current = previous;
+            } else {
+                current = new CachedParser(parserConfig.getParserVersion(),
+                        config,
+                        new SerializableSiembolParser(config, parserFactory));
+                rebuiltParsers++;
+            }
+
+            currentParsers.put(parserName, current);
+            return current.parser;
+        }
+    }
 
     /**
      * Creates ParsingApplicationFactoryImpl instance
@@ -74,10 +141,21 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
      * @throws Exception if the creation fails
      */
     public ParsingApplicationFactoryImpl() throws Exception {
+        this(ParserFactoryImpl.createParserFactory());
+    }
+
+    /**
+     * Creates ParsingApplicationFactoryImpl instance using the parser factory for creating parsers
+     *
+     * @param parserFactory parser factory for creating parsers
+     * @throws Exception if the creation fails
+     */
+    ParsingApplicationFactoryImpl(ParserFactory parserFactory) throws Exception {
         jsonSchemaValidator = new SiembolJsonSchemaValidator(ParsingApplicationsDto.class);
-        parserFactory = ParserFactoryImpl.createParserFactory();
+        parsersJsonSchemaValidator = new SiembolJsonSchemaValidator(ParsersConfigDto.class);
+        this.parserFactory = parserFactory;
         final var dummyParser = createDummyParser();
-        getParserDummyFun = x -> dummyParser;
+        dummyParserProvider = x -> new SerializableSiembolParser(dummyParser);
     }
 
     /**
@@ -96,8 +174,9 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
     @Override
     public ParsingApplicationFactoryResult create(String parserApplicationConfig, String parserConfigs) {
         ParsingApplicationFactoryAttributes attributes = new ParsingApplicationFactoryAttributes();
-        ParserFactoryResult parserConfigsResult = parserFactory.validateConfigurations(parserConfigs);
-        if (parserConfigsResult.getStatusCode() != ParserFactoryResult.StatusCode.OK) {
+        //NOTE: the parsers are validated when they are compiled, unchanged parsers are reused without compiling
+        SiembolResult parserConfigsResult = parsersJsonSchemaValidator.validate(parserConfigs);
+        if (parserConfigsResult.getStatusCode() != SiembolResult.StatusCode.OK) {
             attributes.setMessage(parserConfigsResult.getAttributes().getMessage());
             return new ParsingApplicationFactoryResult(ERROR, attributes);
         }
@@ -106,7 +185,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
             ParsingApplicationDto application = JSON_PARSING_APP_READER.readValue(parserApplicationConfig);
             attributes.setApplicationParserSpecification(parserApplicationConfig);
             addApplicationAttributes(attributes, application);
-            attributes.setApplicationParser(createParser(application, parserConfigs));
+            attributes.setApplicationParser(createParser(application, parserConfigs, attributes));
         } catch (Exception e) {
             attributes.setMessage(ExceptionUtils.getStackTrace(e));
             return new ParsingApplicationFactoryResult(ERROR, attributes);
@@ -161,7 +240,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
 
             ParsingApplicationsDto applications = JSON_PARSING_APPS_READER.readValue(parserApplicationConfigurations);
             for (var application: applications.getParsingApplications()) {
-                createParser(application, getParserDummyFun);
+                createParser(application, dummyParserProvider);
             }
 
             return new ParsingApplicationFactoryResult(OK, attributes);
@@ -172,7 +251,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
     }
 
     private ParsingApplicationParser createSingleParser(String applicationName,
-                                                        Function<String, String> parserByNameFun,
+                                                        ParserProvider parserProvider,
                                                         ParsingSettingsDto parsingSettings,
                                                         ParsingApplicationSettingsDto appSettings) throws Exception {
         if (parsingSettings.getSingleParser() == null) {
@@ -181,8 +260,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
 
         return SingleApplicationParser.builder()
                 .parser(parsingSettings.getSingleParser().getOutputTopic(),
-                        new SerializableSiembolParser(parserByNameFun
-                                .apply(parsingSettings.getSingleParser().getParserName())))
+                        parserProvider.getParser(parsingSettings.getSingleParser().getParserName()))
                 .parseMetadata(appSettings.getParseMetadata())
                 .addGuidToMessages(true)
                 .errorTopic(appSettings.getErrorTopic())
@@ -195,7 +273,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
     }
 
     private ParsingApplicationParser createRouterParser(String applicationName,
-                                                        Function<String, String> parserByNameFun,
+                                                        ParserProvider parserProvider,
                                                         ParsingSettingsDto parsingSettings,
                                                         ParsingApplicationSettingsDto appSettings) throws Exception {
         if (parsingSettings.getRoutingParser() == null) {
@@ -206,19 +284,16 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
 
         RoutingParsingApplicationParser.Builder<RoutingParsingApplicationParser> builder =
                 RoutingParsingApplicationParser.builder()
-                        .routerParser(new SerializableSiembolParser(
-                                parserByNameFun.apply(routingParser.getRouterParserName())))
+                        .routerParser(parserProvider.getParser(routingParser.getRouterParserName()))
                         .defaultParser(routingParser.getDefaultParser().getOutputTopic(),
-                                new SerializableSiembolParser(
-                                        parserByNameFun.apply(routingParser.getDefaultParser().getParserName())))
+                                parserProvider.getParser(routingParser.getDefaultParser().getParserName()))
                         .routingConditionField(routingParser.getRoutingField())
                         .routingMessageField(routingParser.getRoutingMessage())
                         .mergedFields(routingParser.getMergedFields());
 
         for (RoutedParserPropertiesDto routedParser : routingParser.getParsers()) {
             builder.addParser(routedParser.getParserProperties().getOutputTopic(),
-                    new SerializableSiembolParser(
-                            parserByNameFun.apply(routedParser.getParserProperties().getParserName())),
+                    parserProvider.getParser(routedParser.getParserProperties().getParserName()),
                     routedParser.getRoutingFieldPattern());
         }
 
@@ -235,7 +310,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
     }
 
     private ParsingApplicationParser createHeaderRouterParser(String applicationName,
-                                                              Function<String, String> parserByNameFun,
+                                                              ParserProvider parserProvider,
                                                               ParsingSettingsDto parsingSettings,
                                                               ParsingApplicationSettingsDto appSettings) throws Exception {
         var headerRoutingParser = parsingSettings.getHeaderRoutingParserDto();
@@ -245,13 +320,12 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
 
         var builder = SourceRoutingApplicationParser.builder()
                 .defaultParser(headerRoutingParser.getDefaultParser().getOutputTopic(),
-                        new SerializableSiembolParser(
-                                parserByNameFun.apply(headerRoutingParser.getDefaultParser().getParserName())));
+                        parserProvider.getParser(headerRoutingParser.getDefaultParser().getParserName()));
 
         for (var parser : headerRoutingParser.getParsers()) {
             builder.addParser(parser.getSourceHeaderValue(),
                     parser.getParserProperties().getOutputTopic(),
-                    new SerializableSiembolParser(parserByNameFun.apply(parser.getParserProperties().getParserName())));
+                    parserProvider.getParser(parser.getParserProperties().getParserName()));
         }
 
         builder.errorTopic(appSettings.getErrorTopic())
@@ -267,7 +341,7 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
     }
 
     private ParsingApplicationParser createTopicRouterParser(String applicationName,
-                                                             Function<String, String> parserByNameFun,
+                                                             ParserProvider parserProvider,
                                                              ParsingSettingsDto parsingSettings,
                                                              ParsingApplicationSettingsDto appSettings) throws Exception {
         var topicRoutingParser = parsingSettings.getTopicRoutingParserDto();
@@ -277,13 +351,12 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
 
         var builder = SourceRoutingApplicationParser.builder()
                 .defaultParser(topicRoutingParser.getDefaultParser().getOutputTopic(),
-                        new SerializableSiembolParser(
-                                parserByNameFun.apply(topicRoutingParser.getDefaultParser().getParserName())));
+                        parserProvider.getParser(topicRoutingParser.getDefaultParser().getParserName()));
 
         for (var parser : topicRoutingParser.getParsers()) {
             builder.addParser(parser.getTopicName(),
                     parser.getParserProperties().getOutputTopic(),
-                    new SerializableSiembolParser(parserByNameFun.apply(parser.getParserProperties().getParserName())));
+                    parserProvider.getParser(parser.getParserProperties().getParserName()));
         }
 
         builder.errorTopic(appSettings.getErrorTopic())
@@ -300,42 +373,41 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
 
 
     private ParsingApplicationParser createParser(ParsingApplicationDto application,
-                                                  Function<String, String> parserByNameFun) throws Exception {
+                                                  ParserProvider parserProvider) throws Exception {
 
         var appSettings = application.getParsingApplicationSettingsDto();
         var parsingSettings = application.getParsingSettingsDto();
         switch (appSettings.getApplicationType()) {
             case SINGLE_PARSER:
                 return createSingleParser(application.getParsingApplicationName(),
-                        parserByNameFun, parsingSettings, appSettings);
+                        parserProvider, parsingSettings, appSettings);
             case ROUTER_PARSING:
                 return createRouterParser(application.getParsingApplicationName(),
-                        parserByNameFun, parsingSettings, appSettings);
+                        parserProvider, parsingSettings, appSettings);
             case TOPIC_ROUTING_PARSING:
                 return createTopicRouterParser(application.getParsingApplicationName(),
-                        parserByNameFun, parsingSettings, appSettings);
+                        parserProvider, parsingSettings, appSettings);
             case HEADER_ROUTING_PARSING:
                 return createHeaderRouterParser(application.getParsingApplicationName(),
-                        parserByNameFun, parsingSettings, appSettings);
+                        parserProvider, parsingSettings, appSettings);
             default:
                 throw new IllegalArgumentException(String.format(UNSUPPORTED_PARSER_APP_TYPE,
                         appSettings.getApplicationType()));
         }
     }
     private ParsingApplicationParser createParser(ParsingApplicationDto application,
-                                                  String parserConfigs) throws Exception {
+                                                  String parserConfigs,
+                                                  ParsingApplicationFactoryAttributes attributes) throws Exception {
         ParsersConfigDto parsers = JSON_PARSERS_CONFIG_READER.readValue(parserConfigs);
-        final Map<String, String> parserMap = parsers.getParserConfigurations().stream()
-                .collect(Collectors.toMap(ParserConfigDto::getParserName, x -> {
-                    try {
-                        return JSON_PARSER_CONFIG_WRITER.writeValueAsString(x);
-                    } catch (JsonProcessingException e) {
-                        throw new RuntimeException(e);
-                    }
-                }));
-
-        Function<String, String> parserByNameFun = x -> getParserFromMap(x, parserMap);
-        return createParser(application, parserByNameFun);
+        final Map<String, ParserConfigDto> parserMap = new HashMap<>();
+        parsers.getParserConfigurations().forEach(x -> parserMap.put(x.getParserName(), x));
+
+        var parserProvider = new CachingParserProvider(parserFactory, parserMap, parsersCache);
+        ParsingApplicationParser ret = createParser(application, parserProvider);
+        parsersCache = parserProvider.currentParsers;
+        attributes.setRebuiltParsers(parserProvider.rebuiltParsers);
+        attributes.setReusedParsers(parserProvider.currentParsers.size() - parserProvider.rebuiltParsers);
+        return ret;
     }
 
     private String wrapParserApplicationToParserApplications(String configStr) throws IOException {
@@ -363,14 +435,6 @@ public class ParsingApplicationFactoryImpl implements ParsingApplicationFactory
         attributes.setNumWorkers(application.getParsingApplicationSettingsDto().getNumWorkers());
     }
 
-    private String getParserFromMap(String parserName, Map<String, String> parserMap) {
-        if (!parserMap.containsKey(parserName)) {
-            String errorMsg = String.format(MISSING_PARSER_MSG, parserName);
-            throw new IllegalArgumentException(errorMsg);
-        }
-        return parserMap.get(parserName);
-    }
-
     private String createDummyParser() throws JsonProcessingException {
         var parser = new ParserConfigDto();
         parser.setParserVersion(1);
@@ -0,0 +1,123 @@
+package com.siemmetric.siembol.parsers.application.factory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.siemmetric.siembol.common.constants.SiembolConstants;
+import com.siemmetric.siembol.common.metrics.SiembolMetrics;
+import com.siemmetric.siembol.common.metrics.SiembolMetricsRegistrar;
+import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnector;
+import com.siemmetric.siembol.parsers.application.parsing.ParsingApplicationParser;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicReference;
+/**
+ * An object for updating a parsing application parser by the parser configurations stored in ZooKeeper
+ *
+ * <p>This class creates a parsing application parser from the parser configurations cached in the ZooKeeper,
+ * watches for the parser configurations update and updates the parser while reusing the parsers
+ * with unchanged configurations. It keeps the current parser if the update fails.
+ * It updates the metrics of the parser configurations updates.
+ * It is used by the Storm and the Kafka Streams parsing applications.
+ *
+ * @author Marian Novotny
+ * @see ParsingApplicationFactory
+ * @see ZooKeeperConnector
+ *
+ */
+public class ParsingApplicationUpdater {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String PARSERCONFIG_UPDATE_TRY_MSG_FORMAT = "Trying to update parsing app: %s, " +
+            "by parser configs: %s, ";
+    private static final String FACTORY_EXCEPTION_MSG_FORMAT = "Exception during creation of parsing application: %s";
+    private static final String UPDATE_EXCEPTION_LOG = "Exception during parserconfig update: {}";
+    private static final String ERROR_INIT_MESSAGE = "Parsing application exception: Parsing app initialisation error";
+    private static final String PARSERS_UPDATE_START = "Parser config update start";
+    private static final String PARSERS_UPDATE_COMPLETED_FORMAT =
+            "Parser config update completed, rebuilt parsers: %d, reused parsers: %d";
+
+    private final AtomicReference<ParsingApplicationParser> parsingApplicationParser = new AtomicReference<>();
+    private final String parsingAppSpecification;
+    private final ParsingApplicationFactory parsingApplicationFactory;
+    private final ZooKeeperConnector zooKeeperConnector;
+    private final SiembolMetricsRegistrar metricsRegistrar;
+
+    /**
+     * Creates the updater
+     *
+     * @param parsingAppSpecification the specification of the parsing application
+     * @param parsingApplicationFactory factory for creating parsing application parsers
+     * @param zooKeeperConnector ZooKeeper connector of the parser configurations
+     * @param metricsRegistrar metrics registrar used by the updates that are not concurrent
+     */
+    public ParsingApplicationUpdater(String parsingAppSpecification,
+                                     ParsingApplicationFactory parsingApplicationFactory,
+                                     ZooKeeperConnector zooKeeperConnector,
+                                     SiembolMetricsRegistrar metricsRegistrar) {
+        this.parsingAppSpecification = parsingAppSpecification;
+        this.parsingApplicationFactory = parsingApplicationFactory;
+        this.zooKeeperConnector = zooKeeperConnector;
+        this.metricsRegistrar = metricsRegistrar;
+    }
+
+    public ParsingApplicationUpdater(String parsingAppSpecification,
+                                     ZooKeeperConnector zooKeeperConnector,
+                                     SiembolMetricsRegistrar metricsRegistrar) throws Exception {
+        this(parsingAppSpecification, new ParsingApplicationFactoryImpl(), zooKeeperConnector, metricsRegistrar);
+    }
+
+    /**
+     * Creates the parser and starts watching for the parser configurations update
+     *
+     * @throws IllegalStateException if the parser can not be created
+     */
+    public void initialise() {
+        updateParsers();
+        if (parsingApplicationParser.get() == null) {
+            throw new IllegalStateException(ERROR_INIT_MESSAGE);
+        }
+        zooKeeperConnector.addCacheListener(this::updateParsers);
+    }
+
+    /**
+     * Provides the current parsing application parser
+     *
+     * @return the current parser or null if it has not been created yet
+     */
+    public ParsingApplicationParser getParser() {
+        return parsingApplicationParser.get();
+    }
+
+    private void updateParsers() {
+        try {
+            LOG.info(PARSERS_UPDATE_START);
+            long startTime = System.currentTimeMillis();
+            String parserConfigs = zooKeeperConnector.getData();
+            LOG.info(String.format(PARSERCONFIG_UPDATE_TRY_MSG_FORMAT,
+                    parsingAppSpecification,
+                    StringUtils.left(parserConfigs, SiembolConstants.MAX_SIZE_CONFIG_UPDATE_LOG)));
+            ParsingApplicationFactoryResult result = parsingApplicationFactory
+                    .create(parsingAppSpecification, parserConfigs);
+            if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+                String errorMsg = String.format(FACTORY_EXCEPTION_MSG_FORMAT,
+                        result.getAttributes().getMessage());
+                LOG.error(errorMsg);
+                throw new IllegalStateException(errorMsg);
+            }
+
+            parsingApplicationParser.set(result.getAttributes().getApplicationParser());
+            metricsRegistrar.registerCounter(SiembolMetrics.PARSING_CONFIGS_UPDATE.getMetricName()).increment();
+            metricsRegistrar.registerCounter(SiembolMetrics.PARSING_CONFIGS_REBUILT_PARSERS.getMetricName())
+                    .increment(result.getAttributes().getRebuiltParsers());
+            metricsRegistrar.registerGauge(SiembolMetrics.PARSING_CONFIGS_UPDATE_LATENCY_MS.getMetricName())
+                    .setValue(System.currentTimeMillis() - startTime);
+            LOG.info(String.format(PARSERS_UPDATE_COMPLETED_FORMAT,
+                    result.getAttributes().getRebuiltParsers(),
+                    result.getAttributes().getReusedParsers()));
+        } catch (Exception e) {
+            LOG.error(UPDATE_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e));
+            metricsRegistrar.registerCounter(SiembolMetrics.PARSING_CONFIGS_ERROR_UPDATE.getMetricName()).increment();
+        }
+    }
+}
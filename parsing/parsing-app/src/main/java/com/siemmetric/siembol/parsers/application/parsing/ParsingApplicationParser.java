@@ -1,10 +1,9 @@
 package com.siemmetric.siembol.parsers.application.parsing;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
-import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,15 +13,18 @@ import com.siemmetric.siembol.common.utils.TimeProvider;
 import com.siemmetric.siembol.common.constants.SiembolMessageFields;
 import com.siemmetric.siembol.parsers.common.ParserResult;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.StringWriter;
 import java.lang.invoke.MethodHandles;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.stream.Collectors;
 /**
  * An object for parsing application parser
  *
  * <p>This abstract class is using template pattern for handling common functionality of all parsing application parsers.
+ * It serialises a parsed message in one pass, while truncating too long string values and
+ * skipping the fields with the longest names if the message has too many fields.
  *
  * @author  Marian Novotny
  */
@@ -36,8 +38,7 @@ public abstract class ParsingApplicationParser implements Serializable {
     private static final long serialVersionUID = 1L;
     private static final Logger LOG = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
-    private static final ObjectWriter JSON_WRITER = new ObjectMapper()
-            .writerFor(new TypeReference<Map<String, Object>>() { });
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
     private static final ObjectReader JSON_READER = new ObjectMapper()
             .readerFor(new TypeReference<Map<String, Object>>() { });
     private static final String ERROR_MESSAGE = "Exception during parsing, parsing_app: {} message: {}, " +
@@ -58,6 +59,19 @@ public abstract class ParsingApplicationParser implements Serializable {
     private final HashSet<String> siembolFields;
     private final int maxFieldSize;
     private final int maxNumFields;
+    private transient volatile ParsedMetadata lastMetadata;
+
+    private static class ParsedMetadata {
+        private final String metadata;
+        private final String[] fields;
+        private final Object[] values;
+
+        ParsedMetadata(String metadata, String[] fields, Object[] values) {
+            this.metadata = metadata;
+            this.fields = fields;
+            this.values = values;
+        }
+    }
 
     protected ParsingApplicationParser(Builder<?> builder) {
         this.name = builder.name;
@@ -95,6 +109,27 @@ public abstract class ParsingApplicationParser implements Serializable {
         return msg.toString();
     }
 
+    private ParsedMetadata getParsedMetadata(String metadata) throws IOException {
+        //NOTE: consecutive messages from the same source usually have the same metadata
+        ParsedMetadata current = lastMetadata;
+        if (current != null && current.metadata.equals(metadata)) {
+            return current;
+        }
+
+        Map<String, Object> metadataObject = JSON_READER.readValue(metadata.trim());
+        String[] fields = new String[metadataObject.size()];
+        Object[] values = new Object[metadataObject.size()];
+        int index = 0;
+        for (var entry : metadataObject.entrySet()) {
+            fields[index] = String.format(metadataFormatMsg, entry.getKey());
+            values[index++] = entry.getValue();
+        }
+
+        current = new ParsedMetadata(metadata, fields, values);
+        lastMetadata = current;
+        return current;
+    }
+
     /**
      * Parses the message using internal parser(s).
      * Template method to be implemented by descendant classes.
@@ -134,8 +169,8 @@ public abstract class ParsingApplicationParser implements Serializable {
     public ArrayList<ParsingApplicationResult> parse(String source, String metadata, byte[] message) {
         ArrayList<ParsingApplicationResult> ret = new ArrayList<>();
         try {
-            Map<String, Object> metadataObject = flags.contains(Flags.PARSE_METADATA)
-                    ? JSON_READER.readValue(metadata.trim())
+            ParsedMetadata parsedMetadata = flags.contains(Flags.PARSE_METADATA)
+                    ? getParsedMetadata(metadata)
                     : null;
 
             long timestamp = timeProvider.getCurrentTimeInMs();
@@ -156,36 +191,32 @@ public abstract class ParsingApplicationParser implements Serializable {
             var parsed = parserResult.getParsedMessages();
             parsed.removeIf(Map::isEmpty);
             if (parsed.isEmpty()) {
-                currentResult.setResultFlags(EnumSet.of(ParsingApplicationResult.ResultFlag.FILTERED));
+                var filteredFlags = EnumSet.of(ParsingApplicationResult.ResultFlag.FILTERED);
+                if (parserResult.getEarlyFilteredMessages() > 0) {
+                    filteredFlags.add(ParsingApplicationResult.ResultFlag.FILTERED_EARLY);
+                }
+                currentResult.setResultFlags(filteredFlags);
                 ret.add(currentResult);
                 return ret;
             }
 
-           var resultFlags = EnumSet.of(ParsingApplicationResult.ResultFlag.PARSED);
-            parsed.forEach(x -> {
+            var resultFlags = EnumSet.of(ParsingApplicationResult.ResultFlag.PARSED);
+            ArrayList<String> serialised = new ArrayList<>(parsed.size());
+            for (var x : parsed) {
                 x.put(processingTimeField, timestamp);
                 x.put(SiembolMessageFields.SENSOR_TYPE.toString(), parserResult.getSourceType());
                 if (flags.contains(Flags.ADD_GUID_TO_MESSAGES)) {
                     x.put(SiembolMessageFields.GUID.toString(), UUID.randomUUID().toString());
                 }
-                if (metadataObject != null) {
-                    metadataObject.keySet()
-                            .forEach(y -> x.put(String.format(metadataFormatMsg, y), metadataObject.get(y)));
+                if (parsedMetadata != null) {
+                    for (int i = 0; i < parsedMetadata.fields.length; i++) {
+                        x.put(parsedMetadata.fields[i], parsedMetadata.values[i]);
+                    }
                 }
-                resultFlags.addAll(removeFields(x));
-                resultFlags.addAll(truncateFields(x));
-            });
+                serialised.add(writeMessage(x, resultFlags));
+            }
 
             currentResult.setResultFlags(resultFlags);
-            ArrayList<String> serialised = parsed.stream()
-                    .map(x -> {
-                        try {
-                            return JSON_WRITER.writeValueAsString(x);
-                        } catch (JsonProcessingException e) {
-                            throw new RuntimeException(e);
-                        }
-                    })
-                    .collect(Collectors.toCollection(ArrayList::new));
             currentResult.setMessages(serialised);
             ret.add(currentResult);
 
@@ -210,49 +241,71 @@ public abstract class ParsingApplicationParser implements Serializable {
         }
     }
 
-    private EnumSet<ParsingApplicationResult.ResultFlag> removeFields(Map<String, Object> parsed) {
-        if (parsed.size() <= maxNumFields) {
-            return EnumSet.noneOf(ParsingApplicationResult.ResultFlag.class);
-        }
-
-        int toRemove = parsed.size() - maxNumFields;
-        var queue = new PriorityQueue<>(toRemove, Comparator.comparingInt(String::length));
-        for (var fieldName : parsed.keySet()) {
-            if (siembolFields.contains(fieldName)
-                    || fieldName == null) {
-                continue;
+    private String writeMessage(Map<String, Object> parsed,
+                                EnumSet<ParsingApplicationResult.ResultFlag> resultFlags) throws IOException {
+        int minRemovedLength = Integer.MAX_VALUE;
+        int removedWithMinLength = 0;
+        if (parsed.size() > maxNumFields) {
+            //NOTE: the fields with the longest names are removed,
+            // the first fields in the iteration order are removed from the fields with the shortest removed name
+            int[] lengthCounts = new int[1];
+            for (var fieldName : parsed.keySet()) {
+                if (fieldName == null || siembolFields.contains(fieldName)) {
+                    continue;
+                }
+                if (fieldName.length() >= lengthCounts.length) {
+                    lengthCounts = Arrays.copyOf(lengthCounts, Math.max(fieldName.length() + 1,
+                            2 * lengthCounts.length));
+                }
+                lengthCounts[fieldName.length()]++;
             }
 
-            if (queue.size() < toRemove) {
-                queue.add(fieldName);
-            } else if (fieldName.length() > queue.peek().length()) {
-                queue.poll();
-                queue.add(fieldName);
+            int toRemove = parsed.size() - maxNumFields;
+            for (int i = lengthCounts.length - 1; i >= 0 && toRemove > 0; i--) {
+                minRemovedLength = i;
+                removedWithMinLength = Math.min(toRemove, lengthCounts[i]);
+                toRemove -= removedWithMinLength;
             }
+            resultFlags.add(ParsingApplicationResult.ResultFlag.REMOVED_FIELDS);
         }
-        queue.forEach(parsed::remove);
 
-        return EnumSet.of(ParsingApplicationResult.ResultFlag.REMOVED_FIELDS);
-    }
+        var writer = new StringWriter();
+        try (JsonGenerator generator = JSON_MAPPER.getFactory().createGenerator(writer)) {
+            generator.writeStartObject();
+            for (var entry : parsed.entrySet()) {
+                String fieldName = entry.getKey();
+                if (fieldName != null
+                        && fieldName.length() >= minRemovedLength
+                        && !siembolFields.contains(fieldName)) {
+                    if (fieldName.length() > minRemovedLength) {
+                        continue;
+                    }
+                    if (removedWithMinLength > 0) {
+                        removedWithMinLength--;
+                        continue;
+                    }
+                }
 
-    private EnumSet<ParsingApplicationResult.ResultFlag> truncateFields(Map<String, Object> parsed) {
-        var ret = EnumSet.noneOf(ParsingApplicationResult.ResultFlag.class);
-        for (var pair : parsed.entrySet()) {
-            if (!(pair.getValue() instanceof String)) {
-                continue;
-            }
-            String currentValue = (String) pair.getValue();
-            if (currentValue.length() <= maxFieldSize) {
-                continue;
-            }
+                generator.writeFieldName(fieldName);
+                Object value = entry.getValue();
+                if (!(value instanceof String)) {
+                    generator.writeObject(value);
+                    continue;
+                }
 
-            pair.setValue(currentValue.substring(0, maxFieldSize));
-            ret.add(ParsingApplicationResult.ResultFlag.TRUNCATED_FIELDS);
-            if (SiembolMessageFields.ORIGINAL.getName().equals(pair.getKey())) {
-                ret.add(ParsingApplicationResult.ResultFlag.TRUNCATED_ORIGINAL_STRING);
+                String stringValue = (String) value;
+                if (stringValue.length() > maxFieldSize) {
+                    stringValue = stringValue.substring(0, maxFieldSize);
+                    resultFlags.add(ParsingApplicationResult.ResultFlag.TRUNCATED_FIELDS);
+                    if (SiembolMessageFields.ORIGINAL.getName().equals(fieldName)) {
+                        resultFlags.add(ParsingApplicationResult.ResultFlag.TRUNCATED_ORIGINAL_STRING);
+                    }
+                }
+                generator.writeString(stringValue);
             }
+            generator.writeEndObject();
         }
-        return ret;
+        return writer.toString();
     }
 
     /**
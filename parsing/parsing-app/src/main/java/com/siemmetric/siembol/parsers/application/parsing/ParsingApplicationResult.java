@@ -1,8 +1,11 @@
 package com.siemmetric.siembol.parsers.application.parsing;
 
+import com.siemmetric.siembol.common.metrics.SiembolMetrics;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.EnumSet;
+import java.util.function.Consumer;
 /**
  * An object for representing a parsing application result
  *
@@ -17,6 +20,7 @@ public class ParsingApplicationResult implements Serializable {
         PARSED,
         ERROR,
         FILTERED,
+        FILTERED_EARLY,
         TRUNCATED_FIELDS,
         TRUNCATED_ORIGINAL_STRING,
         REMOVED_FIELDS,
@@ -64,4 +68,48 @@ public class ParsingApplicationResult implements Serializable {
     public void setResultFlags(EnumSet<ResultFlag> resultFlags) {
         this.resultFlags = resultFlags;
     }
+
+    /**
+     * Provides names of the counters that should be incremented according to the result flags.
+     * The counters of a filtered result should be incremented once for the result,
+     * otherwise they should be incremented for each message of the result.
+     *
+     * @param action the action that is performed for each counter name
+     */
+    public void forEachCounterName(Consumer<String> action) {
+        if (resultFlags.contains(ResultFlag.FILTERED)) {
+            action.accept(SiembolMetrics.PARSING_SOURCE_TYPE_FILTERED_MESSAGES.getMetricName(sourceType));
+            action.accept(SiembolMetrics.PARSING_APP_FILTERED_MESSAGES.getMetricName());
+            if (resultFlags.contains(ResultFlag.FILTERED_EARLY)) {
+                action.accept(SiembolMetrics.PARSING_SOURCE_TYPE_EARLY_FILTERED_MESSAGES.getMetricName(sourceType));
+            }
+            return;
+        }
+
+        if (resultFlags.contains(ResultFlag.PARSED)) {
+            action.accept(SiembolMetrics.PARSING_SOURCE_TYPE_PARSED_MESSAGES.getMetricName(sourceType));
+            action.accept(SiembolMetrics.PARSING_APP_PARSED_MESSAGES.getMetricName());
+        }
+
+        if (resultFlags.contains(ResultFlag.ERROR)) {
+            action.accept(SiembolMetrics.PARSING_APP_ERROR_MESSAGES.getMetricName());
+        }
+
+        if (resultFlags.contains(ResultFlag.REMOVED_FIELDS)) {
+            action.accept(SiembolMetrics.PARSING_SOURCE_TYPE_REMOVED_FIELDS_MESSAGES.getMetricName(sourceType));
+        }
+
+        if (resultFlags.contains(ResultFlag.TRUNCATED_FIELDS)) {
+            action.accept(SiembolMetrics.PARSING_SOURCE_TYPE_TRUNCATED_FIELDS_MESSAGES.getMetricName(sourceType));
+        }
+
+        if (resultFlags.contains(ResultFlag.TRUNCATED_ORIGINAL_STRING)) {
+            action.accept(SiembolMetrics.PARSING_SOURCE_TYPE_TRUNCATED_ORIGINAL_STRING_MESSAGES
+                    .getMetricName(sourceType));
+        }
+
+        if (resultFlags.contains(ResultFlag.ORIGINAL_MESSAGE)) {
+            action.accept(SiembolMetrics.PARSING_SOURCE_TYPE_SENT_ORIGINAL_STRING_MESSAGES.getMetricName(sourceType));
+        }
+    }
 }
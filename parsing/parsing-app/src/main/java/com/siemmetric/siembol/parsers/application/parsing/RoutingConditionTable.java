@@ -0,0 +1,141 @@
+package com.siemmetric.siembol.parsers.application.parsing;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.regex.Pattern;
+/**
+ * An object for selecting the first route that matches a routing condition
+ *
+ * <p>This class compiles routing patterns into a table that returns the first matching route in one pass.
+ * Patterns in the form `^literal.*` are compiled into a prefix trie, patterns without regular expression
+ * operators are compiled into a hash table for exact matching, and the pattern `.*` matches always.
+ * Other patterns are evaluated as regular expressions only if they are ordered before the best route found
+ * by the tables. The patterns are evaluated on the whole routing condition.
+ *
+ * @author  Marian Novotny
+ * @see RoutingParsingApplicationParser
+ */
+public class RoutingConditionTable implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int NO_ROUTE = Integer.MAX_VALUE;
+    private static final String ANY_SUFFIX = ".*";
+    private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final HashMap<Character, Node> children = new HashMap<>();
+        private int route = NO_ROUTE;
+    }
+
+    private static class RegexRoute implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final int route;
+        private final Pattern pattern;
+
+        RegexRoute(int route, Pattern pattern) {
+            this.route = route;
+            this.pattern = pattern;
+        }
+    }
+
+    private final Node prefixes = new Node();
+    private final HashMap<String, Integer> literals = new HashMap<>();
+    private final ArrayList<RegexRoute> regexRoutes = new ArrayList<>();
+    private final int defaultRoute;
+
+    /**
+     * Creates the routing condition table
+     *
+     * @param patterns list of regular expression patterns ordered by their priority
+     */
+    public RoutingConditionTable(List<String> patterns) {
+        defaultRoute = patterns.size();
+        for (int i = 0; i < patterns.size(); i++) {
+            addRoute(i, patterns.get(i));
+        }
+    }
+
+    /**
+     * Finds the first route that matches the routing condition
+     *
+     * @param condition routing condition
+     * @return index of the first pattern that matches the condition,
+     *         or the number of patterns if no pattern matches the condition
+     */
+    public int findRoute(String condition) {
+        int ret = prefixes.route;
+        Node current = prefixes;
+        for (int i = 0; i < condition.length() && ret > 0; i++) {
+            current = current.children.get(condition.charAt(i));
+            if (current == null) {
+                break;
+            }
+            ret = Math.min(ret, current.route);
+        }
+
+        Integer literalRoute = literals.get(condition);
+        if (literalRoute != null) {
+            ret = Math.min(ret, literalRoute);
+        }
+
+        for (RegexRoute regexRoute : regexRoutes) {
+            if (regexRoute.route >= ret) {
+                break;
+            }
+            if (regexRoute.pattern.matcher(condition).matches()) {
+                return regexRoute.route;
+            }
+        }
+
+        return ret == NO_ROUTE ? defaultRoute : ret;
+    }
+
+    private void addRoute(int route, String pattern) {
+        String body = pattern;
+        if (body.startsWith("^")) {
+            body = body.substring(1);
+        }
+        if (body.endsWith("$") && !body.endsWith("\\$")) {
+            body = body.substring(0, body.length() - 1);
+        }
+
+        boolean prefix = body.endsWith(ANY_SUFFIX) && !body.endsWith("\\" + ANY_SUFFIX);
+        String literal = getLiteral(prefix ? body.substring(0, body.length() - ANY_SUFFIX.length()) : body);
+        if (literal == null) {
+            regexRoutes.add(new RegexRoute(route, Pattern.compile(pattern, Pattern.DOTALL)));
+            return;
+        }
+
+        if (!prefix) {
+            literals.putIfAbsent(literal, route);
+            return;
+        }
+
+        Node current = prefixes;
+        for (int i = 0; i < literal.length(); i++) {
+            current = current.children.computeIfAbsent(literal.charAt(i), x -> new Node());
+        }
+        current.route = Math.min(current.route, route);
+    }
+
+    private static String getLiteral(String pattern) {
+        StringBuilder sb = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            char current = pattern.charAt(i);
+            if (current == '\\') {
+                //NOTE: only escaped meta characters are supported in literals
+                if (i + 1 >= pattern.length() || META_CHARACTERS.indexOf(pattern.charAt(i + 1)) < 0) {
+                    return null;
+                }
+                sb.append(pattern.charAt(++i));
+            } else if (META_CHARACTERS.indexOf(current) >= 0) {
+                return null;
+            } else {
+                sb.append(current);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -5,10 +5,10 @@ import org.slf4j.LoggerFactory;
 import com.siemmetric.siembol.parsers.common.ParserResult;
 import com.siemmetric.siembol.parsers.common.SerializableSiembolParser;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Pattern;
 /**
  * An object for a parsing application that integrates a routing parser and
  * a final parser will be selected by pattern matching.
@@ -16,7 +16,10 @@ import java.util.regex.Pattern;
  * <p>This derived class of ParsingApplicationParser is using template pattern for implementing
  * a parsing application that integrates a routing parser and
  * evaluating regular expression patterns for selecting the final parser.
+ * The patterns are compiled into a routing condition table that selects the first matching parser in one pass.
  * Default parser is selected if no pattern has been matched.
+ * The original message is passed to the selected parser without encoding if the routing message is
+ * the same as the original message.
  *
  * @author  Marian Novotny
  */
@@ -35,6 +38,7 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
     private final SiembolParserWrapper routerParser;
     private final ArrayList<String> mergedFields;
     private final ArrayList<SiembolParserWrapper> parsers;
+    private final RoutingConditionTable routingTable;
 
     protected RoutingParsingApplicationParser(Builder<?> builder) {
         super(builder);
@@ -43,6 +47,21 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
         this.mergedFields = builder.mergedFields;
         this.parsers = builder.parsers;
         this.routerParser = builder.routerParser;
+        this.routingTable = new RoutingConditionTable(builder.patterns);
+    }
+
+    private static boolean isOriginalMessage(String messageToParse, byte[] message) {
+        if (messageToParse.length() != message.length) {
+            return false;
+        }
+
+        for (int i = 0; i < message.length; i++) {
+            //NOTE: only ascii messages are compared without encoding
+            if (message[i] < 0 || messageToParse.charAt(i) != message[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -78,23 +97,20 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
 
         String messageToParse = parsedMsg.get(routingMessageField).toString();
         String messageToCondition = parsedMsg.get(routingConditionField).toString();
-        for (SiembolParserWrapper parser : parsers) {
-            if (!parser.checkCondition(messageToCondition)) {
-                continue;
-            }
-
-            ParserResult result = parser.parseToResult(metadata, messageToParse.getBytes());
-            if (result.getParsedMessages() != null && !result.getParsedMessages().isEmpty()) {
-                for (String field : mergedFields) {
-                    if (parsedMsg.containsKey(field)) {
-                        result.getParsedMessages().forEach(x -> x.put(field, parsedMsg.get(field)));
-                    }
+        SiembolParserWrapper parser = parsers.get(routingTable.findRoute(messageToCondition));
+        byte[] bytesToParse = isOriginalMessage(messageToParse, message)
+                ? message
+                : messageToParse.getBytes(StandardCharsets.UTF_8);
+
+        ParserResult result = parser.parseToResult(metadata, bytesToParse);
+        if (result.getParsedMessages() != null && !result.getParsedMessages().isEmpty()) {
+            for (String field : mergedFields) {
+                if (parsedMsg.containsKey(field)) {
+                    result.getParsedMessages().forEach(x -> x.put(field, parsedMsg.get(field)));
                 }
             }
-            return result;
         }
-
-        return routerResult;
+        return result;
     }
 
     /**
@@ -139,6 +155,7 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
         protected SiembolParserWrapper routerParser;
         protected SiembolParserWrapper defaultParser;
         protected ArrayList<SiembolParserWrapper> parsers =  new ArrayList<>();
+        protected ArrayList<String> patterns = new ArrayList<>();
 
         /**
          * Sets the routing condition field that is used for evaluating patterns of the parsers
@@ -187,8 +204,7 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
          * @see SerializableSiembolParser
          */
         public Builder<T> routerParser(SerializableSiembolParser siembolParser) {
-            final RouterCondition alwaysMatch = x -> true;
-            this.routerParser = new SiembolParserWrapper(alwaysMatch, siembolParser, null);
+            this.routerParser = new SiembolParserWrapper(siembolParser, null);
             return this;
         }
 
@@ -219,9 +235,8 @@ public class RoutingParsingApplicationParser extends ParsingApplicationParser {
          *
          */
         public Builder<T> addParser(String topic, SerializableSiembolParser siembolParser, String pattern) {
-            final Pattern conditionPattern = Pattern.compile(pattern, Pattern.DOTALL);
-            final RouterCondition condition = x -> conditionPattern.matcher(x).matches();
-            parsers.add(new SiembolParserWrapper(condition, siembolParser, topic));
+            parsers.add(new SiembolParserWrapper(siembolParser, topic));
+            patterns.add(pattern);
             return this;
         }
 
@@ -19,24 +19,14 @@ import java.util.Map;
  */
 public class SiembolParserWrapper implements SiembolParser, Serializable {
     private static final long serialVersionUID = 1L;
-    private final RouterCondition condition;
     private final SerializableSiembolParser parser;
     private final String topic;
 
-    public SiembolParserWrapper(RouterCondition condition, SerializableSiembolParser parser, String topic) {
-        this.condition = condition;
+    public SiembolParserWrapper(SerializableSiembolParser parser, String topic) {
         this.parser = parser;
         this.topic = topic;
     }
 
-    public SiembolParserWrapper(SerializableSiembolParser parser, String topic) {
-        this(x -> true, parser, topic);
-    }
-
-    boolean checkCondition(String message) {
-        return condition.apply(message);
-    }
-
     @Override
     public List<Map<String, Object>> parse(byte[] message) {
         return parser.parse(message);
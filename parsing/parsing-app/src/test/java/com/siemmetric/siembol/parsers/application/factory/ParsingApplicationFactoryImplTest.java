@@ -3,8 +3,46 @@ package com.siemmetric.siembol.parsers.application.factory;
 import org.junit.Assert;
 import org.junit.Test;
 import com.siemmetric.siembol.parsers.application.model.ParsingApplicationTypeDto;
+import com.siemmetric.siembol.parsers.factory.ParserFactory;
+import com.siemmetric.siembol.parsers.factory.ParserFactoryImpl;
+import com.siemmetric.siembol.parsers.factory.ParserFactoryResult;
 
 public class ParsingApplicationFactoryImplTest {
+    private static class CountingParserFactory implements ParserFactory {
+        private final ParserFactory parserFactory;
+        private int createdParsers = 0;
+
+        CountingParserFactory() throws Exception {
+            parserFactory = ParserFactoryImpl.createParserFactory();
+        }
+
+        @Override
+        public ParserFactoryResult getSchema() {
+            return parserFactory.getSchema();
+        }
+
+        @Override
+        public ParserFactoryResult create(String parserConfig) {
+            createdParsers++;
+            return parserFactory.create(parserConfig);
+        }
+
+        @Override
+        public ParserFactoryResult test(String parserConfig, String metadata, byte[] rawLog) {
+            return parserFactory.test(parserConfig, metadata, rawLog);
+        }
+
+        @Override
+        public ParserFactoryResult validateConfiguration(String parserConfig) {
+            return parserFactory.validateConfiguration(parserConfig);
+        }
+
+        @Override
+        public ParserFactoryResult validateConfigurations(String parserConfigurations) {
+            return parserFactory.validateConfigurations(parserConfigurations);
+        }
+    }
+
     private final ParsingApplicationFactory factory;
     public ParsingApplicationFactoryImplTest() throws Exception {
         factory = new ParsingApplicationFactoryImpl();
@@ -494,4 +532,80 @@ public class ParsingApplicationFactoryImplTest {
         ParsingApplicationFactoryResult result = factory.create(missingRouted, testParsersConfigs);
         Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.ERROR, result.getStatusCode());
     }
+
+    @Test
+    public void creationRoutingReusesUnchangedParsers() {
+        ParsingApplicationFactoryResult result = factory.create(simpleRoutingApplicationParser, testParsersConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        int parsersCount = result.getAttributes().getRebuiltParsers();
+        Assert.assertTrue(parsersCount > 0);
+        Assert.assertEquals(0, result.getAttributes().getReusedParsers().intValue());
+
+        result = factory.create(simpleRoutingApplicationParser, testParsersConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        Assert.assertEquals(0, result.getAttributes().getRebuiltParsers().intValue());
+        Assert.assertEquals(parsersCount, result.getAttributes().getReusedParsers().intValue());
+
+        var updatedConfigs = testParsersConfigs.replace("\"parser_name\": \"router\",\n      \"parser_author\": \"dummy\"",
+                "\"parser_name\": \"router\",\n      \"parser_author\": \"updated\"");
+        Assert.assertNotEquals(testParsersConfigs, updatedConfigs);
+        result = factory.create(simpleRoutingApplicationParser, updatedConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        Assert.assertEquals(1, result.getAttributes().getRebuiltParsers().intValue());
+        Assert.assertEquals(parsersCount - 1, result.getAttributes().getReusedParsers().intValue());
+    }
+
+    @Test
+    public void creationFailedKeepsReusableParsers() {
+        ParsingApplicationFactoryResult result = factory.create(simpleRoutingApplicationParser, testParsersConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        int parsersCount = result.getAttributes().getRebuiltParsers();
+
+        result = factory.create(simpleRoutingApplicationParser, "INVALID");
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.ERROR, result.getStatusCode());
+
+        result = factory.create(simpleRoutingApplicationParser, testParsersConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        Assert.assertEquals(0, result.getAttributes().getRebuiltParsers().intValue());
+        Assert.assertEquals(parsersCount, result.getAttributes().getReusedParsers().intValue());
+    }
+
+    @Test
+    public void creationRoutingCompilesChangedParsersOnly() throws Exception {
+        var parserFactory = new CountingParserFactory();
+        var countingFactory = new ParsingApplicationFactoryImpl(parserFactory);
+        ParsingApplicationFactoryResult result = countingFactory.create(simpleRoutingApplicationParser,
+                testParsersConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        Assert.assertEquals(3, result.getAttributes().getRebuiltParsers().intValue());
+        Assert.assertEquals(3, parserFactory.createdParsers);
+
+        result = countingFactory.create(simpleRoutingApplicationParser, testParsersConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        Assert.assertEquals(0, result.getAttributes().getRebuiltParsers().intValue());
+        Assert.assertEquals(3, parserFactory.createdParsers);
+
+        var updatedConfigs = testParsersConfigs.replace("\"parser_name\": \"router\",\n      \"parser_author\": \"dummy\"",
+                "\"parser_name\": \"router\",\n      \"parser_author\": \"updated\"");
+        result = countingFactory.create(simpleRoutingApplicationParser, updatedConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+        Assert.assertEquals(1, result.getAttributes().getRebuiltParsers().intValue());
+        Assert.assertEquals(2, result.getAttributes().getReusedParsers().intValue());
+        Assert.assertEquals(4, parserFactory.createdParsers);
+    }
+
+    @Test
+    public void creationRoutingInvalidChangedParser() {
+        ParsingApplicationFactoryResult result = factory.create(simpleRoutingApplicationParser, testParsersConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.OK, result.getStatusCode());
+
+        var invalidConfigs = testParsersConfigs.replace("\"parser_name\": \"router\",\n      \"parser_author\": \"dummy\"",
+                "\"parser_name\": \"router\",\n      \"parser_author\": \"dummy\",\n"
+                        + "      \"parser_extractors\": [{\"extractor_type\": \"pattern_extractor\", "
+                        + "\"name\": \"invalid\", \"field\": \"original_string\", "
+                        + "\"attributes\": {\"regular_expressions\": [\"(\"]}}]");
+        Assert.assertNotEquals(testParsersConfigs, invalidConfigs);
+        result = factory.create(simpleRoutingApplicationParser, invalidConfigs);
+        Assert.assertSame(ParsingApplicationFactoryResult.StatusCode.ERROR, result.getStatusCode());
+    }
 }
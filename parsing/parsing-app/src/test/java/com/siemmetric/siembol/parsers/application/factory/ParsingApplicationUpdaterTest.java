@@ -0,0 +1,109 @@
+package com.siemmetric.siembol.parsers.application.factory;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import com.siemmetric.siembol.common.metrics.SiembolMetrics;
+import com.siemmetric.siembol.common.metrics.test.SiembolMetricsTestRegistrar;
+import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnector;
+import com.siemmetric.siembol.parsers.application.parsing.ParsingApplicationParser;
+
+import static org.mockito.Mockito.*;
+
+public class ParsingApplicationUpdaterTest {
+    private final String simpleSingleApplicationParser = """
+            {
+               "parsing_app_name": "test",
+               "parsing_app_version": 1,
+               "parsing_app_author": "dummy",
+               "parsing_app_description": "Description of parser application",
+               "parsing_app_settings": {
+                 "input_topics": [
+                   "secret"
+                 ],
+                 "error_topic": "error",
+                 "input_parallelism": 1,
+                 "parsing_parallelism": 2,
+                 "output_parallelism": 3,
+                 "parsing_app_type": "single_parser"
+               },
+               "parsing_settings": {
+                 "single_parser": {
+                   "parser_name": "single",
+                   "output_topic": "output"
+                 }
+               }
+             }
+            """;
+
+    private final String testParsersConfigs = """
+             {
+               "parsers_version": 1,
+               "parsers_configurations": [
+                 {
+                   "parser_description": "for testing single app parser",
+                   "parser_version": 2,
+                   "parser_name": "single",
+                   "parser_author": "dummy",
+                   "parser_attributes": {
+                     "parser_type": "generic"
+                   }
+                 }
+               ]
+             }
+            """;
+
+    private ZooKeeperConnector zooKeeperConnector;
+    private ArgumentCaptor<Runnable> zooKeeperCallback;
+    private SiembolMetricsTestRegistrar metricsRegistrar;
+    private ParsingApplicationUpdater updater;
+
+    @Before
+    public void setUp() throws Exception {
+        String specification = new ParsingApplicationFactoryImpl()
+                .create(simpleSingleApplicationParser)
+                .getAttributes()
+                .getApplicationParserSpecification();
+        zooKeeperConnector = Mockito.mock(ZooKeeperConnector.class);
+        when(zooKeeperConnector.getData()).thenReturn(testParsersConfigs);
+        zooKeeperCallback = ArgumentCaptor.forClass(Runnable.class);
+        doNothing().when(zooKeeperConnector).addCacheListener(zooKeeperCallback.capture());
+        metricsRegistrar = new SiembolMetricsTestRegistrar();
+        updater = new ParsingApplicationUpdater(specification, zooKeeperConnector, metricsRegistrar.cachedRegistrar());
+    }
+
+    @Test
+    public void initialiseAndUpdateOk() {
+        updater.initialise();
+        ParsingApplicationParser parser = updater.getParser();
+        Assert.assertNotNull(parser);
+        Assert.assertEquals(1, metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_CONFIGS_UPDATE.getMetricName()));
+
+        zooKeeperCallback.getValue().run();
+        Assert.assertNotNull(updater.getParser());
+        Assert.assertNotSame(parser, updater.getParser());
+        Assert.assertEquals(2, metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_CONFIGS_UPDATE.getMetricName()));
+    }
+
+    @Test
+    public void invalidUpdateKeepsParser() {
+        updater.initialise();
+        ParsingApplicationParser parser = updater.getParser();
+
+        when(zooKeeperConnector.getData()).thenReturn("INVALID");
+        zooKeeperCallback.getValue().run();
+        Assert.assertSame(parser, updater.getParser());
+        Assert.assertEquals(1,
+                metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_CONFIGS_ERROR_UPDATE.getMetricName()));
+    }
+
+    @Test
+    public void invalidInitialisation() {
+        when(zooKeeperConnector.getData()).thenReturn("INVALID");
+        Assert.assertThrows(IllegalStateException.class, () -> updater.initialise());
+        Assert.assertNull(updater.getParser());
+        verify(zooKeeperConnector, never()).addCacheListener(any());
+    }
+}
@@ -0,0 +1,49 @@
+package com.siemmetric.siembol.parsers.application.parsing;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+
+public class RoutingConditionTableTest {
+    private final List<String> patterns = Arrays.asList(
+            "^cisco.*$",
+            "^cisco-asa.*",
+            "^.*firewall.*$",
+            "^paloalto$",
+            "fire.*",
+            "^a\\.b.*",
+            "^[0-9]+$");
+
+    @Test
+    public void firstMatchingRouteSameAsRegex() {
+        RoutingConditionTable table = new RoutingConditionTable(patterns);
+        for (String condition : new String[]{"cisco", "cisco-asa", "ciscofirewall", "myfirewall", "firewall",
+                "paloalto", "paloalto2", "a.bc", "axbc", "123", "", "unknown", "fir"}) {
+            int expected = patterns.size();
+            for (int i = 0; i < patterns.size(); i++) {
+                if (Pattern.compile(patterns.get(i), Pattern.DOTALL).matcher(condition).matches()) {
+                    expected = i;
+                    break;
+                }
+            }
+            Assert.assertEquals(condition, expected, table.findRoute(condition));
+        }
+    }
+
+    @Test
+    public void alwaysMatchRoute() {
+        RoutingConditionTable table = new RoutingConditionTable(Arrays.asList("^[0-9]+$", ".*", "^abc.*"));
+        Assert.assertEquals(0, table.findRoute("12"));
+        Assert.assertEquals(1, table.findRoute("abc"));
+        Assert.assertEquals(1, table.findRoute(""));
+    }
+
+    @Test
+    public void emptyTableDefaultRoute() {
+        RoutingConditionTable table = new RoutingConditionTable(List.of());
+        Assert.assertEquals(0, table.findRoute("abc"));
+    }
+}
@@ -436,4 +436,28 @@ public class RoutingParsingApplicationParserTest {
         Assert.assertEquals("error", result.get(0).getTopic());
         Assert.assertTrue(result.get(0).getMessages().get(0).contains("\"failed_sensor_type\":\"routed-parser1\""));
     }
+
+    @Test
+    public void testParseOriginalMessagePassedWithoutEncoding() {
+        appParser = RoutingParsingApplicationParser.builder()
+                .routerParser(routerParser)
+                .defaultParser(outputTopic, defaultParser)
+                .routingConditionField(routingConditionField)
+                .routingMessageField(routingMessageField)
+                .addParser("dummy1", routedParser1, "^a.*")
+                .addParser("dummy2", routedParser2, "b")
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .build();
+
+        message1.put("original_string", "test");
+        when(routerParser.parseToResult(metadata, input)).thenReturn(routerParserResult);
+        when(routedParser1.parseToResult(metadata, input)).thenReturn(routedParserResult1);
+
+        List<ParsingApplicationResult> result = appParser.parse(metadata, input);
+        verify(routedParser1, times(1)).parseToResult(Mockito.eq(metadata), Mockito.same(input));
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals("dummy1", result.get(0).getTopic());
+    }
 }
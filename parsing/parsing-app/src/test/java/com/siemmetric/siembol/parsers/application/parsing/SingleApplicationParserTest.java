@@ -14,6 +14,8 @@ import com.siemmetric.siembol.parsers.common.SerializableSiembolParser;
 
 import java.util.*;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -281,6 +283,30 @@ public class SingleApplicationParserTest {
                 SiembolMessageFields.SENSOR_TYPE + "\":\"test_type\""));
     }
 
+    @Test
+    public void parseMessagesWithChangingMetadata() throws Exception {
+        appParser = SingleApplicationParser.builder()
+                .parser(outputTopic, siembolParser)
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .parseMetadata(true)
+                .metadataPrefix("test_metadata:")
+                .build();
+
+        String otherMetadata = metadata.replace("\"string\"", "\"other\"");
+        when(siembolParser.parseToResult(any(), eq(input))).thenReturn(parserResult);
+        for (String current : new String[]{metadata, metadata, otherMetadata, metadata}) {
+            List<ParsingApplicationResult> result = appParser.parse(current, input);
+            Assert.assertEquals(1, result.size());
+            Assert.assertEquals(2, result.get(0).getMessages().size());
+            String expected = current.equals(metadata) ? "string" : "other";
+            Assert.assertTrue(result.get(0).getMessages().get(0).contains(
+                    "test_metadata:a" + "\":\"" + expected + "\""));
+            Assert.assertTrue(result.get(0).getMessages().get(1).contains("test_metadata:b" + "\":1"));
+        }
+    }
+
     @Test
     public void parseTwoMessagesWithGuidAndMetadata() throws Exception {
         appParser = SingleApplicationParser.builder()
@@ -479,4 +505,41 @@ public class SingleApplicationParserTest {
         Assert.assertTrue(result.get(0).getMessages().get(0).contains(
                 SiembolMessageFields.SENSOR_TYPE + "\":\"test_type\""));
     }
+
+    @Test
+    public void parseOneMessageWithLargeNumberOfFieldsWithSameLength() throws Exception {
+        appParser = SingleApplicationParser.builder()
+                .parser(outputTopic, siembolParser)
+                .name("test")
+                .errorTopic(errorTopic)
+                .timeProvider(timeProvider)
+                .maxFieldSize(10)
+                .maxNumFields(20)
+                .build();
+
+        parserResult.getParsedMessages().remove(1);
+        for (int i = 0; i < 20; i++) {
+            message1.put(String.format("f%02d", i), "123456789ABC");
+        }
+        message1.put("n", Map.of("nested", List.of(1, 2)));
+
+        when(siembolParser.parseToResult(metadata, input)).thenReturn(parserResult);
+        List<ParsingApplicationResult> result = appParser.parse(metadata, input);
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals(1, result.get(0).getMessages().size());
+        Assert.assertTrue(result.get(0).getResultFlags().contains(ParsingApplicationResult.ResultFlag.REMOVED_FIELDS));
+        Assert.assertTrue(result.get(0).getResultFlags().contains(ParsingApplicationResult.ResultFlag.TRUNCATED_FIELDS));
+
+        Map<String, Object> parsed = JSON_READER.readValue(result.get(0).getMessages().get(0));
+        Assert.assertEquals(20, parsed.size());
+        Assert.assertFalse(parsed.containsKey("test_field"));
+        Assert.assertEquals(Map.of("nested", List.of(1, 2)), parsed.get("n"));
+        Assert.assertEquals(16, parsed.keySet().stream().filter(x -> x.startsWith("f")).count());
+        parsed.keySet().stream()
+                .filter(x -> x.startsWith("f"))
+                .forEach(x -> Assert.assertEquals("123456789A", parsed.get(x)));
+
+        Assert.assertEquals(25, message1.size());
+        Assert.assertEquals("123456789ABC", message1.get("f00"));
+    }
 }
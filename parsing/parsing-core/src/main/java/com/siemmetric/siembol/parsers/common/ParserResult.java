@@ -17,6 +17,7 @@ public class ParserResult {
     private Throwable exception;
     private String topic;
     private String sourceType;
+    private int earlyFilteredMessages;
 
     public List<Map<String, Object>> getParsedMessages() {
         return parsedMessages;
@@ -49,4 +50,12 @@ public class ParserResult {
     public void setSourceType(String sourceType) {
         this.sourceType = sourceType;
     }
+
+    public int getEarlyFilteredMessages() {
+        return earlyFilteredMessages;
+    }
+
+    public void setEarlyFilteredMessages(int earlyFilteredMessages) {
+        this.earlyFilteredMessages = earlyFilteredMessages;
+    }
 }
@@ -1,5 +1,6 @@
 package com.siemmetric.siembol.parsers.common;
 
+import com.siemmetric.siembol.parsers.factory.ParserFactory;
 import com.siemmetric.siembol.parsers.factory.ParserFactoryImpl;
 import com.siemmetric.siembol.parsers.factory.ParserFactoryResult;
 
@@ -34,10 +35,19 @@ public class SerializableSiembolParser implements SiembolParser, Serializable {
      * @param parserConfig Parser configuration as a json string
      */
     public SerializableSiembolParser(String parserConfig) throws Exception {
+        this(parserConfig, ParserFactoryImpl.createParserFactory());
+    }
+
+    /**
+     * Creates a SerializableSiembolParser instance from a json string parser configuration
+     * using the provided parser factory
+     *
+     * @param parserConfig Parser configuration as a json string
+     * @param parserFactory Parser factory for creating the parser
+     */
+    public SerializableSiembolParser(String parserConfig, ParserFactory parserFactory) {
         this.parserConfig = parserConfig;
-        ParserFactoryResult result = ParserFactoryImpl
-                .createParserFactory()
-                .create(parserConfig);
+        ParserFactoryResult result = parserFactory.create(parserConfig);
 
         if (result.getStatusCode() != OK || result.getAttributes().getSiembolParser() == null) {
             throw new IllegalArgumentException(String.format(WRONG_CONFIG_EXCEPTION_MSG,
@@ -64,6 +74,14 @@ public class SerializableSiembolParser implements SiembolParser, Serializable {
         return parser.parse(metadata, message);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Map<String, Object>> parse(String metadata, byte[] message, ParserResult result) {
+        return parser.parse(metadata, message, result);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -25,6 +25,18 @@ public interface SiembolParser {
         return parse(message);
     }
 
+    /**
+     * Parses the message along with metadata and provides metadata about the parsing into the parser result
+     *
+     * @param metadata Metadata about the message as a json string
+     * @param message Message as a byte array. Both binary and text logs are supported.
+     * @param result parser result for providing metadata about the parsing such as early filtered messages
+     * @return list of parsed messages - maps of Strings to Objects
+     */
+    default List<Map<String, Object>> parse(String metadata, byte[] message, ParserResult result) {
+        return parse(metadata, message);
+    }
+
     /**
      * Parses the message along with metadata
      *
@@ -45,7 +57,7 @@ public interface SiembolParser {
         ParserResult result = new ParserResult();
         result.setSourceType(getSourceType());
         try {
-            List<Map<String, Object>> parsed = parse(metadata, message);
+            List<Map<String, Object>> parsed = parse(metadata, message, result);
             parsed.forEach(x -> x.put(SiembolMessageFields.SENSOR_TYPE.toString(), getSourceType()));
             result.setParsedMessages(parsed);
         } catch (Throwable e) {
@@ -1,7 +1,5 @@
 package com.siemmetric.siembol.parsers.extractors;
 
-import com.google.common.base.Splitter;
-
 import java.util.*;
 import java.util.stream.Collectors;
 /**
@@ -10,6 +8,9 @@ import java.util.stream.Collectors;
  * <p>This derived class of ParserExtractor provides functionality for CSV (Comma Separated Values) extracting.
  * It uses column names list for adding field names supporting to skip some columns.
  * It supports handling quotes.
+ * The message is scanned by indices into a per-thread array of column boundaries and the column names
+ * are selected from the candidates precomputed for the number of columns.
+ * The values are created only for the columns that are not skipped.
  *
  * @author  Marian Novotny
  * @see ParserExtractor
@@ -18,52 +19,124 @@ public class CSVExtractor extends ParserExtractor {
     private static final String UNKNOWN_COLUMN_NAME_PREFIX = "unknown";
     private static final String EMPTY_STRING = "";
     private static final char QUOTE = '"';
+    private static final int INITIAL_COLUMNS_SIZE = 64;
+    private static final ThreadLocal<int[]> COLUMN_BOUNDS = ThreadLocal.withInitial(
+            () -> new int[2 * INITIAL_COLUMNS_SIZE]);
+
+    private static class ColumnsSelection {
+        private final String[] names;
+        private final int filterIndex;
+        private final String filterValue;
+
+        ColumnsSelection(List<String> columnNames,
+                         AbstractMap.SimpleEntry<Integer, String> filter,
+                         String skippingColumnName) {
+            names = new String[columnNames.size()];
+            for (int i = 0; i < names.length; i++) {
+                //NOTE: skipped columns have no name and their values are not created
+                names[i] = skippingColumnName.equals(columnNames.get(i)) ? null : columnNames.get(i);
+            }
+            filterIndex = filter != null ? filter.getKey() : -1;
+            filterValue = filter != null ? filter.getValue() : null;
+        }
+    }
 
     private final String wordDelimiter;
-    private final ArrayList<ColumnNames> columnNamesList;
+    private final Map<Integer, List<ColumnsSelection>> selectionsByColumnsCount = new HashMap<>();
     private final String skippingColumnName;
 
     private CSVExtractor(Builder<?> builder) {
         super(builder);
         this.wordDelimiter = builder.wordDelimiter;
-        this.columnNamesList = new ArrayList<>(builder.columnNamesList);
         this.skippingColumnName = builder.skippingColumnName;
+        for (ColumnNames columnNames : builder.columnNamesList) {
+            selectionsByColumnsCount.computeIfAbsent(columnNames.getColumnNames().size(), x -> new ArrayList<>())
+                    .add(new ColumnsSelection(columnNames.getColumnNames(),
+                            columnNames.getFilter(),
+                            skippingColumnName));
+        }
     }
 
-    protected ArrayList<Object> getValues(String message, char delimiter) {
-        ArrayList<Object> values = new ArrayList<>();
+    private static int[] addColumn(int[] bounds, int column, int begin, int end) {
+        if (2 * column + 1 >= bounds.length) {
+            bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+            COLUMN_BOUNDS.set(bounds);
+        }
+        bounds[2 * column] = begin;
+        bounds[2 * column + 1] = end;
+        return bounds;
+    }
+
+    private static int findColumns(String message, char delimiter) {
+        int[] bounds = COLUMN_BOUNDS.get();
+        int columns = 0;
         int offset = 0;
-        Optional<Character> quote = Optional.of(QUOTE);
+        int length = message.length();
 
-        while (offset < message.length()) {
+        while (offset < length) {
             int delimiterOffset = ParserExtractorLibrary.indexOf(
-                    message, delimiter, offset, quote, Optional.empty());
+                    message, delimiter, offset, QUOTE, ParserExtractorLibrary.NO_CHARACTER);
             if (delimiterOffset == -1) {
-                delimiterOffset = message.length();
+                delimiterOffset = length;
             }
 
-            Object value = getValue(message.substring(offset, delimiterOffset));
-            values.add(value);
+            bounds = addColumn(bounds, columns++, offset, delimiterOffset);
             offset = delimiterOffset + 1;
         }
 
-        if (!message.isEmpty()
-                && message.charAt(message.length() - 1) == delimiter) {
+        if (length > 0 && message.charAt(length - 1) == delimiter) {
             //NOTE: if the last character is delimiter we would like to add the last empty column
-            values.add(EMPTY_STRING);
+            addColumn(bounds, columns++, length, length);
         }
-        return values;
+        return columns;
     }
 
-    protected ArrayList<Object> getValues(String message, String delimiter) {
-        ArrayList<Object> values = new ArrayList<>();
-        Iterable<String> tmp = Splitter.on(delimiter).split(message);
-        for (String strValue : tmp) {
-            Object value = getValue(strValue);
-            values.add(value);
+    private static int findColumns(String message, String delimiter) {
+        int[] bounds = COLUMN_BOUNDS.get();
+        int columns = 0;
+        int offset = 0;
+
+        while (true) {
+            int delimiterOffset = message.indexOf(delimiter, offset);
+            if (delimiterOffset == -1) {
+                addColumn(bounds, columns++, offset, message.length());
+                return columns;
+            }
+
+            bounds = addColumn(bounds, columns++, offset, delimiterOffset);
+            offset = delimiterOffset + delimiter.length();
         }
+    }
+
+    private ColumnsSelection findSelection(String message, int[] bounds, int columns) {
+        List<ColumnsSelection> candidates = selectionsByColumnsCount.get(columns);
+        if (candidates == null) {
+            return null;
+        }
+
+        for (ColumnsSelection candidate : candidates) {
+            int index = candidate.filterIndex;
+            if (index < 0
+                    || candidate.filterValue.equals(getValue(message, bounds[2 * index], bounds[2 * index + 1]))) {
+                return candidate;
+            }
+        }
+        return null;
+    }
 
-        return values;
+    private ColumnsSelection getUnknownSelection(int columns) {
+        if (shouldThrowExceptionOnError()) {
+            throw new IllegalStateException("Unknown column names");
+        }
+
+        List<String> names = new ArrayList<>(columns);
+        for (int i = 0; i < columns; i++) {
+            names.add(String.format("%s_%s_%d",
+                    UNKNOWN_COLUMN_NAME_PREFIX,
+                    getName(),
+                    i + 1));
+        }
+        return new ColumnsSelection(names, null, skippingColumnName);
     }
 
     /**
@@ -76,27 +149,24 @@ public class CSVExtractor extends ParserExtractor {
     protected Map<String, Object> extractInternally(String message) {
         Map<String, Object> ret = new HashMap<>();
 
-        ArrayList<Object> values = wordDelimiter.length() == 1
-                ? getValues(message, wordDelimiter.charAt(0))
-                : getValues(message, wordDelimiter);
+        int columns = wordDelimiter.length() == 1
+                ? findColumns(message, wordDelimiter.charAt(0))
+                : findColumns(message, wordDelimiter);
+        if (columns == 0) {
+            return ret;
+        }
 
-        ArrayList<String> currentNames = ColumnNames.getNames(columnNamesList, values);
-        if (currentNames.size() < values.size()) {
-            if (shouldThrowExceptionOnError()) {
-                throw new IllegalStateException("Unknown column names");
-            }
-            for (int i = currentNames.size(); i < values.size(); i++) {
-                currentNames.add(String.format("%s_%s_%d",
-                        UNKNOWN_COLUMN_NAME_PREFIX,
-                        getName(),
-                        i + 1));
-            }
+        int[] bounds = COLUMN_BOUNDS.get();
+        ColumnsSelection selection = findSelection(message, bounds, columns);
+        if (selection == null) {
+            selection = getUnknownSelection(columns);
         }
 
-        for (int i = 0; i < values.size(); i++) {
-            if (!skippingColumnName.equals(currentNames.get(i))) {
-                if (!shouldSkipEmptyValues() || !EMPTY_STRING.equals(values.get(i))) {
-                    ret.put(currentNames.get(i), values.get(i));
+        for (int i = 0; i < columns; i++) {
+            if (selection.names[i] != null) {
+                Object value = getValue(message, bounds[2 * i], bounds[2 * i + 1]);
+                if (!shouldSkipEmptyValues() || !EMPTY_STRING.equals(value)) {
+                    ret.put(selection.names[i], value);
                 }
             }
         }
@@ -132,6 +202,9 @@ public class CSVExtractor extends ParserExtractor {
         return new Builder<>() {
             @Override
             public CSVExtractor build() {
+                if (wordDelimiter == null || wordDelimiter.isEmpty()) {
+                    throw new IllegalArgumentException("Empty word delimiter");
+                }
                 if (this.columnNamesList == null ||
                         this.columnNamesList.isEmpty()) {
                     throw new IllegalArgumentException("Empty column names");
@@ -40,6 +40,10 @@ public class ColumnNames {
         return columnNames;
     }
 
+    public AbstractMap.SimpleEntry<Integer, String> getFilter() {
+        return filter;
+    }
+
     public static ArrayList<String> getNames(List<ColumnNames> columnNamesList,
                                              ArrayList<Object> values) {
         for (ColumnNames names : columnNamesList) {
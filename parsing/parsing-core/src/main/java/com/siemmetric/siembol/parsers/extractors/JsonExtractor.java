@@ -1,13 +1,15 @@
 package com.siemmetric.siembol.parsers.extractors;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.ObjectReader;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,7 +17,10 @@ import java.util.Map;
  * An object for extracting fields from the message using json parsing
  *
  * <p>This derived class of ParserExtractor class is using json parsing to extract fields from the massage.
- * The extractor is parsing a json string recursively in order to create a flat map of extracting fields.
+ * The extractor is reading a json string by a streaming parser in order to create a flat map of extracting fields.
+ * Nested fields can be selected by include and exclude path prefixes and by a maximum nesting depth.
+ * The subtrees that are not selected are skipped without creating objects for them,
+ * they are either dropped or kept as raw json strings.
  *
  * @author  Marian Novotny
  * @see ParserExtractor
@@ -24,52 +29,136 @@ import java.util.Map;
 public class JsonExtractor extends ParserExtractor {
     private static final Logger LOG = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final String NOT_JSON_OBJECT_MSG = "The message is not a json object";
+    private static final String WRONG_MAX_DEPTH_MSG = "Maximum depth of json extractor should be positive";
 
-    private static final ObjectReader JSON_READER = new ObjectMapper()
-                    .readerFor(new TypeReference<Map<String, Object>>() { });
+    private enum Selection {
+        SELECTED,
+        PARTIALLY_SELECTED,
+        SKIPPED
+    }
 
     private final String nestedSeparator;
     private final String pathPrefix;
+    private final List<String> includePrefixes;
+    private final List<String> excludePrefixes;
+    private final int maxDepth;
+    private final boolean keepRawSubtrees;
+    private final boolean usePrefixes;
 
     private JsonExtractor(Builder<?> builder) {
         super(builder);
         nestedSeparator = builder.nestedSeparator;
         pathPrefix = builder.pathPrefix;
+        includePrefixes = builder.includePrefixes;
+        excludePrefixes = builder.excludePrefixes;
+        maxDepth = builder.maxDepth;
+        keepRawSubtrees = builder.keepRawSubtrees;
+        usePrefixes = !includePrefixes.isEmpty() || !excludePrefixes.isEmpty();
     }
 
-    @SuppressWarnings("unchecked")
-    private void traverseObject(Object current, StringBuilder path, Map<String, Object> result) {
-        if (current instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>)current;
+    private boolean isPrefixOf(String prefix, String path) {
+        return path.startsWith(prefix)
+                && (path.length() == prefix.length() || path.startsWith(nestedSeparator, prefix.length()));
+    }
 
-            final int pathLength = path.length();
-            for (String key : map.keySet()) {
-                if(pathLength != 0) {
-                    path.append(nestedSeparator);
-                }
-                path.append(key);
+    private Selection getSelection(StringBuilder path, int relativePathOffset, Selection parentSelection) {
+        if (!usePrefixes || parentSelection == Selection.SELECTED && excludePrefixes.isEmpty()) {
+            return parentSelection;
+        }
 
-                traverseObject(map.get(key), path, result);
-                path.setLength(pathLength);
+        String relativePath = path.substring(relativePathOffset);
+        for (String excludePrefix : excludePrefixes) {
+            if (isPrefixOf(excludePrefix, relativePath)) {
+                return Selection.SKIPPED;
+            }
+        }
+
+        if (parentSelection == Selection.SELECTED) {
+            return Selection.SELECTED;
+        }
+
+        Selection ret = Selection.SKIPPED;
+        for (String includePrefix : includePrefixes) {
+            if (isPrefixOf(includePrefix, relativePath)) {
+                return Selection.SELECTED;
+            }
+            if (isPrefixOf(relativePath, includePrefix)) {
+                ret = Selection.PARTIALLY_SELECTED;
+            }
+        }
+        return ret;
+    }
+
+    private void readValue(JsonParser parser,
+                           String message,
+                           StringBuilder path,
+                           int relativePathOffset,
+                           int depth,
+                           Selection parentSelection,
+                           Map<String, Object> result) throws IOException {
+        JsonToken token = parser.currentToken();
+        Selection selection = getSelection(path, relativePathOffset, parentSelection);
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            if (selection == Selection.SKIPPED || depth >= maxDepth) {
+                skipSubtree(parser, message, path, selection, result);
+                return;
             }
-        } else if (current instanceof List) {
-            List<Object> list = (List<Object>)current;
 
-            int index = 0;
             final int pathLength = path.length();
-            for (Object item : list) {
-                if(pathLength != 0) {
+            int index = 0;
+            while (true) {
+                JsonToken next = parser.nextToken();
+                if (next == JsonToken.END_OBJECT || next == JsonToken.END_ARRAY) {
+                    return;
+                }
+
+                if (pathLength != 0) {
                     path.append(nestedSeparator);
                 }
-                path.append(index++);
 
-                traverseObject(item, path, result);
+                if (token == JsonToken.START_OBJECT) {
+                    path.append(parser.getCurrentName());
+                    parser.nextToken();
+                } else {
+                    path.append(index++);
+                }
+
+                readValue(parser, message, path, relativePathOffset, depth + 1, selection, result);
                 path.setLength(pathLength);
             }
-        } else if (current instanceof Number
-                    || current instanceof Boolean
-                    || current instanceof String) {
-            result.put(path.toString(), current);
+        }
+
+        if (selection != Selection.SELECTED) {
+            return;
+        }
+
+        switch (token) {
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                result.put(path.toString(), parser.getBooleanValue());
+                break;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                result.put(path.toString(), parser.getNumberValue());
+                break;
+            case VALUE_STRING:
+                result.put(path.toString(), parser.getText());
+                break;
+        }
+    }
+
+    private void skipSubtree(JsonParser parser,
+                             String message,
+                             StringBuilder path,
+                             Selection selection,
+                             Map<String, Object> result) throws IOException {
+        int startOffset = (int)parser.getTokenLocation().getCharOffset();
+        parser.skipChildren();
+        if (keepRawSubtrees && selection != Selection.PARTIALLY_SELECTED) {
+            int endOffset = (int)parser.getCurrentLocation().getCharOffset();
+            result.put(path.toString(), message.substring(startOffset, endOffset));
         }
     }
 
@@ -81,13 +170,17 @@ public class JsonExtractor extends ParserExtractor {
      */
     @Override
     protected Map<String, Object> extractInternally(String message) {
-        try {
-            Map<String, Object> originalMap = JSON_READER.readValue(message);
+        try (JsonParser parser = JSON_MAPPER.getFactory().createParser(message)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException(NOT_JSON_OBJECT_MSG);
+            }
+
             Map<String, Object> result = new HashMap<>();
             StringBuilder path = new StringBuilder(pathPrefix);
+            int relativePathOffset = pathPrefix.isEmpty() ? 0 : pathPrefix.length() + nestedSeparator.length();
+            Selection rootSelection = includePrefixes.isEmpty() ? Selection.SELECTED : Selection.PARTIALLY_SELECTED;
 
-            traverseObject(originalMap, path, result);
-
+            readRoot(parser, message, path, relativePathOffset, rootSelection, result);
             return result;
         } catch (Exception e) {
             String errorMessage = String.format("Error during extracting json:%s\n Exception: %s",
@@ -100,6 +193,29 @@ public class JsonExtractor extends ParserExtractor {
         }
     }
 
+    private void readRoot(JsonParser parser,
+                          String message,
+                          StringBuilder path,
+                          int relativePathOffset,
+                          Selection rootSelection,
+                          Map<String, Object> result) throws IOException {
+        final int pathLength = path.length();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (pathLength != 0) {
+                path.append(nestedSeparator);
+            }
+            path.append(parser.getCurrentName());
+            parser.nextToken();
+
+            readValue(parser, message, path, relativePathOffset, 1, rootSelection, result);
+            path.setLength(pathLength);
+        }
+
+        if (parser.currentToken() != JsonToken.END_OBJECT) {
+            throw new IllegalArgumentException(NOT_JSON_OBJECT_MSG);
+        }
+    }
+
     /**
      * Creates a json extractor builder instance
      *
@@ -127,6 +243,10 @@ public class JsonExtractor extends ParserExtractor {
             extends ParserExtractor.Builder<T> {
         private String nestedSeparator = "_";
         private String pathPrefix = "";
+        private List<String> includePrefixes = new ArrayList<>();
+        private List<String> excludePrefixes = new ArrayList<>();
+        private int maxDepth = Integer.MAX_VALUE;
+        private boolean keepRawSubtrees = false;
 
         /**
          * Sets a separator string that will be used to create field names for nested fields.
@@ -149,5 +269,60 @@ public class JsonExtractor extends ParserExtractor {
             this.pathPrefix = startingPath;
             return this;
         }
+
+        /**
+         * Sets path prefixes of the nested fields that should be extracted.
+         * A path prefix uses field names without the path prefix joined by the nested separator,
+         * e.g., 'a:b' selects { "a" : { "b" : { "c" : "d" } } } using the separator: ':'.
+         * All fields are extracted if no include prefix is set.
+         *
+         * @param includePrefixes list of path prefixes
+         * @return this builder
+         */
+        public Builder<T> includePrefixes(List<String> includePrefixes) {
+            this.includePrefixes = includePrefixes;
+            return this;
+        }
+
+        /**
+         * Sets path prefixes of the nested fields that should not be extracted.
+         * Exclude prefixes take precedence over include prefixes.
+         *
+         * @param excludePrefixes list of path prefixes
+         * @return this builder
+         */
+        public Builder<T> excludePrefixes(List<String> excludePrefixes) {
+            this.excludePrefixes = excludePrefixes;
+            return this;
+        }
+
+        /**
+         * Sets a maximum nesting depth of extracted fields.
+         * For example, { "a" : { "b" : "c" }, "d" : "e" } will be extracted as ["d" -> "e"] using maximum depth: 1.
+         *
+         * @param maxDepth maximum nesting depth
+         * @return this builder
+         * @throws IllegalArgumentException if the depth is not positive
+         */
+        public Builder<T> maxDepth(int maxDepth) {
+            if (maxDepth <= 0) {
+                throw new IllegalArgumentException(WRONG_MAX_DEPTH_MSG);
+            }
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Sets keeping of skipped nested objects and arrays as raw json strings instead of dropping them.
+         * For example, { "a" : { "b" : "c" } } will be extracted as ["a" -> "{ \"b\" : \"c\" }"]
+         * using maximum depth: 1.
+         *
+         * @param keepRawSubtrees keep skipped subtrees as raw json strings
+         * @return this builder
+         */
+        public Builder<T> keepRawSubtrees(boolean keepRawSubtrees) {
+            this.keepRawSubtrees = keepRawSubtrees;
+            return this;
+        }
     }
 }
@@ -20,6 +20,10 @@ import java.util.*;
  *
  * <p>This derived class of ParserExtractor class is using json path query to extract fields from the massage.
  * The extractor is evaluating json path queries in order to create a map of extracting fields.
+ * The queries are compiled when the extractor is created.
+ * If all queries select a property by a sequence of property names, they are evaluated
+ * in one pass over the message without building a json tree.
+ * Otherwise, the message is parsed into a json tree that is used for evaluating the compiled queries.
  *
  * @author  Marian Novotny
  * @see ParserExtractor
@@ -57,25 +61,28 @@ public class JsonPathExtractor extends ParserExtractor {
     private static final String AT_LEAST_ONE_QUERY_MSG = "At least one json path query should store its result";
     private static final String EMPTY_FIELD_OR_QUERY_MSG = "Output field and json path query should be non empty";
     private static final String EMPTY_QUERIES_MSG = "Json path extractor requires at least one query";
+    private static final String INVALID_QUERY_MSG = "Invalid json path query: %s, exception: %s";
     private static final String EXCEPTION_MSG = "Error during evaluating json path extractor name:%s," +
             " message:%s, exception: %s";
 
-    private final ArrayList<ImmutablePair<String, String>> queries;
+    private final ArrayList<ImmutablePair<String, JsonPath>> queries;
     private final EnumSet<JsonPathExtractorFlags> jsonPathExtractorFlags;
+    private final JsonPathStreamingReader streamingReader;
 
     private JsonPathExtractor(JsonPathExtractor.Builder<?> builder) {
         super(builder);
-        queries = builder.queries;
+        queries = builder.compiledQueries;
         jsonPathExtractorFlags = builder.jsonPathExtractorFlags;
+        streamingReader = builder.streamingReader;
     }
 
-    private String getArrayValue(JsonNode node) {
+    private static String getArrayValue(JsonNode node) {
         StringBuilder sb = new StringBuilder();
         node.iterator().forEachRemaining(x -> sb.append(x.isTextual() ? x.textValue() : x.toString()).append(','));
         sb.deleteCharAt(sb.length() - 1);
         return sb.toString();
     }
-    private Optional<Object> getValue(DocumentContext context, String jsonPathQuery) {
+    private Optional<Object> getValue(DocumentContext context, JsonPath jsonPathQuery) {
         Object currentObj;
         try {
             currentObj = context.read(jsonPathQuery);
@@ -91,7 +98,10 @@ public class JsonPathExtractor extends ParserExtractor {
             return Optional.empty();
         }
 
-        JsonNode current = (JsonNode) currentObj;
+        return getNodeValue((JsonNode) currentObj);
+    }
+
+    private static Optional<Object> getNodeValue(JsonNode current) {
         if (current.isArray()) {
             if (current.size() == 1) {
                 current = current.get(0);
@@ -124,6 +134,21 @@ public class JsonPathExtractor extends ParserExtractor {
     @Override
     protected Map<String, Object> extractInternally(String message) {
         Map<String, Object> result = new HashMap<>();
+        if (streamingReader != null) {
+            try {
+                Object[] values = streamingReader.read(message);
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        result.put(queries.get(i).getLeft(), values[i]);
+                    }
+                }
+                return checkResult(result);
+            } catch (Exception e) {
+                //NOTE: errors are handled by evaluating the queries on the json tree
+                result.clear();
+            }
+        }
+
         try {
             final DocumentContext context = JsonPath.parse(message);
             for (var query : queries) {
@@ -138,6 +163,10 @@ public class JsonPathExtractor extends ParserExtractor {
             }
         }
 
+        return checkResult(result);
+    }
+
+    private Map<String, Object> checkResult(Map<String, Object> result) {
         if (result.isEmpty()
                 && jsonPathExtractorFlags.contains(JsonPathExtractorFlags.AT_LEAST_ONE_QUERY_RESULT)
                 && shouldThrowExceptionOnError()) {
@@ -160,6 +189,21 @@ public class JsonPathExtractor extends ParserExtractor {
                 if (queries.isEmpty()) {
                     throw new IllegalArgumentException(EMPTY_QUERIES_MSG);
                 }
+
+                List<List<String>> paths = new ArrayList<>();
+                for (var query : queries) {
+                    try {
+                        compiledQueries.add(ImmutablePair.of(query.getLeft(), JsonPath.compile(query.getRight())));
+                    } catch (InvalidPathException e) {
+                        throw new IllegalArgumentException(
+                                String.format(INVALID_QUERY_MSG, query.getRight(), e.getMessage()));
+                    }
+                    JsonPathStreamingReader.compilePath(query.getRight()).ifPresent(paths::add);
+                }
+
+                if (paths.size() == queries.size()) {
+                    streamingReader = new JsonPathStreamingReader(paths, JsonPathExtractor::getNodeValue);
+                }
                 return new JsonPathExtractor(this);
             }
         };
@@ -177,6 +221,8 @@ public class JsonPathExtractor extends ParserExtractor {
 
         protected ArrayList<ImmutablePair<String, String>> queries = new ArrayList<>();
         protected EnumSet<JsonPathExtractorFlags> jsonPathExtractorFlags = EnumSet.noneOf(JsonPathExtractorFlags.class);
+        protected ArrayList<ImmutablePair<String, JsonPath>> compiledQueries = new ArrayList<>();
+        protected JsonPathStreamingReader streamingReader;
 
         /**
          * Adds a json path query string.
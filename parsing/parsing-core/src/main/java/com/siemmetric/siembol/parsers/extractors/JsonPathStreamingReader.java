@@ -0,0 +1,211 @@
+package com.siemmetric.siembol.parsers.extractors;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.function.Function;
+/**
+ * An object for evaluating simple json path queries in one pass over a json string
+ *
+ * <p>This class compiles json path queries that select a property by a sequence of property names
+ * such as `$.a.b` or `$['a']['b']` into a prefix trie.
+ * A json string is read by a streaming parser and only the values selected by the queries are deserialized.
+ * Other values are skipped without creating objects for them.
+ * Queries with filters, wildcards, array indices, deep scans or functions are not supported by this reader.
+ *
+ * @author  Marian Novotny
+ * @see JsonPathExtractor
+ */
+public class JsonPathStreamingReader {
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+    private static final String EMPTY_JSON_MSG = "json string can not be null or empty";
+    private static final char ROOT_CHAR = '$';
+    private static final char DOT_CHAR = '.';
+    private static final char LEFT_BRACKET = '[';
+    private static final char RIGHT_BRACKET = ']';
+    private static final String QUOTES = "'\"";
+
+    private final Node root = new Node();
+    private final int queriesSize;
+    private final Function<JsonNode, Optional<Object>> nodeValueProvider;
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Integer> queries = new ArrayList<>();
+        private final List<Integer> subtreeQueries = new ArrayList<>();
+        private int[] queriesArray;
+        private int[] subtreeQueriesArray;
+
+        private void compile() {
+            queriesArray = queries.stream().mapToInt(x -> x).toArray();
+            subtreeQueriesArray = subtreeQueries.stream().mapToInt(x -> x).toArray();
+            children.values().forEach(Node::compile);
+        }
+    }
+
+    /**
+     * Creates the reader of simple json path queries
+     *
+     * @param paths list of compiled query paths, a query path is a list of property names
+     * @param nodeValueProvider function for obtaining a value from a json node that is not a scalar value
+     */
+    public JsonPathStreamingReader(List<List<String>> paths, Function<JsonNode, Optional<Object>> nodeValueProvider) {
+        this.queriesSize = paths.size();
+        this.nodeValueProvider = nodeValueProvider;
+        for (int i = 0; i < paths.size(); i++) {
+            Node current = root;
+            for (String name : paths.get(i)) {
+                current = current.children.computeIfAbsent(name, x -> new Node());
+                current.subtreeQueries.add(i);
+            }
+            current.queries.add(i);
+        }
+        root.compile();
+    }
+
+    /**
+     * Reads the values selected by the queries from the json string
+     *
+     * @param json json string
+     * @return array of values indexed by the queries, the value is null if the query does not select a value
+     * @throws IOException if the json string is not a valid json
+     */
+    public Object[] read(String json) throws IOException {
+        if (json == null || json.isEmpty()) {
+            throw new IllegalArgumentException(EMPTY_JSON_MSG);
+        }
+
+        Object[] values = new Object[queriesSize];
+        try (JsonParser parser = JSON_MAPPER.getFactory().createParser(json)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                throw new IllegalArgumentException(EMPTY_JSON_MSG);
+            }
+
+            if (token == JsonToken.START_OBJECT) {
+                readObject(parser, root, values);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return values;
+    }
+
+    private void readObject(JsonParser parser, Node node, Object[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Node child = node.children.get(parser.getCurrentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+
+            //NOTE: the last value of a duplicate property overrides previous values
+            for (int query : child.subtreeQueriesArray) {
+                values[query] = null;
+            }
+
+            if (token == JsonToken.START_OBJECT) {
+                readObject(parser, child, values);
+                continue;
+            }
+
+            if (child.queriesArray.length == 0) {
+                parser.skipChildren();
+                continue;
+            }
+
+            Object value = getValue(parser, token);
+            for (int query : child.queriesArray) {
+                values[query] = value;
+            }
+        }
+    }
+
+    private Object getValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_STRING:
+                return parser.getText();
+            case START_ARRAY:
+                JsonNode node = JSON_MAPPER.readTree(parser);
+                return nodeValueProvider.apply(node).orElse(null);
+            default:
+                parser.skipChildren();
+                return null;
+        }
+    }
+
+    /**
+     * Compiles a json path query into a list of property names if the query is supported by the reader
+     *
+     * @param query json path query
+     * @return list of property names if the query selects a property by property names, otherwise empty
+     */
+    public static Optional<List<String>> compilePath(String query) {
+        int offset = 0;
+        if (!query.isEmpty() && query.charAt(0) == ROOT_CHAR) {
+            offset++;
+        } else if (!query.isEmpty() && query.charAt(0) != LEFT_BRACKET) {
+            //NOTE: json path prepends the root to a relative path
+            query = ROOT_CHAR + String.valueOf(DOT_CHAR) + query;
+            offset++;
+        }
+
+        List<String> ret = new ArrayList<>();
+        while (offset < query.length()) {
+            char current = query.charAt(offset);
+            if (current == DOT_CHAR) {
+                if (offset + 1 < query.length() && query.charAt(offset + 1) == LEFT_BRACKET) {
+                    offset++;
+                    continue;
+                }
+
+                int end = offset + 1;
+                while (end < query.length() && isNameChar(query.charAt(end))) {
+                    end++;
+                }
+                if (end == offset + 1) {
+                    return Optional.empty();
+                }
+                ret.add(query.substring(offset + 1, end));
+                offset = end;
+            } else if (current == LEFT_BRACKET) {
+                if (offset + 1 >= query.length() || QUOTES.indexOf(query.charAt(offset + 1)) == -1) {
+                    return Optional.empty();
+                }
+                char quote = query.charAt(offset + 1);
+                int end = query.indexOf(quote, offset + 2);
+                if (end == -1 || end == offset + 2 || end + 1 >= query.length()
+                        || query.charAt(end + 1) != RIGHT_BRACKET) {
+                    return Optional.empty();
+                }
+
+                String name = query.substring(offset + 2, end);
+                if (name.indexOf('\\') != -1 || name.indexOf('\'') != -1 || name.indexOf('"') != -1) {
+                    return Optional.empty();
+                }
+                ret.add(name);
+                offset = end + 2;
+            } else {
+                return Optional.empty();
+            }
+        }
+
+        return ret.isEmpty() ? Optional.empty() : Optional.of(ret);
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+}
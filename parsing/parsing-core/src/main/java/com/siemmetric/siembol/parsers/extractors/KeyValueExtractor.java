@@ -3,7 +3,6 @@ package com.siemmetric.siembol.parsers.extractors;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 import static com.siemmetric.siembol.parsers.extractors.KeyValueExtractor.KeyValueExtractorFlags.NEXT_KEY_STRATEGY;
 /**
@@ -12,6 +11,7 @@ import static com.siemmetric.siembol.parsers.extractors.KeyValueExtractor.KeyVal
  * <p>This derived class of ParserExtractor provides functionality for key value extracting.
  * Key value pairs are in form key1=value1 key2=value2 etc.
  * It supports handling quotes, escaped characters and a fault-tolerant extracting using a next key strategy.
+ * The key-value pairs are found by scanning indices of the message and only keys and values are created.
  *
  * @author  Marian Novotny
  * @see ParserExtractor
@@ -29,13 +29,13 @@ public class KeyValueExtractor extends ParserExtractor {
     }
 
     private final KeyValueIndices.IndexOf indexOf;
-    private final EnumSet<KeyValueExtractorFlags> flags;
+    private final boolean renameDuplicateKeys;
     private final String errorKeyName;
 
     private KeyValueExtractor(Builder<?> builder) {
         super(builder);
         this.indexOf = builder.indexOfEnd;
-        this.flags = builder.keyValueFlags;
+        this.renameDuplicateKeys = builder.keyValueFlags.contains(KeyValueExtractorFlags.RENAME_DUPLICATE_KEYS);
         this.errorKeyName = String.format("%s_%s", EXTRACTOR_ERROR_PREFIX, getName());
     }
 
@@ -49,8 +49,7 @@ public class KeyValueExtractor extends ParserExtractor {
     protected Map<String, Object> extractInternally(String message) {
         Map<String, Object> extracted = new HashMap<>();
         int offset = 0;
-        DuplicatesFieldMap duplicatesMap = flags.contains(KeyValueExtractorFlags.RENAME_DUPLICATE_KEYS)
-                ? new DuplicatesFieldMap() : null;
+        DuplicatesFieldMap duplicatesMap = renameDuplicateKeys ? new DuplicatesFieldMap() : null;
 
         while (offset < message.length()) {
             KeyValueIndices indices = indexOf.apply(message, offset);
@@ -64,15 +63,12 @@ public class KeyValueExtractor extends ParserExtractor {
             }
 
             String key = message.substring(offset, indices.getKeyIndex());
-            String value = message.substring(indices.getKeyIndex() + 1, indices.getValueIndex());
-
-            if (extracted.containsKey(key)
-                    && flags.contains(KeyValueExtractorFlags.RENAME_DUPLICATE_KEYS)) {
+            if (renameDuplicateKeys && extracted.containsKey(key)) {
                 int index = duplicatesMap.getIndex(key);
                 key = String.format(DUPLICATE_FORMAT_MSG, key, index);
             }
 
-            extracted.put(key, getValue(value));
+            extracted.put(key, getValue(message, indices.getKeyIndex() + 1, indices.getValueIndex()));
             offset = indices.getValueIndex() + 1;
         }
 
@@ -87,38 +83,35 @@ public class KeyValueExtractor extends ParserExtractor {
     public static Builder<KeyValueExtractor> builder() {
         return new Builder<>() {
             private KeyValueIndices.IndexOf getDefaultIndexOfEnd() {
-                return new KeyValueIndices.IndexOf() {
-                    @Override
-                    public KeyValueIndices apply(String str, int from) {
-                        boolean quoteHandling = keyValueFlags.contains(
-                                KeyValueExtractorFlags.QUOTE_VALUE_HANDLING);
-
-                        Optional<Character> escaped = keyValueFlags.contains(
-                                KeyValueExtractorFlags.ESCAPING_HANDLING)
-                                ? Optional.of(escapedChar)
-                                : Optional.empty();
-
-                        int keyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
-                                keyValueDelimiter, from, escaped, quoteHandling);
-                        if (keyIndex == -1 || keyIndex == from) {
-                            return KeyValueIndices.invalid();
-                        }
+                final boolean quoteHandling = keyValueFlags.contains(KeyValueExtractorFlags.QUOTE_VALUE_HANDLING);
+                final boolean nextKeyStrategy = keyValueFlags.contains(NEXT_KEY_STRATEGY);
+                final int escaped = keyValueFlags.contains(KeyValueExtractorFlags.ESCAPING_HANDLING)
+                        ? escapedChar
+                        : ParserExtractorLibrary.NO_CHARACTER;
+                final char keyDelimiter = keyValueDelimiter;
+                final char pairDelimiter = wordDelimiter;
+
+                return (str, from) -> {
+                    int keyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
+                            keyDelimiter, from, escaped, quoteHandling);
+                    if (keyIndex == -1 || keyIndex == from) {
+                        return KeyValueIndices.invalid();
+                    }
+
+                    int valueIndex;
+                    if (nextKeyStrategy) {
+                        int nextKeyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
+                                keyDelimiter, keyIndex + 1, escaped, quoteHandling);
 
-                        int valueIndex = -1;
-                        if (keyValueFlags.contains(NEXT_KEY_STRATEGY)) {
-                            int nextKeyIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
-                                    keyValueDelimiter, keyIndex + 1, escaped, quoteHandling);
-
-                            if (nextKeyIndex == -1) {
-                                return new KeyValueIndices(keyIndex, -1, str.length());
-                            }
-                            valueIndex = str.lastIndexOf(wordDelimiter, nextKeyIndex);
-                        } else {
-                            valueIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
-                                    wordDelimiter, keyIndex + 1, escaped, quoteHandling);
+                        if (nextKeyIndex == -1) {
+                            return new KeyValueIndices(keyIndex, -1, str.length());
                         }
-                        return new KeyValueIndices(keyIndex, valueIndex, str.length());
+                        valueIndex = str.lastIndexOf(pairDelimiter, nextKeyIndex);
+                    } else {
+                        valueIndex = ParserExtractorLibrary.indexOfQuotedEscaped(str,
+                                pairDelimiter, keyIndex + 1, escaped, quoteHandling);
                     }
+                    return new KeyValueIndices(keyIndex, valueIndex, str.length());
                 };
             }
 
@@ -1,11 +1,17 @@
 package com.siemmetric.siembol.parsers.extractors;
 
+import java.text.ParsePosition;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.Year;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
 import java.time.temporal.TemporalQueries;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Pattern;
@@ -14,14 +20,42 @@ import java.util.regex.Pattern;
  *
  * <p>This object validates, parses and formats a string timestamp into a millisecond epoch time.
  * It supports list of formatters that are executed in a chain until the first formatter is successful.
+ * If the format ends with seconds, optionally followed by a fraction of second and a quoted literal,
+ * the epoch time of the last seen second prefix is cached per thread and only the fraction is parsed
+ * for the timestamps within the same second.
+ * Fixed-width numeric layouts such as yyyy-MM-dd HH:mm:ss are parsed without the date time formatter.
+ * The list of formats is evaluated starting with the format that matched most recently,
+ * while the result is the same as evaluating the formats in their order.
  *
  * @author  Marian Novotny
  */
 public class ParserDateFormat {
     private static final String DEFAULT_TIMEZONE = "UTC";
+    private static final String UNSUPPORTED_CACHING_CHARACTERS = "[]{}#nNAS";
+    private static final String SECONDS_PATTERN = "ss";
+    private static final char QUOTE = '\'';
+    private static final int MAX_FRACTION_DIGITS = 9;
+    private static final int NANOS_IN_MILLI = 1_000_000;
+    private static final int SECONDS_IN_DAY = 86400;
+    private static final long[] FRACTION_SCALES = {
+            1L, 100_000_000L, 10_000_000L, 1_000_000L, 100_000L, 10_000L, 1_000L, 100L, 10L, 1L};
+
+    private static class ParsingState {
+        private String secondPrefix;
+        private long secondMs;
+        private boolean lastMatched;
+    }
+
     private final Pattern dateTimePattern;
     private final DateTimeFormatter dateFormatter;
     private final ZoneOffset zoneOffSet;
+    private final boolean secondCaching;
+    private final char fractionSeparator;
+    private final int fractionDigits;
+    private final String suffix;
+    private final int tailLength;
+    private final FixedWidthLayout layout;
+    private final ThreadLocal<ParsingState> parsingState = ThreadLocal.withInitial(ParsingState::new);
 
     public ParserDateFormat(String dateFormat) {
         this(dateFormat, Optional.empty(), Optional.empty());
@@ -37,6 +71,42 @@ public class ParserDateFormat {
         dateTimePattern = regexPattern.isPresent()
                 ? Pattern.compile(regexPattern.get())
                 : null;
+
+        String pattern = dateFormat;
+        String patternSuffix = "";
+        boolean validSuffix = true;
+        if (pattern.endsWith(String.valueOf(QUOTE))) {
+            int suffixStart = pattern.lastIndexOf(QUOTE, pattern.length() - 2);
+            validSuffix = suffixStart > 0
+                    && suffixStart < pattern.length() - 2
+                    && pattern.charAt(suffixStart - 1) != QUOTE;
+            if (validSuffix) {
+                patternSuffix = pattern.substring(suffixStart + 1, pattern.length() - 1);
+                pattern = pattern.substring(0, suffixStart);
+            }
+        }
+
+        int digits = 0;
+        while (digits < pattern.length() && pattern.charAt(pattern.length() - 1 - digits) == 'S') {
+            digits++;
+        }
+        char separator = 0;
+        if (digits > 0 && digits < pattern.length()) {
+            separator = pattern.charAt(pattern.length() - 1 - digits);
+            pattern = pattern.substring(0, pattern.length() - 1 - digits);
+        }
+
+        fractionDigits = digits;
+        fractionSeparator = separator;
+        suffix = patternSuffix;
+        tailLength = suffix.length() + (digits > 0 ? digits + 1 : 0);
+        secondCaching = validSuffix
+                && digits <= MAX_FRACTION_DIGITS
+                && (digits == 0 || separator == '.' || separator == ',')
+                && pattern.endsWith(SECONDS_PATTERN)
+                && !pattern.endsWith(SECONDS_PATTERN + "s")
+                && pattern.chars().noneMatch(x -> UNSUPPORTED_CACHING_CHARACTERS.indexOf(x) >= 0);
+        layout = secondCaching ? FixedWidthLayout.compile(pattern) : null;
     }
 
     public Optional<Long> parse(String message) {
@@ -45,6 +115,33 @@ public class ParserDateFormat {
             return Optional.empty();
         }
 
+        if (secondCaching) {
+            int prefixLength = message.length() - tailLength;
+            long fractionMs = getFractionMs(message, prefixLength);
+            if (fractionMs >= 0) {
+                ParsingState state = parsingState.get();
+                if (isCachedPrefix(state, message, prefixLength)) {
+                    return Optional.of(state.secondMs + fractionMs);
+                }
+
+                if (layout != null) {
+                    long secondMs = layout.parseSecondMs(message, prefixLength, zoneOffSet);
+                    if (secondMs != FixedWidthLayout.NOT_PARSED) {
+                        updateCache(state, message, prefixLength, secondMs);
+                        return Optional.of(secondMs + fractionMs);
+                    }
+                }
+
+                Optional<Long> ret = parseByFormatter(message);
+                ret.ifPresent(x -> updateCache(state, message, prefixLength, x - fractionMs));
+                return ret;
+            }
+        }
+
+        return parseByFormatter(message);
+    }
+
+    private Optional<Long> parseByFormatter(String message) {
         try {
             TemporalAccessor temporalAccessor = dateFormatter.parse(message);
             LocalDateTime dateTime = LocalDateTime.from(temporalAccessor);
@@ -59,13 +156,242 @@ public class ParserDateFormat {
         }
     }
 
+    private long getFractionMs(String message, int prefixLength) {
+        if (prefixLength <= 0
+                || !message.startsWith(suffix, message.length() - suffix.length())) {
+            return -1;
+        }
+
+        if (fractionDigits == 0) {
+            return 0;
+        }
+
+        if (message.charAt(prefixLength) != fractionSeparator) {
+            return -1;
+        }
+
+        long fraction = 0;
+        for (int i = prefixLength + 1; i <= prefixLength + fractionDigits; i++) {
+            char current = message.charAt(i);
+            if (current < '0' || current > '9') {
+                return -1;
+            }
+            fraction = fraction * 10 + (current - '0');
+        }
+        return fraction * FRACTION_SCALES[fractionDigits] / NANOS_IN_MILLI;
+    }
+
+    private static boolean isCachedPrefix(ParsingState state, String message, int prefixLength) {
+        return state.secondPrefix != null
+                && state.secondPrefix.length() == prefixLength
+                && message.regionMatches(0, state.secondPrefix, 0, prefixLength);
+    }
+
+    private static void updateCache(ParsingState state, String message, int prefixLength, long secondMs) {
+        state.secondPrefix = message.substring(0, prefixLength);
+        state.secondMs = secondMs;
+    }
+
+    private boolean rejects(String message) {
+        if (dateTimePattern != null
+                && !dateTimePattern.matcher(message).matches()) {
+            return true;
+        }
+
+        if (secondCaching) {
+            int prefixLength = message.length() - tailLength;
+            if (getFractionMs(message, prefixLength) >= 0
+                    && isCachedPrefix(parsingState.get(), message, prefixLength)) {
+                return false;
+            }
+        }
+
+        //NOTE: parsing without resolving does not throw an exception if the message does not match the format
+        ParsePosition position = new ParsePosition(0);
+        TemporalAccessor parsed = dateFormatter.parseUnresolved(message, position);
+        return parsed == null || position.getErrorIndex() >= 0 || position.getIndex() != message.length();
+    }
+
+    private static int getLastMatched(List<ParserDateFormat> dateFormats) {
+        for (int i = 0; i < dateFormats.size(); i++) {
+            if (dateFormats.get(i).parsingState.get().lastMatched) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Optional<Long> setLastMatched(List<ParserDateFormat> dateFormats,
+                                                 int previous,
+                                                 int current,
+                                                 Optional<Long> ret) {
+        if (previous != current) {
+            if (previous >= 0) {
+                dateFormats.get(previous).parsingState.get().lastMatched = false;
+            }
+            dateFormats.get(current).parsingState.get().lastMatched = true;
+        }
+        return ret;
+    }
+
     public static Optional<Long> parse(List<ParserDateFormat> dateFormats, String message) {
-        for (ParserDateFormat dateFormat : dateFormats) {
+        if (dateFormats.size() == 1) {
+            return dateFormats.get(0).parse(message);
+        }
+
+        int lastMatched = getLastMatched(dateFormats);
+        boolean lastMatchedFailed = false;
+        if (lastMatched >= 0) {
+            Optional<Long> ret = dateFormats.get(lastMatched).parse(message);
+            if (ret.isPresent()) {
+                int i = 0;
+                while (i < lastMatched && dateFormats.get(i).rejects(message)) {
+                    i++;
+                }
+                if (i == lastMatched) {
+                    return ret;
+                }
+            } else {
+                lastMatchedFailed = true;
+            }
+        }
+
+        for (int i = 0; i < dateFormats.size(); i++) {
+            if (lastMatchedFailed && i == lastMatched) {
+                continue;
+            }
+
+            ParserDateFormat dateFormat = dateFormats.get(i);
+            if (i != dateFormats.size() - 1 && dateFormat.rejects(message)) {
+                continue;
+            }
+
             Optional<Long> ret = dateFormat.parse(message);
             if (ret.isPresent()) {
-                return ret;
+                return setLastMatched(dateFormats, lastMatched, i, ret);
             }
         }
         return Optional.empty();
     }
+
+    /**
+     * An object for parsing fixed-width numeric date time layouts
+     *
+     * <p>This class compiles a pattern that consists of yyyy, MM, dd, HH, mm, ss fields and literals.
+     * It parses a second prefix of a timestamp only if all fields are in their valid ranges,
+     * otherwise the timestamp is parsed by the date time formatter.
+     */
+    private static class FixedWidthLayout {
+        static final long NOT_PARSED = Long.MIN_VALUE;
+        private static final String[] FIELDS = {"yyyy", "MM", "dd", "HH", "mm", "ss"};
+        private static final List<String> FIELDS_LIST = Arrays.asList(FIELDS);
+        private static final String LITERAL_LETTERS = "-/:. ,";
+
+        private final int[] fieldOffsets;
+        private final String literals;
+        private final int[] literalOffsets;
+        private final int length;
+
+        private FixedWidthLayout(int[] fieldOffsets, String literals, int[] literalOffsets, int length) {
+            this.fieldOffsets = fieldOffsets;
+            this.literals = literals;
+            this.literalOffsets = literalOffsets;
+            this.length = length;
+        }
+
+        static FixedWidthLayout compile(String pattern) {
+            int[] fieldOffsets = new int[FIELDS.length];
+            Arrays.fill(fieldOffsets, -1);
+            StringBuilder literals = new StringBuilder();
+            List<Integer> literalOffsets = new ArrayList<>();
+
+            int offset = 0;
+            int i = 0;
+            while (i < pattern.length()) {
+                char current = pattern.charAt(i);
+                if (current == QUOTE) {
+                    int end = pattern.indexOf(QUOTE, i + 1);
+                    if (end <= i + 1) {
+                        return null;
+                    }
+                    for (int j = i + 1; j < end; j++) {
+                        literals.append(pattern.charAt(j));
+                        literalOffsets.add(offset++);
+                    }
+                    i = end + 1;
+                } else if (LITERAL_LETTERS.indexOf(current) >= 0) {
+                    literals.append(current);
+                    literalOffsets.add(offset++);
+                    i++;
+                } else {
+                    int end = i;
+                    while (end < pattern.length() && pattern.charAt(end) == current) {
+                        end++;
+                    }
+                    String field = pattern.substring(i, end);
+                    int index = FIELDS_LIST.indexOf(field);
+                    if (index < 0 || fieldOffsets[index] >= 0) {
+                        return null;
+                    }
+                    fieldOffsets[index] = offset;
+                    offset += field.length();
+                    i = end;
+                }
+            }
+
+            for (int fieldOffset : fieldOffsets) {
+                if (fieldOffset < 0) {
+                    return null;
+                }
+            }
+
+            return new FixedWidthLayout(fieldOffsets,
+                    literals.toString(),
+                    literalOffsets.stream().mapToInt(Integer::intValue).toArray(),
+                    offset);
+        }
+
+        private static int parseDigits(String message, int offset, int digits) {
+            int ret = 0;
+            for (int i = offset; i < offset + digits; i++) {
+                char current = message.charAt(i);
+                if (current < '0' || current > '9') {
+                    return -1;
+                }
+                ret = ret * 10 + (current - '0');
+            }
+            return ret;
+        }
+
+        long parseSecondMs(String message, int prefixLength, ZoneOffset zoneOffset) {
+            if (prefixLength != length) {
+                return NOT_PARSED;
+            }
+
+            for (int i = 0; i < literalOffsets.length; i++) {
+                if (message.charAt(literalOffsets[i]) != literals.charAt(i)) {
+                    return NOT_PARSED;
+                }
+            }
+
+            int year = parseDigits(message, fieldOffsets[0], FIELDS[0].length());
+            int month = parseDigits(message, fieldOffsets[1], FIELDS[1].length());
+            int day = parseDigits(message, fieldOffsets[2], FIELDS[2].length());
+            int hour = parseDigits(message, fieldOffsets[3], FIELDS[3].length());
+            int minute = parseDigits(message, fieldOffsets[4], FIELDS[4].length());
+            int second = parseDigits(message, fieldOffsets[5], FIELDS[5].length());
+
+            //NOTE: values out of their strict ranges are resolved by the date time formatter
+            if (year < 1 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23
+                    || minute < 0 || minute > 59 || second < 0 || second > 59
+                    || day > Month.of(month).length(Year.isLeap(year))) {
+                return NOT_PARSED;
+            }
+
+            long epochSecond = LocalDate.of(year, month, day).toEpochDay() * SECONDS_IN_DAY
+                    + hour * 3600L + minute * 60L + second
+                    - zoneOffset.getTotalSeconds();
+            return epochSecond * 1000;
+        }
+    }
 }
@@ -19,8 +19,6 @@ import static com.siemmetric.siembol.parsers.extractors.ParserExtractor.ParserEx
  */
 public abstract class ParserExtractor  {
     private static final String EMPTY_MSG_FOR_EXTRACTION_MSG = "Empty message for extraction";
-    private static final String DUPLICATE_FORMAT_MSG = "duplicate_%s_%d";
-    private static final String EMPTY_STRING = "";
 
     public enum ParserExtractorFlags {
         SHOULD_REMOVE_FIELD,
@@ -145,13 +143,25 @@ public abstract class ParserExtractor  {
     protected abstract Map<String, Object> extractInternally(String str);
 
     protected Object getValue(String value) {
+        return getValue(value, 0, value.length());
+    }
+
+    /**
+     * Gets the value of a substring of the message without creating intermediate strings
+     *
+     * @param message input message
+     * @param begin the beginning index of the value, inclusive
+     * @param end the ending index of the value, exclusive
+     * @return the value of the substring
+     */
+    protected Object getValue(String message, int begin, int end) {
         if (parserExtractorFlags.contains(ParserExtractorFlags.REMOVE_QUOTES)
-                && value.length() >= 2
-                && (value.charAt(0) == '\'' || value.charAt(0) == '"')
-                && value.charAt(0) == value.charAt(value.length() - 1)) {
-            return value.substring(1, value.length() - 1);
+                && end - begin >= 2
+                && (message.charAt(begin) == '\'' || message.charAt(begin) == '"')
+                && message.charAt(begin) == message.charAt(end - 1)) {
+            return message.substring(begin + 1, end - 1);
         }
-        return value;
+        return message.substring(begin, end);
     }
 
     /**
@@ -237,44 +247,11 @@ public abstract class ParserExtractor  {
      * @param extractors List of extractors to be executed in a chain
      * @param messageObject an initial message object that will be extended by calling a chain of extractors
      * @return the message object after executing all extractors
+     * @see ParserExtractorPipeline
      */
     public static Map<String, Object> extract(
             List<ParserExtractor> extractors,
             Map<String, Object> messageObject) {
-        DuplicatesFieldMap duplicatesMap = new DuplicatesFieldMap();
-
-        for (ParserExtractor extractor : extractors) {
-            String field = extractor.getField();
-            if (!(messageObject.get(field) instanceof String)) {
-                continue;
-            }
-
-            if (!extractor.shouldOverwriteFields()) {
-                duplicatesMap.clear();
-            }
-
-            String message = (String) messageObject.get(field);
-            Map<String, Object> parsed = extractor.extract(message);
-            for (String key : parsed.keySet()) {
-                if (extractor.shouldSkipEmptyValues() && EMPTY_STRING.equals(parsed.get(key))) {
-                    continue;
-                }
-
-                if (messageObject.putIfAbsent(key, parsed.get(key)) != null) {
-                    String currentName = key;
-                    if(!extractor.shouldOverwriteFields()) {
-                        int duplicateIndex = duplicatesMap.getIndex(key);
-                        currentName = String.format(DUPLICATE_FORMAT_MSG, key, duplicateIndex);
-                    }
-                    messageObject.put(currentName, parsed.get(key));
-                }
-            }
-
-            if (extractor.shouldRemoveField()) {
-                messageObject.remove(field);
-            }
-
-        }
-        return messageObject;
+        return new ParserExtractorPipeline(extractors).extract(messageObject);
     }
 }
@@ -15,6 +15,7 @@ import static com.siemmetric.siembol.common.constants.SiembolMessageFields.TIMES
  */
 
 public class ParserExtractorLibrary {
+    public static final int NO_CHARACTER = -1;
 
     public static Map<String, Object> convertUnixTimestampToMs(Map<String, Object> map, String timeField) {
         if (!map.containsKey(timeField)
@@ -50,20 +51,39 @@ public class ParserExtractorLibrary {
                               int from,
                               Optional<Character> quota,
                               Optional<Character> escaped) {
-        int numQuotes = 0;
-        int i = from;
+        return indexOf(str,
+                c,
+                from,
+                quota.isPresent() ? quota.get() : NO_CHARACTER,
+                escaped.isPresent() ? escaped.get() : NO_CHARACTER);
+    }
+
+    /**
+     * Finds the index of a character that is not escaped and it is not inside quotes
+     *
+     * @param str input string
+     * @param c searched character
+     * @param from the index to start the search from
+     * @param quota quote character or NO_CHARACTER if quotes are not handled
+     * @param escaped escape character or NO_CHARACTER if escaping is not handled
+     * @return the index of the character or -1 if the character is not found
+     */
+    public static int indexOf(String str, char c, int from, int quota, int escaped) {
+        if (quota == NO_CHARACTER && escaped == NO_CHARACTER) {
+            return str.indexOf(c, from);
+        }
 
-        while (i < str.length()) {
+        boolean quoted = false;
+        int length = str.length();
+        for (int i = from; i < length; i++) {
             char current = str.charAt(i);
-            if (escaped.isPresent() && escaped.get() == current) {
+            if (current == escaped) {
                 i++;
-            }
-            else if (quota.isPresent() && quota.get() == current) {
-                numQuotes++;
-            } else if (c == current && (numQuotes % 2 == 0)) {
+            } else if (current == quota) {
+                quoted = !quoted;
+            } else if (current == c && !quoted) {
                 return i;
             }
-            i++;
         }
         return -1;
     }
@@ -73,18 +93,33 @@ public class ParserExtractorLibrary {
                                            int from,
                                            Optional<Character> escaped,
                                            boolean quotesHandling) {
+        return indexOfQuotedEscaped(str,
+                c,
+                from,
+                escaped.isPresent() ? escaped.get() : NO_CHARACTER,
+                quotesHandling);
+    }
+
+    /**
+     * Finds the index of a character that is not escaped and it is not inside quotes
+     * if the search starts with a quote
+     *
+     * @param str input string
+     * @param c searched character
+     * @param from the index to start the search from
+     * @param escaped escape character or NO_CHARACTER if escaping is not handled
+     * @param quotesHandling handling quotes if the search starts with a quote
+     * @return the index of the character or -1 if the character is not found
+     */
+    public static int indexOfQuotedEscaped(String str, char c, int from, int escaped, boolean quotesHandling) {
         if (from >= str.length()) {
             return -1;
         }
 
-        if (quotesHandling &&
-                (str.charAt(from) == '\'' || str.charAt(from) == '"')) {
-            return indexOf(str, c, from, Optional.of(str.charAt(from)), escaped);
-        } else {
-            return escaped.isPresent()
-                    ? indexOf(str, c, from, Optional.empty(), escaped)
-                    : str.indexOf(c, from);
-        }
+        char first = str.charAt(from);
+        return quotesHandling && (first == '\'' || first == '"')
+                ? indexOf(str, c, from, first, escaped)
+                : indexOf(str, c, from, NO_CHARACTER, escaped);
     }
 
     public static String replace(String str, String target, String replacement ) {
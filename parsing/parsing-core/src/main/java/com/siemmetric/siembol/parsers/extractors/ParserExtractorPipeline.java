@@ -0,0 +1,253 @@
+package com.siemmetric.siembol.parsers.extractors;
+
+import com.siemmetric.siembol.parsers.transformations.MessageFilterTransformation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+/**
+ * An object for executing a chain of extractors
+ *
+ * <p>This class compiles a list of extractors into a pipeline that merges extracted fields into the message
+ * in one pass over the extracted fields of each extractor.
+ * The extractor attributes are resolved when compiling the pipeline,
+ * the names of duplicate fields are cached and
+ * the message map is pre-sized according to the number of fields of the previous messages.
+ * Message filters that are evaluated at the beginning of the transformations can be registered in the pipeline.
+ * A filter is evaluated as soon as its fields are extracted and no following extractor can change them,
+ * the pipeline returns FILTERED_MESSAGE without executing the following extractors if the filter matches.
+ * It is thread safe.
+ *
+ * @author  Marian Novotny
+ * @see ParserExtractor
+ * @see MessageFilterTransformation
+ */
+public class ParserExtractorPipeline {
+    private static final String DUPLICATE_FORMAT_MSG = "duplicate_%s_%d";
+    private static final String EMPTY_STRING = "";
+    private static final int MAX_CACHED_DUPLICATE_KEYS = 1024;
+    private static final int MAX_CACHED_DUPLICATE_INDEX = 16;
+    private static final int MIN_EXPECTED_FIELDS = 16;
+    private static final int MAX_EXPECTED_FIELDS = 1024;
+    private static final int EXPECTED_FIELDS_DECAY_SHIFT = 4;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final String DUPLICATE_PREFIX = "duplicate_";
+    private static final int MAX_EARLY_FILTERS = Long.SIZE - 1;
+    private static final long FILTERED = -1L;
+    public static final Map<String, Object> FILTERED_MESSAGE = Collections.unmodifiableMap(new HashMap<>());
+
+    private final Stage[] stages;
+    private final EarlyFilter[] earlyFilters;
+    private final long allEarlyFilters;
+    private final Map<String, String[]> duplicateNames = new ConcurrentHashMap<>();
+    private volatile int expectedFields = MIN_EXPECTED_FIELDS;
+
+    private static class Stage {
+        private final ParserExtractor extractor;
+        private final String field;
+        private final boolean removeField;
+        private final boolean overwriteFields;
+        private final boolean skipEmptyValues;
+
+        Stage(ParserExtractor extractor) {
+            this.extractor = extractor;
+            this.field = extractor.getField();
+            this.removeField = extractor.shouldRemoveField();
+            this.overwriteFields = extractor.shouldOverwriteFields();
+            this.skipEmptyValues = extractor.shouldSkipEmptyValues();
+        }
+    }
+
+    private static class EarlyFilter {
+        private final MessageFilterTransformation filter;
+        private final String[] fieldNames;
+        private final int firstCheckpoint;
+
+        EarlyFilter(MessageFilterTransformation filter, int firstCheckpoint) {
+            this.filter = filter;
+            this.fieldNames = filter.getFieldNames().toArray(new String[0]);
+            this.firstCheckpoint = firstCheckpoint;
+        }
+
+        boolean hasAllFields(Map<String, Object> messageObject) {
+            for (String fieldName : fieldNames) {
+                if (!messageObject.containsKey(fieldName)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Creates the pipeline from the list of extractors
+     *
+     * @param extractors list of extractors to be executed in a chain
+     */
+    public ParserExtractorPipeline(List<ParserExtractor> extractors) {
+        this(extractors, new ArrayList<>());
+    }
+
+    /**
+     * Creates the pipeline from the list of extractors with message filters evaluated during the extraction
+     *
+     * @param extractors list of extractors to be executed in a chain
+     * @param filters list of message filters that are evaluated on the message after executing all extractors
+     */
+    public ParserExtractorPipeline(List<ParserExtractor> extractors, List<MessageFilterTransformation> filters) {
+        stages = new Stage[extractors.size()];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = new Stage(extractors.get(i));
+        }
+
+        List<EarlyFilter> early = new ArrayList<>();
+        for (MessageFilterTransformation filter : filters) {
+            int checkpoint = getFirstCheckpoint(filter);
+            if (checkpoint < stages.length - 1 && early.size() < MAX_EARLY_FILTERS) {
+                early.add(new EarlyFilter(filter, checkpoint));
+            }
+        }
+        earlyFilters = early.toArray(new EarlyFilter[0]);
+        allEarlyFilters = (1L << earlyFilters.length) - 1;
+    }
+
+    private int getFirstCheckpoint(MessageFilterTransformation filter) {
+        for (String fieldName : filter.getFieldNames()) {
+            //NOTE: names of duplicate fields depend on the following extractors
+            if (fieldName.startsWith(DUPLICATE_PREFIX)) {
+                return stages.length - 1;
+            }
+        }
+
+        for (int i = stages.length - 1; i >= 0; i--) {
+            if (stages[i].overwriteFields
+                    || (stages[i].removeField && filter.getFieldNames().contains(stages[i].field))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private long evaluateEarlyFilters(Map<String, Object> messageObject, int checkpoint, long pending) {
+        for (int i = 0; i < earlyFilters.length; i++) {
+            long mask = 1L << i;
+            EarlyFilter current = earlyFilters[i];
+            if ((pending & mask) == 0
+                    || current.firstCheckpoint > checkpoint
+                    || !current.hasAllFields(messageObject)) {
+                continue;
+            }
+
+            if (current.filter.shouldFilter(messageObject)) {
+                return FILTERED;
+            }
+            //NOTE: the following extractors can not change the fields, the filter will not match
+            pending &= ~mask;
+        }
+        return pending;
+    }
+
+    /**
+     * Creates a message map pre-sized for the expected number of the fields after extraction
+     *
+     * @return an empty message map
+     */
+    public Map<String, Object> createMessage() {
+        return new HashMap<>((int)(expectedFields / LOAD_FACTOR) + 1);
+    }
+
+    /**
+     * Extracts pairs from a message object by executing the pipeline
+     *
+     * @param messageObject an initial message object that will be extended by the extractors
+     * @return the message object after executing all extractors,
+     *         or FILTERED_MESSAGE if the message is filtered by a registered filter
+     */
+    public Map<String, Object> extract(Map<String, Object> messageObject) {
+        DuplicatesFieldMap duplicatesMap = null;
+        long pendingFilters = allEarlyFilters;
+        for (int i = 0; i < stages.length; i++) {
+            if (pendingFilters != 0) {
+                pendingFilters = evaluateEarlyFilters(messageObject, i - 1, pendingFilters);
+                if (pendingFilters == FILTERED) {
+                    return FILTERED_MESSAGE;
+                }
+            }
+
+            Stage stage = stages[i];
+            Object fieldValue = messageObject.get(stage.field);
+            if (!(fieldValue instanceof String)) {
+                continue;
+            }
+
+            if (!stage.overwriteFields && duplicatesMap != null) {
+                duplicatesMap.clear();
+            }
+
+            Map<String, Object> parsed = stage.extractor.extract((String) fieldValue);
+            for (Map.Entry<String, Object> entry : parsed.entrySet()) {
+                String key = entry.getKey();
+                Object value = entry.getValue();
+                if (stage.skipEmptyValues && EMPTY_STRING.equals(value)) {
+                    continue;
+                }
+
+                if (messageObject.putIfAbsent(key, value) != null) {
+                    String currentName = key;
+                    if (!stage.overwriteFields) {
+                        if (duplicatesMap == null) {
+                            duplicatesMap = new DuplicatesFieldMap();
+                        }
+                        currentName = getDuplicateName(key, duplicatesMap.getIndex(key));
+                    }
+                    messageObject.put(currentName, value);
+                }
+            }
+
+            if (stage.removeField) {
+                messageObject.remove(stage.field);
+            }
+        }
+
+        updateExpectedFields(messageObject.size());
+        return messageObject;
+    }
+
+    private void updateExpectedFields(int size) {
+        int current = expectedFields;
+        //NOTE: the estimate follows larger messages immediately and decays to the sizes of recent messages
+        int decay = (current - size + (1 << EXPECTED_FIELDS_DECAY_SHIFT) - 1) >> EXPECTED_FIELDS_DECAY_SHIFT;
+        int updated = size >= current
+                ? Math.min(size, MAX_EXPECTED_FIELDS)
+                : Math.max(MIN_EXPECTED_FIELDS, current - decay);
+        if (updated != current) {
+            expectedFields = updated;
+        }
+    }
+
+    int getExpectedFields() {
+        return expectedFields;
+    }
+
+    private String getDuplicateName(String key, int index) {
+        if (index > MAX_CACHED_DUPLICATE_INDEX) {
+            return String.format(DUPLICATE_FORMAT_MSG, key, index);
+        }
+
+        String[] names = duplicateNames.get(key);
+        if (names == null) {
+            if (duplicateNames.size() >= MAX_CACHED_DUPLICATE_KEYS) {
+                return String.format(DUPLICATE_FORMAT_MSG, key, index);
+            }
+            names = new String[MAX_CACHED_DUPLICATE_INDEX];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = String.format(DUPLICATE_FORMAT_MSG, key, i + 1);
+            }
+            duplicateNames.putIfAbsent(key, names);
+        }
+        return names[index - 1];
+    }
+}
@@ -12,6 +12,7 @@ import com.siemmetric.siembol.parsers.common.SiembolParser;
 import com.siemmetric.siembol.parsers.common.ParserResult;
 import com.siemmetric.siembol.parsers.common.SerializableSiembolParser;
 import com.siemmetric.siembol.parsers.generic.SiembolGenericParser;
+import com.siemmetric.siembol.parsers.netflow.SharedTransportProvider;
 import com.siemmetric.siembol.parsers.netflow.SiembolNetflowParser;
 import com.siemmetric.siembol.parsers.syslog.SiembolSyslogParser;
 import com.siemmetric.siembol.parsers.extractors.*;
@@ -85,7 +86,8 @@ public class ParserFactoryImpl implements ParserFactory {
             SiembolParser parser;
             switch (parserConfig.getParserAttributes().getParserType()) {
                 case NETFLOW:
-                    parser = new SiembolNetflowParser();
+                    //NOTE: netflow templates are shared by parsers in the worker and they survive config updates
+                    parser = new SiembolNetflowParser(SharedTransportProvider.getSharedInstance());
                     break;
                 case SYSLOG:
                     parser = createSyslogParser(parserConfig.getParserAttributes().getSyslogConfig(), extractors, transformations);
@@ -381,10 +383,24 @@ public class ParserFactoryImpl implements ParserFactory {
     }
 
     private ParserExtractor createJsonExtractor(ParserExtractorDto extractor) {
-        return JsonExtractor
-                .builder()
-                .pathPrefix(extractor.getAttributes().getPathPrefix())
-                .nestedSeparator(extractor.getAttributes().getNestedSeparator())
+        ExtractorAttributesDto attributes = extractor.getAttributes();
+        JsonExtractor.Builder<JsonExtractor> builder = JsonExtractor.builder();
+        if (attributes.getMaxNestingDepth() != null) {
+            builder.maxDepth(attributes.getMaxNestingDepth());
+        }
+
+        if (attributes.getIncludePathPrefixes() != null) {
+            builder.includePrefixes(attributes.getIncludePathPrefixes());
+        }
+
+        if (attributes.getExcludePathPrefixes() != null) {
+            builder.excludePrefixes(attributes.getExcludePathPrefixes());
+        }
+
+        return builder
+                .pathPrefix(attributes.getPathPrefix())
+                .nestedSeparator(attributes.getNestedSeparator())
+                .keepRawSubtrees(Boolean.TRUE.equals(attributes.getKeepRawSkippedSubtrees()))
                 .name(extractor.getName())
                 .field(extractor.getField())
                 .extractorFlags(getExtractorFlags(extractor.getAttributes()))
@@ -478,10 +494,10 @@ public class ParserFactoryImpl implements ParserFactory {
             return Optional.empty();
         }
 
-        ArrayList<Transformation> ret = parserConfig.getParserTransformations().stream()
-                .filter(x -> x.isEnabled())
-                .map(x -> transformationFactory.create(x))
-                .collect(toCollection(ArrayList::new));
+        ArrayList<Transformation> ret = new ArrayList<>(transformationFactory.createTransformations(
+                parserConfig.getParserTransformations().stream()
+                        .filter(x -> x.isEnabled())
+                        .collect(Collectors.toList())));
 
         return ret.isEmpty() ? Optional.empty() : Optional.of(ret);
     }
@@ -3,9 +3,11 @@ package com.siemmetric.siembol.parsers.generic;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.siemmetric.siembol.parsers.common.ParserResult;
 import com.siemmetric.siembol.parsers.common.SiembolParser;
 import com.siemmetric.siembol.common.constants.SiembolMessageFields;
 import com.siemmetric.siembol.parsers.extractors.ParserExtractor;
+import com.siemmetric.siembol.parsers.extractors.ParserExtractorPipeline;
 import com.siemmetric.siembol.parsers.transformations.Transformation;
 import com.siemmetric.siembol.parsers.transformations.TransformationsLibrary;
 
@@ -19,7 +21,8 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * It is used for parsing a log by creating two fields:
  * - 'original_string' field with the input message,
  * - 'timestamp' field with the current time in milliseconds.
- * It evaluates the chain of extractors and transformations if registered.
+ * It evaluates the chain of extractors compiled into a pipeline and transformations if registered.
+ * The leading message filters of the transformations are evaluated in the pipeline during the extraction.
  * @author  Marian Novotny
  * @see SiembolParser
  *
@@ -28,7 +31,7 @@ public class SiembolGenericParser implements SiembolParser {
     private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
     private static final String PARSING_ERROR_MSG = "Unable to parse message: %s, exception: %s";
 
-    private final List<ParserExtractor> extractors;
+    private final ParserExtractorPipeline extractorPipeline;
     private final List<Transformation> transformations;
 
     /**
@@ -41,7 +44,9 @@ public class SiembolGenericParser implements SiembolParser {
      *
      */
     public SiembolGenericParser(List<ParserExtractor> extractors, List<Transformation> transformations) {
-        this.extractors = extractors;
+        this.extractorPipeline = extractors != null
+                ? new ParserExtractorPipeline(extractors, TransformationsLibrary.getLeadingFilters(transformations))
+                : null;
         this.transformations = transformations;
     }
 
@@ -50,16 +55,32 @@ public class SiembolGenericParser implements SiembolParser {
      */
     @Override
     public List<Map<String, Object>> parse(byte[] bytes) {
+        return parse(null, bytes, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Map<String, Object>> parse(String metadata, byte[] bytes, ParserResult result) {
         String originalMessage = null;
         try {
             originalMessage = new String(bytes, UTF_8);
 
-            Map<String, Object> parsed = new HashMap<>();
+            Map<String, Object> parsed = extractorPipeline != null
+                    ? extractorPipeline.createMessage()
+                    : new HashMap<>();
             parsed.put(SiembolMessageFields.ORIGINAL.toString(), originalMessage);
             parsed.put(SiembolMessageFields.TIMESTAMP.toString(), System.currentTimeMillis());
 
-            if (extractors != null) {
-                parsed = ParserExtractor.extract(extractors, parsed);
+            if (extractorPipeline != null) {
+                parsed = extractorPipeline.extract(parsed);
+                if (parsed == ParserExtractorPipeline.FILTERED_MESSAGE) {
+                    if (result != null) {
+                        result.setEarlyFilteredMessages(result.getEarlyFilteredMessages() + 1);
+                    }
+                    return new ArrayList<>();
+                }
             }
 
             if (transformations != null) {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.reinert.jjschema.Attributes;
 import com.siemmetric.siembol.common.constants.SiembolMessageFields;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 /**
@@ -88,6 +89,23 @@ public class ExtractorAttributesDto {
     @Attributes(description = "The separator added during unfolding nested json objects")
     private String nestedSeparator = ":";
 
+    @JsonProperty("include_path_prefixes")
+    @Attributes(description = "Path prefixes of nested fields that are extracted, all fields are extracted if empty")
+    private List<String> includePathPrefixes = new ArrayList<>();
+
+    @JsonProperty("exclude_path_prefixes")
+    @Attributes(description = "Path prefixes of nested fields that are not extracted")
+    private List<String> excludePathPrefixes = new ArrayList<>();
+
+    @JsonProperty("max_nesting_depth")
+    @Attributes(description = "Maximum nesting depth of extracted fields, deeper objects and arrays are skipped",
+            minimum = 1)
+    private Integer maxNestingDepth;
+
+    @JsonProperty("keep_raw_skipped_subtrees")
+    @Attributes(description = "Skipped nested objects and arrays are kept as raw json strings instead of dropping them")
+    private Boolean keepRawSkippedSubtrees = false;
+
     @JsonProperty("regex_select_config")
     @Attributes(description = "The specification of regex_select extractor")
     private RegexSelectDto regexSelectConfig;
@@ -280,6 +298,38 @@ public class ExtractorAttributesDto {
         this.nestedSeparator = nestedSeparator;
     }
 
+    public List<String> getIncludePathPrefixes() {
+        return includePathPrefixes;
+    }
+
+    public void setIncludePathPrefixes(List<String> includePathPrefixes) {
+        this.includePathPrefixes = includePathPrefixes;
+    }
+
+    public List<String> getExcludePathPrefixes() {
+        return excludePathPrefixes;
+    }
+
+    public void setExcludePathPrefixes(List<String> excludePathPrefixes) {
+        this.excludePathPrefixes = excludePathPrefixes;
+    }
+
+    public Integer getMaxNestingDepth() {
+        return maxNestingDepth;
+    }
+
+    public void setMaxNestingDepth(Integer maxNestingDepth) {
+        this.maxNestingDepth = maxNestingDepth;
+    }
+
+    public Boolean getKeepRawSkippedSubtrees() {
+        return keepRawSkippedSubtrees;
+    }
+
+    public void setKeepRawSkippedSubtrees(Boolean keepRawSkippedSubtrees) {
+        this.keepRawSkippedSubtrees = keepRawSkippedSubtrees;
+    }
+
     public String getStringReplaceTarget() {
         return stringReplaceTarget;
     }
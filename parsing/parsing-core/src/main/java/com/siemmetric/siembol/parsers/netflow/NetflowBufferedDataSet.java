@@ -0,0 +1,41 @@
+package com.siemmetric.siembol.parsers.netflow;
+/**
+ * An object for representing a buffered netflow data set
+ *
+ * <p>This class represents a data set that arrived before its template.
+ * It is buffered by a netflow transport provider until the template arrives or the data set expires.
+ *
+ * @author Marian Novotny
+ * @see NetflowTransportProvider
+ *
+ */
+public class NetflowBufferedDataSet {
+    private final byte[] data;
+    private final long timestamp;
+    private final String originalString;
+
+    /**
+     * Creates a buffered data set
+     *
+     * @param data binary payload of the data set without the set header
+     * @param timestamp timestamp of the netflow message in milliseconds
+     * @param originalString original string of the netflow message that contained the data set
+     */
+    public NetflowBufferedDataSet(byte[] data, long timestamp, String originalString) {
+        this.data = data;
+        this.timestamp = timestamp;
+        this.originalString = originalString;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getOriginalString() {
+        return originalString;
+    }
+}
@@ -1,19 +1,12 @@
 package com.siemmetric.siembol.parsers.netflow;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import java.lang.invoke.MethodHandles;
-import java.net.Inet4Address;
-import java.net.Inet6Address;
-import java.util.Arrays;
-import java.util.List;
-
 import static java.nio.charset.StandardCharsets.UTF_8;
 /**
  * An enum of netflow v9 data types
  *
  * <p>This enum represent a netflow v9 data types.
  * A data type includes a function for reading a binary buffer.
+ * Addresses are formatted using lookup tables without creating intermediate objects.
  *
  * @author Marian Novotny
  * @see NetflowBufferReader
@@ -35,34 +28,41 @@ public enum NetflowDataType implements NetflowBufferReader {
     public static final int SIZE_OF_IPV6 = 16;
     public static final int SIZE_OF_LONG = 8;
     public static final int SIZE_OF_DOUBLE = 8;
-    public static final List<Integer> INTEGER_SIZE_LIST
-            = Arrays.asList(1, 2, 4, 8);
-    public static final List<Integer> FLOAT_SIZE_LIST
-            = Arrays.asList(4, 8);
-    public static final String UNKNOWN_IPV4 = "Unknown IPv4";
-    public static final String UNKNOWN_IPV6 = "Unknown IPv6";
-    private static final Logger LOG = LoggerFactory
-            .getLogger(MethodHandles.lookup().lookupClass());
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final String[] DECIMAL_BYTES = new String[256];
+    private static final int IPV4_MAPPED_PREFIX_SIZE = 12;
+    private static final int IPV6_GROUPS = 8;
+
+    static {
+        for (int i = 0; i < DECIMAL_BYTES.length; i++) {
+            DECIMAL_BYTES[i] = String.valueOf(i);
+        }
+    }
 
     private static Object readInteger(BinaryBuffer buffer, int fieldLength) {
-        if (!INTEGER_SIZE_LIST.contains(fieldLength)) {
-            throw new IllegalStateException(String.format(
-                    "Wrong integer size: %d", fieldLength));
+        switch (fieldLength) {
+            case SIZE_OF_LONG:
+                return buffer.getBuffer().getLong();
+            case 1:
+            case 2:
+            case 4:
+                return buffer.readUnsigned(fieldLength);
+            default:
+                throw new IllegalStateException(String.format(
+                        "Wrong integer size: %d", fieldLength));
         }
-
-        return fieldLength == SIZE_OF_LONG
-                ? buffer.getBuffer().getLong()
-                : buffer.readUnsigned(fieldLength);
     }
 
     private static Object readFloat(BinaryBuffer buffer, int fieldLength) {
-        if (!(FLOAT_SIZE_LIST.contains(fieldLength))) {
-            throw new IllegalStateException(String.format(
-                    "Wrong float size: %d", fieldLength));
+        switch (fieldLength) {
+            case SIZE_OF_DOUBLE:
+                return buffer.getBuffer().getDouble();
+            case 4:
+                return buffer.getBuffer().getFloat();
+            default:
+                throw new IllegalStateException(String.format(
+                        "Wrong float size: %d", fieldLength));
         }
-        return fieldLength == SIZE_OF_DOUBLE
-                ? buffer.getBuffer().getDouble()
-                : buffer.getBuffer().getFloat();
     }
 
     private static Object readMACAddress(BinaryBuffer buffer, int fieldLength) {
@@ -71,14 +71,17 @@ public enum NetflowDataType implements NetflowBufferReader {
                     "Wrong MAC address size: %d", fieldLength));
         }
 
-        StringBuilder sb = new StringBuilder(SIZE_OF_MAC_ADDRESS * 3 - 1);
+        char[] chars = new char[SIZE_OF_MAC_ADDRESS * 3 - 1];
+        int offset = 0;
         for (int i = 0; i < fieldLength; i++) {
             if (i > 0) {
-                sb.append(':');
+                chars[offset++] = ':';
             }
-            sb.append(String.format("%02x", buffer.getBuffer().get()));
+            int current = Byte.toUnsignedInt(buffer.getBuffer().get());
+            chars[offset++] = HEX_DIGITS[current >>> 4];
+            chars[offset++] = HEX_DIGITS[current & 0xf];
         }
-        return sb.toString();
+        return new String(chars);
     }
 
     private static Object readBoolean(BinaryBuffer buffer, int fieldLength) {
@@ -95,14 +98,29 @@ public enum NetflowDataType implements NetflowBufferReader {
                     "Wrong IPv4 address size: %d", fieldLength));
         }
 
-        byte[] dst = buffer.readByteArray(fieldLength);
-        try {
-            return Inet4Address.getByAddress(dst).getHostAddress();
-        } catch (Exception e) {
-            LOG.error(String.format("Invalid Ipv4 address: %s",
-                    new String(dst, UTF_8)));
-            return UNKNOWN_IPV4;
+        return formatIpv4Address(buffer);
+    }
+
+    private static String formatIpv4Address(BinaryBuffer buffer) {
+        StringBuilder sb = new StringBuilder(15);
+        for (int i = 0; i < SIZE_OF_IPV4; i++) {
+            if (i > 0) {
+                sb.append('.');
+            }
+            sb.append(DECIMAL_BYTES[Byte.toUnsignedInt(buffer.getBuffer().get())]);
         }
+        return sb.toString();
+    }
+
+    private static boolean isIpv4MappedAddress(BinaryBuffer buffer) {
+        int position = buffer.getBuffer().position();
+        for (int i = 0; i < IPV4_MAPPED_PREFIX_SIZE - 2; i++) {
+            if (buffer.getBuffer().get(position + i) != 0) {
+                return false;
+            }
+        }
+        return buffer.getBuffer().get(position + IPV4_MAPPED_PREFIX_SIZE - 2) == (byte)0xff
+                && buffer.getBuffer().get(position + IPV4_MAPPED_PREFIX_SIZE - 1) == (byte)0xff;
     }
 
     private static Object readIpv6Address(BinaryBuffer buffer, int fieldLength) {
@@ -111,14 +129,28 @@ public enum NetflowDataType implements NetflowBufferReader {
                     "Wrong IPv6 address size: %d", fieldLength));
         }
 
-        byte[] dst = buffer.readByteArray(fieldLength);
-        try {
-            return Inet6Address.getByAddress(dst).getHostAddress();
-        } catch (Exception e) {
-            LOG.error(String.format("Invalid Ipv6 address: %s",
-                    new String(dst, UTF_8)));
-            return UNKNOWN_IPV6;
+        if (isIpv4MappedAddress(buffer)) {
+            //NOTE: IPv4-mapped addresses are formatted as IPv4 addresses
+            buffer.skip(IPV4_MAPPED_PREFIX_SIZE);
+            return formatIpv4Address(buffer);
         }
+
+        StringBuilder sb = new StringBuilder(39);
+        for (int i = 0; i < IPV6_GROUPS; i++) {
+            if (i > 0) {
+                sb.append(':');
+            }
+            int group = buffer.readUShort();
+            boolean leadingZero = true;
+            for (int shift = 12; shift >= 0; shift -= 4) {
+                int digit = (group >>> shift) & 0xf;
+                if (digit != 0 || !leadingZero || shift == 0) {
+                    sb.append(HEX_DIGITS[digit]);
+                    leadingZero = false;
+                }
+            }
+        }
+        return sb.toString();
     }
 
     private static Object readString(BinaryBuffer buffer, int fieldLength) {
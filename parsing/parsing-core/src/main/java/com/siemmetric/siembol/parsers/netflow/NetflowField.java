@@ -9,6 +9,7 @@ import java.util.Objects;
  * An object for representing a netflow field
  *
  * <p>This class represents netflow field used by a netflow parser.
+ * It supports IPFIX enterprise fields, variable-length fields and scope fields of netflow v9 options templates.
  *
  * @author Marian Novotny
  *
@@ -18,20 +19,67 @@ public class NetflowField {
     private static final Logger LOG = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
 
+    private static final String ENTERPRISE_FIELD_NAME_FORMAT = "enterprise_%d_%d";
+    private static final String SCOPE_FIELD_NAME_FORMAT = "scope_%d";
+    public static final int VARIABLE_LENGTH = 0xffff;
+
     private final int type;
     private final int length;
+    private final long enterpriseNumber;
+    private final boolean scope;
 
     public NetflowField(int type, int len) {
+        this(type, len, 0, false);
+    }
+
+    public NetflowField(int type, int len, long enterpriseNumber) {
+        this(type, len, enterpriseNumber, false);
+    }
+
+    private NetflowField(int type, int len, long enterpriseNumber, boolean scope) {
         this.type = type;
         this.length = len;
+        this.enterpriseNumber = enterpriseNumber;
+        this.scope = scope;
+    }
+
+    /**
+     * Creates a scope field of a netflow v9 options template
+     *
+     * @param type scope field type
+     * @param len length of the field
+     * @return netflow scope field
+     */
+    public static NetflowField scopeField(int type, int len) {
+        return new NetflowField(type, len, 0, true);
     }
 
     public String getName() {
-        return NetflowFieldType.of(type).getFieldName();
+        if (enterpriseNumber != 0) {
+            return String.format(ENTERPRISE_FIELD_NAME_FORMAT, enterpriseNumber, type);
+        }
+
+        return scope
+                ? String.format(SCOPE_FIELD_NAME_FORMAT, type)
+                : NetflowFieldType.of(type).getFieldName();
+    }
+
+    public NetflowDataType getDataType() {
+        if (enterpriseNumber != 0) {
+            return NetflowDataType.OCTET_ARRAY;
+        }
+
+        return scope
+                ? NetflowDataType.INTEGER
+                : NetflowFieldType.of(type).getDataType();
+    }
+
+    public boolean isVariableLength() {
+        return length == VARIABLE_LENGTH;
     }
 
     public Object getValue(BinaryBuffer buffer) {
-        NetflowDataType dataType = NetflowFieldType.of(type).getDataType();
+        NetflowDataType dataType = getDataType();
         try {
             return dataType.read(buffer, length);
         } catch (Exception e) {
@@ -57,12 +105,15 @@ public class NetflowField {
         if (!(o instanceof NetflowField)) {
             return false;
         }
-        return this.length == ((NetflowField)o).length
-                && this.type == ((NetflowField)o).type;
+        NetflowField other = (NetflowField)o;
+        return this.length == other.length
+                && this.type == other.type
+                && this.enterpriseNumber == other.enterpriseNumber
+                && this.scope == other.scope;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(type, length);
+        return Objects.hash(type, length, enterpriseNumber, scope);
     }
 }
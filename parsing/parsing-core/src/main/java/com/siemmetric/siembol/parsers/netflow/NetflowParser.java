@@ -1,20 +1,27 @@
 package com.siemmetric.siembol.parsers.netflow;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.invoke.MethodHandles;
 import java.util.*;
+
+import static com.siemmetric.siembol.common.constants.SiembolMessageFields.ORIGINAL;
+import static com.siemmetric.siembol.common.constants.SiembolMessageFields.TIMESTAMP;
 /**
- * An object for parsing a netflow v9 message
+ * An object for parsing a netflow v9 and IPFIX message
  *
- * <p>This class implements a fault-tolerant netflow v9 parser.
+ * <p>This class implements a fault-tolerant netflow v9 and IPFIX (netflow v10) parser.
  * Parsing of fields in Netflow v9 protocol is based on the netflow template messages that
  * are identified by a device and template id.
  * Network devices are using template id field as a counter rather than as a unique id on the network and
  * collisions of template id values on a network with multiple collectors are common.
  * This way we are using NetflowTransportProvider interface to provide global id of the template in order
  * to avoid collisions.
+ * Data records are decoded by compiled templates directly into record maps.
+ * Options templates are parsed in order to decode sampling and other options data records.
+ * IPFIX enterprise fields and variable-length fields are supported.
+ * Data sets with an unknown template are buffered if supported by the transport provider and
+ * they are decoded when the template arrives.
  *
  * @author Marian Novotny
  * @see NetflowParsingResult
@@ -23,15 +30,25 @@ import java.util.*;
  */
 public class NetflowParser<T> {
     public static final int SUPPORTED_VERSION = 9;
+    public static final int IPFIX_VERSION = 10;
     public static final int TEMPLATE_FLOW_SET_ID = 0;
     public static final int OPTIONS_FLOW_SET_ID = 1;
+    public static final int IPFIX_TEMPLATE_SET_ID = 2;
+    public static final int IPFIX_OPTIONS_SET_ID = 3;
     public static final int DATA_FLOW_SET_OFFSET = 255;
     public static final int NETFLOW_HEADER_SIZE = 20;
+    public static final int IPFIX_HEADER_SIZE = 16;
+    public static final int VERSION_SIZE = 2;
     public static final int RECORD_FLOWSET_AND_LEN_SIZE = 4;
     public static final int TEMPLATE_ID_AND_FIELD_COUNT_SIZE = 4;
+    public static final int OPTIONS_TEMPLATE_ADDITIONAL_SIZE = 2;
     public static final int FIELD_TYPE_AND_LEN_SIZE = 4;
+    public static final int ENTERPRISE_NUMBER_SIZE = 4;
+    public static final int ENTERPRISE_BIT = 0x8000;
     public static final int RECORD_MAX_PADDING_SIZE = 3;
     public static final String TEMPLATE_ID = "template_id";
+    private static final int RECORD_ADDITIONAL_FIELDS = 5;
+    private static final float LOAD_FACTOR = 0.75f;
     private static final Logger LOG = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
 
@@ -59,12 +76,30 @@ public class NetflowParser<T> {
     }
 
     private NetflowHeader parseHeader(BinaryBuffer buffer) {
-        if (!buffer.hasRemaining(NETFLOW_HEADER_SIZE)) {
+        if (!buffer.hasRemaining(VERSION_SIZE)) {
             LOG.error("Insufficient buffer size for reading header");
             return null;
         }
 
         int version = buffer.readUShort();
+        if (version == IPFIX_VERSION) {
+            if (!buffer.hasRemaining(IPFIX_HEADER_SIZE - VERSION_SIZE)) {
+                LOG.error("Insufficient buffer size for reading header");
+                return null;
+            }
+
+            buffer.readUShort();
+            long timestamp = buffer.readUInt();
+            long sequence = buffer.readUInt();
+            int observationDomainId = buffer.readInt();
+            return new NetflowHeader(version, 0, 0, timestamp, sequence, observationDomainId);
+        }
+
+        if (!buffer.hasRemaining(NETFLOW_HEADER_SIZE - VERSION_SIZE)) {
+            LOG.error("Insufficient buffer size for reading header");
+            return null;
+        }
+
         int count = buffer.readUShort();
         long uptime = buffer.readUInt();
         long timestamp = buffer.readUInt();
@@ -78,14 +113,43 @@ public class NetflowParser<T> {
         return new NetflowHeader(version, count, uptime, timestamp, sequence, sourceId);
     }
 
-    private List<NetflowField> createTemplate(BinaryBuffer buffer, int fieldCount)
-    {
-        List<NetflowField> ret = new ArrayList<>();
+    private static boolean isIpfix(NetflowHeader header) {
+        return header.getVersion() == IPFIX_VERSION;
+    }
+
+    private static boolean isTemplateSet(NetflowHeader header, int flowSetId) {
+        return isIpfix(header)
+                ? flowSetId == IPFIX_TEMPLATE_SET_ID || flowSetId == IPFIX_OPTIONS_SET_ID
+                : flowSetId == TEMPLATE_FLOW_SET_ID || flowSetId == OPTIONS_FLOW_SET_ID;
+    }
+
+    private List<NetflowField> createTemplate(BinaryBuffer buffer,
+                                              int available,
+                                              int fieldCount,
+                                              int scopeFieldCount,
+                                              boolean ipfix) {
+        List<NetflowField> ret = new ArrayList<>(fieldCount);
+        int processed = 0;
 
         for (int i = 0; i < fieldCount; i++) {
+            processed += FIELD_TYPE_AND_LEN_SIZE;
+            if (processed > available) {
+                return null;
+            }
+
             int fieldType = buffer.readUShort();
             int fieldLen = buffer.readUShort();
-            ret.add(new NetflowField(fieldType, fieldLen));
+            if (ipfix && (fieldType & ENTERPRISE_BIT) != 0) {
+                processed += ENTERPRISE_NUMBER_SIZE;
+                if (processed > available) {
+                    return null;
+                }
+                ret.add(new NetflowField(fieldType & ~ENTERPRISE_BIT, fieldLen, buffer.readUInt()));
+            } else if (i < scopeFieldCount) {
+                ret.add(NetflowField.scopeField(fieldType, fieldLen));
+            } else {
+                ret.add(new NetflowField(fieldType, fieldLen));
+            }
         }
 
         return ret;
@@ -94,12 +158,17 @@ public class NetflowParser<T> {
     private boolean parseTemplates(NetflowTransportMessage<T> message,
                                    NetflowHeader header,
                                    BinaryBuffer buffer,
-                                   int length)
+                                   int length,
+                                   int flowSetId,
+                                   List<Integer> templateIds)
     {
+        boolean ipfix = isIpfix(header);
+        boolean options = flowSetId == OPTIONS_FLOW_SET_ID || flowSetId == IPFIX_OPTIONS_SET_ID;
         int processed = 0;
         while (processed < length) {
             if (length - processed < TEMPLATE_ID_AND_FIELD_COUNT_SIZE) {
-                return false;
+                //NOTE: IPFIX padding
+                return ipfix && processed > 0;
             }
 
             int templateId = buffer.readUShort();
@@ -108,14 +177,45 @@ public class NetflowParser<T> {
             }
 
             int fieldCount = buffer.readUShort();
-            processed += TEMPLATE_ID_AND_FIELD_COUNT_SIZE + fieldCount * FIELD_TYPE_AND_LEN_SIZE;
-            if (processed > length) {
+            processed += TEMPLATE_ID_AND_FIELD_COUNT_SIZE;
+            if (ipfix && fieldCount == 0) {
+                //NOTE: template withdrawal, the template is replaced when it is redefined
+                continue;
+            }
+
+            int scopeFieldCount = 0;
+            if (options) {
+                processed += OPTIONS_TEMPLATE_ADDITIONAL_SIZE;
+                if (processed > length) {
+                    return false;
+                }
+
+                int optionsValue = buffer.readUShort();
+                if (ipfix) {
+                    if (optionsValue == 0 || optionsValue > fieldCount) {
+                        return false;
+                    }
+                } else {
+                    //NOTE: netflow v9 options template specifies scope and option lengths in bytes
+                    scopeFieldCount = fieldCount / FIELD_TYPE_AND_LEN_SIZE;
+                    fieldCount = scopeFieldCount + optionsValue / FIELD_TYPE_AND_LEN_SIZE;
+                }
+            }
+
+            int offset = buffer.getBuffer().position();
+            List<NetflowField> currentTemplate = createTemplate(buffer,
+                    length - processed,
+                    fieldCount,
+                    scopeFieldCount,
+                    ipfix);
+            if (currentTemplate == null) {
                 return false;
             }
 
-            List<NetflowField> currentTemplate = createTemplate(buffer, fieldCount);
+            processed += buffer.getBuffer().position() - offset;
             transportProvider.updateTemplate(message, header, templateId, currentTemplate);
-            if (length - processed <= RECORD_MAX_PADDING_SIZE ){
+            templateIds.add(templateId);
+            if (!ipfix && length - processed <= RECORD_MAX_PADDING_SIZE) {
                 //NOTE: padding
                 break;
             }
@@ -124,30 +224,35 @@ public class NetflowParser<T> {
         return processed > 0;
     }
 
-    private List<List<Pair<String, Object>>> getDataFields(int templateId,
-                                                           BinaryBuffer buffer,
-                                                           int length,
-                                                           List<NetflowField> template) {
+    private List<Map<String, Object>> getDataFields(BinaryBuffer buffer,
+                                                    int length,
+                                                    NetflowTemplate template,
+                                                    boolean ipfix) {
+        int recordLength = template.getRecordLength();
+        if (recordLength == 0) {
+            return null;
+        }
 
-        List<List<Pair<String, Object>>> ret = new ArrayList<>();
+        List<Map<String, Object>> ret = new ArrayList<>(length / recordLength);
+        int recordCapacity = (int)((template.getFieldsCount() + RECORD_ADDITIONAL_FIELDS) / LOAD_FACTOR) + 1;
         int processed = 0;
 
         while (processed < length) {
-            List<Pair<String, Object>> record = new ArrayList<>();
-            record.add(Pair.of(TEMPLATE_ID, String.valueOf(templateId)));
-            for (NetflowField field : template) {
-                processed += field.getLength();
-                if (processed > length) {
-                    return null;
-                }
-
-                String fieldName = field.getName();
-                Object fieldValue = field.getValue(buffer);
+            if (ipfix && length - processed < recordLength) {
+                //NOTE: IPFIX padding
+                break;
+            }
 
-                record.add(Pair.of(fieldName, fieldValue));
+            Map<String, Object> record = new HashMap<>(recordCapacity);
+            record.put(TEMPLATE_ID, template.getTemplateIdValue());
+            int recordSize = template.decodeRecord(buffer, length - processed, record);
+            if (recordSize < 0) {
+                return null;
             }
+
+            processed += recordSize;
             ret.add(record);
-            if (length - processed <= RECORD_MAX_PADDING_SIZE) {
+            if (!ipfix && length - processed <= RECORD_MAX_PADDING_SIZE) {
                 //NOTE: padding
                 break;
             }
@@ -155,6 +260,46 @@ public class NetflowParser<T> {
         return ret;
     }
 
+    private void decodeBufferedDataSets(NetflowTransportMessage<T> transportMessage,
+                                        NetflowHeader header,
+                                        List<Integer> templateIds,
+                                        List<Map<String, Object>> dataFlowSet) {
+        for (Integer templateId : templateIds) {
+            List<NetflowBufferedDataSet> dataSets = transportProvider.takeBufferedDataSets(
+                    transportMessage, header, templateId);
+            if (dataSets.isEmpty()) {
+                continue;
+            }
+
+            Optional<NetflowTemplate> template = transportProvider.getTemplate(transportMessage, header, templateId);
+            if (!template.isPresent()) {
+                continue;
+            }
+
+            int decodedRecords = 0;
+            for (NetflowBufferedDataSet dataSet : dataSets) {
+                List<Map<String, Object>> records = getDataFields(new BinaryBuffer(dataSet.getData()),
+                        dataSet.getData().length,
+                        template.get(),
+                        isIpfix(header));
+                if (records == null) {
+                    LOG.error(String.format("Unable to decode buffered data set of template %d for source: %s",
+                            templateId, transportMessage.getGlobalSource()));
+                    continue;
+                }
+
+                //NOTE: the records are decoded from the message that contained the data set, not the template
+                for (Map<String, Object> record : records) {
+                    record.put(TIMESTAMP.toString(), dataSet.getTimestamp());
+                    record.put(ORIGINAL.toString(), dataSet.getOriginalString());
+                }
+                decodedRecords += records.size();
+                dataFlowSet.addAll(records);
+            }
+            transportProvider.decodedBufferedRecords(decodedRecords);
+        }
+    }
+
     private NetflowParsingResult parse(NetflowTransportMessage<T> transportMessage) {
         BinaryBuffer buffer = transportMessage.getNetflowPayload();
 
@@ -164,9 +309,11 @@ public class NetflowParser<T> {
                     transportMessage);
         }
 
-        List<List<Pair<String, Object>>> dataFlowSet = new ArrayList<>();
+        boolean ipfix = isIpfix(header);
+        List<Map<String, Object>> dataFlowSet = new ArrayList<>();
+        List<Integer> templateIds = new ArrayList<>();
         int processedRecords = 0;
-        while (processedRecords < header.getCount() && buffer.hasRemaining())
+        while ((ipfix || processedRecords < header.getCount()) && buffer.hasRemaining())
         {
             if (!buffer.hasRemaining(RECORD_FLOWSET_AND_LEN_SIZE)) {
                 return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_ERROR,
@@ -184,53 +331,66 @@ public class NetflowParser<T> {
                         header);
             }
 
-            switch (flowSetId) {
-                case TEMPLATE_FLOW_SET_ID:
-                    if (!parseTemplates(transportMessage,
-                            header,
-                            buffer,
-                            length - RECORD_FLOWSET_AND_LEN_SIZE)) {
-                        return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_TEMPLATE_ERROR,
-                                transportMessage,
-                                header);
-                    }
-                    processedRecords++;
-                    break;
-                case OPTIONS_FLOW_SET_ID:
-                    processedRecords++;
-                    break;
-                default:
-                    if (flowSetId < DATA_FLOW_SET_OFFSET){
-                        return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_ERROR,
-                                transportMessage,
-                                header);
-                    }
-                    Optional<List<NetflowField>> template = transportProvider.getTemplate(
+            if (isTemplateSet(header, flowSetId)) {
+                if (!parseTemplates(transportMessage,
+                        header,
+                        buffer,
+                        length - RECORD_FLOWSET_AND_LEN_SIZE,
+                        flowSetId,
+                        templateIds)) {
+                    return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_TEMPLATE_ERROR,
                             transportMessage,
-                            header,
-                            flowSetId);
-
-                    if (!template.isPresent()) {
-                        LOG.error(String.format("Unknown template %d for source: %s, sourceID: %d",
-                                flowSetId, transportMessage.getGlobalSource(), header.getSourceId()));
-                        return new NetflowParsingResult(NetflowParsingResult.StatusCode.UNKNOWN_TEMPLATE,
-                                transportMessage,
-                                header);
-                    }
+                            header);
+                }
+                processedRecords++;
+            } else {
+                if (flowSetId < DATA_FLOW_SET_OFFSET) {
+                    return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_ERROR,
+                            transportMessage,
+                            header);
+                }
 
-                    List<List<Pair<String, Object>>> currentData = getDataFields(flowSetId,
-                            buffer,
-                            length - RECORD_FLOWSET_AND_LEN_SIZE,
-                            template.get());
+                Optional<NetflowTemplate> template = transportProvider.getTemplate(
+                        transportMessage,
+                        header,
+                        flowSetId);
 
-                    if (currentData == null) {
-                        return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_ERROR,
-                                transportMessage,
-                                header);
+                if (!template.isPresent()) {
+                    int dataOffset = offset + RECORD_FLOWSET_AND_LEN_SIZE;
+                    NetflowBufferedDataSet dataSet = new NetflowBufferedDataSet(
+                            Arrays.copyOfRange(buffer.getBuffer().array(), dataOffset, offset + length),
+                            header.getTimestamp() * 1000,
+                            transportMessage.getOriginalString());
+                    if (transportProvider.bufferDataSet(transportMessage, header, flowSetId, dataSet)) {
+                        processedRecords++;
+                        buffer.setPosition(offset + length);
+                        continue;
                     }
+                    //NOTE: the template could be updated by another thread in the meantime
+                    template = transportProvider.getTemplate(transportMessage, header, flowSetId);
+                }
 
-                    processedRecords += currentData.size();
-                    dataFlowSet.addAll(currentData);
+                if (!template.isPresent()) {
+                    LOG.error(String.format("Unknown template %d for source: %s, sourceID: %d",
+                            flowSetId, transportMessage.getGlobalSource(), header.getSourceId()));
+                    return new NetflowParsingResult(NetflowParsingResult.StatusCode.UNKNOWN_TEMPLATE,
+                            transportMessage,
+                            header);
+                }
+
+                List<Map<String, Object>> currentData = getDataFields(buffer,
+                        length - RECORD_FLOWSET_AND_LEN_SIZE,
+                        template.get(),
+                        ipfix);
+
+                if (currentData == null) {
+                    return new NetflowParsingResult(NetflowParsingResult.StatusCode.PARSING_ERROR,
+                            transportMessage,
+                            header);
+                }
+
+                processedRecords += currentData.size();
+                dataFlowSet.addAll(currentData);
             }
 
             if (buffer.hasRemaining()) {
@@ -239,6 +399,10 @@ public class NetflowParser<T> {
             }
         }
 
+        if (!templateIds.isEmpty()) {
+            decodeBufferedDataSets(transportMessage, header, templateIds, dataFlowSet);
+        }
+
         return new NetflowParsingResult(NetflowParsingResult.StatusCode.OK,
                 transportMessage,
                 header,
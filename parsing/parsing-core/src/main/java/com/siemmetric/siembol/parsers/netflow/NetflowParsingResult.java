@@ -1,8 +1,7 @@
 package com.siemmetric.siembol.parsers.netflow;
 
-import org.apache.commons.lang3.tuple.Pair;
-
 import java.util.List;
+import java.util.Map;
 /**
  * An object for representing a netflow parsing result
  *
@@ -24,7 +23,7 @@ public class NetflowParsingResult {
     private final StatusCode code;
     private final NetflowHeader header;
     private final NetflowTransportMessage<?> transportMessage;
-    private final List<List<Pair<String, Object>>> dataFlowSet;
+    private final List<Map<String, Object>> dataFlowSet;
 
     NetflowParsingResult(StatusCode code,
                          NetflowTransportMessage<?> transportMessage) {
@@ -40,7 +39,7 @@ public class NetflowParsingResult {
     NetflowParsingResult(StatusCode code,
                          NetflowTransportMessage<?> transportMessage,
                          NetflowHeader header,
-                         List<List<Pair<String, Object>>> dataFlowSet){
+                         List<Map<String, Object>> dataFlowSet){
         this.code = code;
         this.transportMessage = transportMessage;
         this.header = header;
@@ -51,7 +50,7 @@ public class NetflowParsingResult {
         return code;
     }
 
-    public List<List<Pair<String, Object>>> getDataFlowSet(){
+    public List<Map<String, Object>> getDataFlowSet(){
         return dataFlowSet;
     }
 
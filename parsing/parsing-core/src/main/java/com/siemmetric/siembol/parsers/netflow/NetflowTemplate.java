@@ -0,0 +1,178 @@
+package com.siemmetric.siembol.parsers.netflow;
+
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.List;
+import java.util.Map;
+/**
+ * An object for representing a compiled netflow template
+ *
+ * <p>This class compiles a netflow template into a decoder program.
+ * The program consists of arrays of field names, lengths and data types that are resolved
+ * when the template is compiled.
+ * A data record is decoded by executing the program and putting the field values directly into a record map.
+ * Variable-length fields of IPFIX templates are supported.
+ *
+ * @author Marian Novotny
+ * @see NetflowField
+ * @see NetflowDataType
+ *
+ */
+public class NetflowTemplate {
+    private static final String UNKNOWN_VALUE = "unknown";
+    private static final int SHORT_VARIABLE_LENGTH_LIMIT = 255;
+    private static final Logger LOG = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+
+    private final List<NetflowField> fields;
+    private final String templateIdValue;
+    private final String[] names;
+    private final int[] lengths;
+    private final NetflowDataType[] dataTypes;
+    private final int recordLength;
+    private final boolean variableLength;
+
+    /**
+     * Creates a compiled netflow template
+     *
+     * @param templateId id of the template
+     * @param fields list of template fields
+     */
+    public NetflowTemplate(int templateId, List<NetflowField> fields) {
+        this.fields = fields;
+        this.templateIdValue = String.valueOf(templateId);
+        names = new String[fields.size()];
+        lengths = new int[fields.size()];
+        dataTypes = new NetflowDataType[fields.size()];
+
+        int length = 0;
+        boolean hasVariableLength = false;
+        for (int i = 0; i < fields.size(); i++) {
+            NetflowField field = fields.get(i);
+            names[i] = field.getName();
+            lengths[i] = field.getLength();
+            dataTypes[i] = field.getDataType();
+            if (field.isVariableLength()) {
+                hasVariableLength = true;
+                length++;
+            } else {
+                length += lengths[i];
+            }
+        }
+        recordLength = length;
+        variableLength = hasVariableLength;
+    }
+
+    /**
+     * Gets the fields of the template
+     *
+     * @return list of template fields
+     */
+    public List<NetflowField> getFields() {
+        return fields;
+    }
+
+    /**
+     * Gets the template id as a string value of a record field
+     *
+     * @return template id string
+     */
+    public String getTemplateIdValue() {
+        return templateIdValue;
+    }
+
+    /**
+     * Gets the number of fields of the template
+     *
+     * @return number of fields
+     */
+    public int getFieldsCount() {
+        return names.length;
+    }
+
+    /**
+     * Gets the length of a data record in bytes.
+     * It is the minimal length of a data record if the template contains variable-length fields.
+     *
+     * @return length of a data record
+     */
+    public int getRecordLength() {
+        return recordLength;
+    }
+
+    /**
+     * Gets information whether the template contains variable-length fields
+     *
+     * @return true if the template contains a variable-length field, otherwise false
+     */
+    public boolean hasVariableLength() {
+        return variableLength;
+    }
+
+    /**
+     * Decodes a data record from the buffer into the record map
+     *
+     * @param buffer binary buffer with the offset pointing to the start of the data record
+     * @param available number of bytes available for the data record
+     * @param record a map for putting decoded field values
+     * @return number of bytes of the decoded data record or -1 if the record exceeds the available bytes
+     */
+    public int decodeRecord(BinaryBuffer buffer, int available, Map<String, Object> record) {
+        if (recordLength > available) {
+            return -1;
+        }
+
+        if (!variableLength) {
+            for (int i = 0; i < names.length; i++) {
+                record.put(names[i], readValue(buffer, i, lengths[i]));
+            }
+            return recordLength;
+        }
+
+        int processed = 0;
+        for (int i = 0; i < names.length; i++) {
+            int length = lengths[i];
+            if (length == NetflowField.VARIABLE_LENGTH) {
+                if (processed + 1 > available) {
+                    return -1;
+                }
+                length = buffer.readUByte();
+                processed++;
+                if (length == SHORT_VARIABLE_LENGTH_LIMIT) {
+                    if (processed + 2 > available) {
+                        return -1;
+                    }
+                    length = buffer.readUShort();
+                    processed += 2;
+                }
+            }
+
+            processed += length;
+            if (processed > available) {
+                return -1;
+            }
+            record.put(names[i], readValue(buffer, i, length));
+        }
+        return processed;
+    }
+
+    private Object readValue(BinaryBuffer buffer, int index, int length) {
+        try {
+            return dataTypes[index].read(buffer, length);
+        } catch (Exception e) {
+            LOG.error(String.format("Exception during parsing field %s type: %s, len: %d, exception: %s, buffer: %s",
+                    names[index],
+                    dataTypes[index],
+                    length,
+                    ExceptionUtils.getStackTrace(e),
+                    buffer.getBase64String()));
+
+            //NOTE: we skip the field length in buffer
+            buffer.skip(length);
+            return UNKNOWN_VALUE;
+        }
+    }
+}
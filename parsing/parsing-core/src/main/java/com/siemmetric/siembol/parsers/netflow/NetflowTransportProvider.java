@@ -1,10 +1,12 @@
 package com.siemmetric.siembol.parsers.netflow;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 /**
  * An interface for providing netflow templates
  *
  * <p>This interface is used for getting and updating netflow templates which are used by the netflow parser.
+ * A provider can optionally buffer data sets that arrived before their templates.
  *
  * @author Marian Novotny
  * @see NetflowTransportMessage
@@ -28,9 +30,10 @@ public interface NetflowTransportProvider<T> {
      * @param transportMessage message with related netflow payload
      * @param header netflow header of the processed packet
      * @param templateId from netflow packet
-     * @return           template if available otherwise the Optional.empty() object
+     * @return           compiled template if available otherwise the Optional.empty() object
+     * @see NetflowTemplate
      */
-    Optional<List<NetflowField>> getTemplate(NetflowTransportMessage<T> transportMessage,
+    Optional<NetflowTemplate> getTemplate(NetflowTransportMessage<T> transportMessage,
                                              NetflowHeader header,
                                              int templateId);
 
@@ -46,4 +49,43 @@ public interface NetflowTransportProvider<T> {
                         NetflowHeader header,
                         int templateId,
                         List<NetflowField> template);
+
+    /**
+     * Buffers a data set with an unknown template until the template arrives.
+     * The data set is not buffered by default.
+     *
+     * @param transportMessage message with related netflow packet
+     * @param header netflow header of the processed packet
+     * @param templateId template id of the data set
+     * @param dataSet buffered data set
+     * @return true if the data set has been buffered, otherwise false
+     */
+    default boolean bufferDataSet(NetflowTransportMessage<T> transportMessage,
+                                  NetflowHeader header,
+                                  int templateId,
+                                  NetflowBufferedDataSet dataSet) {
+        return false;
+    }
+
+    /**
+     * Removes and returns buffered data sets of the template that have not expired
+     *
+     * @param transportMessage message with related netflow packet
+     * @param header netflow header of the processed packet
+     * @param templateId template id of the data sets
+     * @return list of buffered data sets
+     */
+    default List<NetflowBufferedDataSet> takeBufferedDataSets(NetflowTransportMessage<T> transportMessage,
+                                                              NetflowHeader header,
+                                                              int templateId) {
+        return Collections.emptyList();
+    }
+
+    /**
+     * Notifies the provider about data records decoded from buffered data sets
+     *
+     * @param count number of decoded data records
+     */
+    default void decodedBufferedRecords(int count) {
+    }
 }
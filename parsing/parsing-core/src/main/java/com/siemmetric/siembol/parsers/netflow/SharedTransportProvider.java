@@ -0,0 +1,352 @@
+package com.siemmetric.siembol.parsers.netflow;
+
+import com.siemmetric.siembol.common.metrics.SiembolCounter;
+import com.siemmetric.siembol.common.metrics.SiembolMetrics;
+import com.siemmetric.siembol.common.metrics.SiembolMetricsRegistrar;
+import com.siemmetric.siembol.common.utils.TimeProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+/**
+ * An object for providing netflow templates shared by parser threads
+ *
+ * <p>This class is implementing NetflowTransportProvider interface.
+ * It uses concurrent maps for storing and obtaining compiled templates, and it can be shared
+ * by all netflow parsers in a worker. The templates received by one parser thread are used by other threads.
+ * Templates that have not been updated for the template timeout expire.
+ * Data sets that arrived before their template are buffered for a bounded time and up to a bounded count.
+ * The buffered data sets are decoded by the parser that receives the template.
+ * Expired templates and data sets are removed lazily when updating templates, buffering or taking data sets.
+ * It uses NetflowMessageWithSource implementation.
+ *
+ * @author Marian Novotny
+ * @see NetflowTransportProvider
+ * @see NetflowMessageWithSource
+ * @see NetflowTemplate
+ * @see NetflowBufferedDataSet
+ *
+ */
+public class SharedTransportProvider implements NetflowTransportProvider<String> {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(MethodHandles.lookup().lookupClass());
+    private static final String WRONG_ARGUMENTS_MSG =
+            "Maximum buffered data sets, buffer timeout and template timeout should be positive";
+    public static final int DEFAULT_MAX_BUFFERED_DATA_SETS = 10000;
+    public static final long DEFAULT_BUFFER_TIMEOUT_MS = 60000L;
+    public static final long DEFAULT_TEMPLATE_TIMEOUT_MS = 3600000L;
+    private static final SharedTransportProvider SHARED_INSTANCE = new SharedTransportProvider();
+
+    private static class StoredTemplate {
+        private final NetflowTemplate template;
+        private volatile long updateTime;
+
+        StoredTemplate(NetflowTemplate template, long updateTime) {
+            this.template = template;
+            this.updateTime = updateTime;
+        }
+    }
+
+    private static class StoredDataSet {
+        private final NetflowBufferedDataSet dataSet;
+        private final long bufferedTime;
+
+        StoredDataSet(NetflowBufferedDataSet dataSet, long bufferedTime) {
+            this.dataSet = dataSet;
+            this.bufferedTime = bufferedTime;
+        }
+    }
+
+    private final Map<String, Map<Long, StoredTemplate>> templates = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, List<StoredDataSet>>> bufferedDataSets = new ConcurrentHashMap<>();
+    private final AtomicInteger bufferedCount = new AtomicInteger();
+    private final int maxBufferedDataSets;
+    private final long bufferTimeoutMs;
+    private final long templateTimeoutMs;
+    private final TimeProvider timeProvider;
+    private volatile long lastCleanupTime;
+    private volatile long lastTemplatesCleanupTime;
+    private volatile SiembolCounter bufferedCounter;
+    private volatile SiembolCounter expiredCounter;
+    private volatile SiembolCounter decodedCounter;
+
+    /**
+     * Creates the provider
+     *
+     * @param maxBufferedDataSets maximum number of buffered data sets
+     * @param bufferTimeoutMs maximum time of buffering a data set in milliseconds
+     * @param templateTimeoutMs maximum time of keeping a template without its update in milliseconds
+     * @param timeProvider time provider for buffering data sets and expiring templates
+     */
+    public SharedTransportProvider(int maxBufferedDataSets,
+                                   long bufferTimeoutMs,
+                                   long templateTimeoutMs,
+                                   TimeProvider timeProvider) {
+        if (maxBufferedDataSets <= 0 || bufferTimeoutMs <= 0 || templateTimeoutMs <= 0) {
+            throw new IllegalArgumentException(WRONG_ARGUMENTS_MSG);
+        }
+        this.maxBufferedDataSets = maxBufferedDataSets;
+        this.bufferTimeoutMs = bufferTimeoutMs;
+        this.templateTimeoutMs = templateTimeoutMs;
+        this.timeProvider = timeProvider;
+        lastCleanupTime = timeProvider.getCurrentTimeInMs();
+        lastTemplatesCleanupTime = lastCleanupTime;
+    }
+
+    public SharedTransportProvider() {
+        this(DEFAULT_MAX_BUFFERED_DATA_SETS,
+                DEFAULT_BUFFER_TIMEOUT_MS,
+                DEFAULT_TEMPLATE_TIMEOUT_MS,
+                new TimeProvider());
+    }
+
+    /**
+     * Provides the transport provider shared in the worker
+     *
+     * @return the shared transport provider
+     */
+    public static SharedTransportProvider getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    /**
+     * Registers counters of buffered, expired and decoded data using a metrics registrar.
+     * The counters are registered only once since the provider is shared by all parsers in the worker.
+     *
+     * @param metricsRegistrar thread safe metrics registrar
+     * @return true if the counters have been registered, false if they had been already registered
+     */
+    public synchronized boolean registerMetrics(SiembolMetricsRegistrar metricsRegistrar) {
+        if (bufferedCounter != null) {
+            return false;
+        }
+
+        expiredCounter = metricsRegistrar.registerCounter(
+                SiembolMetrics.PARSING_NETFLOW_EXPIRED_DATA_SETS.getMetricName());
+        decodedCounter = metricsRegistrar.registerCounter(
+                SiembolMetrics.PARSING_NETFLOW_DECODED_BUFFERED_RECORDS.getMetricName());
+        bufferedCounter = metricsRegistrar.registerCounter(
+                SiembolMetrics.PARSING_NETFLOW_BUFFERED_DATA_SETS.getMetricName());
+        return true;
+    }
+
+    /**
+     * Gets the number of currently buffered data sets
+     *
+     * @return number of buffered data sets
+     */
+    public int getBufferedDataSetsCount() {
+        return bufferedCount.get();
+    }
+
+    /**
+     * Gets the number of currently stored templates including expired templates that have not been removed yet
+     *
+     * @return number of stored templates
+     */
+    public int getTemplatesCount() {
+        return templates.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private static long getTemplateKey(NetflowHeader header, int templateId) {
+        return ((long)header.getSourceId() << Integer.SIZE) | Integer.toUnsignedLong(templateId);
+    }
+
+    private static void incrementCounter(SiembolCounter counter, int value) {
+        if (counter != null && value > 0) {
+            counter.increment(value);
+        }
+    }
+
+    private boolean isExpired(StoredTemplate storedTemplate, long now) {
+        return now - storedTemplate.updateTime > templateTimeoutMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public NetflowTransportMessage<String> message(String metadata, byte[] data) {
+        return new NetflowMessageWithSource(metadata, data);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<NetflowTemplate> getTemplate(NetflowTransportMessage<String> transportMessage,
+                                                 NetflowHeader header,
+                                                 int templateId) {
+        Map<Long, StoredTemplate> sourceTemplates = templates.get(transportMessage.getGlobalSource());
+        StoredTemplate storedTemplate = sourceTemplates == null
+                ? null
+                : sourceTemplates.get(getTemplateKey(header, templateId));
+        return storedTemplate == null || isExpired(storedTemplate, timeProvider.getCurrentTimeInMs())
+                ? Optional.empty()
+                : Optional.of(storedTemplate.template);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateTemplate(NetflowTransportMessage<String> transportMessage,
+                               NetflowHeader header,
+                               int templateId,
+                               List<NetflowField> template) {
+        long now = timeProvider.getCurrentTimeInMs();
+        if (now - lastTemplatesCleanupTime >= templateTimeoutMs) {
+            removeExpiredTemplates(now);
+        }
+
+        long key = getTemplateKey(header, templateId);
+        templates.compute(transportMessage.getGlobalSource(), (source, sourceTemplates) -> {
+            Map<Long, StoredTemplate> ret = sourceTemplates != null ? sourceTemplates : new ConcurrentHashMap<>();
+            StoredTemplate existing = ret.get(key);
+            if (existing != null && existing.template.getFields().equals(template)) {
+                existing.updateTime = now;
+                return ret;
+            }
+
+            if (existing == null || isExpired(existing, now)) {
+                LOG.debug(String.format("New template, source identifier: %s, source_id: %d, template_id: %d",
+                        source,
+                        header.getSourceId(),
+                        templateId));
+            } else {
+                LOG.error(String.format(
+                        "Template differs, source identifier: %s, source_id: %d, template_id: %d",
+                        source,
+                        header.getSourceId(),
+                        templateId));
+            }
+            ret.put(key, new StoredTemplate(
+                    new NetflowTemplate(templateId, Collections.unmodifiableList(template)), now));
+            return ret;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean bufferDataSet(NetflowTransportMessage<String> transportMessage,
+                                 NetflowHeader header,
+                                 int templateId,
+                                 NetflowBufferedDataSet dataSet) {
+        long now = timeProvider.getCurrentTimeInMs();
+        if (now - lastCleanupTime >= bufferTimeoutMs || bufferedCount.get() >= maxBufferedDataSets) {
+            removeExpiredDataSets(now);
+        }
+
+        if (bufferedCount.incrementAndGet() > maxBufferedDataSets) {
+            bufferedCount.decrementAndGet();
+            return false;
+        }
+
+        long key = getTemplateKey(header, templateId);
+        boolean[] buffered = new boolean[1];
+        bufferedDataSets.computeIfAbsent(transportMessage.getGlobalSource(), x -> new ConcurrentHashMap<>())
+                .compute(key, (k, v) -> {
+                    //NOTE: the template could be updated before buffering, the parser decodes the data set then
+                    if (getTemplate(transportMessage, header, templateId).isPresent()) {
+                        return v;
+                    }
+                    List<StoredDataSet> ret = v != null ? v : new ArrayList<>();
+                    ret.add(new StoredDataSet(dataSet, now));
+                    buffered[0] = true;
+                    return ret;
+                });
+
+        if (!buffered[0]) {
+            bufferedCount.decrementAndGet();
+            return false;
+        }
+
+        incrementCounter(bufferedCounter, 1);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<NetflowBufferedDataSet> takeBufferedDataSets(NetflowTransportMessage<String> transportMessage,
+                                                             NetflowHeader header,
+                                                             int templateId) {
+        Map<Long, List<StoredDataSet>> sourceDataSets = bufferedDataSets.get(
+                transportMessage.getGlobalSource());
+        if (sourceDataSets == null) {
+            return Collections.emptyList();
+        }
+
+        List<StoredDataSet> dataSets = sourceDataSets.remove(getTemplateKey(header, templateId));
+        if (dataSets == null) {
+            return Collections.emptyList();
+        }
+
+        bufferedCount.addAndGet(-dataSets.size());
+        long minBufferedTime = timeProvider.getCurrentTimeInMs() - bufferTimeoutMs;
+        List<NetflowBufferedDataSet> ret = new ArrayList<>(dataSets.size());
+        for (StoredDataSet dataSet : dataSets) {
+            if (dataSet.bufferedTime >= minBufferedTime) {
+                ret.add(dataSet.dataSet);
+            }
+        }
+
+        incrementCounter(expiredCounter, dataSets.size() - ret.size());
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void decodedBufferedRecords(int count) {
+        incrementCounter(decodedCounter, count);
+    }
+
+    private void removeExpiredTemplates(long now) {
+        lastTemplatesCleanupTime = now;
+        int[] expired = new int[1];
+        for (String source : templates.keySet()) {
+            templates.computeIfPresent(source, (k, v) -> {
+                int size = v.size();
+                v.values().removeIf(x -> isExpired(x, now));
+                expired[0] += size - v.size();
+                return v.isEmpty() ? null : v;
+            });
+        }
+
+        if (expired[0] > 0) {
+            LOG.debug(String.format("Removed %d expired netflow templates", expired[0]));
+        }
+    }
+
+    private void removeExpiredDataSets(long now) {
+        lastCleanupTime = now;
+        long minBufferedTime = now - bufferTimeoutMs;
+        int expired = 0;
+        for (Map<Long, List<StoredDataSet>> sourceDataSets : bufferedDataSets.values()) {
+            for (Long key : sourceDataSets.keySet()) {
+                int[] removed = new int[1];
+                sourceDataSets.computeIfPresent(key, (k, v) -> {
+                    int size = v.size();
+                    v.removeIf(x -> x.bufferedTime < minBufferedTime);
+                    removed[0] = size - v.size();
+                    return v.isEmpty() ? null : v;
+                });
+                expired += removed[0];
+            }
+        }
+
+        if (expired > 0) {
+            bufferedCount.addAndGet(-expired);
+            LOG.debug(String.format("Removed %d expired netflow data sets", expired));
+            incrementCounter(expiredCounter, expired);
+        }
+    }
+}
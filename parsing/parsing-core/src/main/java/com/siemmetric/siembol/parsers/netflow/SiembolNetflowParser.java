@@ -1,5 +1,4 @@
 package com.siemmetric.siembol.parsers.netflow;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.siemmetric.siembol.parsers.common.SiembolParser;
@@ -13,7 +12,7 @@ import static com.siemmetric.siembol.common.constants.SiembolMessageFields.TIMES
  * An object for netflow parsing
  *
  * <p>This class is an implementation of SiembolParser interface.
- * It is used for parsing a netflow v9 messages.
+ * It is used for parsing netflow v9 and IPFIX messages.
  *
  * It evaluates chain of extractors and transformations if registered.
  * @author  Marian Novotny
@@ -70,15 +69,16 @@ public class SiembolNetflowParser implements SiembolParser {
 
             if (result.getDataFlowSet() != null) {
                 ret.ensureCapacity(result.getDataFlowSet().size());
-                for (List<Pair<String, Object>> dataFlowset : result.getDataFlowSet()) {
-                    Map<String, Object> current = new HashMap<>();
-
-                    current.put(ORIGINAL.toString(), result.getOriginalString());
-                    current.put(TIMESTAMP.toString(), result.getTimestamp());
-                    current.put(NETFLOW_SOURCE_ID, result.getSourceId());
-                    current.put(NETFLOW_GLOBAL_SOURCE, result.getGlobalSource());
-
-                    dataFlowset.forEach(item -> current.put(item.getKey(), item.getValue()));
+                String originalString = result.getOriginalString();
+                long timestamp = result.getTimestamp();
+                String sourceId = result.getSourceId();
+                String globalSource = result.getGlobalSource();
+                for (Map<String, Object> current : result.getDataFlowSet()) {
+                    //NOTE: the fields of the data record have priority over the message fields
+                    current.putIfAbsent(ORIGINAL.toString(), originalString);
+                    current.putIfAbsent(TIMESTAMP.toString(), timestamp);
+                    current.putIfAbsent(NETFLOW_SOURCE_ID, sourceId);
+                    current.putIfAbsent(NETFLOW_GLOBAL_SOURCE, globalSource);
                     ret.add(current);
                 }
             }
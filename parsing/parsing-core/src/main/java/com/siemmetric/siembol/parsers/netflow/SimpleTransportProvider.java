@@ -9,21 +9,27 @@ import java.util.*;
  * An object for providing netflow templates
  *
  * <p>This class is implementing NetflowTransportProvider interface.
- * It uses an in-memory map for storing and obtaining templates.
+ * It uses an in-memory map for storing and obtaining compiled templates.
+ * The templates of a global source are stored in a map with a primitive key composed from
+ * the source id and the template id, so no key string is formatted for a data flow set.
  * It uses NetflowMessageWithSource implementation.
  * This map is not synchronised since it is not shared between threads in the storm integration.
  *
  * @author Marian Novotny
  * @see NetflowTransportProvider
  * @see NetflowMessageWithSource
+ * @see NetflowTemplate
  *
  */
 public class SimpleTransportProvider implements NetflowTransportProvider<String> {
     private static final Logger LOG = LoggerFactory
             .getLogger(MethodHandles.lookup().lookupClass());
 
-    private final Map<String, List<NetflowField>> templates
-            = new HashMap<>();
+    private final Map<String, Map<Long, NetflowTemplate>> templates = new HashMap<>();
+
+    private static long getTemplateKey(NetflowHeader header, int templateId) {
+        return ((long)header.getSourceId() << Integer.SIZE) | Integer.toUnsignedLong(templateId);
+    }
 
     /**
      * {@inheritDoc}
@@ -37,12 +43,13 @@ public class SimpleTransportProvider implements NetflowTransportProvider<String>
      * {@inheritDoc}
      */
     @Override
-    public Optional<List<NetflowField>> getTemplate(NetflowTransportMessage<String> transportMessage,
-                                                          NetflowHeader header,
-                                                          int templateId) {
-
-        String key = transportMessage.getGlobalTemplateId(header, templateId);
-        return Optional.ofNullable(templates.get(key));
+    public Optional<NetflowTemplate> getTemplate(NetflowTransportMessage<String> transportMessage,
+                                                 NetflowHeader header,
+                                                 int templateId) {
+        Map<Long, NetflowTemplate> sourceTemplates = templates.get(transportMessage.getGlobalSource());
+        return sourceTemplates == null
+                ? Optional.empty()
+                : Optional.ofNullable(sourceTemplates.get(getTemplateKey(header, templateId)));
     }
 
     /**
@@ -53,24 +60,26 @@ public class SimpleTransportProvider implements NetflowTransportProvider<String>
                                NetflowHeader header,
                                int templateId,
                                List<NetflowField> template) {
-        String key = transportMessage.getGlobalTemplateId(header, templateId);
-        if (!templates.containsKey(key)) {
+        Map<Long, NetflowTemplate> sourceTemplates = templates.computeIfAbsent(
+                transportMessage.getGlobalSource(), x -> new HashMap<>());
+        long key = getTemplateKey(header, templateId);
+        NetflowTemplate existing = sourceTemplates.get(key);
+        if (existing == null) {
             LOG.debug(String.format("New template, source identifier: %s, source_id: %d, template_id: %d",
                     transportMessage.getGlobalSource(),
                     header.getSourceId(),
                     templateId));
-            templates.put(key, Collections.unmodifiableList(template));
+            sourceTemplates.put(key, new NetflowTemplate(templateId, Collections.unmodifiableList(template)));
             return;
-         }
+        }
 
-         List<NetflowField> existing = templates.get(key);
-         if (!existing.equals(template)){
+        if (!existing.getFields().equals(template)) {
             LOG.error(String.format(
                     "Template differs, source identifier: %s, source_id: %d, template_id: %d",
                     transportMessage.getGlobalSource(),
                     header.getSourceId(),
                     templateId));
-            templates.put(key, Collections.unmodifiableList(template));
-         }
+            sourceTemplates.put(key, new NetflowTemplate(templateId, Collections.unmodifiableList(template)));
+        }
     }
 }
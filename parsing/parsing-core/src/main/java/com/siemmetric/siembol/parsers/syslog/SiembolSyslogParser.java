@@ -3,10 +3,12 @@ package com.siemmetric.siembol.parsers.syslog;
 import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.siemmetric.siembol.parsers.common.ParserResult;
 import com.siemmetric.siembol.parsers.common.SiembolParser;
 import com.siemmetric.siembol.common.constants.SiembolMessageFields;
 import com.siemmetric.siembol.parsers.extractors.ParserDateFormat;
 import com.siemmetric.siembol.parsers.extractors.ParserExtractor;
+import com.siemmetric.siembol.parsers.extractors.ParserExtractorPipeline;
 import com.siemmetric.siembol.parsers.transformations.Transformation;
 import com.siemmetric.siembol.parsers.transformations.TransformationsLibrary;
 import java.util.*;
@@ -21,6 +23,7 @@ import static com.siemmetric.siembol.common.constants.SiembolMessageFields.ORIGI
  * It is used for parsing a log message using RFC 3164 or RFC 5424 compliant fault-tolerant syslog parser.
  *
  * It evaluates chain of extractors and transformations if registered.
+ * The leading message filters of the transformations are evaluated in the pipeline during the extraction.
  * @author  Marian Novotny
  * @see SiembolParser
  *
@@ -45,13 +48,16 @@ public class SiembolSyslogParser implements SiembolParser {
     public static final String SYSLOG_MSG = "syslog_msg";
     public static final String SYSLOG_TIMESTAMP_STR = "syslog_timestamp";
 
-    private final List<ParserExtractor> extractors;
+    private final ParserExtractorPipeline extractorPipeline;
     private final List<Transformation> transformations;
     private final SyslogParser parser;
     private final EnumSet<Flags> flags;
 
     private SiembolSyslogParser(Builder builder) {
-        extractors = builder.extractors;
+        extractorPipeline = builder.extractors != null
+                ? new ParserExtractorPipeline(builder.extractors,
+                TransformationsLibrary.getLeadingFilters(builder.transformations))
+                : null;
         transformations = builder.transformations;
         parser = builder.parser;
         flags = builder.flags;
@@ -62,7 +68,14 @@ public class SiembolSyslogParser implements SiembolParser {
      */
     @Override
     public List<Map<String, Object>> parse(byte[] bytes) {
+        return parse(null, bytes, null);
+    }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Map<String, Object>> parse(String metadata, byte[] bytes, ParserResult result) {
         String originalMessage = new String(bytes, UTF_8);
         try {
             List<Map<String, Object>> ret = new ArrayList<>();
@@ -111,16 +124,16 @@ public class SiembolSyslogParser implements SiembolParser {
             }
 
             int i = 0;
+            boolean mergeSdElements = flags.contains(Flags.MERGE_SD_ELEMENTS);
             for (Pair<String, List<Pair<String, String>>> sdElement : syslogMessage.getSdElements()) {
-                Map<String, Object> currentElements = new HashMap<>();
-                sdElement.getValue().forEach(item -> currentElements.put(item.getKey(), item.getValue()));
-                if (flags.contains(Flags.MERGE_SD_ELEMENTS)) {
-                    //we merge sd elements into syslogObject that will be returned
-                    currentElements.put(String.format("%s_%d", SYSLOG_SD_ID, i++),
-                            sdElement.getKey());
-                    syslogObject.putAll(currentElements);
+                if (mergeSdElements) {
+                    //we merge sd elements directly into syslogObject that will be returned
+                    sdElement.getValue().forEach(item -> syslogObject.put(item.getKey(), item.getValue()));
+                    syslogObject.put(SYSLOG_SD_ID + "_" + i++, sdElement.getKey());
                 } else {
                     //we add syslogObject that contains header and msg into sdElements
+                    Map<String, Object> currentElements = new HashMap<>();
+                    sdElement.getValue().forEach(item -> currentElements.put(item.getKey(), item.getValue()));
                     currentElements.put(SYSLOG_SD_ID, sdElement.getKey());
                     currentElements.putAll(syslogObject);
                     ret.add(currentElements);
@@ -132,7 +145,7 @@ public class SiembolSyslogParser implements SiembolParser {
             }
 
             return ret.stream()
-                    .map(x -> extractAndTransform(x))
+                    .map(x -> extractAndTransform(x, result))
                     .filter(x -> !x.isEmpty())
                     .collect(Collectors.toList());
         } catch (Exception e) {
@@ -142,10 +155,16 @@ public class SiembolSyslogParser implements SiembolParser {
         }
     }
 
-    private Map<String, Object> extractAndTransform(Map<String, Object> message) {
+    private Map<String, Object> extractAndTransform(Map<String, Object> message, ParserResult result) {
         Map<String, Object> ret = message;
-        if (extractors != null) {
-            ret = ParserExtractor.extract(extractors, ret);
+        if (extractorPipeline != null) {
+            ret = extractorPipeline.extract(ret);
+            if (ret == ParserExtractorPipeline.FILTERED_MESSAGE) {
+                if (result != null) {
+                    result.setEarlyFilteredMessages(result.getEarlyFilteredMessages() + 1);
+                }
+                return ret;
+            }
         }
 
         if (transformations != null) {
@@ -16,6 +16,8 @@ import java.util.regex.Pattern;
  * A class with static methods for default syslog timestamp parsing
  *
  * <p>This class exposes static methods for default timestamp syslog parsing.
+ * The common timestamp formats are parsed by scanning characters without date time formatters
+ * and the formatters are used as a fallback.
  *
  * @author  Marian Novotny
  * @see SyslogParser
@@ -51,6 +53,19 @@ public class SyslogDefaultTimeFormat {
                     DateTimeFormat.forPattern(BSD_TIMESTAMP_FORMAT_2).getParser()})
             .toFormatter();
 
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+    private static final int ISO_DATE_SIZE = 19;
+    private static final int ISO_DATE_Z_SIZE = 25;
+    private static final int ISO_DATE_MS_SIZE = 26;
+    private static final int ISO_DATE_MS_Z_SIZE = 32;
+    private static final int BSD_TIMESTAMP_SIZE = 15;
+    private static final long MILLIS_IN_SECOND = 1000L;
+    private static final long MILLIS_IN_MINUTE = 60 * MILLIS_IN_SECOND;
+    private static final long MILLIS_IN_HOUR = 60 * MILLIS_IN_MINUTE;
+    private static final long MILLIS_IN_DAY = 24 * MILLIS_IN_HOUR;
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun",
+            "jul", "aug", "sep", "oct", "nov", "dec"};
+
     public static int getBsdTimestampSize() {
         return BSD_TIMESTAMP_FORMAT_1.length();
     }
@@ -59,7 +74,18 @@ public class SyslogDefaultTimeFormat {
         try {
             ZonedDateTime currentDate = ZonedDateTime.now();
             int currentYear = currentDate.getYear();
-            long timestamp = BSD_TIMESTAMP_FORMATTER
+            long timestamp = parseBsdTimestampFast(message, currentYear, dateTimeZone);
+            if (timestamp != NOT_PARSED) {
+                //NOTE: detection of using the next year assuming that we do not have a week old logs
+                if (System.currentTimeMillis() + WEEK_MILLISECONDS < timestamp) {
+                    timestamp = parseBsdTimestampFast(message, currentYear - 1, dateTimeZone);
+                }
+                if (timestamp != NOT_PARSED) {
+                    return timestamp;
+                }
+            }
+
+            timestamp = BSD_TIMESTAMP_FORMATTER
                     .withLocale(Locale.ENGLISH)
                     .withDefaultYear(currentYear)
                     .withZone(dateTimeZone)
@@ -84,6 +110,11 @@ public class SyslogDefaultTimeFormat {
     }
 
     public static long parseTimestamp(String message, DateTimeZone dateTimeZone) {
+        long timestamp = parseIsoTimestampFast(message, dateTimeZone);
+        if (timestamp != NOT_PARSED) {
+            return timestamp;
+        }
+
         DateTime dateTime;
         try {
             if (ISO_DATE_FORMAT_Z_PATTERN.matcher(message).matches()) {
@@ -105,4 +136,134 @@ public class SyslogDefaultTimeFormat {
                     String.format("unsupported syslog RFC 5424 timestamp: %s", message));
         }
     }
+
+    private static long parseIsoTimestampFast(String message, DateTimeZone dateTimeZone) {
+        int length = message.length();
+        if (length != ISO_DATE_SIZE && length != ISO_DATE_Z_SIZE
+                && length != ISO_DATE_MS_SIZE && length != ISO_DATE_MS_Z_SIZE) {
+            return NOT_PARSED;
+        }
+
+        if (message.charAt(4) != '-' || message.charAt(7) != '-' || message.charAt(10) != 'T'
+                || message.charAt(13) != ':' || message.charAt(16) != ':') {
+            return NOT_PARSED;
+        }
+
+        int year = parseDigits(message, 0, 4);
+        int month = parseDigits(message, 5, 2);
+        int day = parseDigits(message, 8, 2);
+        long localMillis = getLocalMillis(year, month, day, message, 11);
+        if (localMillis == NOT_PARSED) {
+            return NOT_PARSED;
+        }
+
+        int offset = ISO_DATE_SIZE;
+        if (length == ISO_DATE_MS_SIZE || length == ISO_DATE_MS_Z_SIZE) {
+            int millis = parseDigits(message, offset + 1, 3);
+            if (message.charAt(offset) != '.' || millis < 0 || parseDigits(message, offset + 4, 3) < 0) {
+                return NOT_PARSED;
+            }
+            localMillis += millis;
+            offset = ISO_DATE_MS_SIZE;
+        }
+
+        if (offset == length) {
+            return convertLocalToUtc(localMillis, dateTimeZone);
+        }
+
+        char sign = message.charAt(offset);
+        int offsetHours = parseDigits(message, offset + 1, 2);
+        int offsetMinutes = parseDigits(message, offset + 4, 2);
+        if ((sign != '+' && sign != '-') || message.charAt(offset + 3) != ':'
+                || offsetHours < 0 || offsetHours > 23 || offsetMinutes < 0 || offsetMinutes > 59) {
+            return NOT_PARSED;
+        }
+
+        long offsetMillis = offsetHours * MILLIS_IN_HOUR + offsetMinutes * MILLIS_IN_MINUTE;
+        return sign == '+' ? localMillis - offsetMillis : localMillis + offsetMillis;
+    }
+
+    private static long parseBsdTimestampFast(String message, int year, DateTimeZone dateTimeZone) {
+        if (message.length() != BSD_TIMESTAMP_SIZE || message.charAt(3) != ' ' || message.charAt(6) != ' '
+                || message.charAt(9) != ':' || message.charAt(12) != ':') {
+            return NOT_PARSED;
+        }
+
+        int month = 0;
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (message.regionMatches(true, 0, MONTHS[i], 0, MONTHS[i].length())) {
+                month = i + 1;
+                break;
+            }
+        }
+
+        int day = message.charAt(4) == ' '
+                ? parseDigits(message, 5, 1)
+                : parseDigits(message, 4, 2);
+        long localMillis = getLocalMillis(year, month, day, message, 7);
+        return localMillis == NOT_PARSED
+                ? NOT_PARSED
+                : convertLocalToUtc(localMillis, dateTimeZone);
+    }
+
+    private static long getLocalMillis(int year, int month, int day, String message, int timeOffset) {
+        int hour = parseDigits(message, timeOffset, 2);
+        int minute = parseDigits(message, timeOffset + 3, 2);
+        int second = parseDigits(message, timeOffset + 6, 2);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > getDaysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NOT_PARSED;
+        }
+
+        return getEpochDay(year, month, day) * MILLIS_IN_DAY
+                + hour * MILLIS_IN_HOUR + minute * MILLIS_IN_MINUTE + second * MILLIS_IN_SECOND;
+    }
+
+    private static long convertLocalToUtc(long localMillis, DateTimeZone dateTimeZone) {
+        //NOTE: the same conversion as in joda time parsing, the local time in a gap is not supported
+        DateTimeZone zone = dateTimeZone != null ? dateTimeZone : DateTimeZone.getDefault();
+        int offset = zone.getOffsetFromLocal(localMillis);
+        long millis = localMillis - offset;
+        return offset == zone.getOffset(millis) ? millis : NOT_PARSED;
+    }
+
+    private static int parseDigits(String message, int offset, int length) {
+        int ret = 0;
+        for (int i = offset; i < offset + length; i++) {
+            char current = message.charAt(i);
+            if (current < '0' || current > '9') {
+                return -1;
+            }
+            ret = ret * 10 + (current - '0');
+        }
+        return ret;
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int getDaysInMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static long getEpochDay(int year, int month, int day) {
+        //NOTE: days from the civil date in the proleptic Gregorian calendar
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
 }
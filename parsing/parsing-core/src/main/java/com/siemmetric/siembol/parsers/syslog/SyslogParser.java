@@ -7,13 +7,12 @@ import com.siemmetric.siembol.parsers.extractors.ParserDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 /**
  * An object for parsing a syslog message
  *
  * <p>This class implements a fault-tolerant syslog parser complaint with RFC 3164 and RFC 5424.
  * It parses a raw syslog message into a SyslogMessage object.
+ * The header is scanned using offsets into the message and strings are created only for the parsed fields.
  *
  * @author Marian Novotny
  * @see SyslogMessage
@@ -22,21 +21,19 @@ import java.util.regex.Pattern;
 public class SyslogParser {
     private static final String BOM_SIGNATURE = "BOM";
     private static final int MAX_PRIORITY = 255;
-    private static final int PRI_HEADER_INDEX = 0;
+    private static final int MAX_PRI_DIGITS = 3;
     private static final int TIMESTAMP_HEADER_INDEX = 1;
     private static final int HOSTNAME_HEADER_INDEX = 2;
     private static final int APPNAME_HEADER_INDEX = 3;
     private static final int PROCID_HEADER_INDEX = 4;
     private static final int MSGID_HEADER_INDEX = 5;
     private static final int OTHER_DATA_INDEX = 6;
-    private static final int SYSLOG_FIELDS_NUMBER = OTHER_DATA_INDEX + 1;
     private static final char NIL_VALUE_CHAR = '-';
     private static final char SP_VALUE_CHAR = ' ';
     private static final char LEFT_BRACKET_SD_ELEMENT = '[';
     private static final char RIGHT_BRACKET_SD_ELEMENT = ']';
-    private static final String SP_VALUE = " ";
-    private static final String PRI_REGEXP = "^<\\d{1,3}+>";
-    private static final Pattern PRI_PATTERN = Pattern.compile(PRI_REGEXP);
+    private static final char LEFT_BRACKET_PRI = '<';
+    private static final char RIGHT_BRACKET_PRI = '>';
 
     public static final int RFC_5424_VERSION = 1;
     public static final int RFC_3164_VERSION = 0;
@@ -65,18 +62,39 @@ public class SyslogParser {
         this.dateTimeZone = null;
     }
 
-    private SyslogMessage parsePri(String str, SyslogMessage message) {
-        int endOffset = str.indexOf('>');
+    private int getPriEndOffset(String str) {
+        if (str.isEmpty() || str.charAt(0) != LEFT_BRACKET_PRI) {
+            return -1;
+        }
+
+        int offset = 1;
+        while (offset < str.length() && offset <= MAX_PRI_DIGITS && isAsciiDigit(str.charAt(offset))) {
+            offset++;
+        }
+
+        return offset > 1 && offset < str.length() && str.charAt(offset) == RIGHT_BRACKET_PRI
+                ? offset
+                : -1;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private SyslogMessage parsePri(String str, int endOffset, int fieldEndOffset, SyslogMessage message) {
+        int priority = 0;
+        for (int i = 1; i < endOffset; i++) {
+            priority = priority * 10 + (str.charAt(i) - '0');
+        }
 
-        int priority = Integer.valueOf(str.substring(1, endOffset));
         if (priority > MAX_PRIORITY) {
             throw new IllegalStateException(String.format(
                     "wrong Priority value: %d", priority));
         }
-        message.setPriority(Integer.valueOf(str.substring(1, endOffset)));
+        message.setPriority(priority);
         int headerVersion = 0;
-        if (str.length() > endOffset + 1)
-            headerVersion = str.charAt(str.length() - 1) - '0';
+        if (fieldEndOffset > endOffset + 1)
+            headerVersion = str.charAt(fieldEndOffset - 1) - '0';
 
         if (headerVersion > RFC_5424_VERSION) {
             throw new IllegalStateException(String.format(
@@ -97,7 +115,7 @@ public class SyslogParser {
     private SyslogMessage parseBsdMessage(String str, int priOffset) {
         SyslogMessage message = new SyslogMessage();
         message.setHeaderVersion(RFC_3164_VERSION);
-        message = parsePri(str.substring(0, priOffset), message);
+        message = parsePri(str, priOffset - 1, priOffset, message);
 
         int hostStartOffset = priOffset + SyslogDefaultTimeFormat.getBsdTimestampSize() + 1;
         if (hostStartOffset >= str.length()
@@ -180,24 +198,28 @@ public class SyslogParser {
      * @see SyslogMessage
      */
     public SyslogMessage parse(String str) {
-        Matcher priMatcher = PRI_PATTERN.matcher(str);
-        if (!priMatcher.find()) {
+        int priEndOffset = getPriEndOffset(str);
+        if (priEndOffset == -1) {
             throw new IllegalStateException("invalid PRI header field in SYSLOG message");
         }
 
-        int offset = priMatcher.end();
+        int offset = priEndOffset + 1;
         if (!Character.isDigit(str.charAt(offset))) {
             //RFC 3164 - BSD SYSLOG TIMESTAMP starts after >
             return parseBsdMessage(str, offset);
         }
 
         SyslogMessage message = new SyslogMessage();
-        String[] syslogFields = str.split(SP_VALUE, SYSLOG_FIELDS_NUMBER);
-        if (syslogFields.length != SYSLOG_FIELDS_NUMBER) {
-            throw new IllegalStateException("wrong number of fields in SYSLOG header");
+        int[] fieldOffsets = new int[OTHER_DATA_INDEX + 1];
+        for (int i = 1; i <= OTHER_DATA_INDEX; i++) {
+            int spaceOffset = str.indexOf(SP_VALUE_CHAR, fieldOffsets[i - 1]);
+            if (spaceOffset == -1) {
+                throw new IllegalStateException("wrong number of fields in SYSLOG header");
+            }
+            fieldOffsets[i] = spaceOffset + 1;
         }
 
-        message = parsePri(syslogFields[PRI_HEADER_INDEX], message);
+        message = parsePri(str, priEndOffset, fieldOffsets[TIMESTAMP_HEADER_INDEX] - 1, message);
         if (message.getHeaderVersion() > RFC_5424_VERSION) {
             throw new IllegalStateException(
                     String.format("unsupported version of SYSLOG protocol ver: %d",
@@ -205,53 +227,49 @@ public class SyslogParser {
 
         }
 
+        String timestampStr = getHeaderField(str, fieldOffsets, TIMESTAMP_HEADER_INDEX);
         if (dateFormats != null) {
-            Optional<Long> timeStamp = ParserDateFormat.parse(
-                    dateFormats,
-                    syslogFields[TIMESTAMP_HEADER_INDEX]);
+            Optional<Long> timeStamp = ParserDateFormat.parse(dateFormats, timestampStr);
             if (!timeStamp.isPresent()) {
-                message.setTimestampStr(syslogFields[TIMESTAMP_HEADER_INDEX]);
+                message.setTimestampStr(timestampStr);
             } else {
                 message.setTimestamp(timeStamp.get());
             }
         } else {
             try {
-                message.setTimestamp(SyslogDefaultTimeFormat.parseTimestamp(
-                        syslogFields[TIMESTAMP_HEADER_INDEX],
-                        dateTimeZone));
+                message.setTimestamp(SyslogDefaultTimeFormat.parseTimestamp(timestampStr, dateTimeZone));
             } catch(Exception e) {
-                message.setTimestampStr(syslogFields[TIMESTAMP_HEADER_INDEX]);
+                message.setTimestampStr(timestampStr);
             }
         }
 
-        message.setHostname(syslogFields[HOSTNAME_HEADER_INDEX]);
-        message.setAppName(syslogFields[APPNAME_HEADER_INDEX]);
-        message.setProcId(syslogFields[PROCID_HEADER_INDEX]);
-        message.setMsgId(syslogFields[MSGID_HEADER_INDEX]);
+        message.setHostname(getHeaderField(str, fieldOffsets, HOSTNAME_HEADER_INDEX));
+        message.setAppName(getHeaderField(str, fieldOffsets, APPNAME_HEADER_INDEX));
+        message.setProcId(getHeaderField(str, fieldOffsets, PROCID_HEADER_INDEX));
+        message.setMsgId(getHeaderField(str, fieldOffsets, MSGID_HEADER_INDEX));
 
-        String data = syslogFields[OTHER_DATA_INDEX];
-        int dataOffset = 0;
-        if (data.length() == 0) {
+        int dataOffset = fieldOffsets[OTHER_DATA_INDEX];
+        if (dataOffset == str.length()) {
             throw new IllegalStateException("missing SD elements in RFC5424 SYSLOG message");
         }
 
-        if (data.charAt(dataOffset) == NIL_VALUE_CHAR) {
+        if (str.charAt(dataOffset) == NIL_VALUE_CHAR) {
             //empty SD elements
             dataOffset++;
         } else {
             boolean validSdElements = false;
-            while (dataOffset < data.length()) {
+            while (dataOffset < str.length()) {
 
-                if (data.charAt(dataOffset) != LEFT_BRACKET_SD_ELEMENT) {
+                if (str.charAt(dataOffset) != LEFT_BRACKET_SD_ELEMENT) {
                     throw new IllegalStateException("missing left bracket in a RFC5424 SYSLOG message");
                 }
-                int nextOffset = indexOfEscaped(data, RIGHT_BRACKET_SD_ELEMENT, dataOffset);
+                int nextOffset = indexOfEscaped(str, RIGHT_BRACKET_SD_ELEMENT, dataOffset);
 
-                message = parseSdElement(data.substring(dataOffset + 1, nextOffset), message);
+                message = parseSdElement(str.substring(dataOffset + 1, nextOffset), message);
                 dataOffset  = nextOffset + 1;
 
-                if (dataOffset == data.length()
-                        || data.charAt(dataOffset) == SP_VALUE_CHAR) {
+                if (dataOffset == str.length()
+                        || str.charAt(dataOffset) == SP_VALUE_CHAR) {
                     validSdElements = true;
                     break;
                 }
@@ -261,16 +279,20 @@ public class SyslogParser {
             }
         }
 
-        if (dataOffset == data.length()) {
+        if (dataOffset == str.length()) {
             //NOTE: MSG is optional
             return message;
         }
 
-        if (data.charAt(dataOffset) != SP_VALUE_CHAR) {
+        if (str.charAt(dataOffset) != SP_VALUE_CHAR) {
             throw new IllegalStateException("invalid MSG field in RFC5424 SYSLOG message");
         }
 
-        message = setMsgField(data.substring(dataOffset + 1), message);
+        message = setMsgField(str.substring(dataOffset + 1), message);
         return message;
     }
+
+    private String getHeaderField(String str, int[] fieldOffsets, int index) {
+        return str.substring(fieldOffsets[index], fieldOffsets[index + 1] - 1);
+    }
 }
@@ -0,0 +1,111 @@
+package com.siemmetric.siembol.parsers.transformations;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+/**
+ * An object for transforming field names
+ *
+ * <p>This class implements Transformation interface for renaming and deleting fields in one pass over the map.
+ * It evaluates a chain of field name functions, a function returns the new field name or null to delete the field.
+ * The results are memoised in a bounded cache keyed by the input field name
+ * since the field names usually repeat across messages.
+ *
+ * @author  Marian Novotny
+ * @see Transformation
+ * @see TransformationFactory
+ *
+ */
+public class FieldNameTransformation implements Transformation {
+    public static final int MAX_CACHE_SIZE = 10000;
+    //NOTE: the instance is compared by identity since a transformed field name can be an empty string
+    private static final String DELETED_FIELD = new String();
+
+    private final List<Function<String, String>> functions;
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Creates field name transformation
+     *
+     * @param function a function that returns the new field name or null if the field should be deleted
+     */
+    public FieldNameTransformation(Function<String, String> function) {
+        this(List.of(function));
+    }
+
+    private FieldNameTransformation(List<Function<String, String>> functions) {
+        this.functions = functions;
+    }
+
+    /**
+     * Creates field name transformation that evaluates this transformation followed by the next transformation
+     *
+     * @param next the next field name transformation
+     * @return combined field name transformation
+     */
+    public FieldNameTransformation andThen(FieldNameTransformation next) {
+        List<Function<String, String>> combined = new ArrayList<>(functions);
+        combined.addAll(next.functions);
+        return new FieldNameTransformation(combined);
+    }
+
+    private String getFieldName(String field) {
+        String ret = cache.get(field);
+        if (ret != null) {
+            return ret;
+        }
+
+        ret = field;
+        for (Function<String, String> function : functions) {
+            ret = function.apply(ret);
+            if (ret == null) {
+                ret = DELETED_FIELD;
+                break;
+            }
+        }
+
+        if (cache.size() < MAX_CACHE_SIZE) {
+            cache.put(field, ret);
+        }
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Object> apply(Map<String, Object> log) {
+        List<String> deleted = null;
+        List<Pair<String, String>> renamed = null;
+        for (String field : log.keySet()) {
+            String fieldName = getFieldName(field);
+            if (fieldName == DELETED_FIELD) {
+                deleted = deleted != null ? deleted : new ArrayList<>();
+                deleted.add(field);
+            } else if (!field.equals(fieldName)) {
+                renamed = renamed != null ? renamed : new ArrayList<>();
+                renamed.add(Pair.of(field, fieldName));
+            }
+        }
+
+        if (deleted != null) {
+            deleted.forEach(log::remove);
+        }
+
+        if (renamed != null) {
+            //NOTE: all renamed fields are removed first, since a target can be a source of another rename
+            List<Object> values = new ArrayList<>(renamed.size());
+            for (Pair<String, String> rename : renamed) {
+                values.add(log.remove(rename.getLeft()));
+            }
+            for (int i = 0; i < renamed.size(); i++) {
+                log.put(renamed.get(i).getRight(), values.get(i));
+            }
+        }
+        return log;
+    }
+}
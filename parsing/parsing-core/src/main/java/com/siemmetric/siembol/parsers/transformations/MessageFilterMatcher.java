@@ -32,6 +32,10 @@ public class MessageFilterMatcher {
         this.flags = flags;
     }
 
+    public String getFieldName() {
+        return fieldName;
+    }
+
     public boolean match(Map<String, Object> map) {
         Object value = map.get(fieldName);
         boolean matched = (value != null) ? pattern.matcher(value.toString()).matches() : false;
@@ -0,0 +1,60 @@
+package com.siemmetric.siembol.parsers.transformations;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+/**
+ * An object for filtering messages
+ *
+ * <p>This class implements Transformation interface for filtering a message.
+ * The message is filtered if all matchers match the message.
+ * It provides the names of the fields used by the matchers
+ * in order to evaluate the filter before the full extraction of the message.
+ *
+ * @author  Marian Novotny
+ * @see Transformation
+ * @see MessageFilterMatcher
+ *
+ */
+public class MessageFilterTransformation implements Transformation {
+    private final List<MessageFilterMatcher> matchers;
+    private final Set<String> fieldNames = new HashSet<>();
+
+    public MessageFilterTransformation(List<MessageFilterMatcher> matchers) {
+        this.matchers = matchers;
+        matchers.forEach(x -> fieldNames.add(x.getFieldName()));
+    }
+
+    /**
+     * Gets the names of the fields used by the matchers
+     *
+     * @return set of field names
+     */
+    public Set<String> getFieldNames() {
+        return fieldNames;
+    }
+
+    /**
+     * Evaluates whether the message should be filtered
+     *
+     * @param message message to be evaluated
+     * @return true if all matchers match the message, otherwise false
+     */
+    public boolean shouldFilter(Map<String, Object> message) {
+        for (MessageFilterMatcher matcher : matchers) {
+            if (!matcher.match(message)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Object> apply(Map<String, Object> log) {
+        return TransformationsLibrary.filterMassage(log, matchers);
+    }
+}
@@ -72,6 +72,35 @@ public class TransformationFactory {
         throw new IllegalArgumentException(UNKNOWN_TRANSFORMATION_TYPE);
     }
 
+    /**
+     * Creates transformation instances from a list of specifications
+     *
+     * <p>Consecutive transformations of field names are combined into one transformation
+     * that renames and deletes the fields in one pass over the map.
+     *
+     * @param specifications a list of data transform objects that specify the transformations
+     * @return list of Transformation instances
+     * @throws IllegalArgumentException when a specification is not valid and
+     *         is not possible to create a transformation.
+     * @see FieldNameTransformation
+     */
+    public List<Transformation> createTransformations(List<TransformationDto> specifications) {
+        List<Transformation> ret = new ArrayList<>();
+        for (TransformationDto specification : specifications) {
+            Transformation current = create(specification);
+            int last = ret.size() - 1;
+            if (last >= 0
+                    && current instanceof FieldNameTransformation
+                    && ret.get(last) instanceof FieldNameTransformation) {
+                ret.set(last, ((FieldNameTransformation) ret.get(last))
+                        .andThen((FieldNameTransformation) current));
+            } else {
+                ret.add(current);
+            }
+        }
+        return ret;
+    }
+
     private Transformation createStringReplaceTransformation(TransformationAttributesDto attributes,
                                                              TransformationTypeDto type) {
         if (attributes == null
@@ -82,13 +111,10 @@ public class TransformationFactory {
         final String target = attributes.getStringReplaceTarget();
         final String replacement = attributes.getStringReplaceReplacement();
 
-        if (type == TransformationTypeDto.FIELD_NAME_STRING_REPLACE) {
-            return x -> TransformationsLibrary.fieldTransformation(x,
-                    y -> y.replaceFirst(target, replacement));
-        } else {
-            return x -> TransformationsLibrary.fieldTransformation(x,
-                    y -> y.replaceAll(target, replacement));
-        }
+        final Pattern pattern = Pattern.compile(target);
+        return type == TransformationTypeDto.FIELD_NAME_STRING_REPLACE
+                ? new FieldNameTransformation(x -> pattern.matcher(x).replaceFirst(replacement))
+                : new FieldNameTransformation(x -> pattern.matcher(x).replaceAll(replacement));
     }
 
     private Transformation createRenameFieldTransformation(TransformationAttributesDto attributes) {
@@ -99,7 +125,7 @@ public class TransformationFactory {
         final Map<String, String> renameMap = attributes.getFieldRenameMap().stream()
                 .collect(Collectors.toMap(x -> x.getFieldToRename(), x -> x.getNewName()));
 
-        return x -> TransformationsLibrary.fieldTransformation(x, y -> renameMap.getOrDefault(y, y));
+        return new FieldNameTransformation(x -> renameMap.getOrDefault(x, x));
     }
 
     private Transformation createCaseFieldTransformation(TransformationAttributesDto attributes) {
@@ -111,7 +137,7 @@ public class TransformationFactory {
                 ? x -> x.toLowerCase()
                 : x -> x.toUpperCase();
 
-        return x -> TransformationsLibrary.fieldTransformation(x, fun);
+        return new FieldNameTransformation(fun);
     }
 
     private Transformation createDeleteFieldsTransformation(TransformationAttributesDto attributes) {
@@ -121,7 +147,7 @@ public class TransformationFactory {
         final PatternFilter patternFilter = PatternFilter.create(
                 attributes.getFieldsFilter().getIncludingFields(),
                 attributes.getFieldsFilter().getExcludingFields());
-        return x -> TransformationsLibrary.removeFields(x, patternFilter);
+        return new FieldNameTransformation(x -> patternFilter.match(x) ? null : x);
     }
 
     private Transformation createValueTransformation(TransformationAttributesDto attributes,
@@ -152,6 +178,6 @@ public class TransformationFactory {
                                 : EnumSet.noneOf(MessageFilterMatcher.Flags.class)))
                 .collect(Collectors.toCollection(ArrayList::new));
 
-        return x -> TransformationsLibrary.filterMassage(x, matchers);
+        return new MessageFilterTransformation(matchers);
     }
 }
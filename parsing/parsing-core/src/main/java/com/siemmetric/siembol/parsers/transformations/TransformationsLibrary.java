@@ -1,9 +1,7 @@
 package com.siemmetric.siembol.parsers.transformations;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.tuple.Pair;
 import com.siemmetric.siembol.common.utils.FieldFilter;
-import com.siemmetric.siembol.common.utils.PatternFilter;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -21,25 +19,6 @@ import java.util.function.Function;
  *
  */
 public class TransformationsLibrary {
-    public static Map<String, Object> fieldTransformation(Map<String, Object> log,
-                                                          Function<String, String> fun) {
-        List<Pair<String, String>> changed = new ArrayList<>();
-        for (String field : log.keySet()) {
-            String changedField = fun.apply(field);
-            if (!field.equals(changedField)) {
-                changed.add(Pair.of(field, changedField));
-            }
-        }
-
-        for (Pair<String, String> replace : changed) {
-            Object value = log.get(replace.getLeft());
-            log.remove(replace.getLeft());
-            log.put(replace.getRight(), value);
-        }
-
-        return log;
-    }
-
     public static Map<String, Object> valueTransformation(Map<String, Object> log,
                                                           Function<Object, Object> fun,
                                                           FieldFilter filter) {
@@ -86,11 +65,6 @@ public class TransformationsLibrary {
         return ((String) obj).toUpperCase();
     }
 
-    public static Map<String, Object> removeFields(Map<String, Object> log, PatternFilter filter) {
-        log.keySet().removeIf(x -> filter.match(x));
-        return log;
-    }
-
     public static Map<String, Object> filterMassage(Map<String, Object> log, List<MessageFilterMatcher> matchers) {
         for (MessageFilterMatcher matcher : matchers) {
             if (!matcher.match(log)) {
@@ -101,6 +75,21 @@ public class TransformationsLibrary {
         return new HashMap<>();
     }
 
+    public static List<MessageFilterTransformation> getLeadingFilters(List<Transformation> transformations) {
+        List<MessageFilterTransformation> ret = new ArrayList<>();
+        if (transformations == null) {
+            return ret;
+        }
+
+        for (Transformation transformation : transformations) {
+            if (!(transformation instanceof MessageFilterTransformation)) {
+                break;
+            }
+            ret.add((MessageFilterTransformation) transformation);
+        }
+        return ret;
+    }
+
     public static Map<String, Object> transform(List<Transformation> transformations, Map<String, Object> map) {
         Map<String, Object> current = map;
         for (Transformation transformation : transformations) {
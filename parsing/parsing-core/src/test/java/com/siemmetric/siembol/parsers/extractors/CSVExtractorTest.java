@@ -356,4 +356,79 @@ public class CSVExtractorTest {
                 Arrays.asList("c1", "c1"),
                 new  AbstractMap.SimpleEntry<> (1, null)));
     }
+
+    @Test
+    public void testFilterSelectsColumnNames() {
+        columnNamesList.add(new ColumnNames(
+                Arrays.asList("type", "_", "traffic_src"),
+                new AbstractMap.SimpleEntry<>(0, "TRAFFIC")));
+        columnNamesList.add(new ColumnNames(
+                Arrays.asList("type", "threat_src", "_"),
+                new AbstractMap.SimpleEntry<>(0, "THREAT")));
+        columnNamesList.add(new ColumnNames(
+                Arrays.asList("type", "other", "other2")));
+        CSVExtractor extractor = CSVExtractor.builder()
+                .columnNames(columnNamesList)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract("THREAT,1.2.3.4,skipped");
+        Assert.assertEquals(2, out.size());
+        Assert.assertEquals("THREAT", out.get("type"));
+        Assert.assertEquals("1.2.3.4", out.get("threat_src"));
+
+        out = extractor.extract("TRAFFIC,skipped,1.2.3.4");
+        Assert.assertEquals(2, out.size());
+        Assert.assertEquals("1.2.3.4", out.get("traffic_src"));
+
+        out = extractor.extract("SYSTEM,a,b");
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("b", out.get("other2"));
+    }
+
+    @Test
+    public void testManyColumns() {
+        List<String> names = new ArrayList<>();
+        StringBuilder message = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            names.add("c" + i);
+            message.append(i > 0 ? "||" : "").append(i);
+        }
+        columnNamesList.add(new ColumnNames(names));
+        CSVExtractor extractor = CSVExtractor.builder()
+                .columnNames(columnNamesList)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(message.toString().replace("||", ","));
+        Assert.assertEquals(200, out.size());
+        Assert.assertEquals("0", out.get("c0"));
+        Assert.assertEquals("199", out.get("c199"));
+
+        extractor = CSVExtractor.builder()
+                .wordDelimiter("||")
+                .columnNames(columnNamesList)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+        out = extractor.extract(message.toString());
+        Assert.assertEquals(200, out.size());
+        Assert.assertEquals("150", out.get("c150"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyWordDelimiter() {
+        columnNamesList.add(new ColumnNames(Arrays.asList("c1", "c2")));
+        CSVExtractor.builder()
+                .wordDelimiter("")
+                .columnNames(columnNamesList)
+                .name(name)
+                .field(field)
+                .build();
+    }
 }
@@ -2,7 +2,9 @@ package com.siemmetric.siembol.parsers.extractors;
 
 import org.junit.Assert;
 import org.junit.Test;
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 
 public class JsonExtractorTest {
@@ -84,4 +86,115 @@ public class JsonExtractorTest {
         Assert.assertEquals(1, out.get("key2:nested1:0:order"));
         Assert.assertEquals(2, out.get("key2:nested1:1:order"));
     }
+
+    private final String auditJson = """
+       {"user":"john", "request": {"method":"GET", "body": {"a": [1, 2]}}, "response": {"code": 200, "body": {"b": "c"}}}
+     """;
+
+    @Test
+    public void testIncludePrefixes() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .nestedSeparator(":")
+                .pathPrefix("audit")
+                .includePrefixes(Arrays.asList("user", "request:body", "response:code"))
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(auditJson.trim());
+        Assert.assertEquals(4, out.size());
+        Assert.assertEquals("john", out.get("audit:user"));
+        Assert.assertEquals(1, out.get("audit:request:body:a:0"));
+        Assert.assertEquals(2, out.get("audit:request:body:a:1"));
+        Assert.assertEquals(200, out.get("audit:response:code"));
+    }
+
+    @Test
+    public void testExcludePrefixes() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .nestedSeparator(":")
+                .excludePrefixes(Arrays.asList("request:body", "response:body", "use"))
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(auditJson.trim());
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("john", out.get("user"));
+        Assert.assertEquals("GET", out.get("request:method"));
+        Assert.assertEquals(200, out.get("response:code"));
+    }
+
+    @Test
+    public void testExcludePrefixesRawSubtrees() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .nestedSeparator(":")
+                .includePrefixes(List.of("request"))
+                .excludePrefixes(List.of("request:body"))
+                .keepRawSubtrees(true)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(auditJson.trim());
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("GET", out.get("request:method"));
+        Assert.assertEquals("{\"a\": [1, 2]}", out.get("request:body"));
+        Assert.assertEquals("{\"code\": 200, \"body\": {\"b\": \"c\"}}", out.get("response"));
+    }
+
+    @Test
+    public void testMaxDepth() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .nestedSeparator(":")
+                .maxDepth(2)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(auditJson.trim());
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("john", out.get("user"));
+        Assert.assertEquals("GET", out.get("request:method"));
+        Assert.assertEquals(200, out.get("response:code"));
+    }
+
+    @Test
+    public void testMaxDepthRawSubtrees() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .nestedSeparator(":")
+                .maxDepth(1)
+                .keepRawSubtrees(true)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Map<String, Object> out = extractor.extract(auditJson.trim());
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("john", out.get("user"));
+        Assert.assertEquals("{\"method\":\"GET\", \"body\": {\"a\": [1, 2]}}", out.get("request"));
+        Assert.assertEquals("{\"code\": 200, \"body\": {\"b\": \"c\"}}", out.get("response"));
+    }
+
+    @Test
+    public void testNotJsonObject() {
+        JsonExtractor extractor = JsonExtractor.builder()
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        Assert.assertTrue(extractor.extract("[1, 2]").isEmpty());
+        Assert.assertTrue(extractor.extract("{\"a\": 1").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongMaxDepth() {
+        JsonExtractor.builder().maxDepth(0);
+    }
 }
@@ -4,8 +4,11 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public class JsonPathExtractorTest {
     private final String name = "test_name";
@@ -259,4 +262,97 @@ public class JsonPathExtractorTest {
                 .field(field)
                 .build();
     }
+
+    @Test
+    public void compileSimplePaths() {
+        Assert.assertEquals(Optional.of(Arrays.asList("products", "table", "price")),
+                JsonPathStreamingReader.compilePath("$.products.table.price"));
+        Assert.assertEquals(Optional.of(Arrays.asList("products", "table.x")),
+                JsonPathStreamingReader.compilePath("$['products'][\"table.x\"]"));
+        Assert.assertEquals(Optional.of(Arrays.asList("products", "table")),
+                JsonPathStreamingReader.compilePath("['products'].table"));
+        Assert.assertEquals(Optional.of(List.of("dummy")), JsonPathStreamingReader.compilePath("dummy"));
+        Assert.assertFalse(JsonPathStreamingReader.compilePath("$").isPresent());
+        Assert.assertFalse(JsonPathStreamingReader.compilePath("$..books").isPresent());
+        Assert.assertFalse(JsonPathStreamingReader.compilePath("$.products.books[*].title").isPresent());
+        Assert.assertFalse(JsonPathStreamingReader.compilePath("$.products.books[0]").isPresent());
+        Assert.assertFalse(JsonPathStreamingReader.compilePath("$['products','version']").isPresent());
+        Assert.assertFalse(JsonPathStreamingReader.compilePath("$.products.books.length()").isPresent());
+    }
+
+    @Test
+    public void extractingSimpleQueriesSameAsJsonTree() {
+        String[][] queries = {
+                {"table_available", "$.products.table.available"},
+                {"table_price", "$['products']['table']['price']"},
+                {"table", "$.products.table"},
+                {"books", "$.products.books"},
+                {"version", "version"},
+                {"missing", "$.version.missing"},
+                {"list", "$.list"},
+                {"single", "$.single"},
+                {"empty", "$.empty"},
+                {"null_value", "$.null_value"},
+                {"duplicate", "$.duplicate.a"},
+                {"float", "$.float"},
+                {"long", "$.long"}
+        };
+        var streamingBuilder = JsonPathExtractor.builder();
+        var treeBuilder = JsonPathExtractor.builder();
+        for (String[] query : queries) {
+            streamingBuilder.addQuery(query[0], query[1]);
+            treeBuilder.addQuery(query[0], query[1]);
+        }
+        treeBuilder.addQuery("filter", "$..books[?(@.title =~ /unknown/i)].price");
+
+        var streamingExtractor = streamingBuilder
+                .jsonPathExtractorFlags(jsonPathExtractorFlags)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+        var treeExtractor = treeBuilder
+                .jsonPathExtractorFlags(jsonPathExtractorFlags)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+
+        String otherJson = """
+                {
+                  "version" : { "missing" : 1 },
+                  "list" : [ "a", 1, true, { "b" : [ 2 ] } ],
+                  "single" : [ "a" ],
+                  "empty" : [ ],
+                  "null_value" : null,
+                  "duplicate" : { "a" : "first" },
+                  "duplicate" : 1,
+                  "float" : 1.25,
+                  "long" : 12345678901234
+                }
+                """;
+
+        for (String json : Arrays.asList(productsJson, otherJson, "[1, 2]", "INVALID", "", "{}", "{\"a\": 1} true")) {
+            Map<String, Object> expected = treeExtractor.extract(json);
+            Map<String, Object> actual = streamingExtractor.extract(json);
+            Assert.assertEquals(expected, actual);
+        }
+
+        Map<String, Object> out = streamingExtractor.extract(productsJson);
+        Assert.assertEquals(4, out.size());
+        Assert.assertEquals(true, out.get("table_available"));
+        Assert.assertEquals(15, out.get("table_price"));
+        Assert.assertEquals(1, out.get("version"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void builderInvalidQuery() {
+        JsonPathExtractor.builder()
+                .addQuery("a", "$.products[?(@.title")
+                .jsonPathExtractorFlags(jsonPathExtractorFlags)
+                .extractorFlags(extractorFlags)
+                .name(name)
+                .field(field)
+                .build();
+    }
 }
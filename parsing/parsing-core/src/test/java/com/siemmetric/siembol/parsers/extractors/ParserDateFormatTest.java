@@ -0,0 +1,132 @@
+package com.siemmetric.siembol.parsers.extractors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+public class ParserDateFormatTest {
+    private final Random random = new Random(1);
+
+    private static Optional<Long> parseByFormatter(String format, String timeZone, String message) {
+        ZoneId zone = ZoneId.of(timeZone);
+        ZoneOffset zoneOffset = zone.getRules().getOffset(LocalDateTime.now());
+        try {
+            TemporalAccessor temporalAccessor = DateTimeFormatter.ofPattern(format).withZone(zone).parse(message);
+            ZoneOffset currentOffset = temporalAccessor.query(TemporalQueries.offset());
+            return Optional.of(LocalDateTime.from(temporalAccessor)
+                    .toInstant(currentOffset != null ? currentOffset : zoneOffset)
+                    .toEpochMilli());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
+    private void assertSameAsFormatter(String format, String timeZone, List<String> messages) {
+        ParserDateFormat dateFormat = new ParserDateFormat(format, Optional.of(timeZone), Optional.empty());
+        for (String message : messages) {
+            Assert.assertEquals(message, parseByFormatter(format, timeZone, message), dateFormat.parse(message));
+        }
+    }
+
+    private List<String> randomTimestamps(String format, int count) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format).withZone(ZoneOffset.UTC);
+        String[] ret = new String[count];
+        long time = 1600000000000L;
+        for (int i = 0; i < count; i++) {
+            time += random.nextInt(3) == 0 ? random.nextInt(100000000) : random.nextInt(200);
+            ret[i] = formatter.format(Instant.ofEpochMilli(time));
+        }
+        return Arrays.asList(ret);
+    }
+
+    @Test
+    public void fixedWidthLayoutsSameAsFormatter() {
+        for (String format : Arrays.asList("yyyy-MM-dd HH:mm:ss.SSS",
+                "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'",
+                "yyyy-MM-dd'T'HH:mm:ss.SSSSSS",
+                "yyyy/MM/dd HH:mm:ss",
+                "yyyy-MM-dd HH:mm:ss,S")) {
+            for (String timeZone : Arrays.asList("UTC", "Europe/London", "America/New_York", "+05:30")) {
+                assertSameAsFormatter(format, timeZone, randomTimestamps(format, 1000));
+            }
+        }
+    }
+
+    @Test
+    public void formatterLayoutsSameAsFormatter() {
+        for (String format : Arrays.asList("MMM dd yyyy HH:mm:ss.SSS",
+                "yyyy-MM-dd'T'HH:mm:ss.SSSXXX",
+                "dd/MMM/yyyy:HH:mm:ss")) {
+            assertSameAsFormatter(format, "Europe/London", randomTimestamps(format, 1000));
+        }
+    }
+
+    @Test
+    public void invalidTimestampsSameAsFormatter() {
+        List<String> messages = Arrays.asList("2021-02-29 10:00:00.123",
+                "2021-02-28 10:00:00.123",
+                "2021-02-28 10:00:00.12",
+                "2021-02-28 10:00:00.1234",
+                "2021-02-28 10:00:00,123",
+                "2021-04-31 10:00:00.123",
+                "2021-13-01 10:00:00.123",
+                "2021-12-01 24:00:00.000",
+                "0000-12-01 10:00:00.000",
+                "2021-12-01 10:60:00.000",
+                "2021-12-01 10:00:0a.000",
+                "2021-12-01T10:00:00.000",
+                "12021-12-01 10:00:00.000",
+                "2021-12-01 10:00:00.000",
+                ".000",
+                "");
+        assertSameAsFormatter("yyyy-MM-dd HH:mm:ss.SSS", "UTC", messages);
+    }
+
+    @Test
+    public void secondPrefixCache() {
+        ParserDateFormat dateFormat = new ParserDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        Assert.assertEquals(Optional.of(1610272800123L), dateFormat.parse("2021-01-10 10:00:00.123"));
+        Assert.assertEquals(Optional.of(1610272800999L), dateFormat.parse("2021-01-10 10:00:00.999"));
+        Assert.assertEquals(Optional.of(1610272801000L), dateFormat.parse("2021-01-10 10:00:01.000"));
+        Assert.assertEquals(Optional.empty(), dateFormat.parse("2021-01-10 10:00:01.00x"));
+    }
+
+    @Test
+    public void regexPatternChecked() {
+        ParserDateFormat dateFormat = new ParserDateFormat("yyyy-MM-dd HH:mm:ss.SSS",
+                Optional.empty(),
+                Optional.of("^2021-01-10 10:00:00\\.1.*$"));
+        Assert.assertEquals(Optional.of(1610272800123L), dateFormat.parse("2021-01-10 10:00:00.123"));
+        Assert.assertEquals(Optional.empty(), dateFormat.parse("2021-01-10 10:00:00.223"));
+    }
+
+    @Test
+    public void formatsListFirstMatchWins() {
+        List<ParserDateFormat> dateFormats = Arrays.asList(
+                new ParserDateFormat("yyyy-MM-dd HH:mm:ss.SSS"),
+                new ParserDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Optional.of("+01:00"), Optional.empty()),
+                new ParserDateFormat("dd/MM/yyyy HH:mm:ss"));
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(Optional.of(1610272800000L),
+                    ParserDateFormat.parse(dateFormats, "10/01/2021 10:00:00"));
+            Assert.assertEquals(Optional.of(1610272800123L),
+                    ParserDateFormat.parse(dateFormats, "2021-01-10 10:00:00.123"));
+            Assert.assertEquals(Optional.of(1610272801000L),
+                    ParserDateFormat.parse(dateFormats, "10/01/2021 10:00:01"));
+            Assert.assertEquals(Optional.empty(),
+                    ParserDateFormat.parse(dateFormats, "10-01-2021 10:00:01"));
+        }
+    }
+}
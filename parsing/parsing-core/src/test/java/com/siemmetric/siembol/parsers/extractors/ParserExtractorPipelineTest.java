@@ -0,0 +1,149 @@
+package com.siemmetric.siembol.parsers.extractors;
+
+import com.siemmetric.siembol.parsers.transformations.MessageFilterMatcher;
+import com.siemmetric.siembol.parsers.transformations.MessageFilterTransformation;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+public class ParserExtractorPipelineTest {
+    private final String field = "original_string";
+    private Map<String, Object> message;
+
+    @Before
+    public void setUp() {
+        message = new HashMap<>();
+        message.put(field, "a=1 b=2 c=");
+    }
+
+    private ParserExtractor createExtractor(EnumSet<ParserExtractor.ParserExtractorFlags> extractorFlags) {
+        return KeyValueExtractor.builder()
+                .keyValueExtractorFlags(EnumSet.noneOf(KeyValueExtractor.KeyValueExtractorFlags.class))
+                .extractorFlags(extractorFlags)
+                .name("test")
+                .field(field)
+                .build();
+    }
+
+    private MessageFilterTransformation createFilter(String fieldName, String pattern) {
+        return new MessageFilterTransformation(Arrays.asList(new MessageFilterMatcher(fieldName,
+                Pattern.compile(pattern),
+                EnumSet.noneOf(MessageFilterMatcher.Flags.class))));
+    }
+
+    @Test
+    public void extractDuplicates() {
+        var flags = EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class);
+        var pipeline = new ParserExtractorPipeline(Arrays.asList(createExtractor(flags), createExtractor(flags)));
+        Map<String, Object> out = pipeline.extract(message);
+        Assert.assertEquals(7, out.size());
+        Assert.assertEquals("1", out.get("a"));
+        Assert.assertEquals("2", out.get("b"));
+        Assert.assertEquals("", out.get("c"));
+        Assert.assertEquals("1", out.get("duplicate_a_1"));
+        Assert.assertEquals("2", out.get("duplicate_b_1"));
+        Assert.assertEquals("", out.get("duplicate_c_1"));
+    }
+
+    @Test
+    public void extractOverwriteRemoveSkipEmpty() {
+        var first = createExtractor(EnumSet.of(ParserExtractor.ParserExtractorFlags.SKIP_EMPTY_VALUES));
+        var second = createExtractor(EnumSet.of(ParserExtractor.ParserExtractorFlags.SHOULD_OVERWRITE_FIELDS,
+                ParserExtractor.ParserExtractorFlags.SHOULD_REMOVE_FIELD));
+        message.put(field, "a=1 b=2 c=");
+
+        var pipeline = new ParserExtractorPipeline(Arrays.asList(first, second));
+        Map<String, Object> out = pipeline.extract(message);
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("1", out.get("a"));
+        Assert.assertEquals("2", out.get("b"));
+        Assert.assertEquals("", out.get("c"));
+    }
+
+    @Test
+    public void extractManyDuplicates() {
+        message.put(field, "a=1");
+        List<ParserExtractor> extractors = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            extractors.add(createExtractor(EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class)));
+        }
+
+        var pipeline = new ParserExtractorPipeline(extractors);
+        Map<String, Object> out = pipeline.extract(message);
+        Assert.assertEquals(3, out.size());
+        Assert.assertEquals("1", out.get("a"));
+        Assert.assertEquals("1", out.get("duplicate_a_1"));
+        Assert.assertTrue(pipeline.createMessage().isEmpty());
+    }
+
+    @Test
+    public void expectedFieldsDecayAfterLargeMessage() {
+        var pipeline = new ParserExtractorPipeline(Arrays.asList(createExtractor(
+                EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class))));
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            large.append("k").append(i).append("=v ");
+        }
+
+        message.put(field, large.toString());
+        pipeline.extract(message);
+        Assert.assertEquals(1024, pipeline.getExpectedFields());
+
+        message = new HashMap<>();
+        message.put(field, large.substring(0, 200));
+        pipeline.extract(message);
+        Assert.assertTrue(pipeline.getExpectedFields() < 1024);
+
+        for (int i = 0; i < 200; i++) {
+            message = new HashMap<>();
+            message.put(field, "a=1 b=2 c=");
+            pipeline.extract(message);
+        }
+        Assert.assertEquals(16, pipeline.getExpectedFields());
+    }
+
+    @Test
+    public void earlyFilterMatched() {
+        var flags = EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class);
+        var pipeline = new ParserExtractorPipeline(Arrays.asList(createExtractor(flags), createExtractor(flags)),
+                Arrays.asList(createFilter("a", "1")));
+        Map<String, Object> out = pipeline.extract(message);
+        Assert.assertSame(ParserExtractorPipeline.FILTERED_MESSAGE, out);
+        Assert.assertFalse(message.containsKey("duplicate_a_1"));
+    }
+
+    @Test
+    public void earlyFilterNotMatched() {
+        var flags = EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class);
+        var pipeline = new ParserExtractorPipeline(Arrays.asList(createExtractor(flags), createExtractor(flags)),
+                Arrays.asList(createFilter("a", "2"), createFilter("unknown", ".*")));
+        Map<String, Object> out = pipeline.extract(message);
+        Assert.assertEquals(7, out.size());
+        Assert.assertEquals("1", out.get("duplicate_a_1"));
+    }
+
+    @Test
+    public void earlyFilterSkippedOverwrittenFields() {
+        var first = createExtractor(EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class));
+        var second = createExtractor(EnumSet.of(ParserExtractor.ParserExtractorFlags.SHOULD_OVERWRITE_FIELDS));
+        var pipeline = new ParserExtractorPipeline(Arrays.asList(first, second),
+                Arrays.asList(createFilter("a", "1")));
+        Map<String, Object> out = pipeline.extract(message);
+        Assert.assertEquals(4, out.size());
+        Assert.assertEquals("1", out.get("a"));
+    }
+
+    @Test
+    public void earlyFilterSkippedRemovedField() {
+        var first = createExtractor(EnumSet.noneOf(ParserExtractor.ParserExtractorFlags.class));
+        var second = createExtractor(EnumSet.of(ParserExtractor.ParserExtractorFlags.SHOULD_REMOVE_FIELD));
+        var pipeline = new ParserExtractorPipeline(Arrays.asList(first, second),
+                Arrays.asList(createFilter(field, ".*")));
+        Map<String, Object> out = pipeline.extract(message);
+        Assert.assertEquals(6, out.size());
+        Assert.assertFalse(out.containsKey(field));
+    }
+}
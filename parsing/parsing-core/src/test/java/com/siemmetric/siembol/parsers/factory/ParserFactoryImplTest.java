@@ -137,6 +137,19 @@ public class ParserFactoryImplTest {
         Assert.assertEquals(true, parsed.get(0).get("test field"));
     }
 
+    @Test
+    public void createJsonExtractorNullPathAttributes() {
+        ParserFactoryResult result = factory.create(simpleGenericParser.replace("\"should_overwrite_fields\": true,",
+                "\"should_overwrite_fields\": true, \"include_path_prefixes\" : null, " +
+                        "\"exclude_path_prefixes\" : null, \"keep_raw_skipped_subtrees\" : null,"));
+        Assert.assertSame(ParserFactoryResult.StatusCode.OK, result.getStatusCode());
+        Assert.assertNotNull(result.getAttributes().getSiembolParser());
+
+        List<Map<String, Object>> parsed = result.getAttributes().getSiembolParser().parse(message.getBytes());
+        Assert.assertEquals(1553712722732L, parsed.get(0).get("timestamp"));
+        Assert.assertEquals(true, parsed.get(0).get("test_field"));
+    }
+
     @Test
     public void invalidCreate() {
         ParserFactoryResult result = factory.create("INVALID");
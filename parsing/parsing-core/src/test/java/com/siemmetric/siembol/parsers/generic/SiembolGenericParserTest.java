@@ -74,6 +74,46 @@ public class SiembolGenericParserTest {
       }
      """;
 
+    private final String earlyFilteredParserConfig = """
+     {
+      "parser_attributes": {
+          "parser_type": "generic"
+       },
+       "parser_extractors" : [
+       {
+          "extractor_type": "pattern_extractor",
+          "name": "header",
+          "field": "original_string",
+          "attributes": {
+             "regular_expressions": [
+               "^msg:\\\\s(?<secret_msg>\\\\w*)\\\\s(?<body>.*)$"
+             ],
+             "should_remove_field" : false
+           }
+         },
+         {
+          "extractor_type": "key_value_extractor",
+          "name": "body",
+          "field": "body",
+          "attributes": {
+             "should_remove_field" : true
+           }
+         }],
+         "transformations" : [
+          {
+              "transformation_type": "filter_message",
+               "attributes": {
+                  "message_filter" : {
+                      "matchers" : [
+                      {
+                          "field_name" : "secret_msg",
+                          "pattern" : "secret",
+                          "negated" : false
+                    }]
+               }}}]
+      }
+     """;
+
     private final String simpleMessage = """
      msg: secret""";
 
@@ -111,4 +151,21 @@ public class SiembolGenericParserTest {
         ParserResult result = genericParser.parseToResult(null, simpleMessage.trim().getBytes());
         Assert.assertTrue(result.getParsedMessages().isEmpty());
     }
+
+    @Test
+    public void earlyFilteredMessage() {
+        genericParser = factory.create(earlyFilteredParserConfig).getAttributes().getSiembolParser();
+        ParserResult result = genericParser.parseToResult(null, "msg: secret a=1".getBytes());
+        Assert.assertNull(result.getException());
+        Assert.assertTrue(result.getParsedMessages().isEmpty());
+        Assert.assertEquals(1, result.getEarlyFilteredMessages());
+
+        result = genericParser.parseToResult(null, "msg: public a=1".getBytes());
+        Assert.assertEquals(1, result.getParsedMessages().size());
+        Assert.assertEquals(0, result.getEarlyFilteredMessages());
+        Map<String, Object> out = result.getParsedMessages().get(0);
+        Assert.assertEquals("public", out.get("secret_msg"));
+        Assert.assertEquals("1", out.get("a"));
+        Assert.assertFalse(out.containsKey("body"));
+    }
 }
@@ -0,0 +1,71 @@
+package com.siemmetric.siembol.parsers.netflow;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Random;
+
+public class NetflowDataTypeTest {
+    private final Random random = new Random(1);
+
+    private byte[] randomBytes(int size) {
+        byte[] ret = new byte[size];
+        random.nextBytes(ret);
+        return ret;
+    }
+
+    @Test
+    public void readAddressesSameAsInetAddress() throws UnknownHostException {
+        for (int i = 0; i < 1000; i++) {
+            byte[] ipv4 = randomBytes(NetflowDataType.SIZE_OF_IPV4);
+            Assert.assertEquals(InetAddress.getByAddress(ipv4).getHostAddress(),
+                    NetflowDataType.IPV4_ADDRESS.read(new BinaryBuffer(ipv4), ipv4.length));
+
+            byte[] ipv6 = randomBytes(NetflowDataType.SIZE_OF_IPV6);
+            if (i % 2 == 0) {
+                for (int j = 0; j < 8; j++) {
+                    ipv6[j] = 0;
+                }
+            }
+            Assert.assertEquals(InetAddress.getByAddress(ipv6).getHostAddress(),
+                    NetflowDataType.IPV6_ADDRESS.read(new BinaryBuffer(ipv6), ipv6.length));
+        }
+    }
+
+    @Test
+    public void readIpv4MappedAddress() throws UnknownHostException {
+        byte[] ipv6 = new byte[NetflowDataType.SIZE_OF_IPV6];
+        ipv6[10] = (byte)0xff;
+        ipv6[11] = (byte)0xff;
+        ipv6[12] = (byte)192;
+        ipv6[13] = (byte)168;
+        ipv6[15] = 1;
+        Assert.assertEquals("192.168.0.1", NetflowDataType.IPV6_ADDRESS.read(new BinaryBuffer(ipv6), ipv6.length));
+        Assert.assertEquals("0:0:0:0:0:0:0:0",
+                NetflowDataType.IPV6_ADDRESS.read(new BinaryBuffer(new byte[16]), 16));
+    }
+
+    @Test
+    public void readMacAddress() {
+        byte[] mac = {0x00, 0x1a, (byte)0xff, (byte)0x80, 0x7f, 0x0a};
+        BinaryBuffer buffer = new BinaryBuffer(mac);
+        Assert.assertEquals("00:1a:ff:80:7f:0a", NetflowDataType.MAC_ADDRESS.read(buffer, mac.length));
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void readInteger() {
+        byte[] data = {(byte)0xff, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06};
+        BinaryBuffer buffer = new BinaryBuffer(data);
+        Assert.assertEquals(255L, NetflowDataType.INTEGER.read(buffer, 1));
+        Assert.assertEquals(258L, NetflowDataType.INTEGER.read(buffer, 2));
+        Assert.assertEquals(0x03040506L, NetflowDataType.INTEGER.read(buffer, 4));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readIntegerWrongSize() {
+        NetflowDataType.INTEGER.read(new BinaryBuffer(new byte[3]), 3);
+    }
+}
@@ -4,9 +4,14 @@ import com.google.common.io.Files;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import com.siemmetric.siembol.common.metrics.SiembolMetrics;
+import com.siemmetric.siembol.common.metrics.test.SiembolMetricsTestRegistrar;
+import com.siemmetric.siembol.common.utils.TimeProvider;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static com.siemmetric.siembol.common.constants.SiembolMessageFields.ORIGINAL;
@@ -14,6 +19,13 @@ import static com.siemmetric.siembol.common.constants.SiembolMessageFields.ORIGI
 public class NetflowSiembolParserTest {
 
     private SiembolNetflowParser netflowParser;
+    private long currentTime;
+    private final TimeProvider timeProvider = new TimeProvider() {
+        @Override
+        public long getCurrentTimeInMs() {
+            return currentTime;
+        }
+    };
 
     private byte[] readFileFromResource(String filename) throws IOException {
         ClassLoader classLoader = this.getClass().getClassLoader();
@@ -21,6 +33,43 @@ public class NetflowSiembolParserTest {
         return Files.toByteArray(file);
     }
 
+    private byte[] ipfixMessage(ByteBuffer sets) {
+        sets.flip();
+        ByteBuffer ret = ByteBuffer.allocate(NetflowParser.IPFIX_HEADER_SIZE + sets.remaining());
+        ret.putShort((short)NetflowParser.IPFIX_VERSION);
+        ret.putShort((short)ret.capacity());
+        ret.putInt(1600000000);
+        ret.putInt(1);
+        ret.putInt(7);
+        ret.put(sets);
+        return ret.array();
+    }
+
+    private void putIpfixTemplateSet(ByteBuffer buffer) {
+        buffer.putShort((short)NetflowParser.IPFIX_TEMPLATE_SET_ID);
+        buffer.putShort((short)28);
+        buffer.putShort((short)256);
+        buffer.putShort((short)4);
+        buffer.putShort((short)8).putShort((short)4);
+        buffer.putShort((short)7).putShort((short)2);
+        buffer.putShort((short)(NetflowParser.ENTERPRISE_BIT | 1)).putShort((short)2).putInt(9);
+        buffer.putShort((short)82).putShort((short)NetflowField.VARIABLE_LENGTH);
+    }
+
+    private void putIpfixDataSet(ByteBuffer buffer) {
+        byte[] name = "eth0".getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short)256);
+        buffer.putShort((short)(4 + 2 * (8 + 1 + name.length) + 3));
+        for (int i = 0; i < 2; i++) {
+            buffer.put(new byte[]{10, 0, 0, (byte)(i + 1)});
+            buffer.putShort((short)443);
+            buffer.put("ab".getBytes(StandardCharsets.UTF_8));
+            buffer.put((byte)name.length);
+            buffer.put(name);
+        }
+        buffer.put(new byte[3]);
+    }
+
     @Before
     public void setUp() {
         netflowParser = new SiembolNetflowParser();
@@ -82,4 +131,188 @@ public class NetflowSiembolParserTest {
         List<Map<String, Object>> ret = netflowParser.parse("", data);
         Assert.assertNull(ret);
     }
+
+    @Test
+    public void ipfixTemplateAndDataParsing() {
+        ByteBuffer sets = ByteBuffer.allocate(1024);
+        putIpfixTemplateSet(sets);
+        putIpfixDataSet(sets);
+
+        List<Map<String, Object>> ret = netflowParser.parse("10.16.22.254", ipfixMessage(sets));
+        Assert.assertEquals(2, ret.size());
+        Assert.assertEquals("10.0.0.1", ret.get(0).get("ip_src_addr"));
+        Assert.assertEquals("10.0.0.2", ret.get(1).get("ip_src_addr"));
+        Assert.assertEquals(443L, ret.get(0).get("ip_src_port"));
+        Assert.assertEquals("ab", ret.get(0).get("enterprise_9_1"));
+        Assert.assertEquals("eth0", ret.get(1).get("if_name"));
+        Assert.assertEquals("256", ret.get(1).get(NetflowParser.TEMPLATE_ID));
+        Assert.assertEquals("7", ret.get(1).get(SiembolNetflowParser.NETFLOW_SOURCE_ID));
+        Assert.assertEquals(1600000000000L, ret.get(1).get("timestamp"));
+    }
+
+    @Test
+    public void netflowV9OptionsTemplateAndDataParsing() {
+        ByteBuffer sets = ByteBuffer.allocate(1024);
+        sets.putShort((short)NetflowParser.OPTIONS_FLOW_SET_ID);
+        sets.putShort((short)24);
+        sets.putShort((short)300);
+        sets.putShort((short)4);
+        sets.putShort((short)8);
+        sets.putShort((short)1).putShort((short)4);
+        sets.putShort((short)34).putShort((short)4);
+        sets.putShort((short)35).putShort((short)1);
+        sets.putShort((short)0);
+        sets.putShort((short)300);
+        sets.putShort((short)16);
+        sets.putInt(5).putInt(1000).put((byte)2);
+        sets.put(new byte[3]);
+        sets.flip();
+
+        ByteBuffer message = ByteBuffer.allocate(NetflowParser.NETFLOW_HEADER_SIZE + sets.remaining());
+        message.putShort((short)NetflowParser.SUPPORTED_VERSION);
+        message.putShort((short)2);
+        message.putInt(0).putInt(1600000000).putInt(1).putInt(0);
+        message.put(sets);
+
+        List<Map<String, Object>> ret = netflowParser.parse("10.16.22.254", message.array());
+        Assert.assertEquals(1, ret.size());
+        Assert.assertEquals(5L, ret.get(0).get("scope_1"));
+        Assert.assertEquals(1000L, ret.get(0).get("sampling_interval"));
+        Assert.assertEquals(2L, ret.get(0).get("sampling_algorithm"));
+    }
+
+    @Test
+    public void ipfixDataBufferedUntilTemplate() {
+        SharedTransportProvider provider = new SharedTransportProvider();
+        SiembolNetflowParser first = new SiembolNetflowParser(provider);
+        SiembolNetflowParser second = new SiembolNetflowParser(provider);
+
+        ByteBuffer dataSets = ByteBuffer.allocate(1024);
+        putIpfixDataSet(dataSets);
+        Assert.assertTrue(first.parse("10.16.22.254", ipfixMessage(dataSets)).isEmpty());
+        Assert.assertEquals(1, provider.getBufferedDataSetsCount());
+
+        ByteBuffer templateSets = ByteBuffer.allocate(1024);
+        putIpfixTemplateSet(templateSets);
+        List<Map<String, Object>> ret = second.parse("10.16.22.254", ipfixMessage(templateSets));
+        Assert.assertEquals(2, ret.size());
+        Assert.assertEquals("10.0.0.1", ret.get(0).get("ip_src_addr"));
+        Assert.assertEquals("eth0", ret.get(1).get("if_name"));
+        Assert.assertEquals(0, provider.getBufferedDataSetsCount());
+
+        dataSets = ByteBuffer.allocate(1024);
+        putIpfixDataSet(dataSets);
+        Assert.assertEquals(2, first.parse("10.16.22.254", ipfixMessage(dataSets)).size());
+    }
+
+    @Test
+    public void ipfixBufferedDataKeepsOriginalString() {
+        SharedTransportProvider provider = new SharedTransportProvider() {
+            @Override
+            public NetflowTransportMessage<String> message(String metadata, byte[] data) {
+                return new NetflowMessageWithSource(metadata, data) {
+                    @Override
+                    public String getOriginalString() {
+                        return Base64.getEncoder().encodeToString(data);
+                    }
+                };
+            }
+        };
+        SiembolNetflowParser parser = new SiembolNetflowParser(provider);
+
+        ByteBuffer dataSets = ByteBuffer.allocate(1024);
+        putIpfixDataSet(dataSets);
+        byte[] data = ipfixMessage(dataSets);
+        Assert.assertTrue(parser.parse("10.16.22.254", data).isEmpty());
+
+        ByteBuffer templateSets = ByteBuffer.allocate(1024);
+        putIpfixTemplateSet(templateSets);
+        List<Map<String, Object>> ret = parser.parse("10.16.22.254", ipfixMessage(templateSets));
+        Assert.assertEquals(2, ret.size());
+        String expectedOriginal = Base64.getEncoder().encodeToString(data);
+        Assert.assertEquals(expectedOriginal, ret.get(0).get(ORIGINAL.toString()));
+        Assert.assertEquals(expectedOriginal, ret.get(1).get(ORIGINAL.toString()));
+    }
+
+    @Test
+    public void ipfixBufferedDataExpiredAndLimited() {
+        SharedTransportProvider provider = new SharedTransportProvider(1, 1, 1000, timeProvider);
+        SiembolMetricsTestRegistrar metricsRegistrar = new SiembolMetricsTestRegistrar();
+        Assert.assertTrue(provider.registerMetrics(metricsRegistrar));
+        SiembolNetflowParser parser = new SiembolNetflowParser(provider);
+
+        currentTime = 1000;
+        ByteBuffer dataSets = ByteBuffer.allocate(1024);
+        putIpfixDataSet(dataSets);
+        byte[] data = ipfixMessage(dataSets);
+        Assert.assertTrue(parser.parse("10.16.22.254", data).isEmpty());
+        Assert.assertEquals(1, provider.getBufferedDataSetsCount());
+
+        List<Map<String, Object>> ret = parser.parse("10.16.22.254", data);
+        Assert.assertEquals(1, ret.size());
+        Assert.assertTrue((Boolean)ret.get(0).get(SiembolNetflowParser.NETFLOW_UNKNOWN_TEMPLATE));
+        Assert.assertEquals(1, provider.getBufferedDataSetsCount());
+
+        currentTime = 1002;
+        ByteBuffer templateSets = ByteBuffer.allocate(1024);
+        putIpfixTemplateSet(templateSets);
+        Assert.assertTrue(parser.parse("10.16.22.254", ipfixMessage(templateSets)).isEmpty());
+        Assert.assertEquals(0, provider.getBufferedDataSetsCount());
+
+        Assert.assertEquals(1, metricsRegistrar.getCounterValue(
+                SiembolMetrics.PARSING_NETFLOW_BUFFERED_DATA_SETS.getMetricName()));
+        Assert.assertEquals(1, metricsRegistrar.getCounterValue(
+                SiembolMetrics.PARSING_NETFLOW_EXPIRED_DATA_SETS.getMetricName()));
+        Assert.assertEquals(0, metricsRegistrar.getCounterValue(
+                SiembolMetrics.PARSING_NETFLOW_DECODED_BUFFERED_RECORDS.getMetricName()));
+    }
+
+    @Test
+    public void ipfixTemplateExpired() {
+        SharedTransportProvider provider = new SharedTransportProvider(10, 1000, 1000, timeProvider);
+        SiembolNetflowParser parser = new SiembolNetflowParser(provider);
+
+        currentTime = 0;
+        ByteBuffer templateSets = ByteBuffer.allocate(1024);
+        putIpfixTemplateSet(templateSets);
+        byte[] template = ipfixMessage(templateSets);
+        ByteBuffer dataSets = ByteBuffer.allocate(1024);
+        putIpfixDataSet(dataSets);
+        byte[] data = ipfixMessage(dataSets);
+
+        Assert.assertTrue(parser.parse("10.16.22.254", template).isEmpty());
+        Assert.assertEquals(1, provider.getTemplatesCount());
+
+        currentTime = 1000;
+        Assert.assertEquals(2, parser.parse("10.16.22.254", data).size());
+
+        currentTime = 1001;
+        Assert.assertTrue(parser.parse("10.16.22.254", data).isEmpty());
+        Assert.assertEquals(1, provider.getBufferedDataSetsCount());
+
+        Assert.assertEquals(2, parser.parse("10.16.22.254", template).size());
+        Assert.assertEquals(0, provider.getBufferedDataSetsCount());
+        Assert.assertEquals(1, provider.getTemplatesCount());
+
+        currentTime = 2002;
+        Assert.assertTrue(parser.parse("10.16.22.1", template).isEmpty());
+        Assert.assertEquals(1, provider.getTemplatesCount());
+    }
+
+    @Test
+    public void sharedTransportProviderMetricsRegisteredOnce() {
+        SharedTransportProvider provider = new SharedTransportProvider();
+        Assert.assertTrue(provider.registerMetrics(new SiembolMetricsTestRegistrar()));
+        Assert.assertFalse(provider.registerMetrics(new SiembolMetricsTestRegistrar()));
+    }
+
+    @Test
+    public void sharedTransportProviderInstance() {
+        Assert.assertSame(SharedTransportProvider.getSharedInstance(), SharedTransportProvider.getSharedInstance());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sharedTransportProviderWrongArguments() {
+        new SharedTransportProvider(0, 1000, 1000, timeProvider);
+    }
 }
@@ -0,0 +1,26 @@
+package com.siemmetric.siembol.parsers.netflow;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class NetflowTemplateTest {
+    private final NetflowField malformedField = new NetflowField(1, 3);
+    private final NetflowField packetsField = new NetflowField(2, 4);
+    private final NetflowTemplate template = new NetflowTemplate(256, List.of(malformedField, packetsField));
+
+    @Test
+    public void decodeRecordWithMalformedField() {
+        BinaryBuffer buffer = new BinaryBuffer(new byte[]{1, 2, 3, 0, 0, 0, 5});
+        Map<String, Object> record = new HashMap<>();
+
+        Assert.assertEquals(7, template.decodeRecord(buffer, 7, record));
+        Assert.assertEquals(2, record.size());
+        Assert.assertEquals("unknown", record.get(malformedField.getName()));
+        Assert.assertEquals(5L, record.get(packetsField.getName()));
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+}
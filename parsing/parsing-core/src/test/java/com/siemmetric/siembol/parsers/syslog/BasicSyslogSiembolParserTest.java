@@ -1,5 +1,6 @@
 package com.siemmetric.siembol.parsers.syslog;
 
+import org.joda.time.DateTimeZone;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -74,6 +75,22 @@ public class BasicSyslogSiembolParserTest {
      }
      """;
 
+    private final String syslogConfigBsdCustomTimestamp = """
+     {
+       "parser_attributes": {
+         "parser_type": "syslog",
+         "syslog_config": {
+           "syslog_version": "RFC_3164",
+           "time_formats": [
+           {
+             "timezone": "UTC",
+             "time_format": "yyyy-MM-dd'T'HH:mm:ss'Z'"
+           }]
+         }
+       }
+     }
+     """;
+
     private final String syslogConfigCustomTimestamp = """
      {
        "parser_attributes": {
@@ -307,6 +324,18 @@ public class BasicSyslogSiembolParserTest {
 
     }
 
+    @Test
+    public void goodBSDWithCustomTimestamp() {
+        syslogBsdParser = factory.create(syslogConfigBsdCustomTimestamp.trim()).getAttributes().getSiembolParser();
+        Map<String, Object> out = syslogBsdParser.parse(goodBSD.trim().getBytes()).get(0);
+
+        Assert.assertEquals(SyslogDefaultTimeFormat.parseBsdTimestamp("Oct 11 22:14:15", DateTimeZone.getDefault()),
+                out.get("timestamp"));
+        Assert.assertEquals(0, out.get("syslog_version"));
+        Assert.assertEquals("mymachine", out.get("syslog_hostname"));
+        Assert.assertEquals("su: 'su root' failed for dummy on /dev/pts/8", out.get("syslog_msg"));
+    }
+
     @Test
     public void customTimestamp() {
         syslogParser = factory.create(syslogConfigCustomTimestamp).getAttributes().getSiembolParser();
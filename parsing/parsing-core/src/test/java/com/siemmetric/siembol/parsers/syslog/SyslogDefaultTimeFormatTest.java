@@ -0,0 +1,76 @@
+package com.siemmetric.siembol.parsers.syslog;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+public class SyslogDefaultTimeFormatTest {
+    private final DateTimeZone london = DateTimeZone.forID("Europe/London");
+
+    @Test
+    public void isoTimestampsSameAsFormatters() {
+        Random random = new Random(1);
+        for (int i = 0; i < 1000; i++) {
+            long millis = Math.abs(random.nextLong()) % 4102444800000L;
+            DateTime dateTime = new DateTime(millis, london);
+
+            String local = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss").print(dateTime);
+            Assert.assertEquals(DateTime.parse(local,
+                            DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss").withZone(london)).getMillis(),
+                    SyslogDefaultTimeFormat.parseTimestamp(local, london));
+
+            String withOffset = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ssZZ").print(dateTime);
+            Assert.assertEquals(millis / 1000 * 1000,
+                    SyslogDefaultTimeFormat.parseTimestamp(withOffset, DateTimeZone.UTC));
+
+            String withMicros = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSS").print(dateTime) + "789";
+            Assert.assertEquals(DateTime.parse(withMicros,
+                            DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS").withZone(london)).getMillis(),
+                    SyslogDefaultTimeFormat.parseTimestamp(withMicros, london));
+        }
+    }
+
+    @Test
+    public void isoTimestampMicrosecondsOffset() {
+        Assert.assertEquals(1573728220123L,
+                SyslogDefaultTimeFormat.parseTimestamp("2019-11-14T11:43:40.123456+01:00", DateTimeZone.UTC));
+        Assert.assertEquals(1573741720123L,
+                SyslogDefaultTimeFormat.parseTimestamp("2019-11-14T11:43:40.123999-02:45", DateTimeZone.UTC));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void isoTimestampInvalidDay() {
+        SyslogDefaultTimeFormat.parseTimestamp("2019-02-29T11:43:40", DateTimeZone.UTC);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void isoTimestampInvalidSeparator() {
+        SyslogDefaultTimeFormat.parseTimestamp("2019-02-20T11:43:40,123456", DateTimeZone.UTC);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void isoTimestampInDaylightSavingGap() {
+        SyslogDefaultTimeFormat.parseTimestamp("2021-03-28T01:30:00", london);
+    }
+
+    @Test
+    public void bsdTimestampsSameAsFormatter() {
+        int year = DateTime.now().getYear() - 1;
+        for (String timestamp : new String[]{"Jan 15 10:11:12", "jul  4 23:59:59", "Dec 31 00:00:00", "MAY 05 01:02:03"}) {
+            long expected = DateTimeFormat.forPattern(timestamp.charAt(4) == ' ' ? "MMM  d HH:mm:ss" : "MMM dd HH:mm:ss")
+                    .withLocale(Locale.ENGLISH)
+                    .withDefaultYear(year)
+                    .withZone(london)
+                    .parseDateTime(timestamp)
+                    .getMillis();
+            long actual = SyslogDefaultTimeFormat.parseBsdTimestamp(timestamp, london);
+            Assert.assertTrue(actual == expected
+                    || actual == new DateTime(expected, london).plusYears(1).getMillis());
+        }
+    }
+}
@@ -11,6 +11,8 @@ import com.siemmetric.siembol.parsers.model.TransformationDto;
 
 import java.io.IOException;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
 public class TransformationsTest {
@@ -386,4 +388,57 @@ public class TransformationsTest {
         Assert.assertEquals(12345, transformed.get("timestamp"));
     }
 
+
+    @Test
+    public void testCombinedFieldNameTransformations() throws IOException {
+        List<Transformation> transformations = factory.createTransformations(Arrays.asList(
+                JSON_TRANSFORMATION_READER.readValue(transformationTrim),
+                JSON_TRANSFORMATION_READER.readValue(transformationRename),
+                JSON_TRANSFORMATION_READER.readValue(transformationReplaceAll),
+                JSON_TRANSFORMATION_READER.readValue(transformationFieldNameUpperCase)));
+        Assert.assertEquals(2, transformations.size());
+        Assert.assertTrue(transformations.get(1) instanceof FieldNameTransformation);
+
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> transformed = TransformationsLibrary.transform(transformations,
+                    JSON_LOG_READER.readValue(message));
+            Assert.assertEquals(5, transformed.size());
+            Assert.assertEquals(12345, transformed.get("TIMESTAMP_RENAMED"));
+            Assert.assertEquals("true", transformed.get("TEST_FIELD_A"));
+            Assert.assertEquals("message", transformed.get("TRIM_FIELD"));
+            Assert.assertEquals("message\n", transformed.get("CHOMP_FIELD"));
+            Assert.assertEquals("abc", transformed.get("DUMMY_FIELD_RENAMED"));
+        }
+    }
+
+    @Test
+    public void testCombinedDeleteAndRename() throws IOException {
+        List<Transformation> transformations = factory.createTransformations(Arrays.asList(
+                JSON_TRANSFORMATION_READER.readValue(transformationDelete),
+                JSON_TRANSFORMATION_READER.readValue(transformationRename)));
+        Assert.assertEquals(1, transformations.size());
+
+        Map<String, Object> transformed = TransformationsLibrary.transform(transformations, log);
+        Assert.assertEquals(1, transformed.size());
+        Assert.assertEquals(12345, transformed.get("timestamp_renamed"));
+    }
+
+    @Test
+    public void testCombinedRenameToRenamedField() throws IOException {
+        String renameB = transformationRename.replace("\"timestamp\"", "\"b\"")
+                .replace("\"timestamp_renamed\"", "\"c\"");
+        String renameA = transformationRename.replace("\"timestamp\"", "\"a\"")
+                .replace("\"timestamp_renamed\"", "\"b\"");
+        List<Transformation> transformations = factory.createTransformations(Arrays.asList(
+                JSON_TRANSFORMATION_READER.readValue(renameB),
+                JSON_TRANSFORMATION_READER.readValue(renameA)));
+        Assert.assertEquals(1, transformations.size());
+
+        Map<String, Object> transformed = TransformationsLibrary.transform(transformations,
+                JSON_LOG_READER.readValue("""
+                        {"a" : 1, "b" : 2}"""));
+        Assert.assertEquals(2, transformed.size());
+        Assert.assertEquals(1, transformed.get("b"));
+        Assert.assertEquals(2, transformed.get("c"));
+    }
 }
@@ -1,6 +1,5 @@
 package com.siemmetric.siembol.parsers.storm;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.task.TopologyContext;
@@ -11,8 +10,6 @@ import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.siemmetric.siembol.common.constants.SiembolConstants;
-import com.siemmetric.siembol.common.metrics.SiembolMetrics;
 import com.siemmetric.siembol.common.metrics.SiembolMetricsRegistrar;
 import com.siemmetric.siembol.common.metrics.storm.StormMetricsRegistrarFactory;
 import com.siemmetric.siembol.common.metrics.storm.StormMetricsRegistrarFactoryImpl;
@@ -21,19 +18,20 @@ import com.siemmetric.siembol.common.storm.KafkaWriterMessage;
 import com.siemmetric.siembol.common.storm.KafkaWriterMessages;
 import com.siemmetric.siembol.common.model.ZooKeeperAttributesDto;
 import com.siemmetric.siembol.common.storm.SiembolMetricsCounters;
+import com.siemmetric.siembol.common.storm.StormTupleBatch;
 import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnector;
 import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnectorFactory;
 import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnectorFactoryImpl;
-import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactory;
 import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryAttributes;
-import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
-import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationUpdater;
 import com.siemmetric.siembol.parsers.application.parsing.ParsingApplicationParser;
 import com.siemmetric.siembol.parsers.application.parsing.ParsingApplicationResult;
+import com.siemmetric.siembol.parsers.netflow.SharedTransportProvider;
 
 import java.lang.invoke.MethodHandles;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
+
+import static org.apache.storm.utils.TupleUtils.isTick;
 /**
  * An object for integration of a parsing application into a storm bolt
  *
@@ -41,7 +39,9 @@ import java.util.concurrent.atomic.AtomicReference;
  *  parses logs using a parsing application parser initialised from the parser configurations cached in the ZooKeeper,
  *  watches for the parser configurations update in ZooKeeper and
  *  updates the parsers without needing to restart the topology or the bolt,
+ *  while reusing the parsers with unchanged configurations,
  *  emits parsed messages and exceptions after parsing.
+ *  The parsed messages of several tuples can be emitted in one batch tuple anchored to all tuples of the batch.
  * @author Marian Novotny
  *
  * @see ParsingApplicationParser
@@ -51,28 +51,23 @@ import java.util.concurrent.atomic.AtomicReference;
 public class ParsingApplicationBolt extends BaseRichBolt {
     private static final long serialVersionUID = 1L;
     private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
-    private static final String PARSERCONFIG_UPDATE_TRY_MSG_FORMAT = "Trying to update parsing app: %s, " +
-            "by parser configs: %s, ";
     private static final String INIT_EXCEPTION_MSG_FORMAT = "Parsing application exception: %s during initialising";
-    private static final String FACTORY_EXCEPTION_MSG_FORMAT = "Exception during creation of parsing application: %s";
-    private static final String UPDATE_EXCEPTION_LOG = "Exception during parserconfig update: {}";
-    private static final String ERROR_INIT_MESSAGE = "Parsing application exception: Parsing app initialisation error";
     private static final String INIT_START = "Parsing application initialisation start";
     private static final String INIT_COMPLETED = "Parsing application initialisation completed";
-    private static final String PARSERS_UPDATE_START = "Parser config update start";
-    private static final String PARSERS_UPDATE_COMPLETED = "Parser config update completed";
     private static final String INVALID_TYPE_IN_TUPLE = "Invalid type in tuple";
 
-    private final AtomicReference<ParsingApplicationParser> parsingApplicationParser = new AtomicReference<>();
     private final ZooKeeperAttributesDto zooKeeperAttributes;
     private final String parsingAppSpecification;
 
 
     private OutputCollector collector;
-    private ZooKeeperConnector zooKeeperConnector;
     private SiembolMetricsRegistrar metricsRegistrar;
+    private ParsingApplicationUpdater parsingApplicationUpdater;
     private final ZooKeeperConnectorFactory zooKeeperConnectorFactory;
     private final StormMetricsRegistrarFactory metricsFactory;
+    private final StormTupleBatch batch;
+    private KafkaWriterMessages batchMessages;
+    private SiembolMetricsCounters batchCounters;
 
     ParsingApplicationBolt(StormParsingApplicationAttributesDto attributes,
                            ParsingApplicationFactoryAttributes parsingAttributes,
@@ -82,6 +77,8 @@ public class ParsingApplicationBolt extends BaseRichBolt {
         this.parsingAppSpecification = parsingAttributes.getApplicationParserSpecification();
         this.zooKeeperConnectorFactory = zooKeeperConnectorFactory;
         this.metricsFactory = metricsFactory;
+        this.batch = new StormTupleBatch(attributes.getBatchSize() == null ? 1 : attributes.getBatchSize(),
+                attributes.getBatchLingerMs() == null ? 0 : attributes.getBatchLingerMs());
     }
 
     public ParsingApplicationBolt(StormParsingApplicationAttributesDto attributes,
@@ -96,17 +93,17 @@ public class ParsingApplicationBolt extends BaseRichBolt {
     @Override
     public void prepare(Map map, TopologyContext topologyContext, OutputCollector outputCollector) {
         this.collector = outputCollector;
+        resetBatch();
         try {
             LOG.info(INIT_START);
-            zooKeeperConnector = zooKeeperConnectorFactory.createZookeeperConnector(zooKeeperAttributes);
+            ZooKeeperConnector zooKeeperConnector = zooKeeperConnectorFactory
+                    .createZookeeperConnector(zooKeeperAttributes);
             metricsRegistrar = metricsFactory.createSiembolMetricsRegistrar(topologyContext);
-
-            updateParsers();
-            if (parsingApplicationParser.get() == null) {
-                throw new IllegalStateException(ERROR_INIT_MESSAGE);
-            }
-
-            zooKeeperConnector.addCacheListener(this::updateParsers);
+            SharedTransportProvider.getSharedInstance().registerMetrics(metricsRegistrar);
+            parsingApplicationUpdater = new ParsingApplicationUpdater(parsingAppSpecification,
+                    zooKeeperConnector,
+                    metricsRegistrar);
+            parsingApplicationUpdater.initialise();
             LOG.info(INIT_COMPLETED);
         } catch (Exception e) {
             String msg = String.format(INIT_EXCEPTION_MSG_FORMAT, ExceptionUtils.getStackTrace(e));
@@ -115,35 +112,19 @@ public class ParsingApplicationBolt extends BaseRichBolt {
         }
     }
 
-    private void updateParsers() {
-        try {
-            ParsingApplicationFactory factory = new ParsingApplicationFactoryImpl();
-
-            LOG.info(PARSERS_UPDATE_START);
-            String parserConfigs = zooKeeperConnector.getData();
-            LOG.info(String.format(PARSERCONFIG_UPDATE_TRY_MSG_FORMAT,
-                    parsingAppSpecification,
-                    StringUtils.left(parserConfigs, SiembolConstants.MAX_SIZE_CONFIG_UPDATE_LOG)));
-            ParsingApplicationFactoryResult result = factory.create(parsingAppSpecification, parserConfigs);
-            if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
-                String errorMsg = String.format(FACTORY_EXCEPTION_MSG_FORMAT,
-                        result.getAttributes().getMessage());
-                LOG.error(errorMsg);
-                throw new IllegalStateException(errorMsg);
-            }
-
-            metricsRegistrar.registerCounter(SiembolMetrics.PARSING_CONFIGS_UPDATE.getMetricName()).increment();
-            parsingApplicationParser.set(result.getAttributes().getApplicationParser());
-            LOG.info(PARSERS_UPDATE_COMPLETED);
-        } catch (Exception e) {
-            LOG.error(UPDATE_EXCEPTION_LOG, ExceptionUtils.getStackTrace(e));
-            metricsRegistrar.registerCounter(SiembolMetrics.PARSING_CONFIGS_ERROR_UPDATE.getMetricName()).increment();
-        }
+    @Override
+    public Map<String, Object> getComponentConfiguration() {
+        return batch.getComponentConfiguration();
     }
 
     @Override
     public void execute(Tuple tuple) {
-        ParsingApplicationParser currentParser = parsingApplicationParser.get();
+        if (isTick(tuple)) {
+            emitBatch();
+            return;
+        }
+
+        ParsingApplicationParser currentParser = parsingApplicationUpdater.getParser();
 
         String source = tuple.getStringByField(ParsingApplicationTuples.SOURCE.toString());
         String metadata = tuple.getStringByField(ParsingApplicationTuples.METADATA.toString());
@@ -159,57 +140,49 @@ public class ParsingApplicationBolt extends BaseRichBolt {
         var counters = new SiembolMetricsCounters();
         for (var result : results) {
             if (result.getResultFlags().contains(ParsingApplicationResult.ResultFlag.FILTERED)) {
-                metricsRegistrar.registerCounter(
-                                SiembolMetrics.PARSING_SOURCE_TYPE_FILTERED_MESSAGES.getMetricName(result.getSourceType()))
-                        .increment();
-                metricsRegistrar.registerCounter(SiembolMetrics.PARSING_APP_FILTERED_MESSAGES.getMetricName())
-                        .increment();
+                result.forEachCounterName(x -> metricsRegistrar.registerCounter(x).increment());
             } else {
                 result.getMessages().forEach(x -> {
                     kafkaWriterMessages.add(new KafkaWriterMessage(result.getTopic(), x));
-                    addCounters(counters, result.getResultFlags(), result.getSourceType());
+                    result.forEachCounterName(counters::add);
                 });
             }
         }
 
-        if (!kafkaWriterMessages.isEmpty()) {
-            collector.emit(tuple, new Values(kafkaWriterMessages, counters));
+        if (kafkaWriterMessages.isEmpty()) {
+            collector.ack(tuple);
+            return;
         }
 
-        collector.ack(tuple);
-    }
-
-    private void addCounters(SiembolMetricsCounters counters,
-                             EnumSet<ParsingApplicationResult.ResultFlag> resultFlags,
-                             String sourceType) {
-        if (resultFlags.contains(ParsingApplicationResult.ResultFlag.PARSED)) {
-            counters.add(SiembolMetrics.PARSING_SOURCE_TYPE_PARSED_MESSAGES
-                    .getMetricName(sourceType));
-            counters.add(SiembolMetrics.PARSING_APP_PARSED_MESSAGES.getMetricName());
+        if (!batch.isEnabled()) {
+            collector.emit(tuple, new Values(kafkaWriterMessages, counters));
+            collector.ack(tuple);
+            return;
         }
 
-        if (resultFlags.contains(ParsingApplicationResult.ResultFlag.ERROR)) {
-            counters.add(SiembolMetrics.PARSING_APP_ERROR_MESSAGES.getMetricName());
-        }
+        addToBatch(tuple, kafkaWriterMessages, counters);
+    }
 
-        if (resultFlags.contains(ParsingApplicationResult.ResultFlag.REMOVED_FIELDS)) {
-            counters.add(SiembolMetrics.PARSING_SOURCE_TYPE_REMOVED_FIELDS_MESSAGES.getMetricName(sourceType));
+    private void addToBatch(Tuple tuple, KafkaWriterMessages messages, SiembolMetricsCounters counters) {
+        batchMessages.addAll(messages);
+        batchCounters.addAll(counters);
+        if (batch.add(tuple)) {
+            emitBatch();
         }
+    }
 
-        if (resultFlags.contains(ParsingApplicationResult.ResultFlag.TRUNCATED_FIELDS)) {
-            counters.add(SiembolMetrics.PARSING_SOURCE_TYPE_TRUNCATED_FIELDS_MESSAGES
-                    .getMetricName(sourceType));
+    private void emitBatch() {
+        if (batch.isEmpty()) {
+            return;
         }
 
-        if (resultFlags.contains(ParsingApplicationResult.ResultFlag.TRUNCATED_ORIGINAL_STRING)) {
-            counters.add(SiembolMetrics.PARSING_SOURCE_TYPE_TRUNCATED_ORIGINAL_STRING_MESSAGES
-                    .getMetricName(sourceType));
-        }
+        batch.emit(collector, new Values(batchMessages, batchCounters));
+        resetBatch();
+    }
 
-        if (resultFlags.contains(ParsingApplicationResult.ResultFlag.ORIGINAL_MESSAGE)) {
-            counters.add(SiembolMetrics.PARSING_SOURCE_TYPE_SENT_ORIGINAL_STRING_MESSAGES
-                    .getMetricName(sourceType));
-        }
+    private void resetBatch() {
+        batchMessages = new KafkaWriterMessages();
+        batchCounters = new SiembolMetricsCounters();
     }
 
     @Override
@@ -3,6 +3,7 @@ package com.siemmetric.siembol.parsers.storm;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.storm.Constants;
 import org.apache.storm.task.OutputCollector;
 import org.apache.storm.tuple.Tuple;
 import org.apache.storm.tuple.Values;
@@ -10,6 +11,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import com.siemmetric.siembol.common.constants.SiembolMessageFields;
 import com.siemmetric.siembol.common.metrics.SiembolMetrics;
@@ -23,6 +25,8 @@ import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFact
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.eq;
@@ -460,4 +464,66 @@ public class ParsingApplicationBoltTest {
         Assert.assertTrue(counters.contains(SiembolMetrics.PARSING_SOURCE_TYPE_PARSED_MESSAGES
                 .getMetricName("single")));
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void parsedBatchOk() {
+        attributes.setBatchSize(2);
+        attributes.setBatchLingerMs(60000);
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes,
+                parsingAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory);
+        parsingApplicationBolt.prepare(null, null, collector);
+        Assert.assertNotNull(parsingApplicationBolt.getComponentConfiguration());
+
+        Tuple secondTuple = Mockito.mock(Tuple.class);
+        when(secondTuple.getStringByField(eq(ParsingApplicationTuples.METADATA.toString()))).thenReturn(metadata);
+        when(secondTuple.getValueByField(eq(ParsingApplicationTuples.LOG.toString())))
+                .thenReturn(log.trim().getBytes());
+        ArgumentCaptor<Collection<Tuple>> anchorsCaptor = ArgumentCaptor.forClass(Collection.class);
+        when(collector.emit(anchorsCaptor.capture(), argumentEmitCaptor.capture())).thenReturn(new ArrayList<>());
+
+        parsingApplicationBolt.execute(tuple);
+        verify(collector, never()).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        verify(collector, never()).ack(eq(tuple));
+
+        parsingApplicationBolt.execute(secondTuple);
+        verify(collector, times(1)).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        Assert.assertEquals(Arrays.asList(tuple, secondTuple), new ArrayList<>(anchorsCaptor.getValue()));
+        Values values = argumentEmitCaptor.getValue();
+        Assert.assertEquals(2, ((KafkaWriterMessages)values.get(0)).size());
+        Assert.assertTrue(((SiembolMetricsCounters)values.get(1))
+                .contains(SiembolMetrics.PARSING_APP_PARSED_MESSAGES.getMetricName()));
+        verify(collector, times(1)).ack(eq(tuple));
+        verify(collector, times(1)).ack(eq(secondTuple));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void parsedBatchTickOk() {
+        attributes.setBatchSize(10);
+        attributes.setBatchLingerMs(60000);
+        parsingApplicationBolt = new ParsingApplicationBolt(attributes,
+                parsingAttributes,
+                zooKeeperConnectorFactory,
+                metricsTestRegistrarFactory);
+        parsingApplicationBolt.prepare(null, null, collector);
+
+        Tuple tickTuple = Mockito.mock(Tuple.class);
+        when(tickTuple.getSourceComponent()).thenReturn(Constants.SYSTEM_COMPONENT_ID);
+        when(tickTuple.getSourceStreamId()).thenReturn(Constants.SYSTEM_TICK_STREAM_ID);
+        when(collector.emit(ArgumentMatchers.<Collection<Tuple>>any(), argumentEmitCaptor.capture()))
+                .thenReturn(new ArrayList<>());
+
+        parsingApplicationBolt.execute(tickTuple);
+        parsingApplicationBolt.execute(tuple);
+        verify(collector, never()).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+
+        parsingApplicationBolt.execute(tickTuple);
+        verify(collector, times(1)).emit(ArgumentMatchers.<Collection<Tuple>>any(), ArgumentMatchers.any());
+        Assert.assertEquals(1, ((KafkaWriterMessages)argumentEmitCaptor.getValue().get(0)).size());
+        verify(collector, times(1)).ack(eq(tuple));
+        verify(collector, never()).ack(eq(tickTuple));
+    }
 }
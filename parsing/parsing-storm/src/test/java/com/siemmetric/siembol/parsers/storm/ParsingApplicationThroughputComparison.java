@@ -0,0 +1,293 @@
+package com.siemmetric.siembol.parsers.storm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.charithe.kafka.EphemeralKafkaBroker;
+import com.github.charithe.kafka.KafkaHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.storm.Config;
+import org.apache.storm.LocalCluster;
+import org.mockito.Mockito;
+import com.siemmetric.siembol.common.metrics.spring.SpringMetricsRegistrar;
+import com.siemmetric.siembol.common.metrics.storm.StormMetricsRegistrarFactoryImpl;
+import com.siemmetric.siembol.common.model.JsonRawStringDto;
+import com.siemmetric.siembol.common.model.KafkaStreamsParsingApplicationAttributesDto;
+import com.siemmetric.siembol.common.model.StormParsingApplicationAttributesDto;
+import com.siemmetric.siembol.common.model.ZooKeeperAttributesDto;
+import com.siemmetric.siembol.common.testing.TestingZooKeeperConnectorFactory;
+import com.siemmetric.siembol.common.utils.KafkaStreamsFactoryImpl;
+import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnector;
+import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnectorFactory;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryAttributes;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
+import com.siemmetric.siembol.parsers.stream.KafkaStreamsParsingApplication;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+/**
+ * A throughput comparison of the Storm and the Kafka Streams parsing applications
+ *
+ * <p>This class runs the Storm topology in a local cluster and the Kafka Streams application
+ * on an embedded Kafka broker. Both runners parse the same messages by the same parsing application
+ * and the same parser configurations. The messages are produced into the input topic of a runner
+ * before it is started, the throughput is measured between the first and the last parsed message consumed
+ * from the output topic of the runner in order to exclude the start of the runner.
+ *
+ * The garbage collection time of the process during the measurement is reported,
+ * it includes the garbage collection of the embedded Kafka broker.
+ *
+ * <p>It is executed from the parsing-storm directory by:
+ * mvn exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.siemmetric.siembol.parsers.storm.ParsingApplicationThroughputComparison
+ * -Dexec.args="[number of messages] [batch size of the storm parsing bolt]"
+ *
+ * @author  Marian Novotny
+ */
+public class ParsingApplicationThroughputComparison {
+    private static final int DEFAULT_MESSAGES_COUNT = 100000;
+    private static final int DEFAULT_BATCH_SIZE = 1;
+    private static final int BROKER_START_TIMEOUT_SEC = 60;
+    private static final long CONSUME_TIMEOUT_MS = 600000;
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(100);
+    private static final String STORM_RUNNER = "storm";
+    private static final String STREAMS_RUNNER = "streams";
+    private static final String PARSERS_PATH = "/parserconfigs";
+    private static final String RESULT_MSG_FORMAT =
+            "%s: %d messages parsed in %d ms, %.0f messages per second, %d ms of garbage collection";
+    private static final String TIMEOUT_MSG_FORMAT = "%s: only %d messages of %d parsed in %d ms";
+    private static final String LOG_FORMAT = """
+            {"timestamp" : %d, "src_ip" : "10.0.0.%d", "dst_port" : %d, "user" : "user_%d", "action" : "allowed"}""";
+
+    private static final String PARSING_APP_FORMAT = """
+            {
+               "parsing_app_name": "throughput_%1$s",
+               "parsing_app_version": 1,
+               "parsing_app_author": "dummy",
+               "parsing_app_description": "Parsing application for the throughput comparison",
+               "parsing_app_settings": {
+                 "input_topics": [
+                   "input_%1$s"
+                 ],
+                 "parse_metadata" : false,
+                 "error_topic": "error_%1$s",
+                 "num_workers" : 1,
+                 "input_parallelism": 1,
+                 "parsing_parallelism": 1,
+                 "output_parallelism": 1,
+                 "parsing_app_type": "single_parser"
+               },
+               "parsing_settings": {
+                 "single_parser": {
+                   "parser_name": "single",
+                   "output_topic": "output_%1$s"
+                 }
+               }
+             }
+            """;
+
+    private static final String PARSERS_CONFIGS = """
+            {
+              "parsers_version": 1,
+              "parsers_configurations": [
+                {
+                  "parser_name": "single",
+                  "parser_version": 1,
+                  "parser_author": "dummy",
+                  "parser_attributes": {
+                    "parser_type": "generic"
+                  },
+                  "parser_extractors": [
+                    {
+                      "extractor_type": "json_extractor",
+                      "name": "json",
+                      "field": "original_string",
+                      "attributes": {
+                        "should_remove_field": false
+                      }
+                    }
+                  ],
+                  "transformations": [
+                    {
+                      "transformation_type": "field_name_string_replace_all",
+                      "attributes": {
+                        "string_replace_target": "_",
+                        "string_replace_replacement": ":"
+                      }
+                    }
+                  ]
+                }
+              ]
+            }
+            """;
+
+    private static final String STORM_SETTINGS = """
+            {
+              "client.id.prefix": "throughput_writer",
+              "group.id.prefix": "throughput_reader",
+              "zookeeper.attributes": {
+                "zk.path": "/parserconfigs",
+                "zk.base.sleep.ms": 1000,
+                "zk.max.retries": 10
+              },
+              "kafka.batch.writer.attributes": {
+                "producer.properties": {
+                  "security.protocol": "PLAINTEXT"
+                }
+              },
+              "storm.attributes": {
+                "first.pool.offset.strategy": "EARLIEST",
+                "kafka.spout.properties": {
+                  "security.protocol": "PLAINTEXT"
+                },
+                "storm.config": {
+                  "session.timeout.ms": 100000
+                }
+              }
+            }
+            """;
+
+    public static void main(String[] args) throws Exception {
+        int messagesCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_MESSAGES_COUNT;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_BATCH_SIZE;
+        EphemeralKafkaBroker broker = EphemeralKafkaBroker.create();
+        broker.start().get(BROKER_START_TIMEOUT_SEC, TimeUnit.SECONDS);
+        try {
+            KafkaHelper kafkaHelper = KafkaHelper.createFor(broker);
+            String bootstrapServers = String.format("127.0.0.1:%d", kafkaHelper.kafkaPort());
+
+            produceMessages(kafkaHelper, STORM_RUNNER, messagesCount);
+            LocalCluster cluster = startStormTopology(bootstrapServers, batchSize);
+            String stormResult = measureThroughput(kafkaHelper, STORM_RUNNER, messagesCount);
+            cluster.close();
+
+            produceMessages(kafkaHelper, STREAMS_RUNNER, messagesCount);
+            KafkaStreamsParsingApplication streamsApplication = startStreamsApplication(bootstrapServers);
+            String streamsResult = measureThroughput(kafkaHelper, STREAMS_RUNNER, messagesCount);
+            streamsApplication.close();
+
+            System.out.println(stormResult);
+            System.out.println(streamsResult);
+        } finally {
+            broker.stop();
+        }
+        //NOTE: the local storm cluster does not stop all its threads
+        System.exit(0);
+    }
+
+    private static ParsingApplicationFactoryAttributes createParsingAttributes(String runner) throws Exception {
+        String parsingApp = String.format(PARSING_APP_FORMAT, runner);
+        ParsingApplicationFactoryResult result = new ParsingApplicationFactoryImpl().create(parsingApp);
+        if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+            throw new IllegalStateException(result.getAttributes().getMessage());
+        }
+
+        ParsingApplicationFactoryAttributes attributes = result.getAttributes();
+        attributes.setApplicationParserSpecification(parsingApp);
+        return attributes;
+    }
+
+    private static void produceMessages(KafkaHelper kafkaHelper, String runner, int messagesCount) throws Exception {
+        try (KafkaProducer<String, String> producer = kafkaHelper.createStringProducer()) {
+            for (int i = 0; i < messagesCount; i++) {
+                producer.send(new ProducerRecord<>("input_" + runner,
+                        String.format(LOG_FORMAT, System.currentTimeMillis(), i % 256, i % 65536, i)));
+            }
+            producer.flush();
+        }
+    }
+
+    private static LocalCluster startStormTopology(String bootstrapServers, int batchSize) throws Exception {
+        StormParsingApplicationAttributesDto stormAttributes = new ObjectMapper()
+                .readerFor(StormParsingApplicationAttributesDto.class)
+                .readValue(STORM_SETTINGS);
+        stormAttributes.getStormAttributes().setBootstrapServers(bootstrapServers);
+        stormAttributes.setBatchSize(batchSize);
+        stormAttributes.getKafkaBatchWriterAttributes().getProducerProperties().getRawMap()
+                .put("bootstrap.servers", bootstrapServers);
+
+        ZooKeeperConnector zooKeeperConnector = Mockito.mock(ZooKeeperConnector.class,
+                withSettings().serializable());
+        when(zooKeeperConnector.getData()).thenReturn(PARSERS_CONFIGS);
+        ZooKeeperConnectorFactory zooKeeperConnectorFactory = Mockito.mock(ZooKeeperConnectorFactory.class,
+                withSettings().serializable());
+        when(zooKeeperConnectorFactory.createZookeeperConnector(stormAttributes.getZookeeperAttributes()))
+                .thenReturn(zooKeeperConnector);
+
+        LocalCluster cluster = new LocalCluster();
+        Config config = new Config();
+        config.put(Config.TOPOLOGY_MESSAGE_TIMEOUT_SECS, 50);
+        cluster.submitTopology(STORM_RUNNER, config, StormParsingApplication.createTopology(stormAttributes,
+                createParsingAttributes(STORM_RUNNER),
+                zooKeeperConnectorFactory,
+                new StormMetricsRegistrarFactoryImpl()));
+        return cluster;
+    }
+
+    private static KafkaStreamsParsingApplication startStreamsApplication(String bootstrapServers) throws Exception {
+        ZooKeeperAttributesDto zooKeeperAttributes = new ZooKeeperAttributesDto();
+        zooKeeperAttributes.setZkPath(PARSERS_PATH);
+        TestingZooKeeperConnectorFactory zooKeeperConnectorFactory = new TestingZooKeeperConnectorFactory();
+        zooKeeperConnectorFactory.setData(PARSERS_PATH, PARSERS_CONFIGS);
+
+        JsonRawStringDto streamsProperties = new JsonRawStringDto();
+        streamsProperties.set("bootstrap.servers", bootstrapServers);
+        streamsProperties.set("auto.offset.reset", "earliest");
+        KafkaStreamsParsingApplicationAttributesDto attributes = new KafkaStreamsParsingApplicationAttributesDto();
+        attributes.setZookeeperAttributes(zooKeeperAttributes);
+        attributes.setStreamsProperties(streamsProperties);
+
+        KafkaStreamsParsingApplication application = new KafkaStreamsParsingApplication(attributes,
+                createParsingAttributes(STREAMS_RUNNER),
+                zooKeeperConnectorFactory,
+                new KafkaStreamsFactoryImpl(),
+                new SpringMetricsRegistrar(new SimpleMeterRegistry()));
+        application.start();
+        return application;
+    }
+
+    private static String measureThroughput(KafkaHelper kafkaHelper, String runner, int messagesCount) {
+        try (KafkaConsumer<String, String> consumer = kafkaHelper.createStringConsumer()) {
+            //NOTE: the partition is assigned in order to avoid consuming messages again after a rebalance
+            consumer.assign(List.of(new TopicPartition("output_" + runner, 0)));
+            consumer.seekToBeginning(consumer.assignment());
+            long startTime = System.currentTimeMillis();
+            long firstMessageTime = 0;
+            long firstMessageGcTime = 0;
+            int consumed = 0;
+            while (consumed < messagesCount) {
+                if (System.currentTimeMillis() - startTime > CONSUME_TIMEOUT_MS) {
+                    throw new IllegalStateException(String.format(TIMEOUT_MSG_FORMAT,
+                            runner, consumed, messagesCount, CONSUME_TIMEOUT_MS));
+                }
+
+                ConsumerRecords<String, String> records = consumer.poll(POLL_TIMEOUT);
+                if (consumed == 0 && !records.isEmpty()) {
+                    firstMessageTime = System.currentTimeMillis();
+                    firstMessageGcTime = getGcTime();
+                }
+                consumed += records.count();
+            }
+
+            long duration = Math.max(1, System.currentTimeMillis() - firstMessageTime);
+            return String.format(RESULT_MSG_FORMAT, runner, consumed, duration, consumed * 1000.0 / duration,
+                    getGcTime() - firstMessageGcTime);
+        }
+    }
+
+    private static long getGcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+}
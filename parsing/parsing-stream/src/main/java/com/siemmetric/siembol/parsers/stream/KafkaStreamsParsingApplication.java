@@ -0,0 +1,190 @@
+package com.siemmetric.siembol.parsers.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Metrics;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.Topology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.siemmetric.siembol.common.metrics.SiembolMetricsRegistrar;
+import com.siemmetric.siembol.common.metrics.spring.SpringMetricsRegistrar;
+import com.siemmetric.siembol.common.model.KafkaStreamsParsingApplicationAttributesDto;
+import com.siemmetric.siembol.common.storm.KafkaWriterMessage;
+import com.siemmetric.siembol.common.utils.KafkaStreamsFactory;
+import com.siemmetric.siembol.common.utils.KafkaStreamsFactoryImpl;
+import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnector;
+import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnectorFactory;
+import com.siemmetric.siembol.common.zookeeper.ZooKeeperConnectorFactoryImpl;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryAttributes;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryResult;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationUpdater;
+import com.siemmetric.siembol.parsers.netflow.SharedTransportProvider;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.util.Base64;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+/**
+ * A main class of parsing Kafka Streams application
+ *
+ * <p>This class integrates a parsing application into a Kafka Streams topology without Storm.
+ * It parses logs using a parsing application parser initialised from the parser configurations cached in the ZooKeeper,
+ * watches for the parser configurations update in ZooKeeper and
+ * updates the parser without needing to restart the application,
+ * while reusing the parsers with unchanged configurations.
+ * The parsed messages are written to the topics of the parsing results.
+ * The input offsets are committed in batches by Kafka Streams according to the commit interval,
+ * exactly once processing can be enabled by the processing guarantee in the Kafka Streams properties.
+ * It provides the main function that is executed for starting the application.
+ *
+ * @author Marian Novotny
+ * @see ParsingApplicationProcessor
+ * @see ZooKeeperConnector
+ *
+ */
+public class KafkaStreamsParsingApplication implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+    private static final String SOURCE_NAME = "kafka-source";
+    private static final String KAFKA_WRITER = "kafka-writer";
+    private static final int EXPECTED_ARG_SIZE = 2;
+    private static final int STREAMS_ATTR_INDEX = 0;
+    private static final int PARSING_ATTR_INDEX = 1;
+    private static final String WRONG_ARGUMENT_MSG = "Wrong arguments. The application expects " +
+            "Base64 encoded kafka streams attributes and parsing app attributes";
+    private static final String START_INFO_LOG = "Starting parsing application kafka streams: {} " +
+            "with kafka streams attributes: {}\nparsing application attributes: {}";
+    private static final String INIT_START = "Parsing application initialisation start";
+    private static final String INIT_COMPLETED = "Parsing application initialisation completed";
+    private static final Serializer<KafkaWriterMessage> MESSAGE_SERIALIZER =
+            (topic, message) -> message.getMessage().getBytes(UTF_8);
+
+    private final ParsingApplicationUpdater parsingApplicationUpdater;
+    private final ZooKeeperConnector zooKeeperConnector;
+    private final KafkaStreams streams;
+
+    /**
+     * Creates the parsing application
+     *
+     * @param attributes kafka streams parsing application attributes
+     * @param parsingAttributes parsing application attributes
+     * @param zooKeeperConnectorFactory factory for creating the ZooKeeper connector of the parser configurations
+     * @param kafkaStreamsFactory factory for creating kafka streams
+     * @param metricsRegistrar thread safe metrics registrar
+     * @throws Exception if the parsing application can not be initialised
+     */
+    public KafkaStreamsParsingApplication(KafkaStreamsParsingApplicationAttributesDto attributes,
+                                          ParsingApplicationFactoryAttributes parsingAttributes,
+                                          ZooKeeperConnectorFactory zooKeeperConnectorFactory,
+                                          KafkaStreamsFactory kafkaStreamsFactory,
+                                          SiembolMetricsRegistrar metricsRegistrar) throws Exception {
+        LOG.info(INIT_START);
+        SharedTransportProvider.getSharedInstance().registerMetrics(metricsRegistrar);
+        zooKeeperConnector = zooKeeperConnectorFactory.createZookeeperConnector(attributes.getZookeeperAttributes());
+        //NOTE: parser configuration updates are not concurrent, the processors use their own registrars
+        parsingApplicationUpdater = new ParsingApplicationUpdater(parsingAttributes.getApplicationParserSpecification(),
+                zooKeeperConnector,
+                metricsRegistrar.cachedRegistrar());
+        try {
+            parsingApplicationUpdater.initialise();
+        } catch (Exception e) {
+            zooKeeperConnector.close();
+            throw e;
+        }
+
+        Properties properties = attributes.getStreamsProperties().getProperties();
+        properties.put(StreamsConfig.APPLICATION_ID_CONFIG, attributes.getApplicationId(parsingAttributes.getName()));
+        properties.putIfAbsent(StreamsConfig.NUM_STREAM_THREADS_CONFIG,
+                parsingAttributes.getParsingParallelism() * parsingAttributes.getNumWorkers());
+
+        Topology topology = new Topology();
+        topology.addSource(SOURCE_NAME,
+                Serdes.String().deserializer(),
+                Serdes.ByteArray().deserializer(),
+                parsingAttributes.getInputTopics().toArray(new String[0]));
+        //NOTE: the parser is shared by all stream threads, the parsers are thread safe
+        topology.addProcessor(parsingAttributes.getName(),
+                () -> new ParsingApplicationProcessor(parsingApplicationUpdater::getParser,
+                        parsingAttributes,
+                        metricsRegistrar),
+                SOURCE_NAME);
+        topology.addSink(KAFKA_WRITER,
+                (key, message, recordContext) -> message.getTopic(),
+                Serdes.String().serializer(),
+                MESSAGE_SERIALIZER,
+                parsingAttributes.getName());
+
+        streams = kafkaStreamsFactory.createKafkaStreams(topology, properties);
+        LOG.info(INIT_COMPLETED);
+    }
+
+    public KafkaStreamsParsingApplication(KafkaStreamsParsingApplicationAttributesDto attributes,
+                                          ParsingApplicationFactoryAttributes parsingAttributes) throws Exception {
+        this(attributes,
+                parsingAttributes,
+                new ZooKeeperConnectorFactoryImpl(),
+                new KafkaStreamsFactoryImpl(),
+                new SpringMetricsRegistrar(Metrics.globalRegistry));
+    }
+
+    /**
+     * Starts the kafka streams of the application
+     */
+    public void start() {
+        streams.start();
+    }
+
+    /**
+     * Closes the kafka streams and the ZooKeeper connector of the application
+     */
+    @Override
+    public void close() throws IOException {
+        streams.close();
+        zooKeeperConnector.close();
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != EXPECTED_ARG_SIZE) {
+            LOG.error(WRONG_ARGUMENT_MSG);
+            throw new IllegalArgumentException(WRONG_ARGUMENT_MSG);
+        }
+
+        String streamsAttributesStr = new String(Base64.getDecoder().decode(args[STREAMS_ATTR_INDEX]));
+        String parsingAttributesStr = new String(Base64.getDecoder().decode(args[PARSING_ATTR_INDEX]));
+
+        KafkaStreamsParsingApplicationAttributesDto streamsAttributes = new ObjectMapper()
+                .readerFor(KafkaStreamsParsingApplicationAttributesDto.class)
+                .readValue(streamsAttributesStr);
+
+        ParsingApplicationFactoryResult result = new ParsingApplicationFactoryImpl().create(parsingAttributesStr);
+        if (result.getStatusCode() != ParsingApplicationFactoryResult.StatusCode.OK) {
+            throw new IllegalArgumentException(result.getAttributes().getMessage());
+        }
+
+        ParsingApplicationFactoryAttributes parsingAttributes = result.getAttributes();
+        LOG.info(START_INFO_LOG, streamsAttributes.getApplicationId(parsingAttributes.getName()),
+                streamsAttributesStr, parsingAttributesStr);
+
+        var application = new KafkaStreamsParsingApplication(streamsAttributes, parsingAttributes);
+        var shutdownLatch = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                application.close();
+            } catch (IOException e) {
+                LOG.error(ExceptionUtils.getStackTrace(e));
+            }
+            shutdownLatch.countDown();
+        }));
+
+        application.start();
+        shutdownLatch.await();
+    }
+}
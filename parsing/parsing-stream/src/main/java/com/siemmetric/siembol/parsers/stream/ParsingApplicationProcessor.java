@@ -0,0 +1,101 @@
+package com.siemmetric.siembol.parsers.stream;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.processor.api.RecordMetadata;
+import com.siemmetric.siembol.common.metrics.SiembolMetricsRegistrar;
+import com.siemmetric.siembol.common.storm.KafkaWriterMessage;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryAttributes;
+import com.siemmetric.siembol.parsers.application.parsing.ParsingApplicationParser;
+import com.siemmetric.siembol.parsers.application.parsing.ParsingApplicationResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.function.Supplier;
+/**
+ * An object for integration of a parsing application into a Kafka Streams processor
+ *
+ * <p>This class implements a Kafka Streams Processor interface.
+ * It parses records using the current parsing application parser and
+ * forwards the parsed messages along with their output topics.
+ * It obtains the source of a record from the topic or from a header according to the parsing application type.
+ * It updates parsing metrics using its own cached metrics registrar.
+ *
+ * @author Marian Novotny
+ * @see ParsingApplicationParser
+ * @see KafkaStreamsParsingApplication
+ *
+ */
+public class ParsingApplicationProcessor implements Processor<String, byte[], String, KafkaWriterMessage> {
+    private static final String UNKNOWN_SOURCE = "unknown";
+    private static final String UNKNOWN_SOURCE_HEADER = "unknown_header";
+    private static final String UNSUPPORTED_APPLICATION_TYPE = "Unsupported parsing application type: %s";
+
+    private final Supplier<ParsingApplicationParser> parserSupplier;
+    private final ParsingApplicationFactoryAttributes parsingAttributes;
+    private final SiembolMetricsRegistrar metricsRegistrar;
+    private ProcessorContext<String, KafkaWriterMessage> context;
+
+    /**
+     * Creates the processor
+     *
+     * @param parserSupplier supplier of the current parsing application parser
+     * @param parsingAttributes parsing application attributes
+     * @param metricsRegistrar thread safe metrics registrar
+     */
+    public ParsingApplicationProcessor(Supplier<ParsingApplicationParser> parserSupplier,
+                                       ParsingApplicationFactoryAttributes parsingAttributes,
+                                       SiembolMetricsRegistrar metricsRegistrar) {
+        this.parserSupplier = parserSupplier;
+        this.parsingAttributes = parsingAttributes;
+        this.metricsRegistrar = metricsRegistrar.cachedRegistrar();
+    }
+
+    @Override
+    public void init(ProcessorContext<String, KafkaWriterMessage> context) {
+        this.context = context;
+    }
+
+    private String getSource(Record<String, byte[]> record) {
+        switch (parsingAttributes.getApplicationType()) {
+            case SINGLE_PARSER:
+            case ROUTER_PARSING:
+                return UNKNOWN_SOURCE;
+            case TOPIC_ROUTING_PARSING:
+                return context.recordMetadata().map(RecordMetadata::topic).orElse(UNKNOWN_SOURCE);
+            case HEADER_ROUTING_PARSING:
+                Header header = record.headers() != null
+                        ? record.headers().lastHeader(parsingAttributes.getSourceHeaderName())
+                        : null;
+                return header != null && header.value() != null
+                        ? new String(header.value(), StandardCharsets.UTF_8)
+                        : UNKNOWN_SOURCE_HEADER;
+            default:
+                throw new IllegalArgumentException(String.format(UNSUPPORTED_APPLICATION_TYPE,
+                        parsingAttributes.getApplicationType()));
+        }
+    }
+
+    @Override
+    public void process(Record<String, byte[]> record) {
+        ArrayList<ParsingApplicationResult> results = parserSupplier.get()
+                .parse(getSource(record), record.key(), record.value());
+
+        for (var result : results) {
+            if (result.getResultFlags().contains(ParsingApplicationResult.ResultFlag.FILTERED)) {
+                result.forEachCounterName(x -> metricsRegistrar.registerCounter(x).increment());
+                continue;
+            }
+
+            for (String message : result.getMessages()) {
+                //NOTE: the headers of the input record are not propagated to the parsed messages
+                context.forward(new Record<>(null,
+                        new KafkaWriterMessage(result.getTopic(), message),
+                        record.timestamp()));
+                result.forEachCounterName(x -> metricsRegistrar.registerCounter(x).increment());
+            }
+        }
+    }
+}
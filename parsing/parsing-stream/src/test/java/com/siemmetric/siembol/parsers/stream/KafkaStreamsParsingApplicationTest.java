@@ -0,0 +1,223 @@
+package com.siemmetric.siembol.parsers.stream;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import com.siemmetric.siembol.common.constants.SiembolMessageFields;
+import com.siemmetric.siembol.common.metrics.SiembolMetrics;
+import com.siemmetric.siembol.common.metrics.test.SiembolMetricsTestRegistrar;
+import com.siemmetric.siembol.common.model.JsonRawStringDto;
+import com.siemmetric.siembol.common.model.KafkaStreamsParsingApplicationAttributesDto;
+import com.siemmetric.siembol.common.model.ZooKeeperAttributesDto;
+import com.siemmetric.siembol.common.testing.TestingDriverKafkaStreamsFactory;
+import com.siemmetric.siembol.common.testing.TestingZooKeeperConnectorFactory;
+import com.siemmetric.siembol.parsers.application.factory.ParsingApplicationFactoryImpl;
+
+import java.util.Map;
+
+public class KafkaStreamsParsingApplicationTest {
+    private static final ObjectReader JSON_READER = new ObjectMapper()
+            .readerFor(new TypeReference<Map<String, Object>>() {
+            });
+
+    private final String metadata = """
+             {"is_metadata" : true}
+            """;
+
+    private final String simpleSingleApplicationParser = """
+            {
+               "parsing_app_name": "test",
+               "parsing_app_version": 1,
+               "parsing_app_author": "dummy",
+               "parsing_app_description": "Description of parser application",
+               "parsing_app_settings": {
+                 "input_topics": [
+                   "secret"
+                 ],
+                 "parse_metadata" : true,
+                 "error_topic": "error",
+                 "input_parallelism": 1,
+                 "parsing_parallelism": 2,
+                 "output_parallelism": 3,
+                 "parsing_app_type": "single_parser"
+               },
+               "parsing_settings": {
+                 "single_parser": {
+                   "parser_name": "single",
+                   "output_topic": "output"
+                 }
+               }
+             }
+            """;
+
+    private final String testParsersConfigs = """
+             {
+               "parsers_version": 1,
+               "parsers_configurations": [
+                 {
+                   "parser_description": "for testing single app parser",
+                   "parser_version": 2,
+                   "parser_name": "single",
+                   "parser_author": "dummy",
+                   "parser_attributes": {
+                     "parser_type": "generic"
+                   }
+                 }
+               ]
+             }
+            """;
+
+    private final String testParsersConfigsJsonExtractor = """
+            {
+              "parsers_version": 2,
+              "parsers_configurations": [
+                {
+                  "parser_name": "single",
+                  "parser_version": 1,
+                  "parser_author": "dummy",
+                  "parser_attributes": {
+                    "parser_type": "generic"
+                  },
+                  "parser_extractors": [
+                    {
+                      "extractor_type": "json_extractor",
+                      "name": "test",
+                      "field": "original_string",
+                      "attributes": {
+                        "should_remove_field": false,
+                        "thrown_exception_on_error": true
+                      }
+                    }
+                  ],
+                  "transformations" : [
+                    {
+                      "transformation_type": "filter_message",
+                      "attributes": {
+                        "message_filter" : {
+                          "matchers" : [
+                            {
+                              "field_name" : "is_secret",
+                              "pattern" : "true",
+                              "negated" : false
+                            }]
+                        }}}]
+                }
+              ]
+            }
+            """;
+
+    private final String parsersPath = "parsers";
+    private KafkaStreamsParsingApplication application;
+    private TestingZooKeeperConnectorFactory zooKeeperConnectorFactory;
+    private TestingDriverKafkaStreamsFactory streamsFactory;
+    private SiembolMetricsTestRegistrar metricsRegistrar;
+    private TestInputTopic<String, String> inputTopic;
+    private TestOutputTopic<String, String> outputTopic;
+    private TestOutputTopic<String, String> errorTopic;
+
+    @Before
+    public void setUp() throws Exception {
+        var parsingAttributes = new ParsingApplicationFactoryImpl()
+                .create(simpleSingleApplicationParser)
+                .getAttributes();
+
+        var zooKeeperAttributes = new ZooKeeperAttributesDto();
+        zooKeeperAttributes.setZkPath(parsersPath);
+        var attributes = new KafkaStreamsParsingApplicationAttributesDto();
+        attributes.setZookeeperAttributes(zooKeeperAttributes);
+        attributes.setStreamsProperties(new JsonRawStringDto());
+
+        zooKeeperConnectorFactory = new TestingZooKeeperConnectorFactory();
+        zooKeeperConnectorFactory.setData(parsersPath, testParsersConfigs);
+        streamsFactory = new TestingDriverKafkaStreamsFactory(Mockito.mock(KafkaStreams.class));
+        metricsRegistrar = new SiembolMetricsTestRegistrar();
+
+        application = new KafkaStreamsParsingApplication(attributes,
+                parsingAttributes,
+                zooKeeperConnectorFactory,
+                streamsFactory,
+                metricsRegistrar);
+
+        var testDriver = streamsFactory.getTestDriver();
+        inputTopic = testDriver.createInputTopic("secret",
+                Serdes.String().serializer(),
+                Serdes.String().serializer());
+        outputTopic = testDriver.createOutputTopic("output",
+                Serdes.String().deserializer(),
+                Serdes.String().deserializer());
+        errorTopic = testDriver.createOutputTopic("error",
+                Serdes.String().deserializer(),
+                Serdes.String().deserializer());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        application.close();
+        streamsFactory.close();
+    }
+
+    @Test
+    public void parsedOk() throws Exception {
+        inputTopic.pipeInput(metadata, "RAW_LOG");
+        Assert.assertTrue(errorTopic.isEmpty());
+
+        Map<String, Object> parsed = JSON_READER.readValue(outputTopic.readValue());
+        Assert.assertEquals("RAW_LOG", parsed.get(SiembolMessageFields.ORIGINAL.toString()));
+        Assert.assertEquals("single", parsed.get(SiembolMessageFields.SENSOR_TYPE.toString()));
+        Assert.assertEquals(true, parsed.get("metadata_is_metadata"));
+        Assert.assertTrue(outputTopic.isEmpty());
+
+        Assert.assertEquals(1,
+                metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_CONFIGS_UPDATE.getMetricName()));
+        Assert.assertEquals(1,
+                metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_APP_PARSED_MESSAGES.getMetricName()));
+        Assert.assertEquals(1, metricsRegistrar.getCounterValue(
+                SiembolMetrics.PARSING_SOURCE_TYPE_PARSED_MESSAGES.getMetricName("single")));
+    }
+
+    @Test
+    public void updatedParsersFilteredAndError() throws Exception {
+        zooKeeperConnectorFactory.getZooKeeperConnector(parsersPath).setData(testParsersConfigsJsonExtractor);
+        Assert.assertEquals(2,
+                metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_CONFIGS_UPDATE.getMetricName()));
+
+        inputTopic.pipeInput(metadata, """
+                {"is_secret" : true}""");
+        inputTopic.pipeInput(metadata, """
+                {"is_secret" : false}""");
+        inputTopic.pipeInput(metadata, "INVALID");
+
+        Map<String, Object> parsed = JSON_READER.readValue(outputTopic.readValue());
+        Assert.assertEquals(false, parsed.get("is_secret"));
+        Assert.assertTrue(outputTopic.isEmpty());
+
+        Map<String, Object> error = JSON_READER.readValue(errorTopic.readValue());
+        Assert.assertEquals("INVALID", error.get("raw_message"));
+        Assert.assertTrue(errorTopic.isEmpty());
+
+        Assert.assertEquals(1,
+                metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_APP_FILTERED_MESSAGES.getMetricName()));
+        Assert.assertEquals(1,
+                metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_APP_ERROR_MESSAGES.getMetricName()));
+    }
+
+    @Test
+    public void invalidParsersConfigsUpdateKeepsParsers() throws Exception {
+        zooKeeperConnectorFactory.getZooKeeperConnector(parsersPath).setData("INVALID");
+        Assert.assertEquals(1,
+                metricsRegistrar.getCounterValue(SiembolMetrics.PARSING_CONFIGS_ERROR_UPDATE.getMetricName()));
+
+        inputTopic.pipeInput(metadata, "RAW_LOG");
+        Map<String, Object> parsed = JSON_READER.readValue(outputTopic.readValue());
+        Assert.assertEquals("RAW_LOG", parsed.get(SiembolMessageFields.ORIGINAL.toString()));
+    }
+}
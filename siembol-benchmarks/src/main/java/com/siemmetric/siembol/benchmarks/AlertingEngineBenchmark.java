@@ -0,0 +1,109 @@
+package com.siemmetric.siembol.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.siemmetric.siembol.alerts.common.AlertingEngine;
+import com.siemmetric.siembol.alerts.common.AlertingResult;
+import com.siemmetric.siembol.alerts.compiler.AlertingRulesCompiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+/**
+ * A benchmark of evaluating events by an alerting engine
+ *
+ * <p>This class measures the throughput of an alerting engine compiled from generated rules.
+ * Each rule requires a user name by an is_in_set matcher and evaluates a regular expression on the action field.
+ * The events are cycling over the user names of the rules and the user names that are not used by any rule.
+ *
+ * <p>The benchmarks of the module are executed after building the module by:
+ * java -jar siembol-benchmarks/target/benchmarks.jar [benchmark name regex]
+ *
+ * @author  Marian Novotny
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class AlertingEngineBenchmark {
+    private static final int EVENTS_COUNT = 1024;
+    private static final String SOURCE_TYPE = "firewall";
+    private static final String RULES_HEADER = """
+            {
+              "rules_version" : 1,
+              "tags" : [ { "tag_name" : "detection_source", "tag_value" : "alerts" } ],
+              "rules" : [""";
+    private static final String RULES_FOOTER = "]}";
+    private static final String RULE_FORMAT = """
+            {
+              "rule_name" : "rule_%1$d",
+              "rule_version" : 1,
+              "rule_author" : "benchmark",
+              "source_type" : "%2$s",
+              "matchers" : [
+                {
+                  "matcher_type" : "IS_IN_SET",
+                  "is_negated" : false,
+                  "field" : "user",
+                  "data" : "user_%1$d"
+                },
+                {
+                  "matcher_type" : "REGEX_MATCH",
+                  "is_negated" : false,
+                  "field" : "action",
+                  "data" : "^(blocked|denied)$"
+                }
+              ]
+            }""";
+
+    @Param({"100", "1000"})
+    public int rulesCount;
+
+    private AlertingEngine engine;
+    private List<Map<String, Object>> events;
+    private int eventIndex;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<String> rules = new ArrayList<>(rulesCount);
+        for (int i = 0; i < rulesCount; i++) {
+            rules.add(String.format(RULE_FORMAT, i, SOURCE_TYPE));
+        }
+
+        String rulesStr = RULES_HEADER + String.join(",", rules) + RULES_FOOTER;
+        AlertingResult result = AlertingRulesCompiler.createAlertingRulesCompiler().compile(rulesStr);
+        if (result.getStatusCode() != AlertingResult.StatusCode.OK) {
+            throw new IllegalStateException(result.getAttributes().getException());
+        }
+        engine = result.getAttributes().getEngine();
+
+        events = new ArrayList<>(EVENTS_COUNT);
+        for (int i = 0; i < EVENTS_COUNT; i++) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("source_type", SOURCE_TYPE);
+            event.put("user", "user_" + (i * 7) % (2 * rulesCount));
+            event.put("action", i % 2 == 0 ? "blocked" : "allowed");
+            event.put("src_ip", "10.0.0." + i % 256);
+            events.add(event);
+        }
+    }
+
+    @Benchmark
+    public AlertingResult evaluate() {
+        eventIndex = (eventIndex + 1) % EVENTS_COUNT;
+        return engine.evaluate(events.get(eventIndex));
+    }
+}
@@ -0,0 +1,116 @@
+package com.siemmetric.siembol.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.siemmetric.siembol.alerts.common.AlertingFields;
+import com.siemmetric.siembol.alerts.correlationengine.AlertCounterMetadata;
+import com.siemmetric.siembol.alerts.correlationengine.AlertCountersMapStore;
+import com.siemmetric.siembol.alerts.correlationengine.AlertCountersStore;
+import com.siemmetric.siembol.alerts.correlationengine.AlertCountersTimingWheelStore;
+import com.siemmetric.siembol.alerts.correlationengine.CorrelationRule;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.siemmetric.siembol.alerts.common.AlertingTags.CORRELATION_KEY_TAG_NAME;
+/**
+ * A benchmark of cleaning the alert counters of a correlation rule
+ *
+ * <p>This class measures the duration of cleaning the alert counters store of a correlation rule on a tick.
+ * The rule stores the alerts of the correlation keys spread over its time window.
+ * Before each tick the time is advanced by one second and the alerts of the next keys are added,
+ * so the alerts of the same number of keys expire on each tick.
+ * The heap used per correlation key is printed after storing the alerts.
+ *
+ * @author  Marian Novotny
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class CorrelationCountersBenchmark {
+    private static final long TIME_WINDOW_MS = 60000L;
+    private static final long TICK_MS = 1000L;
+    private static final String ALERT_NAME = "alert";
+    private static final String HEAP_PER_KEY_MSG = "%s store: %d bytes of heap per correlation key%n";
+
+    @Param({"100000"})
+    public int keysCount;
+
+    @Param({"map", "wheel"})
+    public String store;
+
+    private CorrelationRule rule;
+    private long currentTime;
+    private int nextKey;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AlertCountersStore alertCountersStore = "map".equals(store)
+                ? new AlertCountersMapStore()
+                : new AlertCountersTimingWheelStore();
+        rule = CorrelationRule.builder()
+                .alertCountersStore(alertCountersStore)
+                .timeWindowInMs(TIME_WINDOW_MS)
+                .maxLagTimeInSec(0)
+                .addAlertCounter(ALERT_NAME, 10, EnumSet.noneOf(AlertCounterMetadata.Flags.class))
+                .fieldNamesToSend(List.of("user"))
+                .name("benchmark")
+                .version(1)
+                .build();
+
+        long usedBefore = getUsedHeap();
+        for (int i = 0; i < keysCount; i++) {
+            currentTime = i * TIME_WINDOW_MS / keysCount;
+            addAlert();
+        }
+        System.out.printf(HEAP_PER_KEY_MSG, store, (getUsedHeap() - usedBefore) / keysCount);
+    }
+
+    @Setup(Level.Invocation)
+    public void nextTick() {
+        currentTime += TICK_MS;
+        int keysPerTick = (int) (keysCount * TICK_MS / TIME_WINDOW_MS);
+        for (int i = 0; i < keysPerTick; i++) {
+            addAlert();
+        }
+    }
+
+    @Benchmark
+    public void clean() {
+        rule.clean(currentTime);
+    }
+
+    private void addAlert() {
+        String key = "key_" + nextKey;
+        nextKey = (nextKey + 1) % keysCount;
+
+        Map<String, Object> alert = new HashMap<>();
+        alert.put(AlertingFields.RULE_NAME.getAlertingName(), ALERT_NAME);
+        alert.put(CORRELATION_KEY_TAG_NAME.toString(), key);
+        alert.put(AlertingFields.PROCESSING_TIME.getCorrelationAlertingName(), currentTime);
+        alert.put("user", key);
+        rule.match(alert);
+    }
+
+    private static long getUsedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
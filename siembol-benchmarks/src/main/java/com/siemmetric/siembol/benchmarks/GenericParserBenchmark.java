@@ -0,0 +1,171 @@
+package com.siemmetric.siembol.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.siemmetric.siembol.parsers.common.SiembolParser;
+import com.siemmetric.siembol.parsers.factory.ParserFactoryImpl;
+import com.siemmetric.siembol.parsers.factory.ParserFactoryResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+/**
+ * A benchmark of parsing messages by generic parsers
+ *
+ * <p>This class measures the throughput of generic parsers created by the parser factory.
+ * The parser configurations represent typical firewall logs: a syslog header with a key value body,
+ * a json log and a csv log with the column names selected by the log type. The number of allocated bytes per message is reported by running the benchmark with
+ * the gc profiler: -prof gc.
+ *
+ * @author  Marian Novotny
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class GenericParserBenchmark {
+    private static final String PARSER_FORMAT = """
+            {
+              "parser_name": "benchmark",
+              "parser_version": 1,
+              "parser_author": "benchmark",
+              "parser_attributes": {
+                "parser_type": "generic"
+              },
+              "parser_extractors": [%s],
+              "transformations": [
+                {
+                  "transformation_type": "field_name_string_replace_all",
+                  "attributes": {
+                    "string_replace_target": "-",
+                    "string_replace_replacement": "_"
+                  }
+                }
+              ]
+            }
+            """;
+
+    private static final String KEY_VALUE_EXTRACTORS = """
+            {
+              "extractor_type": "pattern_extractor",
+              "name": "header",
+              "field": "original_string",
+              "attributes": {
+                "regular_expressions": [
+                  "^(?<syslog_time>\\\\S+) (?<host>\\\\S+) (?<body>.*)$"
+                ],
+                "should_remove_field": false
+              }
+            },
+            {
+              "extractor_type": "key_value_extractor",
+              "name": "body",
+              "field": "body",
+              "attributes": {
+                "should_remove_field": true,
+                "remove_quotes": true,
+                "quota_value_handling": true
+              }
+            }""";
+
+    private static final String KEY_VALUE_LOG = "2023-01-01T10:00:00Z fw-01 src=10.0.0.1 dst=10.0.0.2 sport=51234 "
+            + "dport=443 proto=tcp action=allow user=\"john smith\" bytes-in=1234 bytes-out=5678 rule=17 "
+            + "policy=\"default outbound\" zone-src=inside zone-dst=outside app=ssl duration=12";
+
+    private static final String CSV_EXTRACTORS = """
+            {
+              "extractor_type": "csv_extractor",
+              "name": "csv",
+              "field": "original_string",
+              "attributes": {
+                "should_remove_field": false,
+                "word_delimiter": ",",
+                "skipping_column_name": "_",
+                "column_names": [
+                  {
+                    "column_filter": { "index": 3, "required_value": "THREAT" },
+                    "names": ["receive_time", "serial", "_", "type", "subtype", "src", "dst", "rule", "user",
+                      "app", "sport", "dport", "proto", "action", "threat_id", "severity", "direction"]
+                  },
+                  {
+                    "column_filter": { "index": 3, "required_value": "TRAFFIC" },
+                    "names": ["receive_time", "serial", "_", "type", "subtype", "src", "dst", "rule", "user",
+                      "app", "sport", "dport", "proto", "action", "bytes_in", "bytes_out", "duration"]
+                  }
+                ]
+              }
+            }""";
+
+    private static final String CSV_LOG = "2023/01/01 10:00:00,001801000001,1,TRAFFIC,end,10.0.0.1,10.0.0.2,"
+            + "\"default outbound\",\"john smith\",ssl,51234,443,tcp,allow,1234,5678,12";
+
+    private static final String JSON_EXTRACTORS = """
+            {
+              "extractor_type": "json_extractor",
+              "name": "json",
+              "field": "original_string",
+              "attributes": {
+                "should_remove_field": false,
+                "nested_separator": "_"
+              }
+            }""";
+
+    private static final String JSON_LOG = "{\"timestamp\":1672567200000,\"device\":{\"name\":\"fw-01\","
+            + "\"zone\":\"inside\"},\"src\":\"10.0.0.1\",\"dst\":\"10.0.0.2\",\"sport\":51234,\"dport\":443,"
+            + "\"proto\":\"tcp\",\"action\":\"allow\",\"user\":\"john smith\",\"bytes-in\":1234,\"bytes-out\":5678,"
+            + "\"rule\":{\"id\":17,\"policy\":\"default outbound\"},\"app\":\"ssl\",\"duration\":12}";
+
+    @Param({"key_value", "json", "csv"})
+    public String log;
+
+    private SiembolParser parser;
+    private byte[] message;
+
+    @Setup
+    public void setUp() throws Exception {
+        String extractors;
+        String logStr;
+        switch (log) {
+            case "key_value":
+                extractors = KEY_VALUE_EXTRACTORS;
+                logStr = KEY_VALUE_LOG;
+                break;
+            case "json":
+                extractors = JSON_EXTRACTORS;
+                logStr = JSON_LOG;
+                break;
+            case "csv":
+                extractors = CSV_EXTRACTORS;
+                logStr = CSV_LOG;
+                break;
+            default:
+                throw new IllegalArgumentException(log);
+        }
+
+        ParserFactoryResult result = ParserFactoryImpl.createParserFactory()
+                .create(String.format(PARSER_FORMAT, extractors));
+        if (result.getStatusCode() != ParserFactoryResult.StatusCode.OK) {
+            throw new IllegalStateException(result.getAttributes().getMessage());
+        }
+
+        parser = result.getAttributes().getSiembolParser();
+        message = logStr.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> parse() {
+        return parser.parse(message);
+    }
+}
@@ -0,0 +1,53 @@
+package com.siemmetric.siembol.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.siemmetric.siembol.parsers.netflow.SiembolNetflowParser;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+/**
+ * A benchmark of parsing netflow v9 messages
+ *
+ * <p>This class measures the throughput of the netflow parser on a captured netflow v9 packet
+ * from the test resources of parsing-core. The packet contains a template and 30 data records.
+ * The number of allocated bytes per packet is reported by running the benchmark with the gc profiler: -prof gc.
+ *
+ * @author  Marian Novotny
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class NetflowParserBenchmark {
+    private static final String PACKET_RESOURCE = "/example2.netflow9";
+    private static final String SOURCE = "10.16.22.254";
+
+    private SiembolNetflowParser parser;
+    private byte[] packet;
+
+    @Setup
+    public void setUp() throws Exception {
+        try (InputStream inputStream = NetflowParserBenchmark.class.getResourceAsStream(PACKET_RESOURCE)) {
+            packet = inputStream.readAllBytes();
+        }
+        parser = new SiembolNetflowParser();
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> parse() {
+        return parser.parse(SOURCE, packet);
+    }
+}
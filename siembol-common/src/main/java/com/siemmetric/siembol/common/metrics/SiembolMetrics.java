@@ -10,9 +10,12 @@ public enum SiembolMetrics {
     PARSING_CONFIGS_UPDATE("siembol_counter_parsing_configs_update"),
     PARSING_CONFIGS_ERROR_UPDATE("siembol_counter_parsing_configs_error_update"),
     PARSING_CONFIGS_UPDATE_VERSION("siembol_gauge_parsing_configs_update"),
+    PARSING_CONFIGS_UPDATE_LATENCY_MS("siembol_gauge_parsing_configs_update_latency_ms"),
+    PARSING_CONFIGS_REBUILT_PARSERS("siembol_counter_parsing_configs_rebuilt_parsers"),
 
     PARSING_SOURCE_TYPE_PARSED_MESSAGES("siembol_counter_parsed_messages_%s"),
     PARSING_SOURCE_TYPE_FILTERED_MESSAGES("siembol_counter_filtered_messages_%s"),
+    PARSING_SOURCE_TYPE_EARLY_FILTERED_MESSAGES("siembol_counter_early_filtered_messages_%s"),
     PARSING_SOURCE_TYPE_REMOVED_FIELDS_MESSAGES("siembol_counter_removed_fields_messages_%s"),
     PARSING_SOURCE_TYPE_TRUNCATED_FIELDS_MESSAGES("siembol_counter_truncated_fields_messages_%s"),
     PARSING_SOURCE_TYPE_TRUNCATED_ORIGINAL_STRING_MESSAGES(
@@ -22,6 +25,9 @@ public enum SiembolMetrics {
     PARSING_APP_PARSED_MESSAGES("siembol_counter_app_parsed_messages"),
     PARSING_APP_FILTERED_MESSAGES("siembol_counter_app_filtered_messages"),
     PARSING_APP_ERROR_MESSAGES("siembol_counter_app_error_messages"),
+    PARSING_NETFLOW_BUFFERED_DATA_SETS("siembol_counter_netflow_buffered_data_sets"),
+    PARSING_NETFLOW_EXPIRED_DATA_SETS("siembol_counter_netflow_expired_data_sets"),
+    PARSING_NETFLOW_DECODED_BUFFERED_RECORDS("siembol_counter_netflow_decoded_buffered_records"),
 
     ENRICHMENT_RULES_UPDATE("siembol_counter_enrichment_rules_update"),
     ENRICHMENT_RULES_ERROR_UPDATE("siembol_counter_enrichment_rules_error_update"),
@@ -27,6 +27,34 @@ public class AlertingStormAttributesDto extends AdminConfigDto implements Serial
     @Attributes(description = "The number of seconds for cleaning correlation context", minimum = 1)
     @JsonProperty("alerts.engine.clean.interval.sec")
     private Integer alertingEngineCleanIntervalSec = 1;
+    @Attributes(description = "Evaluating regular expressions without named groups by finite automata " +
+            "shared by rules matching the same field")
+    @JsonProperty("alerts.engine.regex.automata")
+    private Boolean regexAutomata = false;
+    @Attributes(description = "The number of partitions of the rules that evaluate an event in parallel " +
+            "on the shared fork join pool", minimum = 1)
+    @JsonProperty("alerts.engine.rules.partitions")
+    private Integer rulesPartitions = 1;
+    @Attributes(description = "The maximum number of tuples with alerts or exceptions that are emitted " +
+            "together in one tuple to the kafka writer bolt", minimum = 1)
+    @JsonProperty("alerts.engine.batch.size")
+    private Integer batchSize = 1;
+    @Attributes(description = "The maximum time in milliseconds for collecting a batch of tuples " +
+            "before emitting it, 0 means that the batch is emitted when it is full or on a tick tuple every second", minimum = 0)
+    @JsonProperty("alerts.engine.batch.linger.ms")
+    private Integer batchLingerMs = 0;
+    @Attributes(description = "Counting the rule matches for the rule protection by all executors in the worker")
+    @JsonProperty("alerts.rule.protection.shared")
+    private Boolean sharedRuleProtection = false;
+    @Attributes(description = "The directory for checkpoints of the correlation state. " +
+            "It should be shared by all supervisors to restore the state after moving an executor. " +
+            "The state is restored only if the number of tasks is unchanged. " +
+            "The state is not checkpointed if it is not set")
+    @JsonProperty("alerts.engine.checkpoint.dir")
+    private String checkpointDir;
+    @Attributes(description = "The number of seconds between checkpoints of the correlation state", minimum = 1)
+    @JsonProperty("alerts.engine.checkpoint.interval.sec")
+    private Integer checkpointIntervalSec = 60;
     @Attributes(required = true, description = "The kafka input topics for reading messages", minItems = 1)
     @JsonProperty("alerts.input.topics")
     private List<String> inputTopics;
@@ -82,6 +110,62 @@ public class AlertingStormAttributesDto extends AdminConfigDto implements Serial
         this.alertingEngineCleanIntervalSec = AlertingEngineCleanIntervalSec;
     }
 
+    public Boolean getRegexAutomata() {
+        return regexAutomata;
+    }
+
+    public void setRegexAutomata(Boolean regexAutomata) {
+        this.regexAutomata = regexAutomata;
+    }
+
+    public Integer getRulesPartitions() {
+        return rulesPartitions;
+    }
+
+    public void setRulesPartitions(Integer rulesPartitions) {
+        this.rulesPartitions = rulesPartitions;
+    }
+
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Integer getBatchLingerMs() {
+        return batchLingerMs;
+    }
+
+    public void setBatchLingerMs(Integer batchLingerMs) {
+        this.batchLingerMs = batchLingerMs;
+    }
+
+    public Boolean getSharedRuleProtection() {
+        return sharedRuleProtection;
+    }
+
+    public void setSharedRuleProtection(Boolean sharedRuleProtection) {
+        this.sharedRuleProtection = sharedRuleProtection;
+    }
+
+    public String getCheckpointDir() {
+        return checkpointDir;
+    }
+
+    public void setCheckpointDir(String checkpointDir) {
+        this.checkpointDir = checkpointDir;
+    }
+
+    public Integer getCheckpointIntervalSec() {
+        return checkpointIntervalSec;
+    }
+
+    public void setCheckpointIntervalSec(Integer checkpointIntervalSec) {
+        this.checkpointIntervalSec = checkpointIntervalSec;
+    }
+
     public List<String> getInputTopics() {
         return inputTopics;
     }
@@ -0,0 +1,69 @@
+package com.siemmetric.siembol.common.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.reinert.jjschema.Attributes;
+import com.github.reinert.jjschema.SchemaIgnore;
+
+import java.io.Serializable;
+/**
+ * A data transfer object for representing a Kafka Streams parsing application admin configuration
+ *
+ * <p>This class is used for json (de)serialisation of a Kafka Streams parsing application admin configuration and
+ * for generating json schema from this class using annotations.
+ *
+ * @author  Marian Novotny
+ * @see com.github.reinert.jjschema.Attributes
+ * @see com.fasterxml.jackson.annotation.JsonProperty
+ * @see ZooKeeperAttributesDto
+ * @see JsonRawStringDto
+ */
+@Attributes(title = "kafka streams parsing application attributes",
+        description = "Kafka Streams parsing application attributes")
+public class KafkaStreamsParsingApplicationAttributesDto extends AdminConfigDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final String APPLICATION_ID_FORMAT_MSG = "%s.%s";
+
+    @Attributes(description = "The prefix that will be used to create a kafka streams application id " +
+            "using application name", required = true)
+    @JsonProperty("application.id.prefix")
+    private String applicationIdPrefix = "siembol.parsing.stream";
+    @JsonProperty("zookeeper.attributes")
+    @Attributes(description = "Zookeeper attributes for updating parser configurations",
+            required = true)
+    private ZooKeeperAttributesDto zookeeperAttributes;
+    @Attributes(description = "Kafka streams properties such as bootstrap servers, processing guarantee, " +
+            "number of stream threads and commit interval", required = true)
+    @JsonProperty("streams.properties")
+    private JsonRawStringDto streamsProperties;
+
+    public String getApplicationIdPrefix() {
+        return applicationIdPrefix;
+    }
+
+    public void setApplicationIdPrefix(String applicationIdPrefix) {
+        this.applicationIdPrefix = applicationIdPrefix;
+    }
+
+    public ZooKeeperAttributesDto getZookeeperAttributes() {
+        return zookeeperAttributes;
+    }
+
+    public void setZookeeperAttributes(ZooKeeperAttributesDto zookeeperAttributes) {
+        this.zookeeperAttributes = zookeeperAttributes;
+    }
+
+    public JsonRawStringDto getStreamsProperties() {
+        return streamsProperties;
+    }
+
+    public void setStreamsProperties(JsonRawStringDto streamsProperties) {
+        this.streamsProperties = streamsProperties;
+    }
+
+    @SchemaIgnore
+    @JsonIgnore
+    public String getApplicationId(String parsingAppName) {
+        return String.format(APPLICATION_ID_FORMAT_MSG, applicationIdPrefix, parsingAppName);
+    }
+}
@@ -50,6 +50,15 @@ public class StormParsingApplicationAttributesDto extends AdminConfigDto impleme
     @JsonProperty("storm.attributes")
     private StormAttributesDto stormAttributes;
 
+    @Attributes(description = "The maximum number of parsed tuples that are emitted together " +
+            "in one tuple to the kafka writer bolt", minimum = 1)
+    @JsonProperty("parsing.batch.size")
+    private Integer batchSize = 1;
+    @Attributes(description = "The maximum time in milliseconds for collecting a batch of parsed tuples " +
+            "before emitting it, 0 means that the batch is emitted when it is full or on a tick tuple every second", minimum = 0)
+    @JsonProperty("parsing.batch.linger.ms")
+    private Integer batchLingerMs = 0;
+
     @Attributes(title = "overridden applications",
             description = "List of overridden settings for individual parsing applications")
     @JsonProperty("overridden.applications")
@@ -104,6 +113,22 @@ public class StormParsingApplicationAttributesDto extends AdminConfigDto impleme
         this.overriddenApplications = overriddenApplications;
     }
 
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Integer getBatchLingerMs() {
+        return batchLingerMs;
+    }
+
+    public void setBatchLingerMs(Integer batchLingerMs) {
+        this.batchLingerMs = batchLingerMs;
+    }
+
     public String getTopologyNamePrefix() {
         return topologyNamePrefix;
     }
@@ -0,0 +1,119 @@
+package com.siemmetric.siembol.common.storm;
+
+import org.apache.storm.task.OutputCollector;
+import org.apache.storm.tuple.Tuple;
+import org.apache.storm.tuple.Values;
+import com.siemmetric.siembol.common.utils.TimeProvider;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.storm.utils.TupleUtils.putTickFrequencyIntoComponentConfig;
+/**
+ * An object for collecting a batch of tuples in a Storm bolt
+ *
+ * <p>This class collects input tuples of a bolt in order to emit one tuple anchored to all tuples of the batch.
+ * The batch should be emitted when it reaches the batch size or when the linger time elapsed.
+ * The linger time equal to zero means that the batch is emitted only when it is full or on a tick tuple.
+ * Values of the emitted tuple are collected by the bolt.
+ *
+ * @author  Marian Novotny
+ */
+public class StormTupleBatch implements Serializable {
+    private static final long serialVersionUID = 1L;
+    private static final int MIN_TICK_FREQUENCY_SEC = 1;
+    private final int batchSize;
+    private final int lingerMs;
+    private final TimeProvider timeProvider;
+    private List<Tuple> tuples = new ArrayList<>();
+    private long startTime;
+
+    /**
+     * Creates a tuple batch
+     *
+     * @param batchSize the maximum number of tuples in the batch, the batching is disabled if it is not greater than 1
+     * @param lingerMs the maximum time in milliseconds for collecting the batch, 0 means no time limit
+     * @param timeProvider time provider
+     */
+    public StormTupleBatch(int batchSize, int lingerMs, TimeProvider timeProvider) {
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.timeProvider = timeProvider;
+    }
+
+    public StormTupleBatch(int batchSize, int lingerMs) {
+        this(batchSize, lingerMs, new TimeProvider());
+    }
+
+    /**
+     * Checks whether the batching is enabled
+     *
+     * @return true if the batch size is greater than 1
+     */
+    public boolean isEnabled() {
+        return batchSize > 1;
+    }
+
+    /**
+     * Provides a component configuration of the bolt
+     *
+     * @return the component configuration with the tick tuple frequency if the batching is enabled, otherwise null
+     */
+    public Map<String, Object> getComponentConfiguration() {
+        //NOTE: tick tuples are used for emitting the batch if no other tuple arrives during the linger time
+        return isEnabled()
+                ? putTickFrequencyIntoComponentConfig(null, getTickFrequencySec())
+                : null;
+    }
+
+    /**
+     * Provides a component configuration of the bolt that requires tick tuples also for other purposes
+     *
+     * @param tickFrequencySec the tick tuple frequency in seconds required by the bolt
+     * @return the component configuration with the minimum of the required tick frequency and
+     *         the tick frequency of the batch if the batching is enabled
+     */
+    public Map<String, Object> getComponentConfiguration(int tickFrequencySec) {
+        return putTickFrequencyIntoComponentConfig(null, isEnabled()
+                ? Math.min(tickFrequencySec, getTickFrequencySec())
+                : tickFrequencySec);
+    }
+
+    private int getTickFrequencySec() {
+        return Math.max(MIN_TICK_FREQUENCY_SEC, (lingerMs + 999) / 1000);
+    }
+
+    /**
+     * Adds a tuple into the batch
+     *
+     * @param tuple an input tuple
+     * @return true if the batch should be emitted, otherwise false
+     */
+    public boolean add(Tuple tuple) {
+        long currentTime = timeProvider.getCurrentTimeInMs();
+        if (tuples.isEmpty()) {
+            startTime = currentTime;
+        }
+
+        tuples.add(tuple);
+        return tuples.size() >= batchSize || (lingerMs > 0 && currentTime - startTime >= lingerMs);
+    }
+
+    public boolean isEmpty() {
+        return tuples.isEmpty();
+    }
+
+    /**
+     * Emits one tuple anchored to all tuples of the batch, acknowledges them and clears the batch
+     *
+     * @param collector output collector of the bolt
+     * @param values values of the emitted tuple
+     */
+    public void emit(OutputCollector collector, Values values) {
+        collector.emit(tuples, values);
+        tuples.forEach(collector::ack);
+        tuples = new ArrayList<>();
+    }
+}
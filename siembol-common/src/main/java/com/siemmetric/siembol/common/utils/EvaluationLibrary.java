@@ -3,9 +3,11 @@ package com.siemmetric.siembol.common.utils;
 import org.apache.commons.beanutils.BeanUtils;
 import org.apache.commons.beanutils.PropertyUtils;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 /**
@@ -72,6 +74,15 @@ public class EvaluationLibrary {
          return numVariableMatches == numVariableStartMatches && numVariableMatches > 0;
     }
 
+    public static Set<String> getVariableNames(String str) {
+        Set<String> ret = new HashSet<>();
+        Matcher variableMatcher = VARIABLE_PATTERN.matcher(str);
+        while (variableMatcher.find()) {
+            ret.add(str.substring(variableMatcher.start() + VARIABLE_START_LEN, variableMatcher.end() - 1));
+        }
+        return ret;
+    }
+
 
     public static Object substituteBean(Object obj, Map<String, Object> event) throws Exception {
         return substituteBean(obj, event, null);
@@ -1,5 +1,6 @@
 package com.siemmetric.siembol.common.utils;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 /**
  * An object that implements a time provider
@@ -8,7 +9,9 @@ import java.time.LocalDateTime;
  *
  * @author  Marian Novotny
  */
-public class TimeProvider {
+public class TimeProvider implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public int getDays() {
         return LocalDateTime.now().getDayOfYear();
     }